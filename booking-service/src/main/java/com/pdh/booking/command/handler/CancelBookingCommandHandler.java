@@ -5,6 +5,7 @@ import com.pdh.booking.model.Booking;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.repository.BookingRepository;
 import com.pdh.booking.service.BookingOutboxEventService;
+import com.pdh.booking.service.BookingStatusStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -25,6 +26,7 @@ public class CancelBookingCommandHandler {
     
     private final BookingRepository bookingRepository;
     private final BookingOutboxEventService outboxEventService;
+    private final BookingStatusStreamService bookingStatusStreamService;
     
     @Transactional
     public void handle(CancelBookingCommand command) {
@@ -44,6 +46,7 @@ public class CancelBookingCommandHandler {
             booking.setCancellationReason(command.getCancellationReason());
             booking.setCancelledAt(ZonedDateTime.now());
             bookingRepository.save(booking);
+            bookingStatusStreamService.publishAfterCommit(booking.getBookingId());
             
             // Publish cancellation command event to saga orchestrator
             outboxEventService.publishEvent(
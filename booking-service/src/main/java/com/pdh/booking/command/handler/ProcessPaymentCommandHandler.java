@@ -5,6 +5,7 @@ import com.pdh.booking.model.Booking;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.repository.BookingRepository;
 import com.pdh.booking.service.BookingOutboxEventService;
+import com.pdh.booking.service.BookingStatusStreamService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -24,6 +25,7 @@ public class ProcessPaymentCommandHandler {
     
     private final BookingRepository bookingRepository;
     private final BookingOutboxEventService outboxEventService;
+    private final BookingStatusStreamService bookingStatusStreamService;
     
     @Transactional
     public void handle(ProcessPaymentCommand command) {
@@ -48,6 +50,7 @@ public class ProcessPaymentCommandHandler {
             // Update booking status
             booking.setStatus(BookingStatus.PAYMENT_PENDING);
             bookingRepository.save(booking);
+            bookingStatusStreamService.publishAfterCommit(booking.getBookingId());
             
             // Publish payment command event to saga orchestrator
             outboxEventService.publishEvent(
@@ -0,0 +1,28 @@
+package com.pdh.booking.config;
+
+import com.pdh.booking.service.BookingStatusStreamService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Subscribes each replica to the booking status channel so streams fan out across instances.
+ */
+@Configuration
+public class BookingStatusStreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer bookingStatusListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        BookingStatusStreamService statusStreamService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+            (message, pattern) -> statusStreamService.onStatusMessage(new String(message.getBody(), StandardCharsets.UTF_8)),
+            new ChannelTopic(statusStreamService.getChannel()));
+        return container;
+    }
+}
@@ -1,6 +1,7 @@
 package com.pdh.booking.controller;
 
 import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.dto.response.BookingSearchPageDto;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.model.enums.BookingType;
 import com.pdh.booking.service.BackofficeBookingService;
@@ -208,20 +209,23 @@ public class BackofficeBookingController {
     }
 
     /**
-     * Advanced search with multiple JSONB criteria
+     * Advanced search with multiple JSONB criteria, paged by cursor (pass back nextCursor for the next page)
      */
     @PostMapping("/advanced-search")
-    public ResponseEntity<Page<Booking>> advancedSearch(
+    public ResponseEntity<BookingSearchPageDto> advancedSearch(
             @RequestBody Map<String, Object> searchCriteria,
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "20") int size) {
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         log.info("Performing advanced search with criteria: {}", searchCriteria);
         
-        Pageable pageable = PageRequest.of(page, size);
-        Page<Booking> bookings = backofficeBookingService.advancedSearch(searchCriteria, pageable);
-        
-        return ResponseEntity.ok(bookings);
+        try {
+            return ResponseEntity.ok(backofficeBookingService.advancedSearch(searchCriteria, cursor, size, includeTotal));
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected advanced search: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     /**
@@ -12,10 +12,10 @@ import com.pdh.booking.mapper.BookingDtoMapper;
 import com.pdh.booking.model.Booking;
 import com.pdh.booking.service.BookingCqrsService;
 import com.pdh.booking.service.BookingService;
+import com.pdh.booking.service.BookingStatusStreamService;
 import com.pdh.booking.service.ProductDetailsService;
 import com.pdh.booking.service.StorefrontProductDetailsAssembler;
 import com.pdh.booking.saga.BookingSagaOrchestrator;
-import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.common.config.OpenApiResponses;
 import com.pdh.common.utils.AuthenticationUtils;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -37,9 +37,11 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.validation.Valid;
 
@@ -64,6 +66,7 @@ public class BookingController {
     private final BookingSagaOrchestrator bookingSagaOrchestrator;
     private final StorefrontProductDetailsAssembler storefrontProductDetailsAssembler;
     private final ProductDetailsService productDetailsService;
+    private final BookingStatusStreamService bookingStatusStreamService;
     @Value("${booking.validation.bypass:true}")
     private boolean bypassValidation;
 
@@ -367,43 +370,7 @@ public class BookingController {
 
             Booking booking = bookingOpt.get();
 
-            BookingStatus effectiveStatus = booking.getStatus();
-            if (bypassValidation && effectiveStatus == BookingStatus.VALIDATION_PENDING) {
-                effectiveStatus = BookingStatus.PENDING;
-            }
-
-            String reason = firstNonBlank(booking.getCancellationReason(), booking.getCompensationReason());
-            BookingStatusResponseDto response = BookingStatusResponseDto.builder()
-                .bookingId(booking.getBookingId().toString())
-                .bookingReference(booking.getBookingReference())
-                .status(effectiveStatus)
-                .lastUpdated(booking.getUpdatedAt() != null ? booking.getUpdatedAt().toString() : null)
-                .progressPercentage(resolveProgress(effectiveStatus))
-                .reservationLockedAt(booking.getReservationLockedAt() != null ? booking.getReservationLockedAt().toString() : null)
-                .reservationExpiresAt(booking.getReservationExpiresAt() != null ? booking.getReservationExpiresAt().toString() : null)
-                .build();
-
-            switch (effectiveStatus) {
-                case VALIDATION_PENDING -> {
-                    response.setMessage("Validating product availability...");
-                    response.setEstimatedCompletion("2-5 seconds");
-                }
-                case PENDING -> {
-                    response.setMessage("Processing your booking...");
-                    response.setEstimatedCompletion("10-30 seconds");
-                }
-                case PAYMENT_PENDING -> {
-                    response.setMessage("Waiting for payment processing...");
-                    response.setEstimatedCompletion("5-15 seconds");
-                }
-                case CONFIRMED -> response.setMessage("Booking confirmed successfully!");
-                case PAID -> response.setMessage("Payment completed successfully!");
-                case PAYMENT_FAILED -> response.setMessage(reason != null ? reason : "Payment processing failed");
-                case CANCELLED -> response.setMessage(reason != null ? reason : "Booking has been cancelled");
-                case VALIDATION_FAILED -> response.setMessage(reason != null ? reason : "Product availability validation failed");
-                case FAILED -> response.setMessage(reason != null ? reason : "Booking processing failed");
-                default -> response.setMessage("Unknown status");
-            }
+            BookingStatusResponseDto response = bookingDtoMapper.toStatusResponseDto(booking, bypassValidation);
 
             return ResponseEntity.ok(response);
 
@@ -413,24 +380,25 @@ public class BookingController {
         }
     }
 
-    private int resolveProgress(BookingStatus status) {
-        return switch (status) {
-            case VALIDATION_PENDING -> 10;
-            case PENDING -> 40;
-            case PAYMENT_PENDING -> 70;
-            case CONFIRMED, PAID, CANCELLED, FAILED, PAYMENT_FAILED, VALIDATION_FAILED -> 100;
-            default -> 0;
-        };
-    }
-
-    private String firstNonBlank(String primary, String secondary) {
-        if (primary != null && !primary.isBlank()) {
-            return primary;
-        }
-        if (secondary != null && !secondary.isBlank()) {
-            return secondary;
-        }
-        return null;
+    /**
+     * Stream booking status changes (Storefront) as server-sent events
+     * Sends the current status on connect and every saga transition after it, closing on a final status
+     */
+    @Operation(
+        summary = "Stream booking status",
+        description = "Server-sent events carrying the booking status on every state transition; replaces status polling",
+        tags = {"Public API", "Status Tracking"}
+    )
+    @SecurityRequirement(name = "oauth2", scopes = {"customer"})
+    @OpenApiResponses.StandardApiResponsesWithNotFound
+    @GetMapping(value = "/storefront/{bookingId}/status/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamBookingStatus(
+            @Parameter(description = "Booking ID", required = true, example = "123e4567-e89b-12d3-a456-426614174000")
+            @PathVariable UUID bookingId) {
+        UUID userId = AuthenticationUtils.getCurrentUserIdFromContext();
+        Booking booking = bookingCqrsService.getBookingById(bookingId, userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+        return bookingStatusStreamService.subscribe(booking);
     }
 
 }
@@ -0,0 +1,30 @@
+package com.pdh.booking.kafka.config;
+
+import com.pdh.common.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.pdh.common.kafka.cdc.message.BookingCdcMessage;
+import com.pdh.common.kafka.config.KafkaListenerProfiles;
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Typed listener factory for bookings CDC events feeding the daily booking statistics rollup.
+ * Uses the throughput profile: the consumer receives whole polls and offsets are committed once per batch.
+ */
+@Configuration
+public class BookingCdcKafkaListenerConfig extends BaseKafkaListenerConfig<String, BookingCdcMessage> {
+
+    private final KafkaListenerProfiles kafkaListenerProfiles;
+
+    public BookingCdcKafkaListenerConfig(KafkaProperties kafkaProperties, KafkaListenerProfiles kafkaListenerProfiles) {
+        super(String.class, BookingCdcMessage.class, kafkaProperties);
+        this.kafkaListenerProfiles = kafkaListenerProfiles;
+    }
+
+    @Bean("bookingCdcListenerContainerFactory")
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<String, BookingCdcMessage> listenerContainerFactory() {
+        return kafkaListenerProfiles.apply(KafkaListenerProfiles.THROUGHPUT, kafkaListenerContainerFactory());
+    }
+}
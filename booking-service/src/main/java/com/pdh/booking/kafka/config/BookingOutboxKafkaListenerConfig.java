@@ -2,10 +2,20 @@ package com.pdh.booking.kafka.config;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.pdh.common.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.pdh.common.kafka.config.KafkaListenerProfiles;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
 
 /**
  * Shared Kafka listener configuration for Debezium outbox topics that publish booking saga events.
@@ -13,8 +23,11 @@ import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 @Configuration
 public class BookingOutboxKafkaListenerConfig extends BaseKafkaListenerConfig<String, JsonNode> {
 
-    public BookingOutboxKafkaListenerConfig(KafkaProperties kafkaProperties) {
+    private final KafkaListenerProfiles kafkaListenerProfiles;
+
+    public BookingOutboxKafkaListenerConfig(KafkaProperties kafkaProperties, KafkaListenerProfiles kafkaListenerProfiles) {
         super(String.class, JsonNode.class, kafkaProperties);
+        this.kafkaListenerProfiles = kafkaListenerProfiles;
     }
 
     @Bean("bookingOutboxListenerContainerFactory")
@@ -22,5 +35,33 @@ public class BookingOutboxKafkaListenerConfig extends BaseKafkaListenerConfig<St
     public ConcurrentKafkaListenerContainerFactory<String, JsonNode> listenerContainerFactory() {
         return super.kafkaListenerContainerFactory();
     }
+
+    /**
+     * Batch variant used by the saga orchestrator, on the throughput profile. A single consumer feeds the
+     * saga lanes, which already spread bookings across threads, and the poll size follows the lanes' batch
+     * size. When the listener fails the batch from a record, offsets before it are committed and the rest
+     * is redelivered; a record that keeps failing goes to {@code <topic>.DLT} instead of being skipped.
+     */
+    @Bean("bookingOutboxBatchListenerContainerFactory")
+    public ConcurrentKafkaListenerContainerFactory<String, JsonNode> batchListenerContainerFactory(
+            @Value("${booking.saga.lanes.max-batch-size:500}") int maxBatchSize,
+            @Value("${booking.saga.lanes.retry.interval:1s}") Duration retryInterval,
+            @Value("${booking.saga.lanes.retry.attempts:3}") long retryAttempts,
+            KafkaTemplate<String, Object> kafkaTemplate) {
+        ConcurrentKafkaListenerContainerFactory<String, JsonNode> factory =
+                kafkaListenerProfiles.apply(KafkaListenerProfiles.THROUGHPUT, super.kafkaListenerContainerFactory());
+        factory.setConcurrency(1);
+        factory.getContainerProperties().getKafkaConsumerProperties()
+                .setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, String.valueOf(maxBatchSize));
+        factory.setCommonErrorHandler(sagaEventErrorHandler(kafkaTemplate, retryInterval, retryAttempts));
+        return factory;
+    }
+
+    static DefaultErrorHandler sagaEventErrorHandler(KafkaTemplate<String, Object> kafkaTemplate,
+                                                     Duration retryInterval, long retryAttempts) {
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, e) -> new TopicPartition(record.topic() + ".DLT", -1));
+        return new DefaultErrorHandler(recoverer, new FixedBackOff(retryInterval.toMillis(), retryAttempts));
+    }
 }
 
@@ -0,0 +1,212 @@
+package com.pdh.booking.kafka.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdh.booking.model.dto.internal.BookingAnalyticsEventDto;
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.service.AnalyticsEventService;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.common.utils.Bytes;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.kstream.Consumed;
+import org.apache.kafka.streams.kstream.Grouped;
+import org.apache.kafka.streams.kstream.KTable;
+import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafkaStreams;
+import org.springframework.kafka.annotation.KafkaStreamsDefaultConfiguration;
+import org.springframework.kafka.config.KafkaStreamsConfiguration;
+import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.support.serializer.JsonSerde;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka Streams topology that turns the booking analytics topic into confirmed-revenue windows.
+ * <p>
+ * The newest event per booking forms a table of current booking state; confirmed bookings are
+ * re-keyed into tumbling hour and day windows (by creation time) per booking type and destination
+ * and aggregated with an adder and subtractor, so a booking that is later cancelled leaves its
+ * window again. Window totals go to compacted topics read back as global stores, which gives every
+ * replica the complete result set and restores it from the topic after a restart.
+ * <p>
+ * The adder and subtractor are not idempotent, so the topology runs exactly_once_v2 by default: with
+ * at_least_once a crash between an aggregate update and its offset commit would apply it twice. Events
+ * redelivered by the outbox relay are harmless either way, as they leave the newest event per booking unchanged.
+ */
+@Configuration
+@Slf4j
+@EnableKafkaStreams
+@ConditionalOnProperty(prefix = "booking.analytics.streams", name = "enabled", havingValue = "true")
+public class BookingRevenueStreamConfig {
+
+    public static final String HOURLY_TOPIC = "booking-revenue-hourly";
+    public static final String DAILY_TOPIC = "booking-revenue-daily";
+    public static final String HOURLY_STORE = "booking-revenue-hourly-store";
+    public static final String DAILY_STORE = "booking-revenue-daily-store";
+
+    /**
+     * Window keys are "window|bookingType|destination"; the window prefix sorts chronologically
+     */
+    public static final char KEY_SEPARATOR = '|';
+
+    private static final DateTimeFormatter HOUR_WINDOW = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH");
+    private static final DateTimeFormatter DAY_WINDOW = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final ObjectMapper EVENT_READER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers;
+
+    @Value("${booking.analytics.streams.application-id:booking-revenue-analytics}")
+    private String applicationId;
+
+    @Value("${booking.analytics.streams.state-dir:${java.io.tmpdir}/kafka-streams}")
+    private String stateDir;
+
+    @Value("${booking.analytics.streams.processing-guarantee:exactly_once_v2}")
+    private String processingGuarantee;
+
+    @Bean(name = KafkaStreamsDefaultConfiguration.DEFAULT_STREAMS_CONFIG_BEAN_NAME)
+    public KafkaStreamsConfiguration bookingRevenueStreamsConfig() {
+        Map<String, Object> props = new HashMap<>();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, applicationId);
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir);
+        props.put(StreamsConfig.PROCESSING_GUARANTEE_CONFIG, processingGuarantee);
+        props.put(StreamsConfig.DEFAULT_KEY_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        props.put(StreamsConfig.DEFAULT_VALUE_SERDE_CLASS_CONFIG, Serdes.StringSerde.class);
+        return new KafkaStreamsConfiguration(props);
+    }
+
+    @Bean
+    public KTable<String, BookingAnalyticsEventDto> bookingRevenueTopology(StreamsBuilder streamsBuilder) {
+        Serde<BookingAnalyticsEventDto> eventSerde = new JsonSerde<>(BookingAnalyticsEventDto.class).ignoreTypeHeaders();
+
+        KTable<String, BookingAnalyticsEventDto> confirmed = streamsBuilder
+            .stream(AnalyticsEventService.BOOKING_ANALYTICS_TOPIC, Consumed.with(Serdes.String(), Serdes.String()))
+            .mapValues(BookingRevenueStreamConfig::readEvent)
+            .filter((bookingId, event) -> event != null && event.getBookingId() != null)
+            .groupByKey(Grouped.with(Serdes.String(), eventSerde))
+            .reduce(BookingAnalyticsEventDto::newest,
+                Materialized.<String, BookingAnalyticsEventDto, KeyValueStore<Bytes, byte[]>>as("booking-analytics-latest")
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(eventSerde))
+            .filter((bookingId, event) -> BookingStatus.CONFIRMED.name().equals(event.getStatus())
+                && event.getCreatedAt() != null && event.getTotalAmount() != null);
+
+        aggregateWindows(streamsBuilder, confirmed, eventSerde, HOUR_WINDOW, HOURLY_TOPIC, HOURLY_STORE);
+        aggregateWindows(streamsBuilder, confirmed, eventSerde, DAY_WINDOW, DAILY_TOPIC, DAILY_STORE);
+        return confirmed;
+    }
+
+    @Bean
+    public NewTopic bookingAnalyticsTopic() {
+        return TopicBuilder.name(AnalyticsEventService.BOOKING_ANALYTICS_TOPIC)
+            .partitions(3)
+            .replicas(1)
+            .build();
+    }
+
+    @Bean
+    public NewTopic bookingRevenueHourlyTopic() {
+        return compactedTopic(HOURLY_TOPIC);
+    }
+
+    @Bean
+    public NewTopic bookingRevenueDailyTopic() {
+        return compactedTopic(DAILY_TOPIC);
+    }
+
+    private static void aggregateWindows(StreamsBuilder streamsBuilder,
+                                         KTable<String, BookingAnalyticsEventDto> confirmed,
+                                         Serde<BookingAnalyticsEventDto> eventSerde,
+                                         DateTimeFormatter window,
+                                         String topic,
+                                         String store) {
+        Serde<RevenueWindow> windowSerde = new JsonSerde<>(RevenueWindow.class).ignoreTypeHeaders().noTypeInfo();
+
+        confirmed
+            .groupBy((bookingId, event) -> KeyValue.pair(windowKey(window, event), event),
+                Grouped.with(Serdes.String(), eventSerde))
+            .aggregate(RevenueWindow::empty,
+                (key, event, total) -> total.plus(event.getTotalAmount()),
+                (key, event, total) -> total.minus(event.getTotalAmount()),
+                Materialized.<String, RevenueWindow, KeyValueStore<Bytes, byte[]>>as(store + "-aggregate")
+                    .withKeySerde(Serdes.String())
+                    .withValueSerde(windowSerde))
+            .toStream()
+            .to(topic, Produced.with(Serdes.String(), windowSerde));
+
+        streamsBuilder.globalTable(topic, Consumed.with(Serdes.String(), windowSerde),
+            Materialized.<String, RevenueWindow, KeyValueStore<Bytes, byte[]>>as(store)
+                .withKeySerde(Serdes.String())
+                .withValueSerde(windowSerde));
+    }
+
+    /**
+     * An outbox payload as the relay sends it (a JSON object) or as CDC does without payload expansion
+     * (the same object as a JSON string); unreadable events are dropped
+     */
+    static BookingAnalyticsEventDto readEvent(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            // Bind from text rather than a tree, which would read amounts as doubles and lose their scale
+            String object = json.stripLeading().startsWith("\"") ? EVENT_READER.readValue(json, String.class) : json;
+            return EVENT_READER.readValue(object, BookingAnalyticsEventDto.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable booking analytics event: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    private static String windowKey(DateTimeFormatter window, BookingAnalyticsEventDto event) {
+        return LocalDateTime.parse(event.getCreatedAt()).format(window)
+            + KEY_SEPARATOR + event.getBookingType()
+            + KEY_SEPARATOR + (event.getDestination() != null ? event.getDestination() : "");
+    }
+
+    private static NewTopic compactedTopic(String name) {
+        return TopicBuilder.name(name)
+            .partitions(3)
+            .replicas(1)
+            .config(TopicConfig.CLEANUP_POLICY_CONFIG, TopicConfig.CLEANUP_POLICY_COMPACT)
+            .build();
+    }
+
+    /**
+     * Confirmed booking count and revenue of one window
+     */
+    public record RevenueWindow(long bookingCount, BigDecimal revenue) {
+
+        static RevenueWindow empty() {
+            return new RevenueWindow(0, BigDecimal.ZERO);
+        }
+
+        RevenueWindow plus(BigDecimal amount) {
+            return new RevenueWindow(bookingCount + 1, revenue.add(amount));
+        }
+
+        RevenueWindow minus(BigDecimal amount) {
+            return new RevenueWindow(bookingCount - 1, revenue.subtract(amount));
+        }
+    }
+}
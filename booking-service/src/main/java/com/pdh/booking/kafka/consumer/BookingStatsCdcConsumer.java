@@ -0,0 +1,76 @@
+package com.pdh.booking.kafka.consumer;
+
+import com.pdh.booking.service.BookingStatsRollupService;
+import com.pdh.common.kafka.cdc.message.BookingCdcMessage;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps booking_daily_stats in step with bookings changes captured by Debezium.
+ * Each batch is reduced to the creation days it touched and every day is recomputed once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStatsCdcConsumer {
+
+    private final BookingStatsRollupService bookingStatsRollupService;
+
+    @KafkaListener(
+        topics = "${booking.stats.topic:bookings-cdc}",
+        groupId = "booking-daily-stats",
+        containerFactory = "bookingCdcListenerContainerFactory"
+    )
+    public void onBookingChanges(List<ConsumerRecord<String, BookingCdcMessage>> records) {
+        Set<LocalDate> days = new HashSet<>();
+        for (ConsumerRecord<String, BookingCdcMessage> record : records) {
+            BookingCdcMessage message = record.value();
+            if (message == null) {
+                continue;
+            }
+            addDay(days, message.getBefore());
+            addDay(days, message.getAfter());
+        }
+        if (days.isEmpty()) {
+            return;
+        }
+        try {
+            bookingStatsRollupService.refreshDays(days);
+        } catch (Exception e) {
+            log.error("Failed to refresh booking daily stats for days {}", days, e);
+        }
+    }
+
+    private static void addDay(Set<LocalDate> days, BookingCdcMessage.Booking row) {
+        if (row == null || row.getCreatedAt() == null) {
+            return;
+        }
+        try {
+            days.add(parseDay(row.getCreatedAt()));
+        } catch (RuntimeException e) {
+            log.warn("Skipping booking change with unreadable created_at {}", row.getCreatedAt());
+        }
+    }
+
+    /**
+     * Creation day of a row: Debezium sends TIMESTAMP columns as epoch microseconds, snapshots and
+     * the ISO-8601 time precision mode as local date-times
+     */
+    static LocalDate parseDay(String value) {
+        if (value.chars().allMatch(Character::isDigit)) {
+            long micros = Long.parseLong(value);
+            return LocalDateTime.ofEpochSecond(micros / 1_000_000, 0, ZoneOffset.UTC).toLocalDate();
+        }
+        return LocalDateTime.parse(value).toLocalDate();
+    }
+}
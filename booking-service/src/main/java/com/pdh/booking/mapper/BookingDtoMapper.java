@@ -2,6 +2,7 @@ package com.pdh.booking.mapper;
 
 import com.pdh.booking.model.dto.request.CreateBookingRequestDto;
 import com.pdh.booking.model.dto.response.BookingResponseDto;
+import com.pdh.booking.model.dto.response.BookingStatusResponseDto;
 import com.pdh.booking.model.dto.response.StorefrontBookingResponseDto;
 import com.pdh.booking.model.Booking;
 import com.pdh.booking.model.enums.BookingStatus;
@@ -145,6 +146,74 @@ public class BookingDtoMapper {
                 .build();
     }
     
+    /**
+     * Convert Booking entity to BookingStatusResponseDto for status polling and streaming.
+     * When validation is bypassed, VALIDATION_PENDING is reported as PENDING.
+     */
+    public BookingStatusResponseDto toStatusResponseDto(Booking booking, boolean bypassValidation) {
+        if (booking == null) return null;
+
+        BookingStatus effectiveStatus = booking.getStatus();
+        if (bypassValidation && effectiveStatus == BookingStatus.VALIDATION_PENDING) {
+            effectiveStatus = BookingStatus.PENDING;
+        }
+
+        String reason = firstNonBlank(booking.getCancellationReason(), booking.getCompensationReason());
+        BookingStatusResponseDto response = BookingStatusResponseDto.builder()
+            .bookingId(booking.getBookingId().toString())
+            .bookingReference(booking.getBookingReference())
+            .status(effectiveStatus)
+            .lastUpdated(booking.getUpdatedAt() != null ? booking.getUpdatedAt().toString() : null)
+            .progressPercentage(resolveProgress(effectiveStatus))
+            .reservationLockedAt(booking.getReservationLockedAt() != null ? booking.getReservationLockedAt().toString() : null)
+            .reservationExpiresAt(booking.getReservationExpiresAt() != null ? booking.getReservationExpiresAt().toString() : null)
+            .build();
+
+        switch (effectiveStatus) {
+            case VALIDATION_PENDING -> {
+                response.setMessage("Validating product availability...");
+                response.setEstimatedCompletion("2-5 seconds");
+            }
+            case PENDING -> {
+                response.setMessage("Processing your booking...");
+                response.setEstimatedCompletion("10-30 seconds");
+            }
+            case PAYMENT_PENDING -> {
+                response.setMessage("Waiting for payment processing...");
+                response.setEstimatedCompletion("5-15 seconds");
+            }
+            case CONFIRMED -> response.setMessage("Booking confirmed successfully!");
+            case PAID -> response.setMessage("Payment completed successfully!");
+            case PAYMENT_FAILED -> response.setMessage(reason != null ? reason : "Payment processing failed");
+            case CANCELLED -> response.setMessage(reason != null ? reason : "Booking has been cancelled");
+            case VALIDATION_FAILED -> response.setMessage(reason != null ? reason : "Product availability validation failed");
+            case FAILED -> response.setMessage(reason != null ? reason : "Booking processing failed");
+            default -> response.setMessage("Unknown status");
+        }
+
+        return response;
+    }
+
+    private int resolveProgress(BookingStatus status) {
+        return switch (status) {
+            case VALIDATION_PENDING -> 10;
+            case PENDING -> 40;
+            case PAYMENT_PENDING -> 70;
+            case CONFIRMED, PAID, CANCELLED, FAILED, PAYMENT_FAILED, VALIDATION_FAILED -> 100;
+            default -> 0;
+        };
+    }
+
+    private String firstNonBlank(String primary, String secondary) {
+        if (primary != null && !primary.isBlank()) {
+            return primary;
+        }
+        if (secondary != null && !secondary.isBlank()) {
+            return secondary;
+        }
+        return null;
+    }
+
     /**
      * Helper method to convert saga state
      */
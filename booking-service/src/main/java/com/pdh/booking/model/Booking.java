@@ -1,23 +1,28 @@
 package com.pdh.booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.model.enums.BookingType;
 import com.pdh.common.model.AbstractAuditEntity;
 import com.pdh.common.saga.SagaState;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
 @Entity
 @Table(name = "bookings")
+@EntityListeners(BookingAnalyticsEntityListener.class)
 @Data
 @EqualsAndHashCode(callSuper = false)
 @NoArgsConstructor
@@ -86,4 +91,40 @@ public class Booking extends AbstractAuditEntity {
 
     @Column(name = "reservation_lock_id", length = 120)
     private String reservationLockId;
+
+    // Read-only columns filled from product_details by trg_bookings_sync_search_columns (008), for search filters
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_airline", insertable = false, updatable = false)
+    private String pdAirline;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_origin_airport", insertable = false, updatable = false)
+    private String pdOriginAirport;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_destination_airport", insertable = false, updatable = false)
+    private String pdDestinationAirport;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_departure_date", insertable = false, updatable = false)
+    private LocalDate pdDepartureDate;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_hotel_name", insertable = false, updatable = false)
+    private String pdHotelName;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_city", insertable = false, updatable = false)
+    private String pdCity;
+
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @Column(name = "pd_check_in_date", insertable = false, updatable = false)
+    private LocalDate pdCheckInDate;
 }
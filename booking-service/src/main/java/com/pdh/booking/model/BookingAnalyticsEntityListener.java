@@ -0,0 +1,33 @@
+package com.pdh.booking.model;
+
+import com.pdh.booking.service.AnalyticsEventService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Records every booking insert and update in the booking outbox as it is flushed, so the event
+ * commits with the booking row and the revenue stream sees each status transition exactly as it was persisted.
+ */
+public class BookingAnalyticsEntityListener {
+
+    private final ObjectProvider<AnalyticsEventService> analyticsEventService;
+
+    public BookingAnalyticsEntityListener(ObjectProvider<AnalyticsEventService> analyticsEventService) {
+        this.analyticsEventService = analyticsEventService;
+    }
+
+    @PostPersist
+    public void onCreated(Booking booking) {
+        publish(booking, "booking.initiated");
+    }
+
+    @PostUpdate
+    public void onUpdated(Booking booking) {
+        publish(booking, "booking.updated");
+    }
+
+    private void publish(Booking booking, String eventType) {
+        analyticsEventService.ifAvailable(service -> service.publishBookingAnalyticsEvent(booking, eventType));
+    }
+}
@@ -0,0 +1,56 @@
+package com.pdh.booking.model;
+
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.model.enums.BookingType;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Booking count and amount per creation day, type, status and destination.
+ * Recomputed a day at a time from bookings whenever the bookings CDC stream reports a change,
+ * so dashboard statistics read a few rows per day instead of scanning bookings.
+ */
+@Entity
+@Table(name = "booking_daily_stats")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(BookingDailyStatsId.class)
+public class BookingDailyStats {
+
+    @Id
+    @Column(name = "stat_date", nullable = false)
+    private LocalDate statDate;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "booking_type", nullable = false)
+    private BookingType bookingType;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false)
+    private BookingStatus status;
+
+    /**
+     * Destination airport for flights, city for hotels, empty otherwise
+     */
+    @Id
+    @Column(name = "destination", nullable = false)
+    private String destination;
+
+    @Column(name = "booking_count", nullable = false)
+    private Long bookingCount;
+
+    @Column(name = "revenue", nullable = false, precision = 18, scale = 2)
+    private BigDecimal revenue;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,20 @@
+package com.pdh.booking.model;
+
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.model.enums.BookingType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDailyStatsId implements Serializable {
+    private LocalDate statDate;
+    private BookingType bookingType;
+    private BookingStatus status;
+    private String destination;
+}
@@ -0,0 +1,58 @@
+package com.pdh.booking.model.dto.internal;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.OffsetDateTime;
+
+/**
+ * Booking state written to the booking outbox on every booking change and relayed to the analytics topic.
+ * Keyed by booking id; the revenue stream keeps the newest event per booking, so a redelivered event is a no-op.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingAnalyticsEventDto {
+
+    private String eventType;
+    private String bookingId;
+    private String bookingReference;
+    private String userId;
+    private String bookingType;
+    private BigDecimal totalAmount;
+    private String currency;
+    private String status;
+
+    /**
+     * Flight destination airport or hotel city, null for other booking types
+     */
+    private String destination;
+
+    /**
+     * Booking creation time (service local time, ISO-8601), which decides the revenue window
+     */
+    private String createdAt;
+
+    /**
+     * Booking last modification time (ISO-8601 with offset), used to order events of one booking
+     */
+    private String updatedAt;
+
+    private String timestamp;
+    private String source;
+
+    /**
+     * The more recent of two events for the same booking
+     */
+    public static BookingAnalyticsEventDto newest(BookingAnalyticsEventDto current, BookingAnalyticsEventDto candidate) {
+        if (current.getUpdatedAt() == null || candidate.getUpdatedAt() == null) {
+            return candidate;
+        }
+        return OffsetDateTime.parse(candidate.getUpdatedAt()).isBefore(OffsetDateTime.parse(current.getUpdatedAt()))
+                ? current : candidate;
+    }
+}
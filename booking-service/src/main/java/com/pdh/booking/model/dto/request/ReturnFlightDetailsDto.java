@@ -43,6 +43,16 @@ public class ReturnFlightDetailsDto {
      */
     @NotNull(message = "Return arrival date is required")
     private LocalDateTime arrivalDateTime;
+
+    /**
+     * Return flight schedule ID, when known
+     */
+    private String scheduleId;
+
+    /**
+     * Return seat class; defaults to the outbound seat class
+     */
+    private String seatClass;
     
     /**
      * Return flight price per passenger
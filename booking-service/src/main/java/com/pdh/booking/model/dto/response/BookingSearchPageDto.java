@@ -0,0 +1,30 @@
+package com.pdh.booking.model.dto.response;
+
+import com.pdh.booking.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One keyset page of backoffice search results, newest first.
+ * Pass {@code nextCursor} back as {@code cursor} to fetch the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingSearchPageDto {
+
+    private List<Booking> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+    /**
+     * Only set when requested; exact for filtered searches, a planner estimate for an unfiltered one
+     */
+    private Long totalElements;
+    private Boolean totalExact;
+}
@@ -0,0 +1,109 @@
+package com.pdh.booking.repository;
+
+import com.pdh.booking.model.BookingDailyStats;
+import com.pdh.booking.model.BookingDailyStatsId;
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.model.enums.BookingType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Repository for the daily booking rollup backing the backoffice statistics
+ */
+public interface BookingDailyStatsRepository extends JpaRepository<BookingDailyStats, BookingDailyStatsId> {
+
+    /**
+     * Serializes recomputation of one day across consumers and replicas (transaction-scoped advisory lock)
+     */
+    @Query(value = "SELECT 1 FROM (SELECT pg_advisory_xact_lock(hashtext('booking_daily_stats'), :day)) l",
+           nativeQuery = true)
+    Integer lockDay(@Param("day") int epochDay);
+
+    @Modifying
+    @Query(value = "DELETE FROM booking_daily_stats WHERE stat_date = :day", nativeQuery = true)
+    int deleteDay(@Param("day") LocalDate day);
+
+    /**
+     * Recompute one day's rollup rows from bookings; run after {@link #deleteDay(LocalDate)}
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO booking_daily_stats (stat_date, booking_type, status, destination, booking_count, revenue, updated_at)
+        SELECT :day,
+               booking_type,
+               status,
+               COALESCE(CASE booking_type
+                            WHEN 'FLIGHT' THEN product_details ->> 'destinationAirport'
+                            WHEN 'HOTEL' THEN product_details ->> 'city'
+                            END, ''),
+               COUNT(*),
+               SUM(total_amount),
+               now()
+        FROM bookings
+        WHERE created_at >= CAST(:day AS timestamp) AND created_at < CAST(:day AS timestamp) + INTERVAL '1 day'
+        GROUP BY 2, 3, 4
+        """, nativeQuery = true)
+    int insertDay(@Param("day") LocalDate day);
+
+    /**
+     * Booking count and amount per (type, status) in a period; null bounds are open
+     */
+    @Query("SELECT s.bookingType AS bookingType, s.status AS status, " +
+           "SUM(s.bookingCount) AS bookingCount, SUM(s.revenue) AS revenue " +
+           "FROM BookingDailyStats s WHERE " +
+           "(:startDate IS NULL OR s.statDate >= :startDate) AND " +
+           "(:endDate IS NULL OR s.statDate <= :endDate) " +
+           "GROUP BY s.bookingType, s.status")
+    List<StatsBucket> summarize(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+    /**
+     * Most booked confirmed destinations of one booking type
+     */
+    @Query(value = "SELECT NULLIF(destination, '') as destination, SUM(booking_count) as booking_count " +
+                   "FROM booking_daily_stats WHERE booking_type = :bookingType AND status = 'CONFIRMED' AND " +
+                   "(:startDate IS NULL OR stat_date >= :startDate) AND " +
+                   "(:endDate IS NULL OR stat_date <= :endDate) " +
+                   "GROUP BY destination " +
+                   "ORDER BY booking_count DESC LIMIT 10", nativeQuery = true)
+    List<Map<String, Object>> getPopularDestinations(@Param("bookingType") String bookingType,
+                                                    @Param("startDate") LocalDate startDate,
+                                                    @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT stat_date as date, SUM(revenue) as revenue " +
+                   "FROM booking_daily_stats WHERE status = 'CONFIRMED' AND " +
+                   "(:startDate IS NULL OR stat_date >= :startDate) AND " +
+                   "(:endDate IS NULL OR stat_date <= :endDate) " +
+                   "GROUP BY stat_date ORDER BY date", nativeQuery = true)
+    List<Map<String, Object>> getDailyRevenue(@Param("startDate") LocalDate startDate,
+                                            @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT DATE_TRUNC('month', stat_date) as month, SUM(revenue) as revenue " +
+                   "FROM booking_daily_stats WHERE status = 'CONFIRMED' AND " +
+                   "(:startDate IS NULL OR stat_date >= :startDate) AND " +
+                   "(:endDate IS NULL OR stat_date <= :endDate) " +
+                   "GROUP BY DATE_TRUNC('month', stat_date) ORDER BY month", nativeQuery = true)
+    List<Map<String, Object>> getMonthlyRevenue(@Param("startDate") LocalDate startDate,
+                                              @Param("endDate") LocalDate endDate);
+
+    @Query(value = "SELECT booking_type, SUM(revenue) as revenue, SUM(booking_count) as booking_count " +
+                   "FROM booking_daily_stats WHERE status = 'CONFIRMED' AND " +
+                   "(:startDate IS NULL OR stat_date >= :startDate) AND " +
+                   "(:endDate IS NULL OR stat_date <= :endDate) " +
+                   "GROUP BY booking_type ORDER BY revenue DESC", nativeQuery = true)
+    List<Map<String, Object>> getRevenueByBookingType(@Param("startDate") LocalDate startDate,
+                                                     @Param("endDate") LocalDate endDate);
+
+    interface StatsBucket {
+        BookingType getBookingType();
+        BookingStatus getStatus();
+        Long getBookingCount();
+        BigDecimal getRevenue();
+    }
+}
@@ -6,6 +6,7 @@ import com.pdh.booking.model.enums.BookingType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.security.access.method.P;
@@ -14,12 +15,11 @@ import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 
 
-public interface BookingRepository extends JpaRepository<Booking, UUID> {
+public interface BookingRepository extends JpaRepository<Booking, UUID>, JpaSpecificationExecutor<Booking> {
     
     Optional<Booking> findByBookingReference(String bookingReference);
     
@@ -39,6 +39,36 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     List<Booking> findByUserIdAndBookingType(UUID userId, BookingType bookingType);
 
     List<Booking> findByStatusInAndReservationExpiresAtBefore(List<BookingStatus> statuses, ZonedDateTime threshold);
+
+    long countByStatusInAndReservationExpiresAtBefore(List<BookingStatus> statuses, ZonedDateTime threshold);
+
+    /**
+     * Claims the next page of expired reservations in one shard, ordered by (reservation_expires_at, booking_id)
+     * after the given cursor. Rows locked by another sweeper are skipped rather than waited on.
+     */
+    @Query(value = "SELECT * FROM bookings " +
+                   "WHERE status IN (:statuses) AND reservation_expires_at < :threshold " +
+                   "AND (reservation_expires_at, booking_id) > (:afterExpiresAt, :afterBookingId) " +
+                   "AND (hashtext(CAST(booking_id AS text)) & 2147483647) % :shardCount = :shard " +
+                   "ORDER BY reservation_expires_at, booking_id " +
+                   "LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Booking> claimExpiredReservations(@Param("statuses") List<String> statuses,
+                                           @Param("threshold") ZonedDateTime threshold,
+                                           @Param("afterExpiresAt") ZonedDateTime afterExpiresAt,
+                                           @Param("afterBookingId") UUID afterBookingId,
+                                           @Param("shard") int shard,
+                                           @Param("shardCount") int shardCount,
+                                           @Param("limit") int limit);
+
+    /**
+     * Locks one booking for expiry if it is still an expired reservation; a row another sweeper holds is skipped.
+     */
+    @Query(value = "SELECT * FROM bookings " +
+                   "WHERE booking_id = :bookingId AND status IN (:statuses) AND reservation_expires_at < :threshold " +
+                   "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    Optional<Booking> lockExpiredReservation(@Param("bookingId") UUID bookingId,
+                                             @Param("statuses") List<String> statuses,
+                                             @Param("threshold") ZonedDateTime threshold);
     
     @Query("SELECT b FROM Booking b WHERE b.userId = :userId AND b.status IN :statuses")
     List<Booking> findByUserIdAndStatusIn(@Param("userId") UUID userId, 
@@ -56,6 +86,13 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
 
     // === BACKOFFICE JSONB QUERY METHODS ===
 
+    /**
+     * Planner row estimate for the whole table, refreshed by (auto)vacuum and analyze; avoids a full COUNT
+     */
+    @Query(value = "SELECT CAST(GREATEST(reltuples, 0) AS BIGINT) FROM pg_class " +
+                   "WHERE oid = CAST('bookings' AS regclass)", nativeQuery = true)
+    Long estimateBookingCount();
+
     /**
      * Find bookings with multiple filters
      */
@@ -72,167 +109,63 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
                                          Pageable pageable);
 
     /**
-     * Find flight bookings by airline using JSONB query
+     * Find flight bookings by airline (trigram-indexed pd_airline column)
      */
     @Query(value = "SELECT * FROM bookings WHERE booking_type = 'FLIGHT' AND " +
-                   "product_details->>'airline' ILIKE %:airline% " +
+                   "pd_airline ILIKE %:airline% " +
                    "ORDER BY created_at DESC", nativeQuery = true)
     Page<Booking> findFlightBookingsByAirline(@Param("airline") String airline, Pageable pageable);
 
     /**
-     * Find flight bookings by route using JSONB query
+     * Find flight bookings by route (indexed pd_origin_airport, pd_destination_airport columns)
      */
     @Query(value = "SELECT * FROM bookings WHERE booking_type = 'FLIGHT' AND " +
-                   "product_details->>'originAirport' = :departureAirport AND " +
-                   "product_details->>'destinationAirport' = :arrivalAirport " +
+                   "pd_origin_airport = :departureAirport AND " +
+                   "pd_destination_airport = :arrivalAirport " +
                    "ORDER BY created_at DESC", nativeQuery = true)
     Page<Booking> findFlightBookingsByRoute(@Param("departureAirport") String departureAirport,
                                            @Param("arrivalAirport") String arrivalAirport,
                                            Pageable pageable);
 
     /**
-     * Find flight bookings by departure date range using JSONB query
+     * Find flight bookings by departure date range (indexed pd_departure_date column)
      */
     @Query(value = "SELECT * FROM bookings WHERE booking_type = 'FLIGHT' AND " +
-                   "DATE(CAST(product_details->>'departureDateTime' AS timestamp)) BETWEEN :startDate AND :endDate " +
+                   "pd_departure_date BETWEEN :startDate AND :endDate " +
                    "ORDER BY created_at DESC", nativeQuery = true)
     Page<Booking> findFlightBookingsByDepartureDate(@Param("startDate") LocalDate startDate,
                                                    @Param("endDate") LocalDate endDate,
                                                    Pageable pageable);
 
     /**
-     * Find hotel bookings by hotel name using JSONB query
+     * Find hotel bookings by hotel name (trigram-indexed pd_hotel_name column)
      */
     @Query(value = "SELECT * FROM bookings WHERE booking_type = 'HOTEL' AND " +
-                   "product_details->>'hotelName' ILIKE %:hotelName% " +
+                   "pd_hotel_name ILIKE %:hotelName% " +
                    "ORDER BY created_at DESC", nativeQuery = true)
     Page<Booking> findHotelBookingsByHotelName(@Param("hotelName") String hotelName, Pageable pageable);
 
     /**
-     * Find hotel bookings by location using JSONB query
+     * Find hotel bookings by location (trigram-indexed pd_city column)
      */
     @Query(value = "SELECT * FROM bookings WHERE booking_type = 'HOTEL' AND " +
-                   "product_details->>'city' ILIKE %:city% " +
+                   "pd_city ILIKE %:city% " +
                    "ORDER BY created_at DESC", nativeQuery = true)
     Page<Booking> findHotelBookingsByLocation(@Param("city") String city, Pageable pageable);
 
     /**
-     * Find hotel bookings by check-in date range using JSONB query
+     * Find hotel bookings by check-in date range (indexed pd_check_in_date column)
      */
     @Query(value = "SELECT * FROM bookings WHERE booking_type = 'HOTEL' AND " +
-                   "DATE(CAST(product_details->>'checkInDate' AS date)) BETWEEN :startDate AND :endDate " +
+                   "pd_check_in_date BETWEEN :startDate AND :endDate " +
                    "ORDER BY created_at DESC", nativeQuery = true)
     Page<Booking> findHotelBookingsByCheckInDate(@Param("startDate") LocalDate startDate,
                                                 @Param("endDate") LocalDate endDate,
                                                 Pageable pageable);
 
-    // === STATISTICAL QUERY METHODS ===
-
-    /**
-     * Count bookings in a date period
-     */
-    @Query("SELECT COUNT(b) FROM Booking b WHERE " +
-           "(:startDate IS NULL OR DATE(b.createdAt) >= :startDate) AND " +
-           "(:endDate IS NULL OR DATE(b.createdAt) <= :endDate)")
-    Long countBookingsInPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
-    /**
-     * Count bookings by type in a period
-     */
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.bookingType = :bookingType AND " +
-           "(:startDate IS NULL OR DATE(b.createdAt) >= :startDate) AND " +
-           "(:endDate IS NULL OR DATE(b.createdAt) <= :endDate)")
-    Long countBookingsByTypeInPeriod(@Param("bookingType") BookingType bookingType,
-                                   @Param("startDate") LocalDate startDate,
-                                   @Param("endDate") LocalDate endDate);
-
-    /**
-     * Count bookings by status in a period
-     */
-    @Query("SELECT COUNT(b) FROM Booking b WHERE b.status = :status AND " +
-           "(:startDate IS NULL OR DATE(b.createdAt) >= :startDate) AND " +
-           "(:endDate IS NULL OR DATE(b.createdAt) <= :endDate)")
-    Long countBookingsByStatusInPeriod(@Param("status") BookingStatus status,
-                                     @Param("startDate") LocalDate startDate,
-                                     @Param("endDate") LocalDate endDate);
-
-    /**
-     * Get total revenue in a period
-     */
-    @Query("SELECT SUM(b.totalAmount) FROM Booking b WHERE b.status = 'CONFIRMED' AND " +
-           "(:startDate IS NULL OR DATE(b.createdAt) >= :startDate) AND " +
-           "(:endDate IS NULL OR DATE(b.createdAt) <= :endDate)")
-    Double getTotalRevenueInPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
-    /**
-     * Get average booking value in a period
-     */
-    @Query("SELECT AVG(b.totalAmount) FROM Booking b WHERE b.status = 'CONFIRMED' AND " +
-           "(:startDate IS NULL OR DATE(b.createdAt) >= :startDate) AND " +
-           "(:endDate IS NULL OR DATE(b.createdAt) <= :endDate)")
-    Double getAverageBookingValueInPeriod(@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
-
-    // === ANALYTICS QUERY METHODS ===
-
-    /**
-     * Get popular flight destinations
-     */
-    @Query(value = "SELECT product_details->>'destinationAirport' as destination, COUNT(*) as booking_count " +
-                   "FROM bookings WHERE booking_type = 'FLIGHT' AND status = 'CONFIRMED' AND " +
-                   "(:startDate IS NULL OR DATE(created_at) >= :startDate) AND " +
-                   "(:endDate IS NULL OR DATE(created_at) <= :endDate) " +
-                   "GROUP BY product_details->>'destinationAirport' " +
-                   "ORDER BY booking_count DESC LIMIT 10", nativeQuery = true)
-    List<Map<String, Object>> getPopularFlightDestinations(@Param("startDate") LocalDate startDate,
-                                                          @Param("endDate") LocalDate endDate);
-
-    /**
-     * Get popular hotel destinations
-     */
-    @Query(value = "SELECT product_details->>'city' as destination, COUNT(*) as booking_count " +
-                   "FROM bookings WHERE booking_type = 'HOTEL' AND status = 'CONFIRMED' AND " +
-                   "(:startDate IS NULL OR DATE(created_at) >= :startDate) AND " +
-                   "(:endDate IS NULL OR DATE(created_at) <= :endDate) " +
-                   "GROUP BY product_details->>'city' " +
-                   "ORDER BY booking_count DESC LIMIT 10", nativeQuery = true)
-    List<Map<String, Object>> getPopularHotelDestinations(@Param("startDate") LocalDate startDate,
-                                                         @Param("endDate") LocalDate endDate);
-
-    /**
-     * Get daily revenue
-     */
-    @Query(value = "SELECT DATE(created_at) as date, SUM(total_amount) as revenue " +
-                   "FROM bookings WHERE status = 'CONFIRMED' AND " +
-                   "(:startDate IS NULL OR DATE(created_at) >= :startDate) AND " +
-                   "(:endDate IS NULL OR DATE(created_at) <= :endDate) " +
-                   "GROUP BY DATE(created_at) ORDER BY date", nativeQuery = true)
-    List<Map<String, Object>> getDailyRevenue(@Param("startDate") LocalDate startDate,
-                                            @Param("endDate") LocalDate endDate);
-
-    /**
-     * Get monthly revenue
-     */
-    @Query(value = "SELECT DATE_TRUNC('month', created_at) as month, SUM(total_amount) as revenue " +
-                   "FROM bookings WHERE status = 'CONFIRMED' AND " +
-                   "(:startDate IS NULL OR DATE(created_at) >= :startDate) AND " +
-                   "(:endDate IS NULL OR DATE(created_at) <= :endDate) " +
-                   "GROUP BY DATE_TRUNC('month', created_at) ORDER BY month", nativeQuery = true)
-    List<Map<String, Object>> getMonthlyRevenue(@Param("startDate") LocalDate startDate,
-                                              @Param("endDate") LocalDate endDate);
-
-    /**
-     * Get revenue by booking type
-     */
-    @Query(value = "SELECT booking_type, SUM(total_amount) as revenue, COUNT(*) as booking_count " +
-                   "FROM bookings WHERE status = 'CONFIRMED' AND " +
-                   "(:startDate IS NULL OR DATE(created_at) >= :startDate) AND " +
-                   "(:endDate IS NULL OR DATE(created_at) <= :endDate) " +
-                   "GROUP BY booking_type ORDER BY revenue DESC", nativeQuery = true)
-    List<Map<String, Object>> getRevenueByBookingType(@Param("startDate") LocalDate startDate,
-                                                     @Param("endDate") LocalDate endDate);
-
     /**
-     * Search bookings by text (booking reference, customer info, product details)
+     * Search bookings by text (booking reference, customer info, product details).
+     * Each OR branch matches its own trigram index, so the planner combines them with a BitmapOr.
      */
     @Query(value = "SELECT * FROM bookings WHERE " +
                    "booking_reference ILIKE CONCAT('%', :searchTerm, '%') OR " +
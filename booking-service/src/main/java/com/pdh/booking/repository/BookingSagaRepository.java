@@ -3,6 +3,7 @@ package com.pdh.booking.repository;
 import com.pdh.booking.model.BookingSagaInstance;
 import com.pdh.common.saga.SagaState;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -51,4 +52,29 @@ public interface BookingSagaRepository extends JpaRepository<BookingSagaInstance
      */
     @Query("SELECT s FROM BookingSagaInstance s WHERE s.completedAt IS NULL AND s.lastUpdatedAt < :timeoutThreshold")
     List<BookingSagaInstance> findTimedOutSagas(@Param("timeoutThreshold") ZonedDateTime timeoutThreshold);
+
+    /**
+     * Write saga state guarded by the expected version; returns 0 when the row was changed concurrently
+     */
+    @Modifying
+    @Query("""
+            UPDATE BookingSagaInstance s
+               SET s.currentState = :state,
+                   s.lastUpdatedAt = :lastUpdatedAt,
+                   s.completedAt = :completedAt,
+                   s.isCompensating = :isCompensating,
+                   s.compensationReason = :compensationReason,
+                   s.stepContext = :stepContext,
+                   s.version = COALESCE(s.version, 0) + 1
+             WHERE s.sagaId = :sagaId
+               AND COALESCE(s.version, 0) = :version
+            """)
+    int updateState(@Param("sagaId") String sagaId,
+                    @Param("version") long version,
+                    @Param("state") SagaState state,
+                    @Param("lastUpdatedAt") ZonedDateTime lastUpdatedAt,
+                    @Param("completedAt") ZonedDateTime completedAt,
+                    @Param("isCompensating") Boolean isCompensating,
+                    @Param("compensationReason") String compensationReason,
+                    @Param("stepContext") String stepContext);
 }
@@ -0,0 +1,298 @@
+package com.pdh.booking.repository.specification;
+
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.model.enums.BookingType;
+import jakarta.persistence.criteria.Predicate;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JPA Specifications for Booking entity backing the backoffice advanced search.
+ * Product filters compare the trigger-maintained pd_* columns, so they hit the same b-tree and trigram
+ * indexes as the dedicated JSONB search endpoints instead of re-parsing product_details per row.
+ */
+public class BookingSpecification {
+
+    /**
+     * Search bookings by booking type
+     */
+    public static Specification<Booking> hasBookingTypes(Collection<BookingType> bookingTypes) {
+        return (root, query, criteriaBuilder) -> {
+            if (bookingTypes == null || bookingTypes.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return root.get("bookingType").in(bookingTypes);
+        };
+    }
+
+    /**
+     * Search bookings by status
+     */
+    public static Specification<Booking> hasStatuses(Collection<BookingStatus> statuses) {
+        return (root, query, criteriaBuilder) -> {
+            if (statuses == null || statuses.isEmpty()) {
+                return criteriaBuilder.conjunction();
+            }
+            return root.get("status").in(statuses);
+        };
+    }
+
+    /**
+     * Search bookings of one customer
+     */
+    public static Specification<Booking> hasUserId(UUID userId) {
+        return (root, query, criteriaBuilder) -> userId == null
+            ? criteriaBuilder.conjunction()
+            : criteriaBuilder.equal(root.get("userId"), userId);
+    }
+
+    /**
+     * Search bookings by currency
+     */
+    public static Specification<Booking> hasCurrency(String currency) {
+        return (root, query, criteriaBuilder) -> !StringUtils.hasText(currency)
+            ? criteriaBuilder.conjunction()
+            : criteriaBuilder.equal(root.get("currency"), currency.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Search bookings created within a date range (inclusive); compares created_at directly so the index applies
+     */
+    public static Specification<Booking> createdBetween(LocalDate startDate, LocalDate endDate) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (startDate != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("createdAt"),
+                    startDate.atStartOfDay(ZoneId.systemDefault())));
+            }
+
+            if (endDate != null) {
+                predicates.add(criteriaBuilder.lessThan(root.get("createdAt"),
+                    endDate.plusDays(1).atStartOfDay(ZoneId.systemDefault())));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Search bookings by total amount range
+     */
+    public static Specification<Booking> hasAmountRange(BigDecimal minAmount, BigDecimal maxAmount) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (minAmount != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("totalAmount"), minAmount));
+            }
+
+            if (maxAmount != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("totalAmount"), maxAmount));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Case-insensitive substring match on a text attribute; renders as ILIKE so trigram indexes apply
+     */
+    public static Specification<Booking> containsText(String attribute, String value) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(value)) {
+                return criteriaBuilder.conjunction();
+            }
+            return ((HibernateCriteriaBuilder) criteriaBuilder)
+                .ilike(root.get(attribute), "%" + escapeLike(value.trim()) + "%", '\\');
+        };
+    }
+
+    /**
+     * Exact match on a text attribute (e.g. IATA airport codes)
+     */
+    public static Specification<Booking> equalsText(String attribute, String value) {
+        return (root, query, criteriaBuilder) -> !StringUtils.hasText(value)
+            ? criteriaBuilder.conjunction()
+            : criteriaBuilder.equal(root.get(attribute), value.trim().toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Inclusive date range on a date attribute
+     */
+    public static Specification<Booking> dateBetween(String attribute, LocalDate from, LocalDate to) {
+        return (root, query, criteriaBuilder) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (from != null) {
+                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get(attribute), from));
+            }
+
+            if (to != null) {
+                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get(attribute), to));
+            }
+
+            return criteriaBuilder.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    /**
+     * Free-text search over booking reference, notes and the searchable product fields.
+     * Every branch has its own trigram index, so the planner can combine them with a BitmapOr.
+     */
+    public static Specification<Booking> matchesSearchTerm(String searchTerm) {
+        return (root, query, criteriaBuilder) -> {
+            if (!StringUtils.hasText(searchTerm)) {
+                return criteriaBuilder.conjunction();
+            }
+            HibernateCriteriaBuilder hcb = (HibernateCriteriaBuilder) criteriaBuilder;
+            String pattern = "%" + escapeLike(searchTerm.trim()) + "%";
+
+            return criteriaBuilder.or(
+                hcb.ilike(root.get("bookingReference"), pattern, '\\'),
+                hcb.ilike(root.get("notes"), pattern, '\\'),
+                hcb.ilike(root.get("pdAirline"), pattern, '\\'),
+                hcb.ilike(root.get("pdHotelName"), pattern, '\\'),
+                hcb.ilike(root.get("pdCity"), pattern, '\\')
+            );
+        };
+    }
+
+    /**
+     * Rows strictly after the cursor in (created_at DESC, booking_id DESC) order
+     */
+    public static Specification<Booking> after(ZonedDateTime createdAt, UUID bookingId) {
+        return (root, query, criteriaBuilder) -> {
+            if (createdAt == null || bookingId == null) {
+                return criteriaBuilder.conjunction();
+            }
+            return criteriaBuilder.or(
+                criteriaBuilder.lessThan(root.get("createdAt"), createdAt),
+                criteriaBuilder.and(
+                    criteriaBuilder.equal(root.get("createdAt"), createdAt),
+                    criteriaBuilder.lessThan(root.get("bookingId"), bookingId)
+                )
+            );
+        };
+    }
+
+    /**
+     * Compile backoffice search criteria into one specification. Supported keys:
+     * bookingType, status (single value or list), userId, bookingReference, currency, minAmount,
+     * maxAmount, startDate, endDate, airline, originAirport, destinationAirport, departureDateFrom,
+     * departureDateTo, hotelName, city, checkInDateFrom, checkInDateTo and searchTerm.
+     *
+     * @throws IllegalArgumentException for unknown keys or malformed values
+     */
+    public static Specification<Booking> fromCriteria(Map<String, Object> criteria) {
+        return combine(compile(criteria));
+    }
+
+    /**
+     * Compile backoffice search criteria into one specification per effective filter; null, blank and
+     * empty-list values are skipped, so an empty result means the search is unfiltered
+     *
+     * @throws IllegalArgumentException for unknown keys or malformed values
+     */
+    public static List<Specification<Booking>> compile(Map<String, Object> criteria) {
+        List<Specification<Booking>> specifications = new ArrayList<>();
+        if (criteria == null) {
+            return specifications;
+        }
+
+        criteria.forEach((key, value) -> {
+            if (value == null
+                || (value instanceof String text && !StringUtils.hasText(text))
+                || (value instanceof Collection<?> values && values.isEmpty())) {
+                return;
+            }
+            switch (key) {
+                case "bookingType" -> specifications.add(hasBookingTypes(enumValues(BookingType.class, key, value)));
+                case "status" -> specifications.add(hasStatuses(enumValues(BookingStatus.class, key, value)));
+                case "userId" -> specifications.add(hasUserId(uuidValue(key, value)));
+                case "bookingReference" -> specifications.add(containsText("bookingReference", value.toString()));
+                case "currency" -> specifications.add(hasCurrency(value.toString()));
+                case "minAmount" -> specifications.add(hasAmountRange(decimalValue(key, value), null));
+                case "maxAmount" -> specifications.add(hasAmountRange(null, decimalValue(key, value)));
+                case "startDate" -> specifications.add(createdBetween(dateValue(key, value), null));
+                case "endDate" -> specifications.add(createdBetween(null, dateValue(key, value)));
+                case "airline" -> specifications.add(containsText("pdAirline", value.toString()));
+                case "originAirport" -> specifications.add(equalsText("pdOriginAirport", value.toString()));
+                case "destinationAirport" -> specifications.add(equalsText("pdDestinationAirport", value.toString()));
+                case "departureDateFrom" -> specifications.add(dateBetween("pdDepartureDate", dateValue(key, value), null));
+                case "departureDateTo" -> specifications.add(dateBetween("pdDepartureDate", null, dateValue(key, value)));
+                case "hotelName" -> specifications.add(containsText("pdHotelName", value.toString()));
+                case "city" -> specifications.add(containsText("pdCity", value.toString()));
+                case "checkInDateFrom" -> specifications.add(dateBetween("pdCheckInDate", dateValue(key, value), null));
+                case "checkInDateTo" -> specifications.add(dateBetween("pdCheckInDate", null, dateValue(key, value)));
+                case "searchTerm" -> specifications.add(matchesSearchTerm(value.toString()));
+                default -> throw new IllegalArgumentException("Unsupported search criterion: " + key);
+            }
+        });
+
+        return specifications;
+    }
+
+    /**
+     * Combine specifications with AND
+     */
+    public static Specification<Booking> combine(List<Specification<Booking>> specifications) {
+        return specifications.stream()
+            .reduce(Specification::and)
+            .orElse((root, query, criteriaBuilder) -> criteriaBuilder.conjunction());
+    }
+
+    private static <E extends Enum<E>> List<E> enumValues(Class<E> type, String key, Object value) {
+        Collection<?> values = value instanceof Collection<?> collection ? collection : List.of(value);
+        List<E> result = new ArrayList<>(values.size());
+        for (Object item : values) {
+            try {
+                result.add(Enum.valueOf(type, item.toString().trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + key + ": " + item);
+            }
+        }
+        return result;
+    }
+
+    private static UUID uuidValue(String key, Object value) {
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static BigDecimal decimalValue(String key, Object value) {
+        try {
+            return new BigDecimal(value.toString());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + key + ": " + value);
+        }
+    }
+
+    private static LocalDate dateValue(String key, Object value) {
+        try {
+            return LocalDate.parse(value.toString());
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid " + key + " (expected yyyy-MM-dd): " + value);
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -15,27 +15,35 @@ import com.pdh.booking.model.dto.request.PassengerDetailsDto;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.model.enums.BookingType;
 import com.pdh.booking.repository.BookingRepository;
-import com.pdh.booking.repository.BookingSagaRepository;
-import com.pdh.booking.repository.SagaStateLogRepository;
 import com.pdh.booking.service.BookingOutboxEventService;
 import com.pdh.booking.service.BookingService;
+import com.pdh.booking.service.BookingStatusStreamService;
 import com.pdh.booking.service.ProductDetailsService;
 import com.pdh.common.saga.SagaCommand;
+import com.pdh.common.saga.SagaCommandCodec;
 import com.pdh.common.saga.SagaState;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.core.KafkaTemplate;
-import org.springframework.messaging.handler.annotation.Header;
-import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -49,15 +57,19 @@ public class BookingSagaOrchestrator {
     private static final String PAYMENT_SAGA_COMMAND_TOPIC = "payment-saga-commands";
     private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {};
 
-    private final BookingSagaRepository sagaRepository;
+    private final SagaInstanceStore sagaInstanceStore;
     private final BookingRepository bookingRepository;
-    private final SagaStateLogRepository sagaStateLogRepository;
+    private final SagaStateLogWriter sagaStateLogWriter;
     private final ProductDetailsService productDetailsService;
     private final BookingOutboxEventService bookingOutboxEventService;
     private final BookingService bookingService;
+    private final BookingStatusStreamService bookingStatusStreamService;
     private final ObjectMapper objectMapper;
-    @Qualifier("sagaCommandKafkaTemplate")
-    private final KafkaTemplate<String, String> sagaCommandKafkaTemplate;
+    private final SagaEventLanes sagaEventLanes;
+    private final TransactionTemplate transactionTemplate;
+    private final SagaCommandCodec sagaCommandCodec;
+    @Qualifier("sagaCommandBinaryKafkaTemplate")
+    private final KafkaTemplate<String, byte[]> sagaCommandBinaryKafkaTemplate;
 
     /**
      * Start saga orchestration for a booking.
@@ -67,8 +79,8 @@ public class BookingSagaOrchestrator {
         Booking booking = bookingRepository.findByBookingId(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
 
-        BookingSagaInstance saga = sagaRepository.findByBookingId(bookingId)
-                .orElseGet(() -> sagaRepository.save(BookingSagaInstance.builder()
+        BookingSagaInstance saga = sagaInstanceStore.findByBookingId(bookingId)
+                .orElseGet(() -> sagaInstanceStore.create(BookingSagaInstance.builder()
                         .sagaId(booking.getSagaId())
                         .bookingId(bookingId)
                         .currentState(SagaState.BOOKING_INITIATED)
@@ -80,30 +92,50 @@ public class BookingSagaOrchestrator {
         if (booking.getBookingType() == BookingType.FLIGHT || booking.getBookingType() == BookingType.COMBO) {
             transitionState(saga, SagaState.FLIGHT_RESERVATION_PENDING, "FlightReservationRequested", null, null);
             publishFlightReservationCommand(booking, saga);
-            return;
-        }
-
-        if (booking.getBookingType() == BookingType.HOTEL) {
+        } else if (booking.getBookingType() == BookingType.HOTEL) {
             transitionState(saga, SagaState.HOTEL_RESERVATION_PENDING, "HotelReservationRequested", null, null);
             publishHotelReservationCommand(booking, saga);
-            return;
+        } else {
+            transitionState(saga, SagaState.PAYMENT_PENDING, "PaymentRequested", null, null);
         }
-
-        transitionState(saga, SagaState.PAYMENT_PENDING, "PaymentRequested", null, null);
+        sagaInstanceStore.save(saga);
     }
 
     // ==== Kafka Listeners ====
 
-    @Transactional
+    /**
+     * Consume saga outbox events in batches. Each event is keyed by its bookingId and handed to that
+     * booking's serial lane, so unrelated sagas progress in parallel while one booking's events stay
+     * ordered. When an event fails, the batch fails from that record: offsets before it are committed
+     * and the container's error handler redelivers the rest, dead-lettering the record once its retries
+     * are exhausted.
+     */
     @KafkaListener(topics = { "booking.Booking.events",
             "booking.Flight.events",
             "booking.Hotel.events",
-            "booking.Payment.events" }, groupId = "booking-saga-outbox-listener", containerFactory = "bookingOutboxListenerContainerFactory")
-    public void handleOutboxEvents(@Payload JsonNode message,
-            @Header(value = "eventType", required = false) String eventTypeHeader) {
+            "booking.Payment.events" }, groupId = "booking-saga-outbox-listener", containerFactory = "bookingOutboxBatchListenerContainerFactory")
+    public void handleOutboxEvents(List<ConsumerRecord<String, JsonNode>> records) {
+        List<SagaEventLanes.KeyedTask> tasks = new ArrayList<>(records.size());
+        List<ConsumerRecord<String, JsonNode>> taskRecords = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, JsonNode> record : records) {
+            SagaEvent event = toSagaEvent(record.value(), header(record, "eventType"));
+            if (event != null) {
+                tasks.add(new SagaEventLanes.KeyedTask(event.bookingId(), () -> processSagaCallback(event)));
+                taskRecords.add(record);
+            }
+        }
+        try {
+            sagaEventLanes.runAll(tasks);
+        } catch (SagaEventLanes.TaskFailedException e) {
+            throw new BatchListenerFailedException("Saga event failed for booking " + e.getKey(), e.getCause(),
+                    taskRecords.get(e.getIndex()));
+        }
+    }
+
+    private SagaEvent toSagaEvent(JsonNode message, String eventTypeHeader) {
 
         if (message == null || message.isNull())
-            return;
+            return null;
 
         // 1) Chuẩn hoá root (gỡ double-encoded nếu có)
         JsonNode root = normalize(message);
@@ -135,24 +167,39 @@ public class BookingSagaOrchestrator {
 
         if (isBlank(eventType)) {
             log.warn("Saga outbox event ignored due to missing eventType. message={}", root.toString());
-            return;
+            return null;
         }
 
-        // 4) Payload phẳng để downstream xử lý
-        String payloadJson = payload.toString();
+        // 4) Chọn handler theo eventType
+        SagaEventHandler handler = switch (eventType) {
+            case "FlightReserved", "FlightReservationFailed", "FlightReservationCancelled" -> this::handleFlightEvent;
+            case "HotelReserved", "HotelReservationFailed", "HotelReservationCancelled" -> this::handleHotelEvent;
+            case "PaymentProcessed", "PaymentFailed", "PaymentRefunded", "PaymentCancelled" -> this::handlePaymentEvent;
+            default -> null;
+        };
+        if (handler == null) {
+            log.debug("Ignoring outbox event type {} for saga orchestration", eventType);
+            return null;
+        }
 
-        switch (eventType) {
-            case "FlightReserved", "FlightReservationFailed", "FlightReservationCancelled" ->
-                processSagaCallback(payloadJson, eventType, this::handleFlightEvent);
-            case "HotelReserved", "HotelReservationFailed", "HotelReservationCancelled" ->
-                processSagaCallback(payloadJson, eventType, this::handleHotelEvent);
-            case "PaymentProcessed", "PaymentFailed", "PaymentRefunded", "PaymentCancelled" ->
-                processSagaCallback(payloadJson, eventType, this::handlePaymentEvent);
-            default ->
-                log.debug("Ignoring outbox event type {} for saga orchestration", eventType);
+        JsonNode bookingIdNode = payload.get("bookingId");
+        if (bookingIdNode == null || bookingIdNode.isNull()) {
+            log.warn("Saga callback ignored due to missing bookingId: type={} payload={}", eventType, payload);
+            return null;
+        }
+        try {
+            return new SagaEvent(UUID.fromString(bookingIdNode.asText()), eventType, payload, handler);
+        } catch (IllegalArgumentException e) {
+            log.warn("Saga callback ignored due to invalid bookingId: type={} bookingId={}", eventType, bookingIdNode.asText());
+            return null;
         }
     }
 
+    private String header(ConsumerRecord<String, JsonNode> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header != null && header.value() != null ? new String(header.value(), StandardCharsets.UTF_8) : null;
+    }
+
     private JsonNode normalize(JsonNode node) {
         try {
             // Nếu node là chuỗi JSON -> parse thành object
@@ -181,39 +228,51 @@ public class BookingSagaOrchestrator {
         void handle(BookingSagaInstance saga, Booking booking, String eventType, JsonNode payload) throws Exception;
     }
 
-    private void processSagaCallback(String payloadJson, String eventType, SagaEventHandler handler) {
-        if (StringUtils.isBlank(payloadJson)) {
-            return;
-        }
+    private record SagaEvent(UUID bookingId, String eventType, JsonNode payload, SagaEventHandler handler) {
+    }
 
+    /**
+     * Apply one saga callback in its own transaction; runs on the booking's lane.
+     * A stale cached saga fails the versioned write and is retried once from the database; commands
+     * are only sent after the step commits, so the failed attempt leaves nothing behind.
+     */
+    private void processSagaCallback(SagaEvent event) {
         try {
-            JsonNode payload = objectMapper.readTree(payloadJson);
-            JsonNode bookingIdNode = payload.get("bookingId");
-            if (bookingIdNode == null || bookingIdNode.isNull()) {
-                log.warn("Saga callback ignored due to missing bookingId: type={} payload={}", eventType, payloadJson);
-                return;
-            }
+            applySagaCallback(event);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.debug("Saga for booking {} changed concurrently, retrying {} from the database",
+                    event.bookingId(), event.eventType());
+            applySagaCallback(event);
+        }
+    }
 
-            UUID bookingId = UUID.fromString(bookingIdNode.asText());
-            Optional<BookingSagaInstance> sagaOpt = sagaRepository.findByBookingId(bookingId);
-            Optional<Booking> bookingOpt = bookingRepository.findByBookingId(bookingId);
+    private void applySagaCallback(SagaEvent event) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Optional<BookingSagaInstance> sagaOpt = sagaInstanceStore.findByBookingId(event.bookingId());
+            Optional<Booking> bookingOpt = bookingRepository.findById(event.bookingId());
 
             if (sagaOpt.isEmpty() || bookingOpt.isEmpty()) {
-                log.warn("Saga callback ignored because saga or booking not found: bookingId={}, type={}", bookingId,
-                        eventType);
+                log.warn("Saga callback ignored because saga or booking not found: bookingId={}, type={}",
+                        event.bookingId(), event.eventType());
                 return;
             }
 
             BookingSagaInstance saga = sagaOpt.get();
             if (saga.isCompleted()) {
-                log.debug("Ignoring saga callback {} because saga {} already completed", eventType, saga.getSagaId());
+                log.debug("Ignoring saga callback {} because saga {} already completed", event.eventType(),
+                        saga.getSagaId());
                 return;
             }
 
-            handler.handle(saga, bookingOpt.get(), eventType, payload);
-        } catch (Exception e) {
-            log.error("Error processing saga callback eventType={} payload={} ", eventType, payloadJson, e);
-        }
+            try {
+                event.handler().handle(saga, bookingOpt.get(), event.eventType(), event.payload());
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+            sagaInstanceStore.save(saga);
+        });
     }
 
     private String resolveEventType(JsonNode message, String eventTypeHeader) {
@@ -462,15 +521,28 @@ public class BookingSagaOrchestrator {
         sendCommand(command, BOOKING_SAGA_COMMAND_TOPIC);
     }
 
+    /**
+     * Send a command once the saga step commits. A step that fails its versioned saga write rolls
+     * back and is retried, so sending immediately would deliver the command once per attempt.
+     */
     private void sendCommand(SagaCommand command, String topic) {
-        try {
-            String payload = objectMapper.writeValueAsString(command);
-            sagaCommandKafkaTemplate.send(topic, command.getSagaId(), payload);
-            log.debug("Saga command sent: topic={} action={} sagaId={}", topic, command.getAction(),
-                    command.getSagaId());
-        } catch (JsonProcessingException e) {
-            throw new IllegalStateException("Failed to serialize saga command", e);
+        byte[] payload = sagaCommandCodec.write(command);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            doSendCommand(command, topic, payload);
+            return;
         }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                doSendCommand(command, topic, payload);
+            }
+        });
+    }
+
+    private void doSendCommand(SagaCommand command, String topic, byte[] payload) {
+        sagaCommandBinaryKafkaTemplate.send(topic, command.getSagaId(), payload);
+        log.debug("Saga command sent: topic={} action={} sagaId={} bytes={}", topic, command.getAction(),
+                command.getSagaId(), payload.length);
     }
 
     private void requestFlightCancellation(BookingSagaInstance saga,
@@ -536,7 +608,8 @@ public class BookingSagaOrchestrator {
             if (extras != null && !extras.isEmpty()) {
                 payload.putAll(extras);
             }
-            bookingOutboxEventService.publishEvent(eventType, "Booking", booking.getBookingId().toString(), payload);
+            // A saga step can raise several notifications; they are written in one batch at commit
+            bookingOutboxEventService.publishEventOnCommit(eventType, "Booking", booking.getBookingId().toString(), payload);
         } catch (Exception ex) {
             log.warn("Failed to publish notification event {} for booking {}", eventType, booking.getBookingId(), ex);
         }
@@ -756,12 +829,13 @@ public class BookingSagaOrchestrator {
     public void markPaymentInitiated(UUID bookingId) {
         Booking booking = bookingRepository.findByBookingId(bookingId)
                 .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
-        BookingSagaInstance saga = sagaRepository.findByBookingId(bookingId)
+        BookingSagaInstance saga = sagaInstanceStore.findByBookingId(bookingId)
                 .orElseThrow(() -> new IllegalStateException("Saga instance not found for booking " + bookingId));
 
         SagaState currentState = saga.getCurrentState();
         if (currentState == SagaState.FLIGHT_RESERVED || currentState == SagaState.HOTEL_RESERVED) {
             transitionState(saga, SagaState.PAYMENT_PENDING, "PaymentRequested", null, null);
+            sagaInstanceStore.save(saga);
         }
         else if (currentState != SagaState.PAYMENT_PENDING) {
             log.warn("Ignoring manual payment initiation for booking {} in state {}", bookingId, currentState);
@@ -780,10 +854,11 @@ public class BookingSagaOrchestrator {
         }
         saga.setCurrentState(newState);
         saga.setLastUpdatedAt(ZonedDateTime.now());
-        sagaRepository.save(saga);
-        bookingRepository.findByBookingId(saga.getBookingId())
+        // Saga row is written once per step by the caller; the booking is already in the persistence context
+        bookingRepository.findById(saga.getBookingId())
                 .ifPresent(b -> updateBookingState(b, newState, null));
         logStateTransition(saga, previous, newState, eventType, payload, errorMessage);
+        bookingStatusStreamService.publishAfterCommit(saga.getBookingId());
     }
 
     private void logStateTransition(BookingSagaInstance saga,
@@ -803,7 +878,7 @@ public class BookingSagaOrchestrator {
                 logEntry.setEventPayload(objectMapper.writeValueAsString(payload));
             }
             logEntry.setErrorMessage(errorMessage);
-            sagaStateLogRepository.save(logEntry);
+            sagaStateLogWriter.append(logEntry);
         } catch (JsonProcessingException e) {
             log.warn("Failed to serialize saga event payload for saga {}", saga.getSagaId(), e);
         }
@@ -819,9 +894,8 @@ public class BookingSagaOrchestrator {
         saga.setCompensationReason(reason);
         transitionState(saga, SagaState.BOOKING_CANCELLED, eventType, payload, reason);
         saga.setCompletedAt(ZonedDateTime.now());
-        sagaRepository.save(saga);
 
-        Booking latestBooking = bookingRepository.findByBookingId(booking.getBookingId())
+        Booking latestBooking = bookingRepository.findById(booking.getBookingId())
                 .orElse(booking);
         latestBooking.setSagaState(SagaState.BOOKING_CANCELLED);
         latestBooking.setStatus(finalStatus);
@@ -835,7 +909,6 @@ public class BookingSagaOrchestrator {
     private void completeSaga(BookingSagaInstance saga, Booking booking, JsonNode payload) {
         transitionState(saga, SagaState.BOOKING_COMPLETED, "BookingCompleted", payload, null);
         saga.setCompletedAt(ZonedDateTime.now());
-        sagaRepository.save(saga);
 
         booking.setStatus(BookingStatus.CONFIRMED);
         if (booking.getConfirmationNumber() == null || booking.getConfirmationNumber().isBlank()) {
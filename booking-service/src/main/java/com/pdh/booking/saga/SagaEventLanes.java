@@ -0,0 +1,114 @@
+package com.pdh.booking.saga;
+
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bounded set of serial lanes for saga event processing.
+ * Every booking hashes to one lane, so its events run one after another in arrival order,
+ * while events for other bookings progress in parallel on the remaining lanes.
+ */
+@Component
+@Slf4j
+public class SagaEventLanes {
+
+    private final List<ExecutorService> lanes;
+
+    public SagaEventLanes(@Value("${booking.saga.lanes.count:4}") int laneCount) {
+        int count = Math.max(1, laneCount);
+        this.lanes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lanes.add(Executors.newSingleThreadExecutor(Thread.ofVirtual().name("saga-lane-" + i).factory()));
+        }
+        log.info("Saga event processing uses {} lanes", count);
+    }
+
+    /**
+     * Run one task per key on the key's lane and wait until all of them have finished.
+     * Tasks sharing a key keep their relative order. Once a task fails, the later tasks of its key are
+     * skipped so they never run ahead of it, while tasks of other keys carry on.
+     *
+     * @throws TaskFailedException for the earliest failed task, after every lane has finished
+     */
+    public void runAll(List<KeyedTask> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        Set<String> failedKeys = ConcurrentHashMap.newKeySet();
+        RuntimeException[] failures = new RuntimeException[tasks.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            int index = i;
+            KeyedTask task = tasks.get(i);
+            futures.add(CompletableFuture.runAsync(() -> failures[index] = run(task, failedKeys),
+                laneFor(task.key())));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (int i = 0; i < failures.length; i++) {
+            if (failures[i] != null) {
+                throw new TaskFailedException(i, tasks.get(i).key(), failures[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return lanes.size();
+    }
+
+    private ExecutorService laneFor(UUID key) {
+        int hash = key != null ? key.hashCode() : 0;
+        return lanes.get(Math.floorMod(hash, lanes.size()));
+    }
+
+    private static RuntimeException run(KeyedTask task, Set<String> failedKeys) {
+        String key = String.valueOf(task.key());
+        if (failedKeys.contains(key)) {
+            log.debug("Skipping saga event task for key {} behind an earlier failure", key);
+            return null;
+        }
+        try {
+            task.task().run();
+            return null;
+        } catch (RuntimeException e) {
+            failedKeys.add(key);
+            log.warn("Saga event task failed for key {}: {}", key, e.getMessage());
+            return e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        lanes.forEach(ExecutorService::close);
+    }
+
+    public record KeyedTask(UUID key, Runnable task) {
+    }
+
+    /**
+     * The task at {@link #getIndex()} failed and every task before it completed; later tasks may have run
+     */
+    @Getter
+    public static class TaskFailedException extends RuntimeException {
+        private final int index;
+        private final UUID key;
+
+        public TaskFailedException(int index, UUID key, RuntimeException cause) {
+            super("Saga event task " + index + " failed for key " + key, cause);
+            this.index = index;
+            this.key = key;
+        }
+    }
+}
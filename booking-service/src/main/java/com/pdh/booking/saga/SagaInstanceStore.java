@@ -0,0 +1,156 @@
+package com.pdh.booking.saga;
+
+import com.pdh.booking.model.BookingSagaInstance;
+import com.pdh.booking.repository.BookingSagaRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Keeps active saga instances in memory so a saga step does not have to reload its row.
+ * Instances are handed out detached and written back with one versioned UPDATE per unit of work;
+ * a version mismatch (another replica advanced the saga) evicts the entry and fails the step so it
+ * can be retried against the database. Completed sagas are dropped from the cache.
+ */
+@Component
+@Slf4j
+public class SagaInstanceStore {
+
+    private final BookingSagaRepository sagaRepository;
+    private final EntityManager entityManager;
+    private final Map<UUID, BookingSagaInstance> active;
+
+    public SagaInstanceStore(BookingSagaRepository sagaRepository,
+                             EntityManager entityManager,
+                             @Value("${booking.saga.cache.max-size:10000}") int maxSize) {
+        this.sagaRepository = sagaRepository;
+        this.entityManager = entityManager;
+        this.active = Collections.synchronizedMap(new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<UUID, BookingSagaInstance> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+
+    /**
+     * Saga of a booking, detached from the persistence context; served from memory when cached.
+     */
+    public Optional<BookingSagaInstance> findByBookingId(UUID bookingId) {
+        BookingSagaInstance cached = active.get(bookingId);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        Optional<BookingSagaInstance> loaded = sagaRepository.findByBookingId(bookingId);
+        loaded.ifPresent(saga -> {
+            entityManager.detach(saga);
+            remember(saga);
+        });
+        return loaded;
+    }
+
+    /**
+     * Insert a new saga and return it detached; it is cached once the transaction commits.
+     */
+    public BookingSagaInstance create(BookingSagaInstance saga) {
+        BookingSagaInstance created = sagaRepository.saveAndFlush(saga);
+        entityManager.detach(created);
+        afterCommit(copyOf(created));
+        return created;
+    }
+
+    /**
+     * Write the saga back with a single versioned UPDATE, skipping it when nothing changed.
+     */
+    public void save(BookingSagaInstance saga) {
+        BookingSagaInstance cached = active.get(saga.getBookingId());
+        if (cached != null && sameState(cached, saga)) {
+            return;
+        }
+        long version = saga.getVersion() != null ? saga.getVersion() : 0L;
+        ZonedDateTime now = ZonedDateTime.now();
+        int updated = sagaRepository.updateState(
+                saga.getSagaId(),
+                version,
+                saga.getCurrentState(),
+                now,
+                saga.getCompletedAt(),
+                saga.getIsCompensating(),
+                saga.getCompensationReason(),
+                saga.getStepContext());
+        if (updated == 0) {
+            evict(saga.getBookingId());
+            throw new ObjectOptimisticLockingFailureException(BookingSagaInstance.class, saga.getSagaId());
+        }
+        saga.setVersion(version + 1);
+        saga.setLastUpdatedAt(now);
+        afterCommit(copyOf(saga));
+    }
+
+    public void evict(UUID bookingId) {
+        if (bookingId != null) {
+            active.remove(bookingId);
+        }
+    }
+
+    private void afterCommit(BookingSagaInstance snapshot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(snapshot);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    remember(snapshot);
+                } else {
+                    evict(snapshot.getBookingId());
+                }
+            }
+        });
+    }
+
+    private void remember(BookingSagaInstance saga) {
+        if (saga.isCompleted()) {
+            active.remove(saga.getBookingId());
+        } else {
+            active.put(saga.getBookingId(), copyOf(saga));
+        }
+    }
+
+    private static boolean sameState(BookingSagaInstance a, BookingSagaInstance b) {
+        return Objects.equals(a.getVersion(), b.getVersion())
+                && a.getCurrentState() == b.getCurrentState()
+                && Objects.equals(a.getCompletedAt(), b.getCompletedAt())
+                && Objects.equals(a.getIsCompensating(), b.getIsCompensating())
+                && Objects.equals(a.getCompensationReason(), b.getCompensationReason())
+                && Objects.equals(a.getStepContext(), b.getStepContext());
+    }
+
+    private static BookingSagaInstance copyOf(BookingSagaInstance saga) {
+        return BookingSagaInstance.builder()
+                .sagaId(saga.getSagaId())
+                .bookingId(saga.getBookingId())
+                .currentState(saga.getCurrentState())
+                .startedAt(saga.getStartedAt())
+                .lastUpdatedAt(saga.getLastUpdatedAt())
+                .completedAt(saga.getCompletedAt())
+                .isCompensating(saga.getIsCompensating())
+                .compensationReason(saga.getCompensationReason())
+                .stepContext(saga.getStepContext())
+                .version(saga.getVersion())
+                .build();
+    }
+}
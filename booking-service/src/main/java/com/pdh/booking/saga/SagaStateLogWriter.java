@@ -0,0 +1,128 @@
+package com.pdh.booking.saga;
+
+import com.pdh.booking.model.SagaStateLog;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Appends saga state log rows behind the saga transaction.
+ * Entries are queued once their transaction commits and inserted in JDBC batches, so a saga step no longer
+ * pays an identity insert per transition. The log is an audit trail: saga and booking rows are written
+ * synchronously, so a crash only loses queued log rows, never saga progress. A batch the database rejects
+ * is dropped, logged with its saga ids and counted in booking.saga.state-log.dropped.
+ */
+@Component
+@Slf4j
+public class SagaStateLogWriter {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO saga_state_log (created_at, created_by, updated_at, updated_by, is_deleted,
+                                        saga_id, booking_id, from_state, to_state, event_type,
+                                        event_payload, compensation_data, error_message, processed_at)
+            VALUES (?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<SagaStateLog> queue;
+    private final int batchSize;
+    private final Counter writtenCounter;
+    private final Counter droppedCounter;
+
+    public SagaStateLogWriter(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${booking.saga.state-log.queue-capacity:10000}") int queueCapacity,
+                              @Value("${booking.saga.state-log.batch-size:200}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        Gauge.builder("booking.saga.state-log.queued", queue, BlockingQueue::size)
+                .description("Saga state log entries waiting to be written")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("booking.saga.state-log.written")
+                .description("Saga state log entries written")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("booking.saga.state-log.dropped")
+                .description("Saga state log entries lost because their batch failed to write")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a log entry once the current transaction commits; entries of rolled back steps are dropped.
+     */
+    public void append(SagaStateLog entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(entry);
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${booking.saga.state-log.flush-interval-ms:200}")
+    public void flush() {
+        List<SagaStateLog> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void enqueue(SagaStateLog entry) {
+        if (!queue.offer(entry)) {
+            log.warn("Saga state log queue is full, writing entry for saga {} inline", entry.getSagaId());
+            write(List.of(entry));
+        }
+    }
+
+    private void write(List<SagaStateLog> batch) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, batch, batch.size(), (ps, entry) -> {
+                ps.setTimestamp(1, now);
+                ps.setString(2, entry.getCreatedBy());
+                ps.setTimestamp(3, now);
+                ps.setString(4, entry.getUpdatedBy());
+                ps.setString(5, entry.getSagaId());
+                ps.setString(6, entry.getBookingId());
+                ps.setString(7, entry.getFromState() != null ? entry.getFromState().name() : null);
+                ps.setString(8, entry.getToState().name());
+                ps.setString(9, entry.getEventType());
+                ps.setString(10, entry.getEventPayload());
+                ps.setString(11, entry.getCompensationData());
+                ps.setString(12, entry.getErrorMessage());
+                ps.setTimestamp(13, Timestamp.valueOf(entry.getProcessedAt() != null ? entry.getProcessedAt() : LocalDateTime.now()));
+            });
+            writtenCounter.increment(batch.size());
+        } catch (DataAccessException e) {
+            droppedCounter.increment(batch.size());
+            log.error("Dropped {} saga state log entries for sagas {}", batch.size(),
+                    batch.stream().map(SagaStateLog::getSagaId).distinct().toList(), e);
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package com.pdh.booking.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.dto.internal.BookingAnalyticsEventDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.Map;
+import java.util.UUID;
 
 /**
  * Service for publishing analytics events to Kafka
@@ -18,35 +26,61 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class AnalyticsEventService {
 
+    /**
+     * Outbox aggregate type of booking analytics events; the relay and CDC route it to BOOKING_ANALYTICS_TOPIC
+     */
+    public static final String BOOKING_ANALYTICS_AGGREGATE = "BookingAnalytics";
+    public static final String BOOKING_ANALYTICS_TOPIC = "booking." + BOOKING_ANALYTICS_AGGREGATE + ".events";
+
+    private static final String OUTBOX_INSERT_SQL = """
+            INSERT INTO booking_outbox_events (event_id, event_type, aggregate_id, aggregate_type, payload, booking_id,
+                                               user_id, partition_key, priority, processed, retry_count, max_retries,
+                                               created_at, updated_at, is_deleted)
+            VALUES (?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, 5, false, 0, 3, ?, ?, false)
+            """;
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
 
     /**
-     * Publish booking analytics event to Kafka
+     * Record a booking analytics event in the booking outbox on the connection of the transaction that changed
+     * the booking, so the event commits or rolls back with the booking; the outbox relay or CDC delivers it.
+     * A failed insert fails that transaction, as the booking change would otherwise commit without its event.
      */
     public void publishBookingAnalyticsEvent(Booking booking, String eventType) {
+        BookingAnalyticsEventDto analyticsEvent = toAnalyticsEvent(booking, eventType);
+        String payload;
         try {
-            Map<String, Object> analyticsEvent = Map.of(
-                "eventType", eventType,
-                "bookingId", booking.getBookingId().toString(),
-                "bookingReference", booking.getBookingReference(),
-                "userId", booking.getUserId().toString(),
-                "bookingType", booking.getBookingType().toString(),
-                "totalAmount", booking.getTotalAmount(),
-                "currency", booking.getCurrency(),
-                "status", booking.getStatus().toString(),
-                "timestamp", ZonedDateTime.now().toString(),
-                "source", "booking-service"
-            );
-
-            kafkaTemplate.send("booking-analytics", booking.getBookingId().toString(), analyticsEvent);
-            log.debug("Analytics event published for booking: {} with type: {}", 
-                    booking.getBookingReference(), eventType);
-                    
-        } catch (Exception e) {
-            log.warn("Failed to publish analytics event for booking: {}, error: {}", 
-                    booking.getBookingReference(), e.getMessage());
-            // Don't fail the main business operation for analytics failure
+            payload = objectMapper.writeValueAsString(analyticsEvent);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize analytics event for booking " + booking.getBookingId(), e);
         }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String bookingId = booking.getBookingId().toString();
+        jdbcTemplate.update(OUTBOX_INSERT_SQL, UUID.randomUUID().toString(), eventType, bookingId,
+                BOOKING_ANALYTICS_AGGREGATE, payload, booking.getBookingId(), booking.getUserId(), bookingId, now, now);
+        log.debug("Analytics event recorded for booking: {} with type: {}", booking.getBookingReference(), eventType);
+    }
+
+    private BookingAnalyticsEventDto toAnalyticsEvent(Booking booking, String eventType) {
+        return BookingAnalyticsEventDto.builder()
+            .eventType(eventType)
+            .bookingId(booking.getBookingId().toString())
+            .bookingReference(booking.getBookingReference())
+            .userId(booking.getUserId() != null ? booking.getUserId().toString() : null)
+            .bookingType(booking.getBookingType().toString())
+            .totalAmount(booking.getTotalAmount())
+            .currency(booking.getCurrency())
+            .status(booking.getStatus().toString())
+            .destination(destinationOf(booking))
+            .createdAt(booking.getCreatedAt() != null
+                    ? booking.getCreatedAt().toLocalDateTime().toString() : null)
+            .updatedAt(booking.getUpdatedAt() != null
+                    ? booking.getUpdatedAt().toOffsetDateTime().toString() : null)
+            .timestamp(ZonedDateTime.now().toString())
+            .source("booking-service")
+            .build();
     }
 
     /**
@@ -92,4 +126,28 @@ public class AnalyticsEventService {
             log.warn("Failed to publish performance metrics for operation: {}, error: {}", operation, e.getMessage());
         }
     }
+
+    /**
+     * Flight destination airport or hotel city from the product details snapshot; unreadable details have none
+     */
+    private String destinationOf(Booking booking) {
+        if (booking.getProductDetailsJson() == null) {
+            return null;
+        }
+        String field = switch (booking.getBookingType()) {
+            case FLIGHT -> "destinationAirport";
+            case HOTEL -> "city";
+            default -> null;
+        };
+        if (field == null) {
+            return null;
+        }
+        try {
+            JsonNode value = objectMapper.readTree(booking.getProductDetailsJson()).get(field);
+            return value != null && !value.isNull() ? value.asText() : null;
+        } catch (JsonProcessingException e) {
+            log.debug("Unreadable product details for booking {}, no destination", booking.getBookingId());
+            return null;
+        }
+    }
 }
@@ -1,17 +1,28 @@
 package com.pdh.booking.service;
 
 import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.dto.response.BookingSearchPageDto;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.model.enums.BookingType;
+import com.pdh.booking.repository.BookingDailyStatsRepository;
 import com.pdh.booking.repository.BookingRepository;
+import com.pdh.booking.repository.specification.BookingSpecification;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
 
@@ -24,7 +35,13 @@ import java.util.*;
 @Slf4j
 public class BackofficeBookingService {
 
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("bookingId"));
+
     private final BookingRepository bookingRepository;
+    private final BookingDailyStatsRepository bookingDailyStatsRepository;
+    private final ObjectProvider<BookingRevenueStreamService> bookingRevenueStreamService;
+    private final BookingStatusStreamService bookingStatusStreamService;
 
     /**
      * Get all bookings with filtering
@@ -119,33 +136,16 @@ public class BackofficeBookingService {
         log.debug("Calculating booking statistics for period: {} to {}", startDate, endDate);
         
         Map<String, Object> statistics = new HashMap<>();
+        PeriodStats stats = periodStats(startDate, endDate);
         
-        // Total bookings
-        Long totalBookings = bookingRepository.countBookingsInPeriod(startDate, endDate);
-        statistics.put("totalBookings", totalBookings);
-
-        // Bookings by type
-        Map<String, Long> bookingsByType = new HashMap<>();
-        for (BookingType type : BookingType.values()) {
-            Long count = bookingRepository.countBookingsByTypeInPeriod(type, startDate, endDate);
-            bookingsByType.put(type.name(), count);
-        }
-        statistics.put("bookingsByType", bookingsByType);
-
-        // Bookings by status
-        Map<String, Long> bookingsByStatus = new HashMap<>();
-        for (BookingStatus status : BookingStatus.values()) {
-            Long count = bookingRepository.countBookingsByStatusInPeriod(status, startDate, endDate);
-            bookingsByStatus.put(status.name(), count);
-        }
-        statistics.put("bookingsByStatus", bookingsByStatus);
-
-        // Revenue statistics
-        Double totalRevenue = bookingRepository.getTotalRevenueInPeriod(startDate, endDate);
-        statistics.put("totalRevenue", totalRevenue != null ? totalRevenue : 0.0);
-
-        Double averageBookingValue = bookingRepository.getAverageBookingValueInPeriod(startDate, endDate);
-        statistics.put("averageBookingValue", averageBookingValue != null ? averageBookingValue : 0.0);
+        statistics.put("totalBookings", stats.totalBookings());
+        statistics.put("bookingsByType", stats.bookingsByType());
+        statistics.put("bookingsByStatus", stats.bookingsByStatus());
+
+        // Revenue statistics (confirmed bookings)
+        statistics.put("totalRevenue", stats.confirmedRevenue());
+        statistics.put("averageBookingValue", stats.confirmedBookings() > 0
+                ? stats.confirmedRevenue() / stats.confirmedBookings() : 0.0);
         
         return statistics;
     }
@@ -172,14 +172,46 @@ public class BackofficeBookingService {
     }
 
     /**
-     * Advanced search with multiple JSONB criteria
+     * Advanced search with multiple JSONB criteria, paged by keyset on (created_at, booking_id) DESC.
+     * Fetches one row beyond the page to detect a next page, so no COUNT runs unless a total is requested.
+     *
+     * @throws IllegalArgumentException for unsupported criteria or a malformed cursor
      */
     @Transactional(readOnly = true)
-    public Page<Booking> advancedSearch(Map<String, Object> searchCriteria, Pageable pageable) {
-        log.debug("Performing advanced search with criteria: {}", searchCriteria);
+    public BookingSearchPageDto advancedSearch(Map<String, Object> searchCriteria, String cursor,
+                                               int size, boolean includeTotal) {
+        log.debug("Performing advanced search with criteria: {}, cursor: {}", searchCriteria, cursor);
+
+        int pageSize = Math.max(1, Math.min(size, MAX_SEARCH_PAGE_SIZE));
+        List<Specification<Booking>> compiled = BookingSpecification.compile(searchCriteria);
+        Specification<Booking> filters = BookingSpecification.combine(compiled);
+        Specification<Booking> page = filters;
+        if (StringUtils.hasText(cursor)) {
+            SearchCursor position = SearchCursor.decode(cursor);
+            page = filters.and(BookingSpecification.after(position.createdAt(), position.bookingId()));
+        }
 
-        // For now, return basic search - can be enhanced with dynamic query building
-        return bookingRepository.findAll(pageable);
+        List<Booking> rows = bookingRepository.findBy(page, query -> query
+                .sortBy(KEYSET_SORT)
+                .limit(pageSize + 1)
+                .all());
+
+        boolean hasNext = rows.size() > pageSize;
+        List<Booking> content = hasNext ? rows.subList(0, pageSize) : rows;
+        Booking last = content.isEmpty() ? null : content.get(content.size() - 1);
+
+        BookingSearchPageDto.BookingSearchPageDtoBuilder result = BookingSearchPageDto.builder()
+                .content(content)
+                .size(pageSize)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? SearchCursor.encode(last) : null);
+
+        if (includeTotal) {
+            boolean unfiltered = compiled.isEmpty();
+            result.totalElements(unfiltered ? bookingRepository.estimateBookingCount() : bookingRepository.count(filters))
+                    .totalExact(!unfiltered);
+        }
+        return result.build();
     }
 
     /**
@@ -192,20 +224,21 @@ public class BackofficeBookingService {
         Map<String, List<Map<String, Object>>> destinations = new HashMap<>();
         
         // Popular flight destinations
-        List<Map<String, Object>> flightDestinations = bookingRepository
-                .getPopularFlightDestinations(startDate, endDate);
+        List<Map<String, Object>> flightDestinations = bookingDailyStatsRepository
+                .getPopularDestinations(BookingType.FLIGHT.name(), startDate, endDate);
         destinations.put("flights", flightDestinations);
 
         // Popular hotel destinations
-        List<Map<String, Object>> hotelDestinations = bookingRepository
-                .getPopularHotelDestinations(startDate, endDate);
+        List<Map<String, Object>> hotelDestinations = bookingDailyStatsRepository
+                .getPopularDestinations(BookingType.HOTEL.name(), startDate, endDate);
         destinations.put("hotels", hotelDestinations);
         
         return destinations;
     }
 
     /**
-     * Get revenue analytics
+     * Get revenue analytics; grouped series come from the revenue stream when it is running
+     * (which adds hourly grouping) and from the daily rollup otherwise
      */
     @Transactional(readOnly = true)
     public Map<String, Object> getRevenueAnalytics(LocalDate startDate, LocalDate endDate, String groupBy) {
@@ -214,28 +247,38 @@ public class BackofficeBookingService {
         
         Map<String, Object> analytics = new HashMap<>();
         
-        if ("day".equalsIgnoreCase(groupBy)) {
-            List<Map<String, Object>> dailyRevenue = bookingRepository
-                    .getDailyRevenue(startDate, endDate);
+        BookingRevenueStreamService revenueStream = bookingRevenueStreamService.getIfAvailable();
+        boolean fromStream = revenueStream != null && revenueStream.isAvailable();
+        analytics.put("source", fromStream ? "stream" : "rollup");
+
+        if ("hour".equalsIgnoreCase(groupBy) && fromStream) {
+            analytics.put("hourlyRevenue", revenueStream.getHourlyRevenue(startDate, endDate));
+        } else if ("day".equalsIgnoreCase(groupBy)) {
+            List<Map<String, Object>> dailyRevenue = fromStream
+                    ? revenueStream.getDailyRevenue(startDate, endDate)
+                    : bookingDailyStatsRepository.getDailyRevenue(startDate, endDate);
             analytics.put("dailyRevenue", dailyRevenue);
         } else if ("month".equalsIgnoreCase(groupBy)) {
-            List<Map<String, Object>> monthlyRevenue = bookingRepository
-                    .getMonthlyRevenue(startDate, endDate);
+            List<Map<String, Object>> monthlyRevenue = fromStream
+                    ? revenueStream.getMonthlyRevenue(startDate, endDate)
+                    : bookingDailyStatsRepository.getMonthlyRevenue(startDate, endDate);
             analytics.put("monthlyRevenue", monthlyRevenue);
         } else if ("type".equalsIgnoreCase(groupBy)) {
-            List<Map<String, Object>> revenueByType = bookingRepository
-                    .getRevenueByBookingType(startDate, endDate);
+            List<Map<String, Object>> revenueByType = fromStream
+                    ? revenueStream.getRevenueByBookingType(startDate, endDate)
+                    : bookingDailyStatsRepository.getRevenueByBookingType(startDate, endDate);
             analytics.put("revenueByType", revenueByType);
         }
 
         // Overall metrics
-        Double totalRevenue = bookingRepository.getTotalRevenueInPeriod(startDate, endDate);
-        analytics.put("totalRevenue", totalRevenue != null ? totalRevenue : 0.0);
+        PeriodStats stats = periodStats(startDate, endDate);
+        double totalRevenue = stats.confirmedRevenue();
+        analytics.put("totalRevenue", totalRevenue);
 
-        Long totalBookings = bookingRepository.countBookingsInPeriod(startDate, endDate);
+        long totalBookings = stats.totalBookings();
         analytics.put("totalBookings", totalBookings);
         
-        if (totalBookings > 0 && totalRevenue != null) {
+        if (totalBookings > 0) {
             analytics.put("averageBookingValue", totalRevenue / totalBookings);
         } else {
             analytics.put("averageBookingValue", 0.0);
@@ -268,6 +311,7 @@ public class BackofficeBookingService {
                     "Status updated: " + reason);
         }
         
+        bookingStatusStreamService.publishAfterCommit(bookingId);
         return bookingRepository.save(booking);
     }
 
@@ -298,6 +342,7 @@ public class BackofficeBookingService {
                     "Cancelled: " + reason);
         }
         
+        bookingStatusStreamService.publishAfterCommit(bookingId);
         return bookingRepository.save(booking);
     }
 
@@ -325,34 +370,49 @@ public class BackofficeBookingService {
         Map<String, Object> summary = new HashMap<>();
         
         // Basic counts
-        Long totalBookings = bookingRepository.countBookingsInPeriod(startDate, endDate);
-        Long confirmedBookings = bookingRepository.countBookingsByStatusInPeriod(
-                BookingStatus.CONFIRMED, startDate, endDate);
-        Long pendingBookings = bookingRepository.countBookingsByStatusInPeriod(
-                BookingStatus.PENDING, startDate, endDate);
-        Long cancelledBookings = bookingRepository.countBookingsByStatusInPeriod(
-                BookingStatus.CANCELLED, startDate, endDate);
-        
-        summary.put("totalBookings", totalBookings);
-        summary.put("confirmedBookings", confirmedBookings);
-        summary.put("pendingBookings", pendingBookings);
-        summary.put("cancelledBookings", cancelledBookings);
+        PeriodStats stats = periodStats(startDate, endDate);
+        summary.put("totalBookings", stats.totalBookings());
+        summary.put("confirmedBookings", stats.bookingsByStatus().get(BookingStatus.CONFIRMED.name()));
+        summary.put("pendingBookings", stats.bookingsByStatus().get(BookingStatus.PENDING.name()));
+        summary.put("cancelledBookings", stats.bookingsByStatus().get(BookingStatus.CANCELLED.name()));
         
         // Type breakdown
-        Map<String, Long> typeBreakdown = new HashMap<>();
-        for (BookingType type : BookingType.values()) {
-            Long count = bookingRepository.countBookingsByTypeInPeriod(type, startDate, endDate);
-            typeBreakdown.put(type.name(), count);
-        }
-        summary.put("typeBreakdown", typeBreakdown);
+        summary.put("typeBreakdown", stats.bookingsByType());
         
         // Revenue
-        Double totalRevenue = bookingRepository.getTotalRevenueInPeriod(startDate, endDate);
-        summary.put("totalRevenue", totalRevenue != null ? totalRevenue : 0.0);
+        summary.put("totalRevenue", stats.confirmedRevenue());
         
         return summary;
     }
 
+    /**
+     * Period totals from the daily rollup: one grouped read instead of a count query per type and status
+     */
+    private PeriodStats periodStats(LocalDate startDate, LocalDate endDate) {
+        Map<String, Long> byType = new HashMap<>();
+        for (BookingType type : BookingType.values()) {
+            byType.put(type.name(), 0L);
+        }
+        Map<String, Long> byStatus = new HashMap<>();
+        for (BookingStatus status : BookingStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+
+        long total = 0;
+        BigDecimal confirmedRevenue = BigDecimal.ZERO;
+        for (BookingDailyStatsRepository.StatsBucket bucket : bookingDailyStatsRepository.summarize(startDate, endDate)) {
+            long count = bucket.getBookingCount();
+            total += count;
+            byType.merge(bucket.getBookingType().name(), count, Long::sum);
+            byStatus.merge(bucket.getStatus().name(), count, Long::sum);
+            if (bucket.getStatus() == BookingStatus.CONFIRMED && bucket.getRevenue() != null) {
+                confirmedRevenue = confirmedRevenue.add(bucket.getRevenue());
+            }
+        }
+        return new PeriodStats(total, byType, byStatus,
+                byStatus.get(BookingStatus.CONFIRMED.name()), confirmedRevenue.doubleValue());
+    }
+
     /**
      * Validate status transitions
      */
@@ -384,4 +444,34 @@ public class BackofficeBookingService {
                 return false;
         }
     }
+
+    /**
+     * Opaque search position: the creation instant and id of the last row of the previous page
+     */
+    record SearchCursor(ZonedDateTime createdAt, UUID bookingId) {
+
+        static String encode(Booking booking) {
+            String position = booking.getCreatedAt().toInstant() + "|" + booking.getBookingId();
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static SearchCursor decode(String cursor) {
+            try {
+                String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = position.indexOf('|');
+                return new SearchCursor(
+                        Instant.parse(position.substring(0, separator)).atZone(ZoneId.systemDefault()),
+                        UUID.fromString(position.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid search cursor");
+            }
+        }
+    }
+
+    private record PeriodStats(long totalBookings,
+                               Map<String, Long> bookingsByType,
+                               Map<String, Long> bookingsByStatus,
+                               long confirmedBookings,
+                               double confirmedRevenue) {
+    }
 }
@@ -2,108 +2,127 @@ package com.pdh.booking.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.pdh.common.outbox.service.OutboxEventService;
+import com.pdh.common.outbox.service.AbstractOutboxEventService;
+import com.pdh.common.outbox.service.OutboxPartitionManager;
+import com.pdh.common.outbox.service.OutboxRelay;
 import com.pdh.booking.model.BookingOutboxEvent;
 import com.pdh.booking.repository.BookingOutboxEventRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Map;
 import java.util.UUID;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Booking-specific implementation of OutboxEventService
  * Publishes events to booking_outbox_events table
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class BookingOutboxEventService implements OutboxEventService {
+public class BookingOutboxEventService extends AbstractOutboxEventService<BookingOutboxEvent> {
 
-    private final BookingOutboxEventRepository bookingOutboxEventRepository;
-    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OutboxPartitionManager> outboxPartitionManager;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+
+    public BookingOutboxEventService(BookingOutboxEventRepository bookingOutboxEventRepository,
+                                     ObjectMapper objectMapper,
+                                     ObjectProvider<OutboxPartitionManager> outboxPartitionManager,
+                                     ObjectProvider<OutboxRelay> outboxRelay) {
+        super(bookingOutboxEventRepository, objectMapper);
+        this.outboxPartitionManager = outboxPartitionManager;
+        this.outboxRelay = outboxRelay;
+    }
 
     @Override
-    @Transactional
-    public void publishEvent(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
-        try {
-            String payload;
+    public void processUnprocessedEvents() {
+        outboxRelay.ifAvailable(OutboxRelay::relayPending);
+    }
 
-            if (eventPayload instanceof String) {
-                payload = (String) eventPayload;
-            } else {
-                payload = objectMapper.writeValueAsString(eventPayload);
-            }
+    @Override
+    public void processRetryableEvents() {
+        outboxRelay.ifAvailable(OutboxRelay::relayRetryable);
+    }
 
-            BookingOutboxEvent event;
+    @Override
+    public void cleanupOldEvents() {
+        outboxPartitionManager.ifAvailable(OutboxPartitionManager::maintain);
+    }
+
+    @Override
+    public OutboxStatistics getStatistics() {
+        OutboxPartitionManager partitionManager = outboxPartitionManager.getIfAvailable();
+        return partitionManager != null ? partitionManager.statistics(0, 0) : OutboxStatistics.EMPTY;
+    }
+
+    @Override
+    protected String serializePayload(Object eventPayload) throws JsonProcessingException {
+        return eventPayload instanceof String text ? text : super.serializePayload(eventPayload);
+    }
+
+    @Override
+    protected BookingOutboxEvent createOutboxEvent(OutboxEventRequest request, String payload) {
+        String eventType = request.eventType();
+        String aggregateType = request.aggregateType();
+        String aggregateId = request.aggregateId();
+        Object eventPayload = request.eventPayload();
+
+        BookingOutboxEvent event;
+        
+        // Use the proper factory method for booking events
+        if ("Booking".equals(aggregateType) && eventPayload instanceof Map) {
+            // Try to extract bookingId and userId from the payload
+            @SuppressWarnings("unchecked")
+            Map<String, Object> payloadMap = (Map<String, Object>) eventPayload;
+            UUID bookingId = null;
+            UUID userId = null;
+            String sagaId = null;
             
-            // Use the proper factory method for booking events
-            if ("Booking".equals(aggregateType) && eventPayload instanceof Map) {
-                // Try to extract bookingId and userId from the payload
-                @SuppressWarnings("unchecked")
-                Map<String, Object> payloadMap = (Map<String, Object>) eventPayload;
-                UUID bookingId = null;
-                UUID userId = null;
-                String sagaId = null;
-                
-                if (payloadMap.containsKey("bookingId")) {
-                    try {
-                        bookingId = UUID.fromString(payloadMap.get("bookingId").toString());
-                    } catch (Exception e) {
-                        log.warn("Failed to parse bookingId from payload: {}", payloadMap.get("bookingId"));
-                    }
-                }
-                
-                if (payloadMap.containsKey("customerId")) {
-                    try {
-                        userId = UUID.fromString(payloadMap.get("customerId").toString());
-                    } catch (Exception e) {
-                        log.warn("Failed to parse customerId from payload: {}", payloadMap.get("customerId"));
-                    }
+            if (payloadMap.containsKey("bookingId")) {
+                try {
+                    bookingId = UUID.fromString(payloadMap.get("bookingId").toString());
+                } catch (Exception e) {
+                    log.warn("Failed to parse bookingId from payload: {}", payloadMap.get("bookingId"));
                 }
-                
-                if (payloadMap.containsKey("sagaId")) {
-                    sagaId = payloadMap.get("sagaId").toString();
+            }
+            
+            if (payloadMap.containsKey("customerId")) {
+                try {
+                    userId = UUID.fromString(payloadMap.get("customerId").toString());
+                } catch (Exception e) {
+                    log.warn("Failed to parse customerId from payload: {}", payloadMap.get("customerId"));
                 }
-                
-                if (bookingId != null && userId != null) {
-                    // Use the ExtendedOutboxEvent approach but with our entity
-                    event = new BookingOutboxEvent();
-                    event.setEventType(eventType);
-                    event.setAggregateId(bookingId.toString());
-                    event.setAggregateType("Booking");
-                    event.setBookingId(bookingId);
-                    event.setUserId(userId);
-                    if (sagaId != null) {
-                        event.setSagaId(sagaId);
-                    }
-                    event.setPayload(payload);
-                    event.setTopic("booking-events");
-                    event.setPartitionKey(bookingId.toString());
-                    event.setPriority(3); // Normal priority for booking events
-                } else {
-                    // Fallback to the existing method
-                    event = BookingOutboxEvent.createBookingEvent(eventType, aggregateType, aggregateId, payload);
+            }
+            
+            if (payloadMap.containsKey("sagaId")) {
+                sagaId = payloadMap.get("sagaId").toString();
+            }
+            
+            if (bookingId != null && userId != null) {
+                // Use the ExtendedOutboxEvent approach but with our entity
+                event = new BookingOutboxEvent();
+                event.setEventType(eventType);
+                event.setAggregateId(bookingId.toString());
+                event.setAggregateType("Booking");
+                event.setBookingId(bookingId);
+                event.setUserId(userId);
+                if (sagaId != null) {
+                    event.setSagaId(sagaId);
                 }
+                event.setPayload(payload);
+                event.setTopic("booking-events");
+                event.setPartitionKey(bookingId.toString());
+                event.setPriority(3); // Normal priority for booking events
             } else {
-                // For other event types, use the existing method
+                // Fallback to the existing method
                 event = BookingOutboxEvent.createBookingEvent(eventType, aggregateType, aggregateId, payload);
             }
-            
-            bookingOutboxEventRepository.save(event);
-
-            log.debug("Published booking event to outbox: eventType={}, aggregateType={}, aggregateId={}",
-                     eventType, aggregateType, aggregateId);
-
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing event payload for eventType: {}, aggregateId: {}", eventType, aggregateId, e);
-            throw new RuntimeException("Failed to serialize event payload", e);
-        } catch (Exception e) {
-            log.error("Error publishing booking event to outbox: eventType={}, aggregateId={}", eventType, aggregateId, e);
-            throw new RuntimeException("Failed to publish event to outbox", e);
+        } else {
+            // For other event types, use the existing method
+            event = BookingOutboxEvent.createBookingEvent(eventType, aggregateType, aggregateId, payload);
         }
+
+        return event;
     }
 }
@@ -3,45 +3,176 @@ package com.pdh.booking.service;
 import com.pdh.booking.model.Booking;
 import com.pdh.booking.model.enums.BookingStatus;
 import com.pdh.booking.repository.BookingRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Instant;
+import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
 import java.util.EnumSet;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Releases reservations whose lock window has passed.
+ * Each sweep splits expired bookings into hash shards worked in parallel on virtual threads; every
+ * shard walks a keyset cursor one page at a time and expires each booking of the page in its own short
+ * transaction under FOR UPDATE SKIP LOCKED, so a backlog never turns into one large transaction, a booking
+ * that fails to expire does not hold back the rest of its page, and replicas never expire the same booking twice.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class BookingReservationService {
 
+    private static final EnumSet<BookingStatus> RESERVATION_STATUSES =
+            EnumSet.of(BookingStatus.PENDING, BookingStatus.VALIDATION_PENDING, BookingStatus.PAYMENT_PENDING);
+    private static final List<String> RESERVATION_STATUS_NAMES =
+            RESERVATION_STATUSES.stream().map(Enum::name).toList();
+
     private final BookingRepository bookingRepository;
     private final BookingService bookingService;
+    private final TransactionTemplate transactionTemplate;
 
-    @Value("${booking.reservation.expiry-check-ms:60000}")
-    private long expiryCheckIntervalMs;
+    private final AtomicLong backlog = new AtomicLong();
+    private final Timer sweepTimer;
+    private final Counter expiredCounter;
+    private final Counter failedCounter;
 
-    private static final EnumSet<BookingStatus> RESERVATION_STATUSES =
-            EnumSet.of(BookingStatus.PENDING, BookingStatus.VALIDATION_PENDING, BookingStatus.PAYMENT_PENDING);
+    @Value("${booking.reservation.expiry.shards:4}")
+    private int shards;
+
+    @Value("${booking.reservation.expiry.batch-size:100}")
+    private int batchSize;
+
+    public BookingReservationService(BookingRepository bookingRepository,
+                                     BookingService bookingService,
+                                     TransactionTemplate transactionTemplate,
+                                     MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.bookingService = bookingService;
+        this.transactionTemplate = transactionTemplate;
+        meterRegistry.gauge("booking.reservation.expiry.backlog", backlog);
+        this.sweepTimer = Timer.builder("booking.reservation.expiry.sweep")
+                .description("Duration of one reservation expiry sweep")
+                .register(meterRegistry);
+        this.expiredCounter = Counter.builder("booking.reservation.expired")
+                .description("Reservations expired by the sweeper")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("booking.reservation.expiry.failed")
+                .description("Reservations the sweeper failed to expire and left for the next sweep")
+                .register(meterRegistry);
+    }
 
     @Scheduled(fixedDelayString = "${booking.reservation.expiry-check-ms:60000}")
-    @Transactional
     public void releaseExpiredReservations() {
         ZonedDateTime now = ZonedDateTime.now();
-        List<Booking> expired = bookingRepository.findByStatusInAndReservationExpiresAtBefore(
+        long pending = bookingRepository.countByStatusInAndReservationExpiresAtBefore(
                 List.copyOf(RESERVATION_STATUSES), now);
-
-        if (expired.isEmpty()) {
+        backlog.set(pending);
+        if (pending == 0) {
             return;
         }
 
-        log.info("Expiring {} reservations that exceeded their lock window", expired.size());
-        for (Booking booking : expired) {
-            bookingService.expireReservation(booking, "Reservation window expired");
+        log.info("Expiring {} reservations that exceeded their lock window across {} shards", pending, shards);
+        long expired = sweepTimer.record(() -> sweep(now));
+        backlog.set(Math.max(0, pending - expired));
+        log.info("Expired {} of {} reservations", expired, pending);
+    }
+
+    private long sweep(ZonedDateTime now) {
+        long expired = 0;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Long>> results = new ArrayList<>(shards);
+            for (int shard = 0; shard < shards; shard++) {
+                int current = shard;
+                results.add(executor.submit(() -> sweepShard(current, now)));
+            }
+            for (Future<Long> result : results) {
+                try {
+                    expired += result.get();
+                } catch (Exception e) {
+                    log.error("Reservation expiry shard failed", e);
+                }
+            }
+        }
+        return expired;
+    }
+
+    private long sweepShard(int shard, ZonedDateTime now) {
+        Cursor cursor = Cursor.START;
+        long expired = 0;
+
+        while (true) {
+            Cursor from = cursor;
+            // Only ids and the next cursor leave the page; each booking is locked again when it is expired
+            Batch batch = transactionTemplate.execute(status -> Batch.of(bookingRepository.claimExpiredReservations(
+                    RESERVATION_STATUS_NAMES, now, from.expiresAt(), from.bookingId(), shard, shards, batchSize)));
+            if (batch == null || batch.size() == 0) {
+                return expired;
+            }
+            for (UUID bookingId : batch.bookingIds()) {
+                if (expire(bookingId, shard, now)) {
+                    expired++;
+                    expiredCounter.increment();
+                }
+            }
+            if (batch.size() < batchSize) {
+                return expired;
+            }
+            cursor = batch.next();
+        }
+    }
+
+    /**
+     * Expire one booking in its own transaction, so a booking that fails to expire only rolls back itself.
+     * The row is locked again and re-checked, since a peer sweeper or the saga may have moved it since the page
+     * was read; a failure is counted and left for the next sweep.
+     */
+    private boolean expire(UUID bookingId, int shard, ZonedDateTime now) {
+        try {
+            return Boolean.TRUE.equals(transactionTemplate.execute(status -> bookingRepository
+                    .lockExpiredReservation(bookingId, RESERVATION_STATUS_NAMES, now)
+                    .map(booking -> {
+                        bookingService.expireReservation(booking, "Reservation window expired");
+                        return true;
+                    })
+                    .orElse(false)));
+        } catch (Exception e) {
+            failedCounter.increment();
+            log.error("Failed to expire reservation {} in shard {}, leaving it for the next sweep", bookingId, shard, e);
+            return false;
+        }
+    }
+
+    private record Cursor(ZonedDateTime expiresAt, UUID bookingId) {
+        static final Cursor START = new Cursor(Instant.EPOCH.atZone(ZoneOffset.UTC), new UUID(0L, 0L));
+    }
+
+    private record Batch(List<UUID> bookingIds, Cursor next) {
+        static final Batch EMPTY = new Batch(List.of(), Cursor.START);
+
+        static Batch of(List<Booking> bookings) {
+            if (bookings.isEmpty()) {
+                return EMPTY;
+            }
+            Booking last = bookings.get(bookings.size() - 1);
+            return new Batch(bookings.stream().map(Booking::getBookingId).toList(),
+                    new Cursor(last.getReservationExpiresAt(), last.getBookingId()));
+        }
+
+        int size() {
+            return bookingIds.size();
         }
     }
 }
@@ -0,0 +1,152 @@
+package com.pdh.booking.service;
+
+import com.pdh.booking.kafka.config.BookingRevenueStreamConfig;
+import com.pdh.booking.kafka.config.BookingRevenueStreamConfig.RevenueWindow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.streams.KafkaStreams;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StoreQueryParameters;
+import org.apache.kafka.streams.errors.InvalidStateStoreException;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.QueryableStoreTypes;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.config.StreamsBuilderFactoryBean;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Serves revenue analytics from the window stores built by {@link BookingRevenueStreamConfig}.
+ * A query range-scans the windows of the period, so its cost depends on the number of windows,
+ * not on the number of bookings. Results are empty while the stream is not running.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(prefix = "booking.analytics.streams", name = "enabled", havingValue = "true")
+public class BookingRevenueStreamService {
+
+    private static final String KEY_END = BookingRevenueStreamConfig.KEY_SEPARATOR + "\uffff";
+
+    private final StreamsBuilderFactoryBean streamsBuilderFactoryBean;
+
+    /**
+     * Whether the window stores are queryable; callers fall back to the database otherwise
+     */
+    public boolean isAvailable() {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        return streams != null && streams.state() == KafkaStreams.State.RUNNING;
+    }
+
+    public List<Map<String, Object>> getHourlyRevenue(LocalDate startDate, LocalDate endDate) {
+        return revenueSeries(BookingRevenueStreamConfig.HOURLY_STORE,
+            startDate != null ? startDate + "T00" : "",
+            endDate != null ? endDate + "T23" + KEY_END : "\uffff",
+            window -> window, "hour");
+    }
+
+    public List<Map<String, Object>> getDailyRevenue(LocalDate startDate, LocalDate endDate) {
+        return revenueSeries(BookingRevenueStreamConfig.DAILY_STORE, dayFrom(startDate), dayTo(endDate),
+            LocalDate::parse, "date");
+    }
+
+    public List<Map<String, Object>> getMonthlyRevenue(LocalDate startDate, LocalDate endDate) {
+        return revenueSeries(BookingRevenueStreamConfig.DAILY_STORE, dayFrom(startDate), dayTo(endDate),
+            window -> LocalDate.parse(window).withDayOfMonth(1), "month");
+    }
+
+    public List<Map<String, Object>> getRevenueByBookingType(LocalDate startDate, LocalDate endDate) {
+        Map<String, RevenueWindow> byType = new HashMap<>();
+        scan(BookingRevenueStreamConfig.DAILY_STORE, dayFrom(startDate), dayTo(endDate),
+            (key, window) -> byType.merge(key.bookingType(), window, BookingRevenueStreamService::sum));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        byType.entrySet().stream()
+            .sorted(Comparator.comparing((Map.Entry<String, RevenueWindow> e) -> e.getValue().revenue()).reversed())
+            .forEach(e -> {
+                Map<String, Object> row = new HashMap<>();
+                row.put("booking_type", e.getKey());
+                row.put("revenue", e.getValue().revenue());
+                row.put("booking_count", e.getValue().bookingCount());
+                result.add(row);
+            });
+        return result;
+    }
+
+    private <T extends Comparable<T>> List<Map<String, Object>> revenueSeries(String store, String from, String to,
+                                                                             Function<String, T> bucketOf,
+                                                                             String bucketName) {
+        TreeMap<T, BigDecimal> revenue = new TreeMap<>();
+        scan(store, from, to, (key, window) -> revenue.merge(bucketOf.apply(key.window()), window.revenue(), BigDecimal::add));
+
+        List<Map<String, Object>> result = new ArrayList<>(revenue.size());
+        revenue.forEach((bucket, amount) -> {
+            Map<String, Object> row = new HashMap<>();
+            row.put(bucketName, bucket);
+            row.put("revenue", amount);
+            result.add(row);
+        });
+        return result;
+    }
+
+    private void scan(String storeName, String from, String to, BiConsumer<WindowKey, RevenueWindow> action) {
+        Optional<ReadOnlyKeyValueStore<String, RevenueWindow>> store = store(storeName);
+        if (store.isEmpty()) {
+            return;
+        }
+        try (KeyValueIterator<String, RevenueWindow> windows = store.get().range(from, to)) {
+            while (windows.hasNext()) {
+                KeyValue<String, RevenueWindow> entry = windows.next();
+                if (entry.value != null && entry.value.bookingCount() > 0) {
+                    action.accept(WindowKey.parse(entry.key), entry.value);
+                }
+            }
+        }
+    }
+
+    Optional<ReadOnlyKeyValueStore<String, RevenueWindow>> store(String storeName) {
+        KafkaStreams streams = streamsBuilderFactoryBean.getKafkaStreams();
+        if (streams == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(streams.store(
+                StoreQueryParameters.fromNameAndType(storeName, QueryableStoreTypes.<String, RevenueWindow>keyValueStore())));
+        } catch (InvalidStateStoreException e) {
+            log.debug("Revenue store {} is not queryable yet: {}", storeName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static String dayFrom(LocalDate startDate) {
+        return startDate != null ? startDate.toString() : "";
+    }
+
+    private static String dayTo(LocalDate endDate) {
+        return endDate != null ? endDate + KEY_END : "\uffff";
+    }
+
+    private static RevenueWindow sum(RevenueWindow a, RevenueWindow b) {
+        return new RevenueWindow(a.bookingCount() + b.bookingCount(), a.revenue().add(b.revenue()));
+    }
+
+    private record WindowKey(String window, String bookingType, String destination) {
+
+        static WindowKey parse(String key) {
+            String[] parts = key.split("\\" + BookingRevenueStreamConfig.KEY_SEPARATOR, 3);
+            return new WindowKey(parts[0], parts.length > 1 ? parts[1] : "", parts.length > 2 ? parts[2] : "");
+        }
+    }
+}
@@ -11,6 +11,7 @@ import com.pdh.common.saga.SagaState;
 import com.pdh.booking.model.dto.response.BookingHistoryItemDto;
 import com.pdh.common.lock.DistributedLock;
 import com.pdh.common.lock.DistributedLockManager;
+import com.pdh.common.lock.LockRequest;
 import com.pdh.common.lock.LockResourceType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -19,7 +20,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -36,15 +40,15 @@ import org.springframework.data.domain.Pageable;
 public class BookingService {
 
     private final BookingRepository bookingRepository;
-    private final AnalyticsEventService analyticsEventService;
     private final ObjectMapper objectMapper;
     private final DistributedLockManager distributedLockManager;
+    private final BookingStatusStreamService bookingStatusStreamService;
 
     @Value("${booking.reservation.lock-minutes:15}")
     private long reservationLockMinutes;
 
     /**
-     * Create booking entity and emit analytics signal
+     * Create booking entity; BookingAnalyticsEntityListener records the analytics event in the outbox with it
      */
     @Transactional
     public Booking createBooking(Booking booking) {
@@ -61,16 +65,13 @@ public class BookingService {
             // Save booking first
             Booking savedBooking = bookingRepository.save(booking);
 
-            // Publish analytics event for booking initiated
-            analyticsEventService.publishBookingAnalyticsEvent(savedBooking, "booking.initiated");
-
             log.info("Booking {} created", savedBooking.getBookingReference());
 
             return savedBooking;
         } catch (Exception ex) {
             if (reservationLock != null && distributedLockManager != null) {
                 try {
-                    distributedLockManager.releaseLock(reservationLock.getLockId(), booking.getSagaId());
+                    distributedLockManager.releaseAllLocksByOwner(booking.getSagaId());
                 } catch (Exception releaseEx) {
                     log.warn("Failed to release reservation lock {} after creation failure: {}", reservationLock.getLockId(), releaseEx.getMessage());
                 }
@@ -99,6 +100,7 @@ public class BookingService {
                 if (newStatus == BookingStatus.CANCELLED) {
                     booking.setCancelledAt(ZonedDateTime.now());
                 }
+                bookingStatusStreamService.publishAfterCommit(bookingId);
                 return bookingRepository.save(booking);
             });
     }
@@ -123,6 +125,7 @@ public class BookingService {
                     booking.setConfirmationNumber(generateConfirmationNumber());
                 }
                 releaseLockForBooking(booking);
+                bookingStatusStreamService.publishAfterCommit(bookingId);
                 return bookingRepository.save(booking);
             })
             .orElseThrow(() -> new IllegalArgumentException("Booking not found: " + bookingId));
@@ -329,13 +332,17 @@ public class BookingService {
         }
 
         Duration timeout = Duration.ofMinutes(Math.max(1, reservationLockMinutes));
-        String resourceKey = "booking:" + booking.getBookingId();
 
-        DistributedLock lock = distributedLockManager.acquireLock(
-                resourceKey,
-                LockResourceType.BOOKING,
+        // The booking lock comes first; inventory locks for every product in the booking are taken with it in one call
+        List<LockRequest> lockRequests = new ArrayList<>();
+        lockRequests.add(LockRequest.of("booking:" + booking.getBookingId(), LockResourceType.BOOKING, 1));
+        lockRequests.addAll(buildInventoryLockRequests(booking));
+
+        DistributedLock lock = distributedLockManager.acquireLocks(
+                lockRequests,
                 booking.getSagaId(),
                 timeout)
+            .map(locks -> locks.get(0))
             .orElseThrow(() -> new IllegalStateException("Unable to reserve booking items. Please try again."));
 
         ZonedDateTime lockedAt = ZonedDateTime.now();
@@ -346,13 +353,76 @@ public class BookingService {
         return lock;
     }
 
+    /**
+     * Seat locks for the outbound and return flight and one room lock per night, keyed like the inventory they guard.
+     * Product details that cannot be read fail the booking rather than reserving it without inventory locks.
+     */
+    private List<LockRequest> buildInventoryLockRequests(Booking booking) {
+        if (booking.getProductDetailsJson() == null || booking.getProductDetailsJson().isBlank()) {
+            return List.of();
+        }
+
+        try {
+            JsonNode root = objectMapper.readTree(booking.getProductDetailsJson());
+            List<LockRequest> requests = new ArrayList<>();
+            switch (booking.getBookingType()) {
+                case FLIGHT -> addFlightLockRequests(requests, root);
+                case HOTEL -> addHotelLockRequests(requests, root);
+                case COMBO -> {
+                    addFlightLockRequests(requests, root.path("flightDetails"));
+                    addHotelLockRequests(requests, root.path("hotelDetails"));
+                }
+                default -> {
+                }
+            }
+            return requests;
+        } catch (Exception e) {
+            // Holding the booking lock alone would let the booking go ahead without reserving its inventory
+            throw new IllegalArgumentException("Invalid product details for booking " + booking.getBookingId(), e);
+        }
+    }
+
+    private void addFlightLockRequests(List<LockRequest> requests, JsonNode flight) {
+        int passengers = Math.max(1, flight.path("passengerCount").asInt(1));
+        String seatClass = flight.path("seatClass").asText("ECONOMY");
+
+        String outbound = flight.path("scheduleId").asText(flight.path("flightId").asText(null));
+        if (outbound != null) {
+            requests.add(LockRequest.of(outbound + ":" + seatClass, LockResourceType.SEAT, passengers));
+        }
+
+        // The return leg is keyed by its own schedule and seat class, like the outbound leg
+        JsonNode returnLeg = flight.path("returnFlight");
+        String returnFlight = returnLeg.path("scheduleId").asText(returnLeg.path("flightId").asText(null));
+        if (returnFlight != null) {
+            String returnSeatClass = returnLeg.path("seatClass").asText(seatClass);
+            requests.add(LockRequest.of(returnFlight + ":" + returnSeatClass, LockResourceType.SEAT, passengers));
+        }
+    }
+
+    private void addHotelLockRequests(List<LockRequest> requests, JsonNode hotel) {
+        String roomTypeId = hotel.path("roomTypeId").asText(null);
+        String checkIn = hotel.path("checkInDate").asText(null);
+        String checkOut = hotel.path("checkOutDate").asText(null);
+        if (roomTypeId == null || checkIn == null || checkOut == null) {
+            return;
+        }
+
+        int rooms = Math.max(1, hotel.path("numberOfRooms").asInt(1));
+        LocalDate lastNight = LocalDate.parse(checkOut).minusDays(1);
+        for (LocalDate night = LocalDate.parse(checkIn); !night.isAfter(lastNight); night = night.plusDays(1)) {
+            requests.add(LockRequest.of(roomTypeId + ":" + night, LockResourceType.ROOM, rooms));
+        }
+    }
+
     private void releaseLockForBooking(Booking booking) {
         if (booking == null) {
             return;
         }
         try {
             if (distributedLockManager != null && booking.getReservationLockId() != null && booking.getSagaId() != null) {
-                distributedLockManager.releaseLock(booking.getReservationLockId(), booking.getSagaId());
+                // The saga owns the booking lock and every inventory lock taken with it
+                distributedLockManager.releaseAllLocksByOwner(booking.getSagaId());
             }
         } catch (Exception e) {
             log.warn("Failed to release reservation lock for booking {}: {}", booking.getBookingId(), e.getMessage());
@@ -385,6 +455,7 @@ public class BookingService {
         booking.setCancelledAt(ZonedDateTime.now());
         booking.setCancellationReason(reason);
         bookingRepository.save(booking);
+        bookingStatusStreamService.publishAfterCommit(booking.getBookingId());
     }
 
     public void releaseReservationLock(Booking booking) {
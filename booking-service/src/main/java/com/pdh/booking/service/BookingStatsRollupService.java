@@ -0,0 +1,54 @@
+package com.pdh.booking.service;
+
+import com.pdh.booking.repository.BookingDailyStatsRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.TreeSet;
+
+/**
+ * Maintains booking_daily_stats. A touched day is recomputed from bookings rather than adjusted by
+ * deltas, so duplicated, reordered or lost change events never skew the totals; the periodic
+ * reconcile re-derives the most recent days to heal any events the CDC pipeline missed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BookingStatsRollupService {
+
+    private final BookingDailyStatsRepository bookingDailyStatsRepository;
+
+    @Value("${booking.stats.reconcile-days:2}")
+    private int reconcileDays;
+
+    /**
+     * Recompute the rollup rows of the given creation days
+     */
+    @Transactional
+    public void refreshDays(Collection<LocalDate> days) {
+        // Ascending order keeps advisory lock acquisition consistent across concurrent refreshes
+        for (LocalDate day : new TreeSet<>(days)) {
+            bookingDailyStatsRepository.lockDay((int) day.toEpochDay());
+            bookingDailyStatsRepository.deleteDay(day);
+            bookingDailyStatsRepository.insertDay(day);
+        }
+        log.debug("Refreshed booking daily stats for {} days", days.size());
+    }
+
+    @Scheduled(cron = "${booking.stats.reconcile-cron:0 15 * * * *}")
+    @Transactional
+    public void reconcileRecentDays() {
+        LocalDate today = LocalDate.now();
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (int i = 0; i < reconcileDays; i++) {
+            days.add(today.minusDays(i));
+        }
+        refreshDays(days);
+    }
+}
@@ -0,0 +1,5 @@
+-- Liquibase formatted SQL
+-- changeset bookings:003-reservation-expiry-index
+CREATE INDEX IF NOT EXISTS idx_bookings_reservation_expiry
+    ON bookings (reservation_expires_at, booking_id)
+    WHERE status IN ('PENDING', 'VALIDATION_PENDING', 'PAYMENT_PENDING');
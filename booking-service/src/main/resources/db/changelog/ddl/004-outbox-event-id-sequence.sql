@@ -0,0 +1,5 @@
+-- Liquibase formatted SQL
+-- changeset bookings:004-outbox-event-id-sequence
+-- Pooled sequence for outbox ids so Hibernate can batch outbox inserts; starts past existing identity values
+CREATE SEQUENCE IF NOT EXISTS outbox_event_id_seq INCREMENT BY 50;
+SELECT setval('outbox_event_id_seq', COALESCE((SELECT MAX(id) FROM booking_outbox_events), 0) + 51, false);
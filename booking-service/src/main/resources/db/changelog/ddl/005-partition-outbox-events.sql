@@ -0,0 +1,36 @@
+-- Liquibase formatted SQL
+-- changeset bookings:005-partition-outbox-events splitStatements:false
+-- Range-partition the outbox by created_at: existing rows land in one legacy partition, daily partitions are created ahead and dropped after retention by OutboxPartitionManager.
+-- Unique keys must include the partition key, so the primary key becomes (id, created_at) and event_id uniqueness is dropped.
+DO $$
+DECLARE
+    legacy_upper TIMESTAMP := date_trunc('day', localtimestamp) + INTERVAL '1 day';
+BEGIN
+    ALTER TABLE booking_outbox_events RENAME TO booking_outbox_events_legacy;
+
+    CREATE TABLE booking_outbox_events (LIKE booking_outbox_events_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+    EXECUTE format('CREATE TABLE booking_outbox_events_legacy_data PARTITION OF booking_outbox_events FOR VALUES FROM (MINVALUE) TO (%L)', legacy_upper);
+    CREATE TABLE booking_outbox_events_default PARTITION OF booking_outbox_events DEFAULT;
+
+    INSERT INTO booking_outbox_events SELECT * FROM booking_outbox_events_legacy;
+    DROP TABLE booking_outbox_events_legacy;
+END $$;
+
+ALTER TABLE booking_outbox_events
+    ADD CONSTRAINT pk_booking_outbox_events PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_booking_outbox_event_id ON booking_outbox_events (event_id);
+CREATE INDEX idx_booking_outbox_aggregate ON booking_outbox_events (aggregate_type, aggregate_id);
+CREATE INDEX idx_booking_outbox_created_at ON booking_outbox_events (created_at);
+CREATE INDEX idx_booking_outbox_event_type ON booking_outbox_events (event_type);
+CREATE INDEX idx_booking_outbox_processed ON booking_outbox_events (processed);
+CREATE INDEX idx_booking_outbox_retry ON booking_outbox_events (processed, retry_count, next_retry_at);
+
+-- changeset bookings:005-outbox-publication splitStatements:false
+-- Debezium publication that reports partition changes under the parent table name
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = 'booking_outbox_publication') THEN
+        CREATE PUBLICATION booking_outbox_publication FOR TABLE booking_outbox_events WITH (publish_via_partition_root = true);
+    END IF;
+END $$;
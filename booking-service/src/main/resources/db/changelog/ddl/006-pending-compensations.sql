@@ -0,0 +1,13 @@
+-- Liquibase formatted SQL
+-- changeset bookings:006-pending-compensations
+-- Compensations waiting for their next retry, resumed by CompensationHandler after a restart
+CREATE TABLE IF NOT EXISTS pending_compensations
+(
+    saga_id          VARCHAR(100)                NOT NULL,
+    failed_operation VARCHAR(100)                NOT NULL,
+    context          JSONB                       NOT NULL,
+    retry_count      INTEGER                     NOT NULL,
+    due_at           TIMESTAMP WITH TIME ZONE    NOT NULL,
+    updated_at       TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_pending_compensations PRIMARY KEY (saga_id, failed_operation)
+);
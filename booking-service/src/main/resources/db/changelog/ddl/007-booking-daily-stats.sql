@@ -0,0 +1,40 @@
+-- Liquibase formatted SQL
+-- changeset bookings:007-booking-daily-stats
+-- Daily booking rollup read by the backoffice dashboard, recomputed per day from the bookings CDC stream
+CREATE TABLE IF NOT EXISTS booking_daily_stats
+(
+    stat_date     DATE                        NOT NULL,
+    booking_type  VARCHAR(50)                 NOT NULL,
+    status        VARCHAR(50)                 NOT NULL,
+    destination   VARCHAR(255)                NOT NULL DEFAULT '',
+    booking_count BIGINT                      NOT NULL,
+    revenue       DECIMAL(18, 2)              NOT NULL,
+    updated_at    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_booking_daily_stats PRIMARY KEY (stat_date, booking_type, status, destination)
+);
+
+-- Day recomputation scans bookings by created_at range
+CREATE INDEX IF NOT EXISTS idx_bookings_created_at ON bookings (created_at);
+
+INSERT INTO booking_daily_stats (stat_date, booking_type, status, destination, booking_count, revenue, updated_at)
+SELECT CAST(created_at AS DATE),
+       booking_type,
+       status,
+       COALESCE(CASE booking_type
+                    WHEN 'FLIGHT' THEN product_details ->> 'destinationAirport'
+                    WHEN 'HOTEL' THEN product_details ->> 'city'
+                    END, ''),
+       COUNT(*),
+       SUM(total_amount),
+       now()
+FROM bookings
+GROUP BY 1, 2, 3, 4;
+
+-- changeset bookings:007-bookings-cdc-publication splitStatements:false
+-- Publication for debezium/bookings-cdc-connector.json (autocreate disabled like the outbox connector)
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = 'bookings_cdc_publication') THEN
+        CREATE PUBLICATION bookings_cdc_publication FOR TABLE bookings;
+    END IF;
+END $$;
@@ -0,0 +1,111 @@
+-- Liquibase formatted SQL
+-- changeset bookings:008-product-details-date-function splitStatements:false
+-- Lenient ISO date extraction for the search columns: malformed values yield NULL instead of failing the write
+CREATE OR REPLACE FUNCTION booking_details_date(value TEXT) RETURNS DATE
+    LANGUAGE plpgsql
+    IMMUTABLE
+AS $$
+BEGIN
+    IF value IS NULL OR value !~ '^\d{4}-\d{2}-\d{2}' THEN
+        RETURN NULL;
+    END IF;
+    RETURN to_date(substr(value, 1, 10), 'YYYY-MM-DD');
+EXCEPTION
+    WHEN others THEN
+        RETURN NULL;
+END
+$$;
+
+-- changeset bookings:008-product-details-search-columns
+-- Backoffice search fields extracted from product_details so they can be indexed and compared directly.
+-- Nullable columns without defaults are a catalog-only change, so bookings is not rewritten.
+ALTER TABLE bookings
+    ADD COLUMN IF NOT EXISTS pd_airline             TEXT,
+    ADD COLUMN IF NOT EXISTS pd_origin_airport      TEXT,
+    ADD COLUMN IF NOT EXISTS pd_destination_airport TEXT,
+    ADD COLUMN IF NOT EXISTS pd_departure_date      DATE,
+    ADD COLUMN IF NOT EXISTS pd_hotel_name          TEXT,
+    ADD COLUMN IF NOT EXISTS pd_city                TEXT,
+    ADD COLUMN IF NOT EXISTS pd_check_in_date       DATE;
+
+-- changeset bookings:008-product-details-search-trigger splitStatements:false
+-- Keeps the search columns in step with product_details on every write from here on
+CREATE OR REPLACE FUNCTION bookings_sync_search_columns() RETURNS TRIGGER
+    LANGUAGE plpgsql
+AS $$
+BEGIN
+    NEW.pd_airline := NEW.product_details ->> 'airline';
+    NEW.pd_origin_airport := NEW.product_details ->> 'originAirport';
+    NEW.pd_destination_airport := NEW.product_details ->> 'destinationAirport';
+    NEW.pd_departure_date := booking_details_date(NEW.product_details ->> 'departureDateTime');
+    NEW.pd_hotel_name := NEW.product_details ->> 'hotelName';
+    NEW.pd_city := NEW.product_details ->> 'city';
+    NEW.pd_check_in_date := booking_details_date(NEW.product_details ->> 'checkInDate');
+    RETURN NEW;
+END
+$$;
+
+DROP TRIGGER IF EXISTS trg_bookings_sync_search_columns ON bookings;
+CREATE TRIGGER trg_bookings_sync_search_columns
+    BEFORE INSERT OR UPDATE OF product_details ON bookings
+    FOR EACH ROW EXECUTE FUNCTION bookings_sync_search_columns();
+
+-- changeset bookings:008-product-details-search-backfill runInTransaction:false splitStatements:false
+-- Fills the columns of existing bookings in keyset batches of 5000, committing each batch so row locks are
+-- short-lived and the work survives an interruption. Re-assigning product_details runs the sync trigger.
+DO $$
+DECLARE
+    last_id UUID;
+    batch   UUID[];
+BEGIN
+    LOOP
+        SELECT array_agg(booking_id ORDER BY booking_id)
+        INTO batch
+        FROM (SELECT booking_id
+              FROM bookings
+              WHERE product_details IS NOT NULL
+                AND (last_id IS NULL OR booking_id > last_id)
+              ORDER BY booking_id
+              LIMIT 5000) next_batch;
+        EXIT WHEN batch IS NULL;
+
+        UPDATE bookings SET product_details = product_details WHERE booking_id = ANY (batch);
+        last_id := batch[array_length(batch, 1)];
+        COMMIT;
+    END LOOP;
+END
+$$;
+
+-- changeset bookings:008-pg-trgm-extension
+-- Trigram indexes serve the ILIKE '%term%' searches, b-trees the equality and date range filters. Each is
+-- built CONCURRENTLY so writes keep flowing; a failed build leaves an INVALID index that IF NOT EXISTS
+-- would skip, so drop it before re-running the changeset.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- changeset bookings:008-idx-bookings-pd-airline-trgm runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pd_airline_trgm ON bookings USING gin (pd_airline gin_trgm_ops);
+
+-- changeset bookings:008-idx-bookings-pd-hotel-name-trgm runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pd_hotel_name_trgm ON bookings USING gin (pd_hotel_name gin_trgm_ops);
+
+-- changeset bookings:008-idx-bookings-pd-city-trgm runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pd_city_trgm ON bookings USING gin (pd_city gin_trgm_ops);
+
+-- changeset bookings:008-idx-bookings-pd-route runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pd_route ON bookings (pd_origin_airport, pd_destination_airport, created_at);
+
+-- changeset bookings:008-idx-bookings-pd-departure-date runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pd_departure_date ON bookings (pd_departure_date);
+
+-- changeset bookings:008-idx-bookings-pd-check-in-date runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_pd_check_in_date ON bookings (pd_check_in_date);
+
+-- changeset bookings:008-idx-bookings-reference-trgm runInTransaction:false
+-- searchBookings: one trigram index per OR branch so the planner can combine them with a BitmapOr
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_reference_trgm ON bookings USING gin (booking_reference gin_trgm_ops);
+
+-- changeset bookings:008-idx-bookings-notes-trgm runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_notes_trgm ON bookings USING gin (notes gin_trgm_ops);
+
+-- changeset bookings:008-idx-bookings-product-details-trgm runInTransaction:false
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_bookings_product_details_trgm ON bookings USING gin ((CAST(product_details AS TEXT)) gin_trgm_ops);
@@ -0,0 +1,6 @@
+-- Liquibase formatted SQL
+-- changeset bookings:009-bookings-keyset-index
+-- Backoffice advanced search pages by (created_at, booking_id) DESC; the composite index also serves
+-- the created_at range scans of the daily stats rollup, so it replaces idx_bookings_created_at
+CREATE INDEX IF NOT EXISTS idx_bookings_created_at_id ON bookings (created_at, booking_id);
+DROP INDEX IF EXISTS idx_bookings_created_at;
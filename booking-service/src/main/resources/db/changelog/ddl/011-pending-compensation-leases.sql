@@ -0,0 +1,7 @@
+-- Liquibase formatted SQL
+-- changeset bookings:011-pending-compensation-leases
+-- Each pending compensation is leased to the instance that armed its retry; other instances only
+-- claim it once the lease has expired, so a retry never runs on two replicas at once
+ALTER TABLE pending_compensations ADD COLUMN IF NOT EXISTS owner VARCHAR(64);
+ALTER TABLE pending_compensations ADD COLUMN IF NOT EXISTS lease_until TIMESTAMP WITH TIME ZONE;
+CREATE INDEX IF NOT EXISTS idx_pending_compensations_lease ON pending_compensations (lease_until);
@@ -0,0 +1,7 @@
+-- Liquibase formatted SQL
+-- changeset bookings:012-outbox-event-id-unique
+-- Partitioning dropped the identity on id and the unique constraint on event_id. Ids default to the pooled
+-- outbox sequence again, and event_id is unique per created_at, the closest key a partitioned table allows.
+ALTER TABLE booking_outbox_events ALTER COLUMN id SET DEFAULT nextval('outbox_event_id_seq');
+ALTER TABLE booking_outbox_events ADD CONSTRAINT uk_booking_outbox_events_event_id UNIQUE (event_id, created_at);
+DROP INDEX IF EXISTS idx_booking_outbox_event_id;
@@ -0,0 +1,91 @@
+package com.pdh.booking.kafka.consumer;
+
+import com.pdh.booking.service.BookingStatsRollupService;
+import com.pdh.common.kafka.cdc.message.BookingCdcMessage;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class BookingStatsCdcConsumerTest {
+
+    private final BookingStatsRollupService rollupService = mock(BookingStatsRollupService.class);
+    private final BookingStatsCdcConsumer consumer = new BookingStatsCdcConsumer(rollupService);
+
+    @Test
+    void microsecondTimestampsAreUtcDays() {
+        LocalDateTime lastMicroOfDay = LocalDateTime.of(2026, 10, 17, 23, 59, 59, 999_999_000);
+
+        assertThat(BookingStatsCdcConsumer.parseDay(String.valueOf(micros(lastMicroOfDay))))
+            .isEqualTo(LocalDate.of(2026, 10, 17));
+        assertThat(BookingStatsCdcConsumer.parseDay(String.valueOf(micros(lastMicroOfDay) + 1)))
+            .isEqualTo(LocalDate.of(2026, 10, 18));
+        assertThat(BookingStatsCdcConsumer.parseDay("0")).isEqualTo(LocalDate.of(1970, 1, 1));
+    }
+
+    @Test
+    void isoDateTimesKeepTheirLocalDay() {
+        assertThat(BookingStatsCdcConsumer.parseDay("2026-10-17T23:59:59.999999"))
+            .isEqualTo(LocalDate.of(2026, 10, 17));
+        assertThat(BookingStatsCdcConsumer.parseDay("2026-10-18T00:00:00"))
+            .isEqualTo(LocalDate.of(2026, 10, 18));
+    }
+
+    @Test
+    void unreadableValuesAreRejected() {
+        assertThatThrownBy(() -> BookingStatsCdcConsumer.parseDay("2026-10-17"))
+            .isInstanceOf(RuntimeException.class);
+        assertThatThrownBy(() -> BookingStatsCdcConsumer.parseDay("yesterday"))
+            .isInstanceOf(RuntimeException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void batchRefreshesEachTouchedDayOnceAndSkipsUnreadableRows() {
+        String oct17 = String.valueOf(micros(LocalDateTime.of(2026, 10, 17, 8, 0)));
+        consumer.onBookingChanges(List.of(
+            record(change(null, oct17)),
+            record(change(oct17, "2026-10-17T09:30:00")),
+            record(change(null, "2026-10-19T10:00:00")),
+            record(change(null, "not-a-timestamp")),
+            record(null)));
+
+        ArgumentCaptor<Collection<LocalDate>> days = ArgumentCaptor.forClass(Collection.class);
+        verify(rollupService).refreshDays(days.capture());
+        assertThat(days.getValue()).containsExactlyInAnyOrder(LocalDate.of(2026, 10, 17), LocalDate.of(2026, 10, 19));
+    }
+
+    @Test
+    void batchWithoutReadableDaysRefreshesNothing() {
+        consumer.onBookingChanges(List.of(record(change(null, "not-a-timestamp")), record(null)));
+
+        verify(rollupService, never()).refreshDays(any());
+    }
+
+    private static long micros(LocalDateTime value) {
+        return value.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + value.getNano() / 1_000;
+    }
+
+    private static BookingCdcMessage change(String beforeCreatedAt, String afterCreatedAt) {
+        return BookingCdcMessage.builder()
+            .before(beforeCreatedAt != null ? BookingCdcMessage.Booking.builder().createdAt(beforeCreatedAt).build() : null)
+            .after(BookingCdcMessage.Booking.builder().createdAt(afterCreatedAt).build())
+            .build();
+    }
+
+    private static ConsumerRecord<String, BookingCdcMessage> record(BookingCdcMessage message) {
+        return new ConsumerRecord<>("bookings-cdc", 0, 0, "key", message);
+    }
+}
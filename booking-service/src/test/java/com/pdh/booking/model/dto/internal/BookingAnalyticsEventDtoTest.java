@@ -0,0 +1,52 @@
+package com.pdh.booking.model.dto.internal;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingAnalyticsEventDtoTest {
+
+    @Test
+    void laterUpdateWins() {
+        BookingAnalyticsEventDto older = event("PENDING", "2026-10-17T09:00:00+07:00");
+        BookingAnalyticsEventDto newer = event("CONFIRMED", "2026-10-17T09:05:00+07:00");
+
+        assertThat(BookingAnalyticsEventDto.newest(older, newer)).isSameAs(newer);
+        assertThat(BookingAnalyticsEventDto.newest(newer, older)).isSameAs(newer);
+    }
+
+    @Test
+    void offsetsAreComparedAsInstants() {
+        // 09:30+07:00 is 02:30Z, so the event stamped 03:00Z is the newer one despite its smaller local time
+        BookingAnalyticsEventDto local = event("CONFIRMED", "2026-10-17T09:30:00+07:00");
+        BookingAnalyticsEventDto utc = event("CANCELLED", "2026-10-17T03:00:00Z");
+
+        assertThat(BookingAnalyticsEventDto.newest(local, utc)).isSameAs(utc);
+        assertThat(BookingAnalyticsEventDto.newest(utc, local)).isSameAs(utc);
+    }
+
+    @Test
+    void equalTimestampsKeepTheLaterArrival() {
+        BookingAnalyticsEventDto first = event("CONFIRMED", "2026-10-17T09:00:00+07:00");
+        BookingAnalyticsEventDto second = event("CANCELLED", "2026-10-17T09:00:00+07:00");
+
+        assertThat(BookingAnalyticsEventDto.newest(first, second)).isSameAs(second);
+    }
+
+    @Test
+    void missingTimestampFallsBackToArrivalOrder() {
+        BookingAnalyticsEventDto stamped = event("CONFIRMED", "2026-10-17T09:00:00+07:00");
+        BookingAnalyticsEventDto unstamped = event("CANCELLED", null);
+
+        assertThat(BookingAnalyticsEventDto.newest(stamped, unstamped)).isSameAs(unstamped);
+        assertThat(BookingAnalyticsEventDto.newest(unstamped, stamped)).isSameAs(stamped);
+    }
+
+    private static BookingAnalyticsEventDto event(String status, String updatedAt) {
+        return BookingAnalyticsEventDto.builder()
+            .bookingId("booking-1")
+            .status(status)
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
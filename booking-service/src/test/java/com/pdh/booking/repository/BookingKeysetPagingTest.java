@@ -0,0 +1,123 @@
+package com.pdh.booking.repository;
+
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.repository.specification.BookingSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Keyset paging of the backoffice advanced search on (created_at, booking_id) DESC: walking pages with
+ * {@link BookingSpecification#after} must return every booking exactly once, including runs of bookings
+ * that share one created_at and therefore fall back to the booking id.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = BookingKeysetPagingTest.Config.class)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingKeysetPagingTest {
+
+    private static final Sort KEYSET_SORT = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("bookingId"));
+    private static final LocalDateTime SHARED = LocalDateTime.of(2026, 10, 17, 9, 0);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.booking.model")
+    @EnableJpaRepositories(basePackageClasses = BookingRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = BookingRepository.class))
+    static class Config {
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<UUID> expectedOrder = new ArrayList<>();
+
+    @BeforeEach
+    void createBookings() {
+        // one booking before and after a run of five that share created_at
+        insert(SHARED.plusMinutes(1));
+        for (int i = 0; i < 5; i++) {
+            insert(SHARED);
+        }
+        insert(SHARED.minusMinutes(1));
+        expectedOrder.addAll(jdbcTemplate.queryForList(
+            "SELECT booking_id FROM bookings ORDER BY created_at DESC, booking_id DESC", UUID.class));
+    }
+
+    @Test
+    void cursorOnASharedCreatedAtContinuesWithSmallerIds() {
+        Booking boundary = bookingRepository.findByBookingId(expectedOrder.get(2)).orElseThrow();
+
+        List<UUID> rest = fetch(BookingSpecification.after(boundary.getCreatedAt(), boundary.getBookingId()), 100);
+
+        assertThat(rest).containsExactlyElementsOf(expectedOrder.subList(3, expectedOrder.size()));
+    }
+
+    @Test
+    void pagesAcrossTheSharedCreatedAtReturnEveryBookingOnce() {
+        List<UUID> seen = new ArrayList<>();
+        ZonedDateTime createdAt = null;
+        UUID bookingId = null;
+        while (true) {
+            List<Booking> page = bookingRepository.findBy(BookingSpecification.after(createdAt, bookingId),
+                query -> query.sortBy(KEYSET_SORT).limit(2).all());
+            if (page.isEmpty()) {
+                break;
+            }
+            page.forEach(booking -> seen.add(booking.getBookingId()));
+            Booking last = page.get(page.size() - 1);
+            createdAt = last.getCreatedAt();
+            bookingId = last.getBookingId();
+        }
+
+        assertThat(seen).containsExactlyElementsOf(expectedOrder);
+    }
+
+    private List<UUID> fetch(Specification<Booking> specification, int limit) {
+        return bookingRepository.findBy(specification, query -> query.sortBy(KEYSET_SORT).limit(limit).all())
+            .stream().map(Booking::getBookingId).toList();
+    }
+
+    private void insert(LocalDateTime createdAt) {
+        UUID bookingId = UUID.randomUUID();
+        jdbcTemplate.update("""
+            INSERT INTO bookings (booking_id, created_at, updated_at, is_deleted, booking_reference, user_id,
+                                  total_amount, currency, status, booking_type, saga_state, saga_id)
+            VALUES (?, ?, ?, false, ?, ?, 100, 'VND', 'CONFIRMED', 'FLIGHT', 'BOOKING_COMPLETED', ?)""",
+            bookingId, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt),
+            "BK" + bookingId.toString().substring(0, 8), UUID.randomUUID(), "saga-" + bookingId);
+    }
+}
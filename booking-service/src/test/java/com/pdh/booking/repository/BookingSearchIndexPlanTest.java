@@ -0,0 +1,277 @@
+package com.pdh.booking.repository;
+
+import com.pdh.booking.repository.specification.BookingSpecification;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.params.provider.Arguments.arguments;
+
+/**
+ * Query plans of the backoffice product-details searches on the schema built by the Liquibase changelog.
+ * Each case calls a {@link BookingRepository} method, captures the SQL and bind values Hibernate sends to
+ * the driver, and runs EXPLAIN ANALYZE on exactly that statement: the filter must be served by its
+ * idx_bookings_pd_* index instead of a sequential scan of bookings.
+ * <p>
+ * Loads 50,000 bookings by default; run with {@code -Dbookings.plan.rows=1000000} for the 1M-row
+ * measurement, where the logged execution times are the benchmark figures.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = BookingSearchIndexPlanTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingSearchIndexPlanTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSearchIndexPlanTest.class);
+    private static final int BOOKINGS = Integer.getInteger("bookings.plan.rows", 50_000);
+    private static final Pageable PAGE = PageRequest.of(0, 20);
+    private static final Pageable KEYSET_PAGE =
+        PageRequest.of(0, 20, Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("bookingId")));
+    private static final List<CapturedStatement> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.booking.model")
+    @EnableJpaRepositories(basePackageClasses = BookingRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = BookingRepository.class))
+    static class Config {
+
+        @Bean
+        static BeanPostProcessor capturingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource
+                        ? proxy(DataSource.class, dataSource, (result, method, args) ->
+                            result instanceof Connection connection ? capturing(connection) : result)
+                        : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void createBookings() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT count(*) FROM bookings", Integer.class);
+        if (existing != null && existing >= BOOKINGS) {
+            return;
+        }
+        long started = System.nanoTime();
+        jdbcTemplate.update("""
+            INSERT INTO bookings (booking_id, created_at, updated_at, is_deleted, booking_reference, user_id,
+                                  total_amount, currency, status, booking_type, saga_state, saga_id, product_details)
+            SELECT gen_random_uuid(), now() - make_interval(mins => i), now(), false, 'BK' || i, gen_random_uuid(),
+                   100, 'VND', 'CONFIRMED',
+                   CASE WHEN i % 2 = 0 THEN 'FLIGHT' ELSE 'HOTEL' END,
+                   'BOOKING_COMPLETED', 'saga-' || i,
+                   CASE WHEN i % 2 = 0
+                       THEN jsonb_build_object(
+                           'airline', 'Carrier-' || lpad((i % 500)::text, 4, '0'),
+                           'originAirport', 'A' || (i % 50),
+                           'destinationAirport', 'B' || (i % 40),
+                           'departureDateTime', to_char(date '2026-01-01' + (i % 365), 'YYYY-MM-DD') || 'T08:00:00')
+                       ELSE jsonb_build_object(
+                           'hotelName', 'Hotel-' || lpad((i % 500)::text, 4, '0'),
+                           'city', 'City-' || lpad((i % 400)::text, 4, '0'),
+                           'checkInDate', to_char(date '2026-01-01' + (i % 365), 'YYYY-MM-DD'))
+                   END
+            FROM generate_series(1, ?) AS i""", BOOKINGS);
+        jdbcTemplate.execute("ANALYZE bookings");
+        log.info("Loaded {} bookings in {} ms", BOOKINGS, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    static Stream<Arguments> searches() {
+        LocalDate from = LocalDate.of(2026, 3, 1);
+        LocalDate to = LocalDate.of(2026, 3, 3);
+        return Stream.of(
+            search("idx_bookings_pd_airline_trgm", "findFlightBookingsByAirline",
+                repository -> repository.findFlightBookingsByAirline("Carrier-0042", PAGE)),
+            search("idx_bookings_pd_route", "findFlightBookingsByRoute",
+                repository -> repository.findFlightBookingsByRoute("A10", "B10", PAGE)),
+            search("idx_bookings_pd_departure_date", "findFlightBookingsByDepartureDate",
+                repository -> repository.findFlightBookingsByDepartureDate(from, to, PAGE)),
+            search("idx_bookings_pd_hotel_name_trgm", "findHotelBookingsByHotelName",
+                repository -> repository.findHotelBookingsByHotelName("Hotel-0042", PAGE)),
+            search("idx_bookings_pd_city_trgm", "findHotelBookingsByLocation",
+                repository -> repository.findHotelBookingsByLocation("City-0042", PAGE)),
+            search("idx_bookings_pd_check_in_date", "findHotelBookingsByCheckInDate",
+                repository -> repository.findHotelBookingsByCheckInDate(from, to, PAGE)),
+            criteria("idx_bookings_pd_airline_trgm", Map.of("bookingType", "FLIGHT", "airline", "Carrier-0042")),
+            criteria("idx_bookings_pd_route",
+                Map.of("bookingType", "FLIGHT", "originAirport", "A10", "destinationAirport", "B10")),
+            criteria("idx_bookings_pd_departure_date",
+                Map.of("bookingType", "FLIGHT", "departureDateFrom", from.toString(), "departureDateTo", to.toString())),
+            criteria("idx_bookings_pd_hotel_name_trgm", Map.of("bookingType", "HOTEL", "hotelName", "Hotel-0042")),
+            criteria("idx_bookings_pd_city_trgm", Map.of("bookingType", "HOTEL", "city", "City-0042")),
+            criteria("idx_bookings_pd_check_in_date",
+                Map.of("bookingType", "HOTEL", "checkInDateFrom", from.toString(), "checkInDateTo", to.toString()))
+        );
+    }
+
+    @ParameterizedTest(name = "{1}")
+    @MethodSource("searches")
+    void searchUsesItsIndex(String index, Consumer<BookingRepository> search) {
+        STATEMENTS.clear();
+        search.accept(bookingRepository);
+        CapturedStatement statement = STATEMENTS.stream()
+            .filter(captured -> !captured.sql().toLowerCase().startsWith("select count"))
+            .findFirst()
+            .orElseThrow();
+
+        String plan = explain(statement);
+
+        log.info("{} rows, {}:\n{}", BOOKINGS, statement.sql(), plan);
+        assertThat(plan).contains(index).doesNotContain("Seq Scan on bookings");
+    }
+
+    @Test
+    void searchColumnsFollowProductDetailsOnInsertAndUpdate() {
+        jdbcTemplate.update("""
+            INSERT INTO bookings (booking_id, created_at, updated_at, is_deleted, booking_reference, user_id,
+                                  total_amount, currency, status, booking_type, saga_state, saga_id, product_details)
+            VALUES (gen_random_uuid(), now(), now(), false, 'BK-SYNC', gen_random_uuid(), 100, 'VND', 'CONFIRMED',
+                    'FLIGHT', 'BOOKING_COMPLETED', 'saga-sync',
+                    '{"airline": "Sync Air", "departureDateTime": "2026-05-01T08:00:00"}'::jsonb)""");
+        try {
+            assertThat(jdbcTemplate.queryForMap(
+                "SELECT pd_airline, pd_departure_date FROM bookings WHERE booking_reference = 'BK-SYNC'"))
+                .containsEntry("pd_airline", "Sync Air")
+                .containsEntry("pd_departure_date", java.sql.Date.valueOf("2026-05-01"));
+
+            jdbcTemplate.update("UPDATE bookings SET product_details = '{\"hotelName\": \"Sync Inn\", "
+                + "\"checkInDate\": \"not-a-date\"}'::jsonb WHERE booking_reference = 'BK-SYNC'");
+
+            assertThat(jdbcTemplate.queryForMap("SELECT pd_airline, pd_hotel_name, pd_check_in_date "
+                + "FROM bookings WHERE booking_reference = 'BK-SYNC'"))
+                .containsEntry("pd_airline", null)
+                .containsEntry("pd_hotel_name", "Sync Inn")
+                .containsEntry("pd_check_in_date", null);
+        } finally {
+            jdbcTemplate.update("DELETE FROM bookings WHERE booking_reference = 'BK-SYNC'");
+        }
+    }
+
+    private String explain(CapturedStatement statement) {
+        return String.join("\n", jdbcTemplate.query(connection -> {
+            PreparedStatement explain = connection.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + statement.sql());
+            for (Binding binding : statement.bindings()) {
+                try {
+                    binding.method().invoke(explain, binding.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Cannot replay " + binding.method().getName(), e);
+                }
+            }
+            return explain;
+        }, (row, rowNum) -> row.getString(1)));
+    }
+
+    private static Arguments search(String index, String method, Consumer<BookingRepository> search) {
+        return arguments(index, Named.of(method, search));
+    }
+
+    private static Arguments criteria(String index, Map<String, Object> criteria) {
+        return arguments(index, Named.<Consumer<BookingRepository>>of("findAll" + criteria.keySet(),
+            repository -> repository.findAll(BookingSpecification.fromCriteria(criteria), KEYSET_PAGE)));
+    }
+
+    private static Connection capturing(Connection connection) {
+        return proxy(Connection.class, connection, (result, method, args) ->
+            result instanceof PreparedStatement prepared && method.getName().equals("prepareStatement")
+                ? capturing(prepared, (String) args[0])
+                : result);
+    }
+
+    private static PreparedStatement capturing(PreparedStatement prepared, String sql) {
+        List<Binding> bindings = new ArrayList<>();
+        return proxy(PreparedStatement.class, prepared, (result, method, args) -> {
+            if (method.getName().startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer) {
+                bindings.add(new Binding(method, args.clone()));
+            } else if (method.getName().equals("clearParameters")) {
+                bindings.clear();
+            } else if (method.getName().startsWith("execute")) {
+                STATEMENTS.add(new CapturedStatement(sql, List.copyOf(bindings)));
+            }
+            return result;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, T target, ResultMapper mapper) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, method, args) -> mapper.map(invoke(method, target, args), method, args));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Exception {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ResultMapper {
+        Object map(Object result, Method method, Object[] args);
+    }
+
+    private record Binding(Method method, Object[] args) {
+    }
+
+    private record CapturedStatement(String sql, List<Binding> bindings) {
+    }
+}
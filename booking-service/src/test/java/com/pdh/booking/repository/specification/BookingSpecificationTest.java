@@ -0,0 +1,63 @@
+package com.pdh.booking.repository.specification;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BookingSpecificationTest {
+
+    @Test
+    void unknownCriterionIsRejected() {
+        assertThatThrownBy(() -> BookingSpecification.fromCriteria(Map.of("customerEmail", "a@b.c")))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Unsupported search criterion: customerEmail");
+    }
+
+    @Test
+    void malformedValuesAreRejected() {
+        assertInvalid("status", "SHIPPED", "Invalid status: SHIPPED");
+        assertInvalid("status", List.of("CONFIRMED", "LOST"), "Invalid status: LOST");
+        assertInvalid("bookingType", "CRUISE", "Invalid bookingType: CRUISE");
+        assertInvalid("userId", "42", "Invalid userId: 42");
+        assertInvalid("minAmount", "ten", "Invalid minAmount: ten");
+        assertInvalid("startDate", "17/10/2026", "Invalid startDate (expected yyyy-MM-dd): 17/10/2026");
+        assertInvalid("checkInDateTo", "2026-02-30", "Invalid checkInDateTo (expected yyyy-MM-dd): 2026-02-30");
+    }
+
+    @Test
+    void validCriteriaCompileToOneFilterEach() {
+        Map<String, Object> criteria = Map.of(
+            "bookingType", "flight",
+            "status", List.of("CONFIRMED", "cancelled"),
+            "userId", "3f2b8c1e-7d4a-4e0b-9a55-0c1d2e3f4a5b",
+            "minAmount", 100,
+            "startDate", "2026-10-01",
+            "originAirport", "han",
+            "searchTerm", "BK-2026");
+
+        assertThat(BookingSpecification.compile(criteria)).hasSize(criteria.size());
+    }
+
+    @Test
+    void emptyValuesAreNotFilters() {
+        Map<String, Object> criteria = new HashMap<>();
+        criteria.put("status", "");
+        criteria.put("bookingType", List.of());
+        criteria.put("city", "   ");
+        criteria.put("userId", null);
+
+        assertThat(BookingSpecification.compile(criteria)).isEmpty();
+        assertThat(BookingSpecification.compile(null)).isEmpty();
+    }
+
+    private static void assertInvalid(String key, Object value, String message) {
+        assertThatThrownBy(() -> BookingSpecification.fromCriteria(Map.of(key, value)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage(message);
+    }
+}
@@ -0,0 +1,146 @@
+package com.pdh.booking.saga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.pdh.common.saga.CompensationContext;
+import com.pdh.common.saga.CompensationHandler;
+import com.pdh.common.saga.CompensationStrategy;
+import com.pdh.common.saga.JdbcPendingCompensationStore;
+import com.pdh.common.saga.PendingCompensationStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two compensation handlers, each with its own {@link JdbcPendingCompensationStore}, resuming the same
+ * pending_compensations table built by the Liquibase changelog: every abandoned retry runs exactly once,
+ * and retries leased by a live instance are left alone.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class PendingCompensationClaimTest {
+
+    private static final String OPERATION = "RESERVE_FLIGHT";
+    private static final Duration LEASE = Duration.ofMinutes(5);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void abandonedRetriesRunOnceAcrossTwoHandlers() throws Exception {
+        jdbcTemplate.update("DELETE FROM pending_compensations");
+        int entries = 200;
+        JdbcPendingCompensationStore crashed = store();
+        for (int i = 0; i < entries; i++) {
+            crashed.save(pending("saga-" + i), Instant.now());
+        }
+        // the instance that armed these died and its leases ran out
+        jdbcTemplate.update("UPDATE pending_compensations SET lease_until = now() - interval '1 second'");
+
+        CountingExecutor executor = new CountingExecutor(entries);
+        CompensationHandler first = handler(store(), executor);
+        CompensationHandler second = handler(store(), executor);
+        try {
+            Thread a = Thread.ofVirtual().start(first::resumePendingCompensations);
+            Thread b = Thread.ofVirtual().start(second::resumePendingCompensations);
+            a.join();
+            b.join();
+
+            assertThat(executor.done.await(10, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200);
+            assertThat(executor.retries).hasSize(entries);
+            assertThat(executor.retries.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+    }
+
+    @Test
+    void liveLeaseIsNotClaimedAndExpiredLeaseIsClaimedOnce() {
+        jdbcTemplate.update("DELETE FROM pending_compensations");
+        JdbcPendingCompensationStore owner = store();
+        JdbcPendingCompensationStore other = store();
+        owner.save(pending("saga-live"), Instant.now());
+
+        assertThat(other.claim(List.of(OPERATION))).isEmpty();
+
+        jdbcTemplate.update("UPDATE pending_compensations SET lease_until = now() - interval '1 second'");
+        assertThat(other.claim(List.of(OPERATION))).extracting(pending -> pending.context().getSagaId())
+            .containsExactly("saga-live");
+        assertThat(owner.claim(List.of(OPERATION))).isEmpty();
+        assertThat(other.claim(List.of("RESERVE_HOTEL"))).isEmpty();
+    }
+
+    private JdbcPendingCompensationStore store() {
+        return new JdbcPendingCompensationStore(jdbcTemplate, objectMapper, LEASE);
+    }
+
+    private static CompensationHandler handler(PendingCompensationStore store, CountingExecutor executor) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("pendingCompensationStore", store);
+        CompensationHandler handler = new CompensationHandler(beans.getBeanProvider(PendingCompensationStore.class),
+            beans.getBeanProvider(MeterRegistry.class));
+        handler.registerExecutor(OPERATION, executor);
+        return handler;
+    }
+
+    private static CompensationContext pending(String sagaId) {
+        return CompensationContext.builder()
+            .sagaId(sagaId)
+            .failedOperation(OPERATION)
+            .strategy(CompensationStrategy.RETRY_THEN_COMPENSATE)
+            .retryCount(1)
+            .build();
+    }
+
+    private static class CountingExecutor implements CompensationHandler.CompensationExecutor {
+        private final CountDownLatch done;
+        private final Map<String, AtomicInteger> retries = new ConcurrentHashMap<>();
+
+        CountingExecutor(int expected) {
+            this.done = new CountDownLatch(expected);
+        }
+
+        @Override
+        public boolean compensate(CompensationContext context) {
+            return true;
+        }
+
+        @Override
+        public boolean retry(CompensationContext context) {
+            retries.computeIfAbsent(context.getSagaId(), sagaId -> new AtomicInteger()).incrementAndGet();
+            done.countDown();
+            return true;
+        }
+    }
+}
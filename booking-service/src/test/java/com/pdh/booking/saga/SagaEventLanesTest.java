@@ -0,0 +1,119 @@
+package com.pdh.booking.saga;
+
+import com.pdh.booking.saga.SagaEventLanes.KeyedTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SagaEventLanesTest {
+
+    private SagaEventLanes lanes;
+
+    @AfterEach
+    void shutdown() {
+        if (lanes != null) {
+            lanes.shutdown();
+        }
+    }
+
+    @Test
+    void tasksForOneBookingRunInArrivalOrder() {
+        lanes = new SagaEventLanes(4);
+        UUID bookingId = UUID.randomUUID();
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+
+        List<KeyedTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int sequence = i;
+            tasks.add(new KeyedTask(bookingId, () -> executed.add(sequence)));
+        }
+        lanes.runAll(tasks);
+
+        assertThat(executed).containsExactlyElementsOf(IntStream.range(0, 200).boxed().toList());
+    }
+
+    @Test
+    void bookingsOnDifferentLanesRunInParallel() {
+        lanes = new SagaEventLanes(2);
+        UUID first = UUID.randomUUID();
+        UUID second = first;
+        while (Math.floorMod(second.hashCode(), 2) == Math.floorMod(first.hashCode(), 2)) {
+            second = UUID.randomUUID();
+        }
+
+        // The first task only finishes early if the second runs while it is still waiting
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        AtomicBoolean overlapped = new AtomicBoolean();
+        lanes.runAll(List.of(
+            new KeyedTask(first, () -> {
+                try {
+                    overlapped.set(secondStarted.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }),
+            new KeyedTask(second, secondStarted::countDown)));
+
+        assertThat(overlapped).isTrue();
+    }
+
+    @Test
+    void failingTaskSkipsLaterTasksOfItsKeyAndReportsItsIndex() {
+        lanes = new SagaEventLanes(1);
+        UUID failing = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        IllegalStateException boom = new IllegalStateException("boom");
+
+        assertThatThrownBy(() -> lanes.runAll(List.of(
+            new KeyedTask(failing, () -> executed.add("before")),
+            new KeyedTask(failing, () -> {
+                throw boom;
+            }),
+            new KeyedTask(failing, () -> executed.add("behind the failure")),
+            new KeyedTask(other, () -> executed.add("other booking")))))
+            .isInstanceOfSatisfying(SagaEventLanes.TaskFailedException.class, e -> {
+                assertThat(e.getIndex()).isEqualTo(1);
+                assertThat(e.getKey()).isEqualTo(failing);
+                assertThat(e.getCause()).isSameAs(boom);
+            });
+
+        assertThat(executed).containsExactly("before", "other booking");
+    }
+
+    @Test
+    void earliestFailureIsReportedWhenSeveralLanesFail() {
+        lanes = new SagaEventLanes(4);
+        List<KeyedTask> tasks = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int sequence = i;
+            tasks.add(new KeyedTask(UUID.randomUUID(), () -> {
+                if (sequence == 7 || sequence == 12) {
+                    throw new IllegalStateException("task " + sequence);
+                }
+            }));
+        }
+
+        assertThatThrownBy(() -> lanes.runAll(tasks))
+            .isInstanceOfSatisfying(SagaEventLanes.TaskFailedException.class,
+                e -> assertThat(e.getIndex()).isEqualTo(7));
+    }
+
+    @Test
+    void laneCountIsAtLeastOne() {
+        lanes = new SagaEventLanes(0);
+
+        assertThat(lanes.size()).isEqualTo(1);
+    }
+}
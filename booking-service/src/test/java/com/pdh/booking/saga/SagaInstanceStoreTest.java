@@ -0,0 +1,180 @@
+package com.pdh.booking.saga;
+
+import com.pdh.booking.model.BookingSagaInstance;
+import com.pdh.booking.repository.BookingSagaRepository;
+import com.pdh.common.saga.SagaState;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Cache behaviour of {@link SagaInstanceStore} over a mocked repository: cached sagas are served without a
+ * reload, a version conflict evicts the entry so the retry reads the database, and completed or rolled
+ * back sagas never stay cached.
+ */
+class SagaInstanceStoreTest {
+
+    private final BookingSagaRepository sagaRepository = mock(BookingSagaRepository.class);
+    private final SagaInstanceStore store = new SagaInstanceStore(sagaRepository, mock(EntityManager.class), 2);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void cachedSagaIsServedAsACopyWithoutReloading() {
+        BookingSagaInstance stored = saga(UUID.randomUUID(), 3L);
+        when(sagaRepository.findByBookingId(stored.getBookingId())).thenReturn(Optional.of(stored));
+
+        BookingSagaInstance first = store.findByBookingId(stored.getBookingId()).orElseThrow();
+        BookingSagaInstance second = store.findByBookingId(stored.getBookingId()).orElseThrow();
+
+        verify(sagaRepository, times(1)).findByBookingId(stored.getBookingId());
+        assertThat(second).isNotSameAs(first).isEqualTo(first);
+        first.setCurrentState(SagaState.PAYMENT_PENDING);
+        assertThat(store.findByBookingId(stored.getBookingId()).orElseThrow().getCurrentState())
+            .isEqualTo(SagaState.FLIGHT_RESERVATION_PENDING);
+    }
+
+    @Test
+    void unchangedSagaIsNotWrittenBack() {
+        BookingSagaInstance stored = saga(UUID.randomUUID(), 3L);
+        when(sagaRepository.findByBookingId(stored.getBookingId())).thenReturn(Optional.of(stored));
+
+        store.save(store.findByBookingId(stored.getBookingId()).orElseThrow());
+
+        verify(sagaRepository, never()).updateState(anyString(), anyLong(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void savedStepAdvancesTheVersionInTheCache() {
+        BookingSagaInstance stored = saga(UUID.randomUUID(), 3L);
+        when(sagaRepository.findByBookingId(stored.getBookingId())).thenReturn(Optional.of(stored));
+        when(sagaRepository.updateState(eq(stored.getSagaId()), eq(3L), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+
+        BookingSagaInstance saga = store.findByBookingId(stored.getBookingId()).orElseThrow();
+        saga.setCurrentState(SagaState.PAYMENT_PENDING);
+        store.save(saga);
+
+        BookingSagaInstance cached = store.findByBookingId(stored.getBookingId()).orElseThrow();
+        assertThat(cached.getVersion()).isEqualTo(4L);
+        assertThat(cached.getCurrentState()).isEqualTo(SagaState.PAYMENT_PENDING);
+        verify(sagaRepository, times(1)).findByBookingId(stored.getBookingId());
+    }
+
+    @Test
+    void staleVersionIsRejectedAndTheRetryReadsTheDatabase() {
+        UUID bookingId = UUID.randomUUID();
+        BookingSagaInstance stale = saga(bookingId, 3L);
+        BookingSagaInstance advanced = saga(bookingId, 4L);
+        advanced.setSagaId(stale.getSagaId());
+        when(sagaRepository.findByBookingId(bookingId)).thenReturn(Optional.of(stale), Optional.of(advanced));
+        // another replica already moved the row to version 4
+        when(sagaRepository.updateState(eq(stale.getSagaId()), eq(3L), any(), any(), any(), any(), any(), any()))
+            .thenReturn(0);
+        when(sagaRepository.updateState(eq(stale.getSagaId()), eq(4L), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+
+        BookingSagaInstance attempt = store.findByBookingId(bookingId).orElseThrow();
+        attempt.setCurrentState(SagaState.PAYMENT_PENDING);
+        assertThatThrownBy(() -> store.save(attempt)).isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        BookingSagaInstance retry = store.findByBookingId(bookingId).orElseThrow();
+        assertThat(retry.getVersion()).isEqualTo(4L);
+        retry.setCurrentState(SagaState.PAYMENT_PENDING);
+        store.save(retry);
+
+        verify(sagaRepository, times(2)).findByBookingId(bookingId);
+        assertThat(store.findByBookingId(bookingId).orElseThrow().getVersion()).isEqualTo(5L);
+    }
+
+    @Test
+    void completedSagaIsDroppedFromTheCache() {
+        BookingSagaInstance stored = saga(UUID.randomUUID(), 3L);
+        when(sagaRepository.findByBookingId(stored.getBookingId())).thenReturn(Optional.of(stored));
+        when(sagaRepository.updateState(anyString(), anyLong(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+
+        BookingSagaInstance saga = store.findByBookingId(stored.getBookingId()).orElseThrow();
+        saga.complete();
+        store.save(saga);
+        store.findByBookingId(stored.getBookingId());
+
+        verify(sagaRepository, times(2)).findByBookingId(stored.getBookingId());
+    }
+
+    @Test
+    void rolledBackStepEvictsTheCachedSaga() {
+        BookingSagaInstance stored = saga(UUID.randomUUID(), 3L);
+        // each load is a fresh row, as the rolled back UPDATE left the database untouched
+        when(sagaRepository.findByBookingId(stored.getBookingId()))
+            .thenAnswer(invocation -> Optional.of(saga(stored.getBookingId(), 3L)));
+        when(sagaRepository.updateState(anyString(), anyLong(), any(), any(), any(), any(), any(), any()))
+            .thenReturn(1);
+        BookingSagaInstance saga = store.findByBookingId(stored.getBookingId()).orElseThrow();
+
+        TransactionSynchronizationManager.initSynchronization();
+        saga.setCurrentState(SagaState.PAYMENT_PENDING);
+        store.save(saga);
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(store.findByBookingId(stored.getBookingId()).orElseThrow().getCurrentState())
+            .isEqualTo(SagaState.FLIGHT_RESERVATION_PENDING);
+        verify(sagaRepository, times(2)).findByBookingId(stored.getBookingId());
+    }
+
+    @Test
+    void leastRecentlyUsedSagaIsEvictedPastTheMaxSize() {
+        BookingSagaInstance first = saga(UUID.randomUUID(), 1L);
+        BookingSagaInstance second = saga(UUID.randomUUID(), 1L);
+        BookingSagaInstance third = saga(UUID.randomUUID(), 1L);
+        for (BookingSagaInstance saga : new BookingSagaInstance[]{first, second, third}) {
+            when(sagaRepository.findByBookingId(saga.getBookingId())).thenReturn(Optional.of(saga));
+        }
+
+        store.findByBookingId(first.getBookingId());
+        store.findByBookingId(second.getBookingId());
+        store.findByBookingId(first.getBookingId());
+        store.findByBookingId(third.getBookingId());
+        store.findByBookingId(first.getBookingId());
+        store.findByBookingId(second.getBookingId());
+
+        verify(sagaRepository, times(1)).findByBookingId(first.getBookingId());
+        verify(sagaRepository, times(2)).findByBookingId(second.getBookingId());
+    }
+
+    private static BookingSagaInstance saga(UUID bookingId, long version) {
+        return BookingSagaInstance.builder()
+            .bookingId(bookingId)
+            .currentState(SagaState.FLIGHT_RESERVATION_PENDING)
+            .startedAt(ZonedDateTime.now())
+            .lastUpdatedAt(ZonedDateTime.now())
+            .version(version)
+            .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.pdh.booking.saga;
+
+import com.pdh.booking.model.SagaStateLog;
+import com.pdh.common.saga.SagaState;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * {@link SagaStateLogWriter} over a mocked JdbcTemplate: entries are queued only once their transaction
+ * commits, flushed in batches of the configured size, written inline when the queue is full, and a batch
+ * the database rejects is counted as dropped.
+ */
+class SagaStateLogWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Integer> batchSizes = new ArrayList<>();
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void queuedEntriesAreFlushedInBatches() {
+        recordBatches();
+        SagaStateLogWriter writer = new SagaStateLogWriter(jdbcTemplate, meterRegistry, 100, 2);
+        for (int i = 0; i < 5; i++) {
+            writer.append(entry());
+        }
+        assertThat(meterRegistry.get("booking.saga.state-log.queued").gauge().value()).isEqualTo(5);
+
+        writer.flush();
+
+        assertThat(batchSizes).containsExactly(2, 2, 1);
+        assertThat(meterRegistry.get("booking.saga.state-log.written").counter().count()).isEqualTo(5);
+        assertThat(meterRegistry.get("booking.saga.state-log.queued").gauge().value()).isZero();
+    }
+
+    @Test
+    void entryIsQueuedOnlyWhenItsTransactionCommits() {
+        recordBatches();
+        SagaStateLogWriter writer = new SagaStateLogWriter(jdbcTemplate, meterRegistry, 100, 10);
+
+        TransactionSynchronizationManager.initSynchronization();
+        writer.append(entry());
+        writer.flush();
+        assertThat(batchSizes).isEmpty();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        TransactionSynchronizationManager.initSynchronization();
+        writer.append(entry());
+        TransactionSynchronizationManager.getSynchronizations()
+            .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        writer.flush();
+        assertThat(batchSizes).containsExactly(1);
+    }
+
+    @Test
+    void fullQueueWritesTheEntryInline() {
+        recordBatches();
+        SagaStateLogWriter writer = new SagaStateLogWriter(jdbcTemplate, meterRegistry, 1, 10);
+
+        writer.append(entry());
+        writer.append(entry());
+
+        assertThat(batchSizes).containsExactly(1);
+        writer.flush();
+        assertThat(batchSizes).containsExactly(1, 1);
+    }
+
+    @Test
+    void rejectedBatchIsCountedAsDropped() {
+        doAnswer(invocation -> {
+            throw new DataAccessResourceFailureException("connection refused");
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+        SagaStateLogWriter writer = new SagaStateLogWriter(jdbcTemplate, meterRegistry, 100, 2);
+        for (int i = 0; i < 3; i++) {
+            writer.append(entry());
+        }
+
+        writer.flush();
+
+        assertThat(meterRegistry.get("booking.saga.state-log.dropped").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("booking.saga.state-log.written").counter().count()).isZero();
+    }
+
+    @Test
+    void emptyQueueWritesNothing() {
+        new SagaStateLogWriter(jdbcTemplate, meterRegistry, 100, 2).flush();
+
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private void recordBatches() {
+        // the writer reuses its batch list, so record the size at call time
+        doAnswer(invocation -> {
+            batchSizes.add(invocation.<Collection<?>>getArgument(1).size());
+            return new int[0][];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(),
+            any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    private static SagaStateLog entry() {
+        SagaStateLog entry = new SagaStateLog();
+        entry.setSagaId(UUID.randomUUID().toString());
+        entry.setBookingId(UUID.randomUUID().toString());
+        entry.setFromState(SagaState.FLIGHT_RESERVATION_PENDING);
+        entry.setToState(SagaState.PAYMENT_PENDING);
+        entry.setEventType("PaymentRequested");
+        return entry;
+    }
+}
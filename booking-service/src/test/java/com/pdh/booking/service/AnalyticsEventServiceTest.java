@@ -0,0 +1,93 @@
+package com.pdh.booking.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.model.enums.BookingType;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Booking analytics events go to the booking outbox on the caller's connection, never straight to Kafka,
+ * and a failed outbox insert fails the caller instead of being swallowed.
+ */
+class AnalyticsEventServiceTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AnalyticsEventService analyticsEventService =
+        new AnalyticsEventService(kafkaTemplate, objectMapper, jdbcTemplate);
+
+    @Test
+    void bookingChangeIsRecordedInTheOutbox() throws Exception {
+        Booking booking = booking();
+
+        analyticsEventService.publishBookingAnalyticsEvent(booking, "booking.updated");
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(anyString(), args.capture(), args.capture(), args.capture(), args.capture(),
+            args.capture(), args.capture(), args.capture(), args.capture(), args.capture(), args.capture());
+        assertThat(args.getAllValues().subList(1, 4)).containsExactly(
+            "booking.updated", booking.getBookingId().toString(), AnalyticsEventService.BOOKING_ANALYTICS_AGGREGATE);
+        JsonNode payload = objectMapper.readTree((String) args.getAllValues().get(4));
+        assertThat(payload.path("bookingId").asText()).isEqualTo(booking.getBookingId().toString());
+        assertThat(payload.path("status").asText()).isEqualTo("CONFIRMED");
+        assertThat(payload.path("destination").asText()).isEqualTo("Hue");
+        assertThat(payload.path("createdAt").asText()).isEqualTo("2026-10-17T09:00");
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void failedOutboxInsertFailsTheCaller() {
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+            .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+        assertThatThrownBy(() -> analyticsEventService.publishBookingAnalyticsEvent(booking(), "booking.updated"))
+            .isInstanceOf(DataAccessResourceFailureException.class);
+    }
+
+    @Test
+    void unreadableProductDetailsOnlyLoseTheDestination() throws Exception {
+        Booking booking = booking();
+        booking.setProductDetailsJson("{not json");
+
+        analyticsEventService.publishBookingAnalyticsEvent(booking, "booking.updated");
+
+        ArgumentCaptor<Object> args = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(anyString(), args.capture(), args.capture(), args.capture(), args.capture(),
+            args.capture(), args.capture(), args.capture(), args.capture(), args.capture(), args.capture());
+        assertThat(objectMapper.readTree((String) args.getAllValues().get(4)).path("destination").isNull()).isTrue();
+    }
+
+    private static Booking booking() {
+        Booking booking = new Booking();
+        booking.setBookingReference("BK-1");
+        booking.setUserId(UUID.randomUUID());
+        booking.setBookingType(BookingType.HOTEL);
+        booking.setStatus(BookingStatus.CONFIRMED);
+        booking.setTotalAmount(new BigDecimal("100.00"));
+        booking.setProductDetailsJson("{\"city\": \"Hue\"}");
+        booking.setCreatedAt(ZonedDateTime.parse("2026-10-17T09:00:00+07:00"));
+        booking.setUpdatedAt(ZonedDateTime.parse("2026-10-17T11:00:00+07:00"));
+        return booking;
+    }
+}
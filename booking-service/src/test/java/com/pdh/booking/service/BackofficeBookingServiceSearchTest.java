@@ -0,0 +1,97 @@
+package com.pdh.booking.service;
+
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.dto.response.BookingSearchPageDto;
+import com.pdh.booking.repository.BookingDailyStatsRepository;
+import com.pdh.booking.repository.BookingRepository;
+import com.pdh.booking.service.BackofficeBookingService.SearchCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BackofficeBookingServiceSearchTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final BackofficeBookingService service = new BackofficeBookingService(bookingRepository,
+        mock(BookingDailyStatsRepository.class), mock(ObjectProvider.class), mock(BookingStatusStreamService.class));
+
+    @Test
+    void cursorRoundTripKeepsTheInstantAndId() {
+        Booking booking = booking(ZonedDateTime.of(2026, 10, 17, 9, 15, 30, 123_456_000, ZoneId.of("Asia/Ho_Chi_Minh")));
+
+        String cursor = SearchCursor.encode(booking);
+        SearchCursor decoded = SearchCursor.decode(cursor);
+
+        assertThat(cursor).doesNotContain("+", "/", "=");
+        assertThat(decoded.createdAt().toInstant()).isEqualTo(booking.getCreatedAt().toInstant());
+        assertThat(decoded.bookingId()).isEqualTo(booking.getBookingId());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        String withoutSeparator = Base64.getUrlEncoder().encodeToString("2026-10-17T02:15:30Z".getBytes(StandardCharsets.UTF_8));
+        String badId = Base64.getUrlEncoder().encodeToString("2026-10-17T02:15:30Z|42".getBytes(StandardCharsets.UTF_8));
+
+        for (String cursor : List.of("not base64!", withoutSeparator, badId)) {
+            assertThatThrownBy(() -> SearchCursor.decode(cursor))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid search cursor");
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void blankCriteriaCountAsUnfilteredAndUseTheEstimate() {
+        doReturn(List.of()).when(bookingRepository).findBy(any(Specification.class), any());
+        when(bookingRepository.estimateBookingCount()).thenReturn(1_000_000L);
+        Map<String, Object> criteria = new HashMap<>();
+        criteria.put("status", "");
+        criteria.put("bookingType", List.of());
+
+        BookingSearchPageDto page = service.advancedSearch(criteria, null, 20, true);
+
+        assertThat(page.getTotalElements()).isEqualTo(1_000_000L);
+        assertThat(page.getTotalExact()).isFalse();
+        verify(bookingRepository, never()).count(any(Specification.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void filteredSearchCountsExactly() {
+        doReturn(List.of()).when(bookingRepository).findBy(any(Specification.class), any());
+        when(bookingRepository.count(any(Specification.class))).thenReturn(7L);
+
+        BookingSearchPageDto page = service.advancedSearch(Map.of("status", "CONFIRMED"), null, 20, true);
+
+        assertThat(page.getTotalElements()).isEqualTo(7L);
+        assertThat(page.getTotalExact()).isTrue();
+        verify(bookingRepository, never()).estimateBookingCount();
+    }
+
+    private static Booking booking(ZonedDateTime createdAt) {
+        Booking booking = new Booking();
+        booking.setBookingId(UUID.randomUUID());
+        booking.setCreatedAt(createdAt);
+        return booking;
+    }
+}
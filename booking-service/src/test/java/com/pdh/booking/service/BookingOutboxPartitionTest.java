@@ -0,0 +1,164 @@
+package com.pdh.booking.service;
+
+import com.pdh.common.outbox.config.OutboxConfiguration;
+import com.pdh.common.outbox.service.OutboxPartitionManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * {@link OutboxPartitionManager} on the partitioned booking_outbox_events table built by the Liquibase
+ * changelog. Each test starts from a legacy partition ending nine days ago plus the default partition,
+ * so partition creation, bound parsing and retention all run against real partition bounds.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOutboxPartitionTest {
+
+    private static final String TABLE = "booking_outbox_events";
+    private static final int AHEAD_DAYS = 3;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final LocalDate today = LocalDate.now();
+    private final OutboxConfiguration.OutboxProperties properties = new OutboxConfiguration.OutboxProperties();
+
+    @BeforeEach
+    void resetPartitions() {
+        jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+                + "WHERE i.inhparent = to_regclass(?)", String.class, TABLE)
+            .forEach(partition -> jdbcTemplate.execute("DROP TABLE " + partition));
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + "_legacy_data PARTITION OF " + TABLE
+            + " FOR VALUES FROM (MINVALUE) TO ('" + today.minusDays(9) + " 00:00:00')");
+        jdbcTemplate.execute("CREATE TABLE " + TABLE + "_default PARTITION OF " + TABLE + " DEFAULT");
+
+        properties.getCleanup().setPartitionedTable(TABLE);
+        properties.getCleanup().setPartitionAheadDays(AHEAD_DAYS);
+        properties.getCleanup().setProcessedEventsRetentionHours(168);
+    }
+
+    @Test
+    void createsDailyPartitionsAheadAndMovesRowsOutOfTheDefault() {
+        insert(today.minusDays(5).atTime(10, 0), true);
+        insert(today.plusDays(2).atTime(10, 0), false);
+        OutboxPartitionManager manager = new OutboxPartitionManager(jdbcTemplate, properties);
+
+        int created = manager.createPartitionsAhead();
+
+        List<String> expected = new ArrayList<>(List.of(TABLE + "_default", TABLE + "_legacy_data"));
+        for (LocalDate day = today.minusDays(9); !day.isAfter(today.plusDays(AHEAD_DAYS)); day = day.plusDays(1)) {
+            expected.add(partition(day));
+        }
+        assertThat(created).isEqualTo(expected.size() - 2);
+        assertThat(partitions()).containsExactlyInAnyOrderElementsOf(expected);
+        assertThat(count(TABLE + "_default")).isZero();
+        assertThat(count(partition(today.minusDays(5)))).isEqualTo(1);
+        assertThat(count(partition(today.plusDays(2)))).isEqualTo(1);
+        assertThat(manager.createPartitionsAhead()).isZero();
+    }
+
+    @Test
+    void statisticsParseTheOldestUpperBound() {
+        OutboxPartitionManager manager = new OutboxPartitionManager(jdbcTemplate, properties);
+        manager.createPartitionsAhead();
+
+        var statistics = manager.statistics(0, 0);
+
+        assertThat(statistics.getOldestPartitionBound()).isEqualTo(today.minusDays(9).atStartOfDay());
+        assertThat(statistics.getPartitionCount()).isEqualTo(partitions().size());
+    }
+
+    @Test
+    void retentionKeepsPartitionsWithUndeliveredRowsByDefault() {
+        insert(today.minusDays(9).atTime(12, 0), true);
+        insert(today.minusDays(8).atTime(12, 0), false);
+        insert(today.atTime(0, 30), true);
+        OutboxPartitionManager manager = new OutboxPartitionManager(jdbcTemplate, properties);
+        manager.createPartitionsAhead();
+
+        int dropped = manager.dropExpiredPartitions();
+
+        assertThat(dropped).isEqualTo(2);
+        assertThat(partitions()).doesNotContain(TABLE + "_legacy_data", partition(today.minusDays(9)))
+            .contains(partition(today.minusDays(8)), partition(today));
+        assertThat(count(TABLE)).isEqualTo(2);
+    }
+
+    @Test
+    void retentionDropsUndeliveredRowsOnlyWhenRetainingIsTurnedOff() {
+        insert(today.minusDays(8).atTime(12, 0), false);
+        properties.getCleanup().setRetainUnprocessed(false);
+        OutboxPartitionManager manager = new OutboxPartitionManager(jdbcTemplate, properties);
+        manager.createPartitionsAhead();
+
+        manager.dropExpiredPartitions();
+
+        assertThat(partitions()).doesNotContain(partition(today.minusDays(8)));
+        assertThat(count(TABLE)).isZero();
+    }
+
+    @Test
+    void eventIdStaysUniqueWithinItsCreationTime() {
+        new OutboxPartitionManager(jdbcTemplate, properties).createPartitionsAhead();
+        LocalDateTime createdAt = today.atTime(9, 0);
+        String eventId = insert(createdAt, false);
+
+        assertThatThrownBy(() -> insert(eventId, createdAt, false)).isInstanceOf(DuplicateKeyException.class);
+    }
+
+    private String insert(LocalDateTime createdAt, boolean processed) {
+        return insert(UUID.randomUUID().toString(), createdAt, processed);
+    }
+
+    private String insert(String eventId, LocalDateTime createdAt, boolean processed) {
+        jdbcTemplate.update("""
+            INSERT INTO booking_outbox_events (priority, event_id, event_type, aggregate_id, aggregate_type, payload,
+                                               processed, retry_count, max_retries, created_at, updated_at, is_deleted)
+            VALUES (5, ?, 'BookingCreated', 'b-1', 'Booking', '{}'::jsonb, ?, 0, 3, ?, ?, false)""",
+            eventId, processed, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        return eventId;
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid "
+            + "WHERE i.inhparent = to_regclass(?)", String.class, TABLE);
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+
+    private static String partition(LocalDate day) {
+        return TABLE + "_p" + day.format(SUFFIX);
+    }
+}
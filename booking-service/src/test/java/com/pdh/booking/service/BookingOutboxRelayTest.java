@@ -0,0 +1,230 @@
+package com.pdh.booking.service;
+
+import com.pdh.common.outbox.config.OutboxConfiguration;
+import com.pdh.common.outbox.service.OutboxRelay;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+/**
+ * {@link OutboxRelay} on the partitioned booking_outbox_events table built by the Liquibase changelog, with
+ * a mocked KafkaTemplate: claimed rows are sent and marked processed, failed sends are scheduled for a
+ * retry after the backoff, and relays polling the same table never send the same row twice.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class BookingOutboxRelayTest {
+
+    private static final String TABLE = "booking_outbox_events";
+    private static final long RETRY_DELAY_MS = 60_000;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private final Queue<ProducerRecord<String, String>> sent = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void clearOutbox() {
+        jdbcTemplate.update("DELETE FROM " + TABLE);
+    }
+
+    @Test
+    void claimedRowsAreSentAndMarkedProcessed() {
+        String first = insert("booking-1", LocalDateTime.now().minusSeconds(2));
+        String second = insert("booking-2", LocalDateTime.now().minusSeconds(1));
+        sendSucceeds();
+
+        relay(10).relayPending();
+
+        assertThat(sent).extracting(ProducerRecord::topic).containsOnly("booking.Booking.events");
+        assertThat(sent).extracting(ProducerRecord::key).containsExactly("\"booking-1\"", "\"booking-2\"");
+        assertThat(sent).extracting(record -> header(record, "id")).containsExactly(first, second);
+        assertThat(sent).extracting(record -> header(record, "eventType")).containsOnly("BookingCreated");
+        assertThat(jdbcTemplate.queryForList("SELECT processed, processed_at IS NOT NULL AS stamped, retry_count "
+            + "FROM " + TABLE)).allSatisfy(row -> {
+                assertThat(row.get("processed")).isEqualTo(true);
+                assertThat(row.get("stamped")).isEqualTo(true);
+                assertThat(row.get("retry_count")).isEqualTo(0);
+            });
+    }
+
+    @Test
+    void failedSendIsRetriedOnlyAfterTheBackoff() {
+        String delivered = insert("booking-1", LocalDateTime.now().minusSeconds(2));
+        String failing = insert("booking-2", LocalDateTime.now().minusSeconds(1));
+        doAnswer(invocation -> {
+            ProducerRecord<String, String> record = invocation.getArgument(0);
+            sent.add(record);
+            return "\"booking-2\"".equals(record.key())
+                ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                : CompletableFuture.completedFuture(null);
+        }).when(kafkaTemplate).send(any(ProducerRecord.class));
+        OutboxRelay relay = relay(10);
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relayPending();
+
+        Map<String, Object> failed = row(failing);
+        assertThat(row(delivered).get("processed")).isEqualTo(true);
+        assertThat(failed.get("processed")).isEqualTo(false);
+        assertThat(failed.get("retry_count")).isEqualTo(1);
+        assertThat(failed.get("error_message")).isEqualTo("broker unavailable");
+        assertThat(((Timestamp) failed.get("next_retry_at")).toLocalDateTime())
+            .isAfter(before.plusSeconds(RETRY_DELAY_MS / 1000 - 1));
+
+        // neither the pending poll nor an early retry poll picks the row up again
+        sent.clear();
+        relay.relayPending();
+        relay.relayRetryable();
+        assertThat(sent).isEmpty();
+
+        jdbcTemplate.update("UPDATE " + TABLE + " SET next_retry_at = now() - interval '1 second' WHERE event_id = ?",
+            failing);
+        sendSucceeds();
+        relay.relayRetryable();
+
+        assertThat(sent).extracting(record -> header(record, "id")).containsExactly(failing);
+        assertThat(row(failing).get("processed")).isEqualTo(true);
+    }
+
+    @Test
+    void rowsOutOfRetriesAreLeftAlone() {
+        String exhausted = insert("booking-1", LocalDateTime.now());
+        jdbcTemplate.update("UPDATE " + TABLE + " SET retry_count = max_retries, next_retry_at = now() - interval "
+            + "'1 minute' WHERE event_id = ?", exhausted);
+        sendSucceeds();
+
+        OutboxRelay relay = relay(10);
+        relay.relayPending();
+        relay.relayRetryable();
+
+        assertThat(sent).isEmpty();
+        assertThat(row(exhausted).get("processed")).isEqualTo(false);
+    }
+
+    @Test
+    void concurrentRelaysNeverClaimTheSameRow() throws Exception {
+        int events = 200;
+        List<String> eventIds = new ArrayList<>();
+        LocalDateTime createdAt = LocalDateTime.now().minusMinutes(1);
+        for (int i = 0; i < events; i++) {
+            eventIds.add(insert("booking-" + i, createdAt.plusNanos(i * 1_000L)));
+        }
+        // slow sends keep each claimed batch locked while the other relays poll
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return CompletableFuture.supplyAsync(() -> (SendResult<String, String>) null,
+                CompletableFuture.delayedExecutor(20, TimeUnit.MILLISECONDS));
+        }).when(kafkaTemplate).send(any(ProducerRecord.class));
+
+        int relays = 4;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(relays);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int r = 0; r < relays; r++) {
+                OutboxRelay relay = relay(10);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    relay.relayPending();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        // a relay stops at its first short batch, which rows locked by another relay can cause
+        relay(10).relayPending();
+
+        List<String> sentIds = sent.stream().map(record -> header(record, "id")).toList();
+        assertThat(sentIds).doesNotHaveDuplicates().containsExactlyInAnyOrderElementsOf(eventIds);
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM " + TABLE + " WHERE processed = false",
+            Long.class)).isZero();
+    }
+
+    private OutboxRelay relay(int batchSize) {
+        OutboxConfiguration.OutboxProperties properties = new OutboxConfiguration.OutboxProperties();
+        properties.getRelay().setTable(TABLE);
+        properties.getRelay().setBatchSize(batchSize);
+        properties.getRelay().setRetryDelayMs(RETRY_DELAY_MS);
+        properties.getRelay().setSendTimeoutMs(5_000);
+        return new OutboxRelay(jdbcTemplate, new TransactionTemplate(transactionManager), kafkaTemplate, properties);
+    }
+
+    private void sendSucceeds() {
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            return CompletableFuture.completedFuture(null);
+        }).when(kafkaTemplate).send(any(ProducerRecord.class));
+    }
+
+    private String insert(String aggregateId, LocalDateTime createdAt) {
+        String eventId = UUID.randomUUID().toString();
+        jdbcTemplate.update("""
+            INSERT INTO booking_outbox_events (priority, event_id, event_type, aggregate_id, aggregate_type, payload,
+                                               processed, retry_count, max_retries, created_at, updated_at, is_deleted)
+            VALUES (5, ?, 'BookingCreated', ?, 'Booking', '{}'::jsonb, false, 0, 3, ?, ?, false)""",
+            eventId, aggregateId, Timestamp.valueOf(createdAt), Timestamp.valueOf(createdAt));
+        return eventId;
+    }
+
+    private Map<String, Object> row(String eventId) {
+        return jdbcTemplate.queryForMap("SELECT processed, retry_count, next_retry_at, error_message FROM " + TABLE
+            + " WHERE event_id = ?", eventId);
+    }
+
+    private static String header(ProducerRecord<String, String> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,148 @@
+package com.pdh.booking.service;
+
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.repository.BookingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservation expiry over mocked repositories: every booking is expired in its own transaction, so one
+ * booking that fails to expire is counted and skipped while the rest of its page and the following pages
+ * are still expired.
+ */
+class BookingReservationServiceTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final BookingService bookingService = mock(BookingService.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private BookingReservationService reservationService;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        reservationService = new BookingReservationService(bookingRepository, bookingService,
+            new TransactionTemplate(transactionManager), meterRegistry);
+        ReflectionTestUtils.setField(reservationService, "shards", 1);
+        ReflectionTestUtils.setField(reservationService, "batchSize", 2);
+    }
+
+    @Test
+    void everyExpiredReservationIsExpiredAcrossPages() {
+        List<Booking> expired = bookings(3);
+        pages(expired);
+
+        reservationService.releaseExpiredReservations();
+
+        expired.forEach(booking -> verify(bookingService).expireReservation(booking, "Reservation window expired"));
+        assertThat(meterRegistry.get("booking.reservation.expired").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("booking.reservation.expiry.failed").counter().count()).isZero();
+        assertThat(meterRegistry.get("booking.reservation.expiry.backlog").gauge().value()).isZero();
+    }
+
+    @Test
+    void failingBookingIsSkippedAndOnlyItsTransactionRollsBack() {
+        List<Booking> expired = bookings(3);
+        pages(expired);
+        Booking poison = expired.get(0);
+        doAnswer(invocation -> {
+            throw new IllegalStateException("lock release failed");
+        }).when(bookingService).expireReservation(eq(poison), anyString());
+
+        reservationService.releaseExpiredReservations();
+
+        verify(bookingService).expireReservation(expired.get(1), "Reservation window expired");
+        verify(bookingService).expireReservation(expired.get(2), "Reservation window expired");
+        verify(transactionManager, times(1)).rollback(any());
+        assertThat(meterRegistry.get("booking.reservation.expired").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("booking.reservation.expiry.failed").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.reservation.expiry.backlog").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void bookingMovedOnSinceThePageWasReadIsLeftAlone() {
+        List<Booking> expired = bookings(2);
+        pages(expired);
+        // a peer sweeper or the saga already moved the first booking on
+        when(bookingRepository.lockExpiredReservation(eq(expired.get(0).getBookingId()), anyList(), any()))
+            .thenReturn(Optional.empty());
+
+        reservationService.releaseExpiredReservations();
+
+        verify(bookingService, never()).expireReservation(eq(expired.get(0)), anyString());
+        verify(bookingService).expireReservation(expired.get(1), "Reservation window expired");
+        assertThat(meterRegistry.get("booking.reservation.expired").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("booking.reservation.expiry.failed").counter().count()).isZero();
+    }
+
+    @Test
+    void nothingToExpireSkipsTheSweep() {
+        when(bookingRepository.countByStatusInAndReservationExpiresAtBefore(anyList(), any())).thenReturn(0L);
+
+        reservationService.releaseExpiredReservations();
+
+        verify(bookingRepository, never()).claimExpiredReservations(anyList(), any(), any(), any(), anyInt(),
+            anyInt(), anyInt());
+    }
+
+    /**
+     * Serves the bookings as keyset pages of the configured batch size and locks each of them on request.
+     */
+    private void pages(List<Booking> expired) {
+        when(bookingRepository.countByStatusInAndReservationExpiresAtBefore(anyList(), any()))
+            .thenReturn((long) expired.size());
+        when(bookingRepository.claimExpiredReservations(anyList(), any(), any(), any(), anyInt(), anyInt(), anyInt()))
+            .thenAnswer(invocation -> {
+                UUID after = invocation.getArgument(3);
+                int limit = invocation.getArgument(6);
+                int from = 0;
+                while (from < expired.size() && expired.get(from).getBookingId().compareTo(after) <= 0) {
+                    from++;
+                }
+                return new ArrayList<>(expired.subList(from, Math.min(expired.size(), from + limit)));
+            });
+        for (Booking booking : expired) {
+            when(bookingRepository.lockExpiredReservation(eq(booking.getBookingId()), anyList(), any()))
+                .thenReturn(Optional.of(booking));
+        }
+    }
+
+    private static List<Booking> bookings(int count) {
+        ZonedDateTime expiresAt = ZonedDateTime.now().minusMinutes(5);
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Booking booking = new Booking();
+            booking.setBookingId(new UUID(0L, i + 1));
+            booking.setStatus(BookingStatus.PENDING);
+            booking.setReservationExpiresAt(expiresAt);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+}
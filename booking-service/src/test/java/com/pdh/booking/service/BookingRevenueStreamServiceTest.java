@@ -0,0 +1,165 @@
+package com.pdh.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdh.booking.kafka.config.BookingRevenueStreamConfig;
+import com.pdh.booking.kafka.config.BookingRevenueStreamConfig.RevenueWindow;
+import com.pdh.booking.model.dto.internal.BookingAnalyticsEventDto;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.StreamsConfig;
+import org.apache.kafka.streams.TestInputTopic;
+import org.apache.kafka.streams.TopologyTestDriver;
+import org.apache.kafka.streams.state.ReadOnlyKeyValueStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the revenue topology in a TopologyTestDriver and queries its window stores through the service,
+ * checking that the key ranges of each query select exactly the windows of the requested days and that
+ * redelivered events do not count twice.
+ */
+class BookingRevenueStreamServiceTest {
+
+    @TempDir
+    Path stateDir;
+
+    private TopologyTestDriver driver;
+    private TestInputTopic<String, BookingAnalyticsEventDto> analytics;
+    private BookingRevenueStreamService service;
+
+    @BeforeEach
+    void startTopology() {
+        StreamsBuilder builder = new StreamsBuilder();
+        new BookingRevenueStreamConfig().bookingRevenueTopology(builder);
+
+        Properties props = new Properties();
+        props.put(StreamsConfig.APPLICATION_ID_CONFIG, "booking-revenue-test");
+        props.put(StreamsConfig.BOOTSTRAP_SERVERS_CONFIG, "dummy:9092");
+        props.put(StreamsConfig.STATE_DIR_CONFIG, stateDir.toString());
+        driver = new TopologyTestDriver(builder.build(), props);
+        analytics = driver.createInputTopic(AnalyticsEventService.BOOKING_ANALYTICS_TOPIC,
+            new StringSerializer(), new JsonSerializer<>());
+
+        service = new BookingRevenueStreamService(null) {
+            @Override
+            Optional<ReadOnlyKeyValueStore<String, RevenueWindow>> store(String storeName) {
+                return Optional.of(driver.<String, RevenueWindow>getKeyValueStore(storeName));
+            }
+        };
+    }
+
+    @AfterEach
+    void closeDriver() {
+        driver.close();
+    }
+
+    @Test
+    void dailyRangeIncludesBothBoundaryDaysAndNothingOutside() {
+        confirm("b-1", "FLIGHT", "HAN", "100.00", "2026-10-16T23:59:59");
+        confirm("b-2", "FLIGHT", "HAN", "200.00", "2026-10-17T00:00:00");
+        confirm("b-3", "HOTEL", "Da Nang", "300.00", "2026-10-18T12:00:00");
+        confirm("b-4", "HOTEL", "", "400.00", "2026-10-19T23:59:59");
+        confirm("b-5", "FLIGHT", "SGN", "500.00", "2026-10-20T00:00:00");
+
+        List<Map<String, Object>> daily = service.getDailyRevenue(LocalDate.of(2026, 10, 17), LocalDate.of(2026, 10, 19));
+
+        assertThat(daily).extracting(row -> row.get("date")).containsExactly(
+            LocalDate.of(2026, 10, 17), LocalDate.of(2026, 10, 18), LocalDate.of(2026, 10, 19));
+        assertThat(daily).extracting(row -> row.get("revenue")).containsExactly(
+            new BigDecimal("200.00"), new BigDecimal("300.00"), new BigDecimal("400.00"));
+    }
+
+    @Test
+    void hourlyRangeCoversTheWholeLastDay() {
+        confirm("b-1", "FLIGHT", "HAN", "100.00", "2026-10-17T00:10:00");
+        confirm("b-2", "FLIGHT", "HAN", "200.00", "2026-10-17T23:50:00");
+        confirm("b-3", "FLIGHT", "HAN", "300.00", "2026-10-18T00:00:00");
+
+        List<Map<String, Object>> hourly = service.getHourlyRevenue(LocalDate.of(2026, 10, 17), LocalDate.of(2026, 10, 17));
+
+        assertThat(hourly).extracting(row -> row.get("hour")).containsExactly("2026-10-17T00", "2026-10-17T23");
+    }
+
+    @Test
+    void openRangesScanEverything() {
+        confirm("b-1", "FLIGHT", "HAN", "100.00", "2025-01-01T08:00:00");
+        confirm("b-2", "HOTEL", "Hue", "200.00", "2027-12-31T08:00:00");
+
+        assertThat(service.getDailyRevenue(null, null)).hasSize(2);
+        assertThat(service.getMonthlyRevenue(null, null)).extracting(row -> row.get("month"))
+            .containsExactly(LocalDate.of(2025, 1, 1), LocalDate.of(2027, 12, 1));
+    }
+
+    @Test
+    void cancelledBookingLeavesItsWindowAndStaleEventsAreIgnored() {
+        confirm("b-1", "FLIGHT", "HAN", "100.00", "2026-10-17T09:00:00");
+        confirm("b-2", "FLIGHT", "HAN", "250.00", "2026-10-17T10:00:00");
+        analytics.pipeInput("b-1", event("b-1", "CANCELLED", "FLIGHT", "HAN", "100.00",
+            "2026-10-17T09:00:00", "2026-10-17T12:00:00+07:00"));
+        // a late, older confirmation must not bring the cancelled booking back
+        analytics.pipeInput("b-1", event("b-1", "CONFIRMED", "FLIGHT", "HAN", "100.00",
+            "2026-10-17T09:00:00", "2026-10-17T09:30:00+07:00"));
+
+        List<Map<String, Object>> byType = service.getRevenueByBookingType(
+            LocalDate.of(2026, 10, 17), LocalDate.of(2026, 10, 17));
+
+        assertThat(byType).singleElement().satisfies(row -> {
+            assertThat(row.get("booking_type")).isEqualTo("FLIGHT");
+            assertThat(row.get("revenue")).isEqualTo(new BigDecimal("250.00"));
+            assertThat(row.get("booking_count")).isEqualTo(1L);
+        });
+    }
+
+    @Test
+    void redeliveredAndCdcEncodedEventsAreCountedOnce() throws Exception {
+        TestInputTopic<String, String> cdc = driver.createInputTopic(AnalyticsEventService.BOOKING_ANALYTICS_TOPIC,
+            new StringSerializer(), new StringSerializer());
+        BookingAnalyticsEventDto confirmed = event("b-1", "CONFIRMED", "HOTEL", "Hue", "100.00",
+            "2026-10-17T09:00:00", "2026-10-17T11:00:00+07:00");
+        String json = new ObjectMapper().writeValueAsString(confirmed);
+
+        // the relay redelivers the event, then CDC emits it again with the payload as a JSON string
+        analytics.pipeInput("\"b-1\"", confirmed);
+        analytics.pipeInput("\"b-1\"", confirmed);
+        cdc.pipeInput("\"b-1\"", new ObjectMapper().writeValueAsString(json));
+        cdc.pipeInput("\"b-1\"", "not json");
+
+        assertThat(service.getRevenueByBookingType(LocalDate.of(2026, 10, 17), LocalDate.of(2026, 10, 17)))
+            .singleElement().satisfies(row -> {
+                assertThat(row.get("revenue")).isEqualTo(new BigDecimal("100.00"));
+                assertThat(row.get("booking_count")).isEqualTo(1L);
+            });
+    }
+
+    private void confirm(String bookingId, String bookingType, String destination, String amount, String createdAt) {
+        analytics.pipeInput(bookingId, event(bookingId, "CONFIRMED", bookingType, destination, amount,
+            createdAt, "2026-10-17T11:00:00+07:00"));
+    }
+
+    private static BookingAnalyticsEventDto event(String bookingId, String status, String bookingType,
+                                                  String destination, String amount, String createdAt,
+                                                  String updatedAt) {
+        return BookingAnalyticsEventDto.builder()
+            .bookingId(bookingId)
+            .status(status)
+            .bookingType(bookingType)
+            .destination(destination)
+            .totalAmount(new BigDecimal(amount))
+            .createdAt(createdAt)
+            .updatedAt(updatedAt)
+            .build();
+    }
+}
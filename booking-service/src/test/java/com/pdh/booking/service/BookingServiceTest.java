@@ -0,0 +1,105 @@
+package com.pdh.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.enums.BookingType;
+import com.pdh.booking.repository.BookingRepository;
+import com.pdh.common.lock.DistributedLock;
+import com.pdh.common.lock.DistributedLockManager;
+import com.pdh.common.lock.LockRequest;
+import com.pdh.common.lock.LockResourceType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reservation locking on booking creation: the booking lock and the inventory locks derived from the
+ * product details are requested in one call, and product details that cannot be read fail the booking
+ * instead of reserving it without inventory locks.
+ */
+class BookingServiceTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final DistributedLockManager distributedLockManager = mock(DistributedLockManager.class);
+    private final BookingService bookingService = new BookingService(bookingRepository, new ObjectMapper(),
+        distributedLockManager, mock(BookingStatusStreamService.class));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(bookingService, "reservationLockMinutes", 15L);
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject(UUID.randomUUID().toString()).build();
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+        when(bookingRepository.save(any(Booking.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void comboBookingLocksTheBookingSeatsAndEveryNight() {
+        when(distributedLockManager.acquireLocks(anyList(), anyString(), any(Duration.class)))
+            .thenReturn(Optional.of(List.of(DistributedLock.builder().lockId("lock-1").build())));
+        Booking booking = booking(BookingType.COMBO, """
+            {"flightDetails": {"scheduleId": "schedule-1", "seatClass": "BUSINESS", "passengerCount": 2,
+                               "returnFlight": {"scheduleId": "schedule-2"}},
+             "hotelDetails": {"roomTypeId": "room-7", "checkInDate": "2026-12-20", "checkOutDate": "2026-12-22",
+                              "numberOfRooms": 1}}""");
+
+        bookingService.createBooking(booking);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<LockRequest>> requests = ArgumentCaptor.forClass(List.class);
+        verify(distributedLockManager).acquireLocks(requests.capture(), anyString(), any(Duration.class));
+        assertThat(requests.getValue()).containsExactly(
+            LockRequest.of("booking:" + booking.getBookingId(), LockResourceType.BOOKING, 1),
+            LockRequest.of("schedule-1:BUSINESS", LockResourceType.SEAT, 2),
+            LockRequest.of("schedule-2:BUSINESS", LockResourceType.SEAT, 2),
+            LockRequest.of("room-7:2026-12-20", LockResourceType.ROOM, 1),
+            LockRequest.of("room-7:2026-12-21", LockResourceType.ROOM, 1));
+        assertThat(booking.getReservationLockId()).isEqualTo("lock-1");
+    }
+
+    @Test
+    void unreadableProductDetailsFailTheBookingWithoutLocking() {
+        Booking booking = booking(BookingType.HOTEL, """
+            {"roomTypeId": "room-7", "checkInDate": "20/12/2026", "checkOutDate": "22/12/2026"}""");
+
+        assertThatThrownBy(() -> bookingService.createBooking(booking))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining(booking.getBookingId().toString());
+
+        verifyNoInteractions(distributedLockManager);
+        verify(bookingRepository, never()).save(any(Booking.class));
+    }
+
+    private static Booking booking(BookingType type, String productDetailsJson) {
+        Booking booking = new Booking();
+        booking.setBookingReference("BK-1");
+        booking.setBookingType(type);
+        booking.setProductDetailsJson(productDetailsJson);
+        return booking;
+    }
+}
@@ -0,0 +1,203 @@
+package com.pdh.booking.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pdh.booking.mapper.BookingDtoMapper;
+import com.pdh.booking.model.Booking;
+import com.pdh.booking.model.dto.response.BookingStatusResponseDto;
+import com.pdh.booking.model.enums.BookingStatus;
+import com.pdh.booking.repository.BookingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Status streams over recording emitters: a subscriber gets the current snapshot, broadcasts reach every
+ * stream of the booking, statuses older than what a stream already has are dropped, and closed streams
+ * stop receiving.
+ */
+class BookingStatusStreamServiceTest {
+
+    private final BookingRepository bookingRepository = mock(BookingRepository.class);
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final List<RecordingEmitter> emitters = new ArrayList<>();
+
+    private final BookingStatusStreamService streamService = new BookingStatusStreamService(bookingRepository,
+        new BookingDtoMapper(null), stringRedisTemplate, objectMapper) {
+        @Override
+        SseEmitter newEmitter() {
+            RecordingEmitter emitter = new RecordingEmitter();
+            emitters.add(emitter);
+            return emitter;
+        }
+    };
+
+    private final ZonedDateTime created = ZonedDateTime.now().minusMinutes(1);
+    private Booking booking;
+
+    @BeforeEach
+    void setUp() {
+        booking = booking(BookingStatus.PENDING, created);
+        when(bookingRepository.findByBookingId(booking.getBookingId())).thenReturn(Optional.of(booking));
+    }
+
+    @Test
+    void subscriberReceivesTheCurrentSnapshot() {
+        streamService.subscribe(booking);
+
+        assertThat(emitters.get(0).statuses()).containsExactly(BookingStatus.PENDING);
+        assertThat(emitters.get(0).completed).isFalse();
+    }
+
+    @Test
+    void finalSnapshotClosesTheStream() {
+        booking.setStatus(BookingStatus.CONFIRMED);
+
+        streamService.subscribe(booking);
+        streamService.onStatusMessage(json(booking(BookingStatus.CONFIRMED, created.plusSeconds(1))));
+
+        assertThat(emitters.get(0).statuses()).containsExactly(BookingStatus.CONFIRMED);
+        assertThat(emitters.get(0).completed).isTrue();
+    }
+
+    @Test
+    void broadcastReachesEveryStreamOfTheBooking() {
+        streamService.subscribe(booking);
+        streamService.subscribe(booking);
+
+        streamService.onStatusMessage(json(booking(BookingStatus.PAYMENT_PENDING, created.plusSeconds(1))));
+        streamService.onStatusMessage(json(booking(BookingStatus.CONFIRMED, created.plusSeconds(2))));
+
+        assertThat(emitters).allSatisfy(emitter -> {
+            assertThat(emitter.statuses())
+                .containsExactly(BookingStatus.PENDING, BookingStatus.PAYMENT_PENDING, BookingStatus.CONFIRMED);
+            assertThat(emitter.completed).isTrue();
+        });
+    }
+
+    @Test
+    void snapshotOlderThanARacingBroadcastIsDropped() {
+        Booking stale = booking(BookingStatus.PENDING, created);
+        Booking advanced = booking(BookingStatus.PAYMENT_PENDING, created.plusSeconds(1));
+        // the broadcast of a newer commit reaches the registered emitter before the snapshot is sent
+        when(bookingRepository.findByBookingId(booking.getBookingId())).thenAnswer(invocation -> {
+            streamService.onStatusMessage(json(advanced));
+            return Optional.of(stale);
+        });
+
+        streamService.subscribe(booking);
+
+        assertThat(emitters.get(0).statuses()).containsExactly(BookingStatus.PAYMENT_PENDING);
+    }
+
+    @Test
+    void outOfOrderBroadcastIsDropped() {
+        streamService.subscribe(booking);
+
+        streamService.onStatusMessage(json(booking(BookingStatus.CANCELLED, created.plusSeconds(2))));
+        streamService.onStatusMessage(json(booking(BookingStatus.PAYMENT_PENDING, created.plusSeconds(1))));
+
+        assertThat(emitters.get(0).statuses()).containsExactly(BookingStatus.PENDING, BookingStatus.CANCELLED);
+    }
+
+    @Test
+    void closedStreamStopsReceiving() {
+        streamService.subscribe(booking);
+        streamService.subscribe(booking);
+        emitters.get(0).onCompletion.run();
+
+        streamService.onStatusMessage(json(booking(BookingStatus.PAYMENT_PENDING, created.plusSeconds(1))));
+
+        assertThat(emitters.get(0).statuses()).containsExactly(BookingStatus.PENDING);
+        assertThat(emitters.get(1).statuses()).containsExactly(BookingStatus.PENDING, BookingStatus.PAYMENT_PENDING);
+    }
+
+    @Test
+    void failedSendDropsTheStream() {
+        streamService.subscribe(booking);
+        emitters.get(0).broken = true;
+
+        streamService.onStatusMessage(json(booking(BookingStatus.PAYMENT_PENDING, created.plusSeconds(1))));
+        emitters.get(0).broken = false;
+        streamService.onStatusMessage(json(booking(BookingStatus.CONFIRMED, created.plusSeconds(2))));
+
+        assertThat(emitters.get(0).statuses()).containsExactly(BookingStatus.PENDING);
+    }
+
+    @Test
+    void publishBroadcastsTheCommittedStatus() throws Exception {
+        streamService.publish(booking.getBookingId());
+
+        verify(stringRedisTemplate).convertAndSend(eq(null), eq(objectMapper.writeValueAsString(
+            new BookingDtoMapper(null).toStatusResponseDto(booking, false))));
+    }
+
+    private Booking booking(BookingStatus status, ZonedDateTime updatedAt) {
+        Booking copy = new Booking();
+        copy.setBookingId(booking != null ? booking.getBookingId() : UUID.randomUUID());
+        copy.setBookingReference("BK-1");
+        copy.setStatus(status);
+        copy.setUpdatedAt(updatedAt);
+        return copy;
+    }
+
+    private String json(Booking status) {
+        try {
+            return objectMapper.writeValueAsString(new BookingDtoMapper(null).toStatusResponseDto(status, false));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Emitter without a servlet response that records the statuses sent on it.
+     */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        private final List<BookingStatusResponseDto> sent = new ArrayList<>();
+        private Runnable onCompletion = () -> { };
+        private boolean completed;
+        private boolean broken;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            builder.build().stream()
+                .map(data -> data.getData())
+                .filter(BookingStatusResponseDto.class::isInstance)
+                .map(BookingStatusResponseDto.class::cast)
+                .forEach(sent::add);
+        }
+
+        @Override
+        public void onCompletion(Runnable callback) {
+            this.onCompletion = callback;
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<BookingStatus> statuses() {
+            return sent.stream().map(BookingStatusResponseDto::getStatus).toList();
+        }
+    }
+}
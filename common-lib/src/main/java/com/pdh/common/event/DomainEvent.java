@@ -9,8 +9,8 @@ import java.util.UUID;
 @Data
 @JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "@type")
 public abstract class DomainEvent {
-    private final String eventId = UUID.randomUUID().toString();
-    private final LocalDateTime occurredAt = LocalDateTime.now();
+    private String eventId = UUID.randomUUID().toString();
+    private LocalDateTime occurredAt = LocalDateTime.now();
     private final String eventType = this.getClass().getSimpleName();
     
     public abstract String getAggregateId();
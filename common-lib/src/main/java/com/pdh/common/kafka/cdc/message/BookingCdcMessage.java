@@ -1,5 +1,6 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,12 +24,18 @@ public class BookingCdcMessage {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Booking {
+        @JsonAlias("booking_id")
         private String id;
+        @JsonAlias("user_id")
         private String customerId;
         private String status;
+        @JsonAlias("booking_type")
         private String bookingType;
+        @JsonAlias("total_amount")
         private Double totalAmount;
-        private String createdAt;
+        @JsonAlias("created_at")
+        private String createdAt; // Debezium emits TIMESTAMP columns as microseconds since epoch
+        @JsonAlias("updated_at")
         private String updatedAt;
     }
 }
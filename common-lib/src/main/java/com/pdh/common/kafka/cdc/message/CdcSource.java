@@ -0,0 +1,24 @@
+package com.pdh.common.kafka.cdc.message;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Debezium source block shared by all CDC messages
+ * Carries the WAL position so consumers can track how far they have applied changes
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CdcSource {
+    private String connector;
+    private String db;
+    private String table;
+    private Long lsn;
+    private Long txId;
+    private String snapshot;
+    private Long ts_ms;
+}
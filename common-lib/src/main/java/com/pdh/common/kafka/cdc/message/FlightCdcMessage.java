@@ -1,5 +1,6 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,7 @@ public class FlightCdcMessage {
     private Operation op;
     private Flight before;
     private Flight after;
+    private CdcSource source;
     private String ts_ms;
     
     @Data
@@ -24,10 +26,14 @@ public class FlightCdcMessage {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class Flight {
+        @JsonAlias("flight_id")
         private String id;
+        @JsonAlias("flight_number")
         private String flightNumber;
+        @JsonAlias("aircraft_type")
         private String aircraftType;
         private String status;
+        @JsonAlias("base_price")
         private String basePrice;
         private String airlineName;
         private String airlineCode;
@@ -39,7 +45,13 @@ public class FlightCdcMessage {
         private String arrivalAirportCode;
         private String arrivalCity;
         private String arrivalCountry;
+        @JsonAlias("is_active")
+        private Boolean active;
+        @JsonAlias("is_deleted")
+        private Boolean deleted;
+        @JsonAlias("created_at")
         private String createdAt;
+        @JsonAlias("updated_at")
         private String updatedAt;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,7 @@ public class FlightFareCdcMessage {
     private Operation op;
     private FlightFare before;
     private FlightFare after;
+    private CdcSource source;
     private String ts_ms;
     
     @Data
@@ -24,17 +26,25 @@ public class FlightFareCdcMessage {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class FlightFare {
+        @JsonAlias("fare_id")
         private String id;
+        @JsonAlias("schedule_id")
         private String scheduleId; // Needed to trace back to flight
         private String flightNumber;
         private String origin;
         private String destination;
         private String travelDate;
+        @JsonAlias("fare_class")
         private String classType; // economy, business, first
         private Double price;
         private String currency;
+        @JsonAlias("available_seats")
         private Integer availability; // number of seats available
+        @JsonAlias("is_deleted")
+        private Boolean deleted;
+        @JsonAlias("created_at")
         private String createdAt;
+        @JsonAlias("updated_at")
         private String updatedAt;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,7 @@ public class FlightScheduleCdcMessage {
     private Operation op;
     private FlightSchedule before;
     private FlightSchedule after;
+    private CdcSource source;
     private String ts_ms;
     
     @Data
@@ -24,19 +26,28 @@ public class FlightScheduleCdcMessage {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class FlightSchedule {
+        @JsonAlias("schedule_id")
         private String id;
+        @JsonAlias("flight_id")
         private String flightId; // Needed to trace back to flight
         private String flightNumber;
         private String airline;
         private String origin;
         private String destination;
         private String departureDate;
+        @JsonAlias("departure_time")
         private String departureTime;
         private String arrivalDate;
+        @JsonAlias("arrival_time")
         private String arrivalTime;
         private String status; // e.g., on-time, delayed, cancelled
+        @JsonAlias("aircraft_type")
         private String aircraftType;
+        @JsonAlias("is_deleted")
+        private Boolean deleted;
+        @JsonAlias("created_at")
         private String createdAt;
+        @JsonAlias("updated_at")
         private String updatedAt;
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,6 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -7,7 +8,7 @@ import lombok.NoArgsConstructor;
 
 /**
  * Hotel CDC Message for Debezium events
- * Captures changes to hotel information
+ * Captures changes to hotel information and the hotel/room type image associations
  */
 @Data
 @Builder
@@ -17,6 +18,7 @@ public class HotelCdcMessage {
     private Operation op;
     private Hotel before;
     private Hotel after;
+    private CdcSource source;
     private String ts_ms;
     
     @Data
@@ -25,6 +27,10 @@ public class HotelCdcMessage {
     @AllArgsConstructor
     public static class Hotel {
         private String id;
+        @JsonAlias("hotel_id")
+        private String hotelId; // Primary key on hotels, foreign key on hotel_images
+        @JsonAlias("room_type_id")
+        private String roomTypeId; // Only set on room_type_images
         private String name;
         private String description;
         private String address;
@@ -32,7 +38,9 @@ public class HotelCdcMessage {
         private String country;
         private Double rating;
         private String amenities; // Comma-separated list of amenities
+        @JsonAlias("created_at")
         private String createdAt;
+        @JsonAlias("updated_at")
         private String updatedAt;
     }
-}
\ No newline at end of file
+}
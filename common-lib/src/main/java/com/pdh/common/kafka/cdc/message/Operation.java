@@ -1,5 +1,7 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonValue;
+
 /**
  * Operation types for CDC messages
  */
@@ -15,6 +17,7 @@ public enum Operation {
         this.value = value;
     }
     
+    @JsonValue
     public String getValue() {
         return value;
     }
@@ -1,5 +1,6 @@
 package com.pdh.common.kafka.cdc.message;
 
+import com.fasterxml.jackson.annotation.JsonAlias;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -17,6 +18,7 @@ public class RoomAvailabilityCdcMessage {
     private Operation op;
     private RoomAvailability before;
     private RoomAvailability after;
+    private CdcSource source;
     private String ts_ms;
     
     @Data
@@ -24,14 +26,25 @@ public class RoomAvailabilityCdcMessage {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class RoomAvailability {
+        @JsonAlias("availability_id")
         private String id;
         private String hotelId;
+        @JsonAlias("room_type_id")
+        private String roomTypeId;
         private String roomType;
-        private String date;
+        private String date; // Debezium emits DATE columns as days since epoch
+        @JsonAlias("total_inventory")
+        private Integer totalInventory;
+        @JsonAlias("total_reserved")
+        private Integer totalReserved;
         private Integer availableRooms;
         private Double pricePerNight;
         private String currency;
+        @JsonAlias("is_deleted")
+        private Boolean deleted;
+        @JsonAlias("created_at")
         private String createdAt;
+        @JsonAlias("updated_at")
         private String updatedAt;
     }
-}
\ No newline at end of file
+}
@@ -4,9 +4,12 @@ import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
@@ -33,6 +36,15 @@ public class BaseKafkaConfig {
     @Value("${spring.kafka.consumer.group-id:${spring.application.name:default-group}}")
     private String groupId;
 
+    /**
+     * Consumer tuning profiles selectable per listener container factory
+     */
+    @Bean
+    @ConfigurationProperties(prefix = "kafka.listener")
+    public KafkaListenerProfiles kafkaListenerProfiles() {
+        return new KafkaListenerProfiles();
+    }
+
     /**
      * Common Kafka Producer Configuration
      */
@@ -105,32 +117,47 @@ public class BaseKafkaConfig {
      */
     @Bean
     public KafkaTemplate<String, String> sagaCommandKafkaTemplate() {
+        KafkaTemplate<String, String> template =
+            new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(sagaCommandProducerConfigs(StringSerializer.class)));
+        template.setDefaultTopic("booking-saga-commands");
+        return template;
+    }
+
+    /**
+     * Kafka template for saga commands in the binary SagaCommandCodec format
+     */
+    @Bean
+    public KafkaTemplate<String, byte[]> sagaCommandBinaryKafkaTemplate() {
+        KafkaTemplate<String, byte[]> template =
+            new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(sagaCommandProducerConfigs(ByteArraySerializer.class)));
+        template.setDefaultTopic("booking-saga-commands");
+        return template;
+    }
+
+    private Map<String, Object> sagaCommandProducerConfigs(Class<?> valueSerializer) {
         Map<String, Object> props = new HashMap<>();
         props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, valueSerializer);
 
         // Enhanced reliability for saga commands
         props.put(ProducerConfig.ACKS_CONFIG, "all");
         props.put(ProducerConfig.RETRIES_CONFIG, 3);
         props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
-
-        ProducerFactory<String, String> producerFactory = new DefaultKafkaProducerFactory<>(props);
-        KafkaTemplate<String, String> template = new KafkaTemplate<>(producerFactory);
-        template.setDefaultTopic("booking-saga-commands");
-        return template;
+        return props;
     }
 
     /**
-     * Consumer factory for saga commands with manual acknowledgment
+     * Consumer factory for saga commands with manual acknowledgment.
+     * Values stay raw bytes so SagaCommandCodec can read both binary and legacy JSON commands.
      */
     @Bean
-    public ConsumerFactory<String, String> sagaCommandConsumerFactory() {
+    public ConsumerFactory<String, byte[]> sagaCommandConsumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.ISOLATION_LEVEL_CONFIG, "read_committed");
@@ -139,15 +166,17 @@ public class BaseKafkaConfig {
     }
 
     /**
-     * Listener container factory for saga commands with manual acknowledgment
+     * Listener container factory for saga commands with manual acknowledgment.
+     * Uses the strict profile: one record per listener call, one consumer thread per topic partition.
      */
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> sagaCommandListenerContainerFactory() {
-        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> sagaCommandListenerContainerFactory(
+            KafkaListenerProfiles kafkaListenerProfiles) {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory =
             new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(sagaCommandConsumerFactory());
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
-        return factory;
+        return kafkaListenerProfiles.apply(KafkaListenerProfiles.STRICT, factory);
     }
 
     /**
@@ -0,0 +1,107 @@
+package com.pdh.common.kafka.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Named consumer tuning profiles (kafka.listener.profiles.&lt;name&gt;) applied to listener container factories.
+ * A listener picks its profile through the containerFactory it references.
+ * Two profiles are built in and any of their fields can be overridden from configuration:
+ * <ul>
+ *     <li>{@value #STRICT}: record listener, manual immediate acks, small polls - saga commands</li>
+ *     <li>{@value #THROUGHPUT}: batch listener, one commit per poll, larger fetches - idempotent CDC consumers</li>
+ * </ul>
+ */
+@Data
+public class KafkaListenerProfiles {
+
+    public static final String STRICT = "strict";
+    public static final String THROUGHPUT = "throughput";
+
+    private static final Map<String, Profile> BUILT_IN = Map.of(
+        STRICT, new Profile(3, false, ContainerProperties.AckMode.MANUAL_IMMEDIATE, 50, null, null),
+        THROUGHPUT, new Profile(3, true, ContainerProperties.AckMode.BATCH, 500, 65536, 200));
+
+    private Map<String, Profile> profiles = new HashMap<>();
+
+    /**
+     * Configured profile with unset fields taken from the built-in profile of the same name
+     */
+    public Profile profile(String name) {
+        Profile builtIn = BUILT_IN.getOrDefault(name, new Profile());
+        Profile configured = profiles.get(name);
+        if (configured == null) {
+            if (!BUILT_IN.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown Kafka listener profile: " + name);
+            }
+            return builtIn;
+        }
+        return configured.withDefaults(builtIn);
+    }
+
+    /**
+     * Applies the named profile to the factory and returns it
+     */
+    public <K, V> ConcurrentKafkaListenerContainerFactory<K, V> apply(
+            String name, ConcurrentKafkaListenerContainerFactory<K, V> factory) {
+        Profile profile = profile(name);
+        ContainerProperties containerProperties = factory.getContainerProperties();
+        if (profile.getConcurrency() != null) {
+            factory.setConcurrency(profile.getConcurrency());
+        }
+        if (profile.getBatch() != null) {
+            factory.setBatchListener(profile.getBatch());
+        }
+        if (profile.getAckMode() != null) {
+            containerProperties.setAckMode(profile.getAckMode());
+        }
+
+        Properties consumerProperties = containerProperties.getKafkaConsumerProperties();
+        if (profile.getMaxPollRecords() != null) {
+            consumerProperties.setProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG,
+                String.valueOf(profile.getMaxPollRecords()));
+        }
+        if (profile.getFetchMinBytes() != null) {
+            consumerProperties.setProperty(ConsumerConfig.FETCH_MIN_BYTES_CONFIG,
+                String.valueOf(profile.getFetchMinBytes()));
+        }
+        if (profile.getFetchMaxWaitMs() != null) {
+            consumerProperties.setProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG,
+                String.valueOf(profile.getFetchMaxWaitMs()));
+        }
+        return factory;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Profile {
+        /**
+         * Consumer threads per listener; useful up to the topic's partition count
+         */
+        private Integer concurrency;
+        private Boolean batch;
+        private ContainerProperties.AckMode ackMode;
+        private Integer maxPollRecords;
+        private Integer fetchMinBytes;
+        private Integer fetchMaxWaitMs;
+
+        Profile withDefaults(Profile defaults) {
+            return new Profile(
+                concurrency != null ? concurrency : defaults.concurrency,
+                batch != null ? batch : defaults.batch,
+                ackMode != null ? ackMode : defaults.ackMode,
+                maxPollRecords != null ? maxPollRecords : defaults.maxPollRecords,
+                fetchMinBytes != null ? fetchMinBytes : defaults.fetchMinBytes,
+                fetchMaxWaitMs != null ? fetchMaxWaitMs : defaults.fetchMaxWaitMs);
+        }
+    }
+}
@@ -31,6 +31,17 @@ public interface DistributedLockManager {
         return acquireLock(resource, resourceType, owner, timeout, 1);
     }
     
+    /**
+     * Attempts to acquire locks on several resources for one owner, all or nothing.
+     * Used for combo bookings that hold flight seats and hotel rooms together.
+     * 
+     * @param requests Resources to lock with their types and quantities
+     * @param owner Lock owner identifier (e.g., saga ID)
+     * @param timeout Lock timeout duration, shared by every lock in the group
+     * @return Locks in request order if all were acquired, empty if any resource was unavailable
+     */
+    Optional<List<DistributedLock>> acquireLocks(List<LockRequest> requests, String owner, Duration timeout);
+    
     /**
      * Releases a lock
      * 
@@ -97,10 +108,10 @@ public interface DistributedLockManager {
     
     /**
      * Forces release of expired locks
-     * Note: Redis implementation doesn't need this (TTL handles cleanup automatically)
-     * This method is mainly for non-Redis implementations or monitoring purposes
+     * Redis expires the lock keys by TTL; this returns their held quantity to the resource
+     * counters and drops their index entries
      *
-     * @return Number of expired locks cleaned up (0 for Redis implementation)
+     * @return Number of expired locks cleaned up
      */
     int cleanupExpiredLocks();
     
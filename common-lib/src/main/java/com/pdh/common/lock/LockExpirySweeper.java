@@ -0,0 +1,28 @@
+package com.pdh.common.lock;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically reclaims the quantity held by locks that expired without being released.
+ * Runs only in services with scheduling enabled; concurrent sweeps across replicas are safe.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "lock.cleanup.enabled", havingValue = "true", matchIfMissing = true)
+public class LockExpirySweeper {
+
+    private final DistributedLockManager distributedLockManager;
+
+    @Scheduled(fixedDelayString = "${lock.cleanup.interval-ms:30000}")
+    public void sweepExpiredLocks() {
+        int swept = distributedLockManager.cleanupExpiredLocks();
+        if (swept > 0) {
+            log.debug("Lock expiry sweep reclaimed {} locks", swept);
+        }
+    }
+}
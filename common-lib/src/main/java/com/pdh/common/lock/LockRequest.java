@@ -0,0 +1,36 @@
+package com.pdh.common.lock;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One resource to lock as part of a multi-resource acquisition
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LockRequest {
+
+    /**
+     * Resource being locked (e.g., "flight:123", "hotel:456")
+     */
+    private String resource;
+
+    /**
+     * Type of resource, which determines its capacity
+     */
+    private LockResourceType resourceType;
+
+    /**
+     * Quantity being locked (for inventory items)
+     */
+    @Builder.Default
+    private Integer quantity = 1;
+
+    public static LockRequest of(String resource, LockResourceType resourceType, int quantity) {
+        return new LockRequest(resource, resourceType, quantity);
+    }
+}
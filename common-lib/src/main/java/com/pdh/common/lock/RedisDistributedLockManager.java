@@ -4,16 +4,18 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.security.SecureRandom;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
-import java.util.concurrent.TimeUnit;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Redis-based implementation of DistributedLockManager
@@ -25,6 +27,9 @@ import java.util.stream.Collectors;
  * - Atomic operations with Lua scripts
  * - Lightweight and efficient
  *
+ * Lookups by lock id, resource and expiry go through secondary indexes kept in step by the
+ * Lua scripts, so no call scans the keyspace with KEYS.
+ *
  * Note: This class is instantiated via LockManagerConfiguration, not as a @Component
  */
 @RequiredArgsConstructor
@@ -33,119 +38,364 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     
     private final RedisTemplate<String, Object> redisTemplate;
     
+    // Every key carries the same hash tag, so in Redis Cluster all of them live in one slot: the
+    // scripts take several resources at once and follow keys stored in the index hashes, which
+    // is only safe when every key they can touch is served by the same node.
+    private static final String KEY_TAG = "{lock}";
+
     // Redis key prefixes
-    private static final String LOCK_KEY_PREFIX = "distributed_lock:";
-    private static final String OWNER_KEY_PREFIX = "lock_owner:";
-    private static final String RESOURCE_KEY_PREFIX = "lock_resource:";
+    private static final String LOCK_KEY_PREFIX = KEY_TAG + "distributed_lock:";
+    private static final String OWNER_KEY_PREFIX = KEY_TAG + "lock_owner:";
+    private static final String RESOURCE_KEY_PREFIX = KEY_TAG + "lock_resource:";
+
+    // Secondary indexes maintained by the scripts below so lookups never scan the keyspace:
+    // lock id -> hash of the keys the lock touches, per-resource and global sorted sets by expiry
+    private static final String LOCK_INDEX_PREFIX = KEY_TAG + "lock_index:";
+    private static final String RESOURCE_INDEX_PREFIX = KEY_TAG + "lock_resource_index:";
+    private static final String EXPIRY_INDEX_KEY = KEY_TAG + "lock_expiry_index";
+
+    // Index entries outlive the lock so the sweep can still find and drop them
+    private static final long INDEX_GRACE_MILLIS = Duration.ofDays(1).toMillis();
+    private static final int CLEANUP_BATCH_SIZE = 500;
+
+    private static final RedisSerializer<String> STRING_SERIALIZER = RedisSerializer.string();
+
+    // Read scripts return lockId, owner, resource, resourceType, quantity, acquiredAt, expiresAt per lock
+    private static final int LOCK_FIELD_COUNT = 7;
+
+    // Random per-instance prefix plus a counter: ids are unique across instances and increase within one
+    private static final String INSTANCE_ID = Long.toString(new SecureRandom().nextLong() >>> 16, 36);
+    private final AtomicLong lockSequence = new AtomicLong(System.currentTimeMillis() * 1000);
     
-    // Lua script for atomic lock acquisition
-    private static final String ACQUIRE_LOCK_SCRIPT = """
-        local lockKey = KEYS[1]
-        local ownerKey = KEYS[2]
-        local resourceKey = KEYS[3]
-        local lockData = ARGV[1]
-        local ttlSeconds = tonumber(ARGV[2])
-        local quantity = tonumber(ARGV[3])
-        local maxCapacity = tonumber(ARGV[4])
+    // Lua helpers shared by the scripts that change a resource's holders. The resource counter is
+    // incremented on acquire and decremented exactly once per lock: by the release or sweep that
+    // removes its member from the resource index, or by the pruning of members whose expiry passed.
+    // Resource index members are "quantity:lockId" so pruning needs no lookup per lock, and reading
+    // usage costs O(log n) plus the members that expired since the last read.
+    private static final String USAGE_FUNCTIONS = """
+        local function extendExpiry(key, ttlMillis)
+            if redis.call('PTTL', key) < ttlMillis then
+                redis.call('PEXPIRE', key, ttlMillis)
+            end
+        end
         
-        -- Check current resource usage
-        local currentUsage = redis.call('GET', resourceKey) or 0
-        currentUsage = tonumber(currentUsage)
+        local function adjustUsage(resourceKey, delta)
+            if redis.call('INCRBY', resourceKey, delta) <= 0 then
+                redis.call('DEL', resourceKey)
+            end
+        end
         
-        -- Check if resource is available
-        if (currentUsage + quantity) > maxCapacity then
-            return nil  -- Resource not available
+        local function pruneExpired(resourceKey, resourceIndexKey, now)
+            local expired = redis.call('ZRANGEBYSCORE', resourceIndexKey, '-inf', '(' .. now)
+            if #expired == 0 then
+                return
+            end
+            local quantity = 0
+            for _, member in ipairs(expired) do
+                quantity = quantity + tonumber(string.match(member, '^(%d+):'))
+            end
+            redis.call('ZREMRANGEBYSCORE', resourceIndexKey, '-inf', '(' .. now)
+            adjustUsage(resourceKey, -quantity)
         end
         
-        -- Acquire lock atomically
-        local result = redis.call('SET', lockKey, lockData, 'EX', ttlSeconds, 'NX')
-        if result then
-            -- Update resource usage
-            redis.call('INCRBY', resourceKey, quantity)
-            redis.call('EXPIRE', resourceKey, ttlSeconds)
+        local function liveUsage(resourceKey, resourceIndexKey, now)
+            pruneExpired(resourceKey, resourceIndexKey, now)
+            return tonumber(redis.call('GET', resourceKey) or '0')
+        end
+        
+        """;
+
+    // Lua script for atomic all-or-nothing acquisition of one or more locks for one owner.
+    // Each lock is stored as a hash of LOCK_FIELDS.
+    // KEYS: ownerKey, expiryKey, then per lock: lockKey, resourceKey, indexKey, resourceIndexKey
+    // ARGV: owner, ttlMillis, acquiredAt, expiresAt, indexGraceMillis,
+    //       then per lock: lockId, resource, resourceType, quantity, maxCapacity
+    // Returns 0 when every lock was acquired, otherwise the 1-based position of the first unavailable lock
+    private static final String ACQUIRE_LOCKS_SCRIPT = USAGE_FUNCTIONS + """
+        local ownerKey = KEYS[1]
+        local expiryKey = KEYS[2]
+        local owner = ARGV[1]
+        local ttlMillis = tonumber(ARGV[2])
+        local acquiredAt = ARGV[3]
+        local expiresAt = ARGV[4]
+        local indexTtl = ttlMillis + tonumber(ARGV[5])
+        local count = (#KEYS - 2) / 4
+        
+        -- Check every resource first, summing quantities when a resource appears more than once
+        local requested = {}
+        for i = 1, count do
+            local k = 2 + (i - 1) * 4
+            local a = 5 + (i - 1) * 5
+            local resourceKey = KEYS[k + 2]
+            local quantity = tonumber(ARGV[a + 4])
+            local maxCapacity = tonumber(ARGV[a + 5])
+            local currentUsage = requested[resourceKey] or liveUsage(resourceKey, KEYS[k + 4], acquiredAt)
+            if (currentUsage + quantity) > maxCapacity then
+                return i  -- Resource not available
+            end
+            requested[resourceKey] = currentUsage + quantity
+        end
+        
+        -- Every resource has room: acquire all locks
+        for i = 1, count do
+            local k = 2 + (i - 1) * 4
+            local a = 5 + (i - 1) * 5
+            local lockKey, resourceKey, indexKey, resourceIndexKey = KEYS[k + 1], KEYS[k + 2], KEYS[k + 3], KEYS[k + 4]
+            local lockId, quantity = ARGV[a + 1], ARGV[a + 4]
+            
+            redis.call('HSET', lockKey, 'lockId', lockId, 'owner', owner, 'resource', ARGV[a + 2],
+                'resourceType', ARGV[a + 3], 'quantity', quantity, 'acquiredAt', acquiredAt, 'expiresAt', expiresAt)
+            redis.call('PEXPIRE', lockKey, ttlMillis)
             
             -- Add to owner's lock set
             redis.call('SADD', ownerKey, lockKey)
-            redis.call('EXPIRE', ownerKey, ttlSeconds)
             
-            return lockData
+            -- Index the lock by id, by resource and by expiry
+            redis.call('HSET', indexKey, 'lockKey', lockKey, 'ownerKey', ownerKey, 'resourceKey', resourceKey,
+                'resourceIndexKey', resourceIndexKey, 'quantity', quantity)
+            redis.call('PEXPIRE', indexKey, indexTtl)
+            redis.call('ZADD', resourceIndexKey, expiresAt, quantity .. ':' .. lockId)
+            extendExpiry(resourceIndexKey, indexTtl)
+            redis.call('ZADD', expiryKey, expiresAt, lockId)
+            
+            -- Update resource usage
+            adjustUsage(resourceKey, tonumber(quantity))
+            extendExpiry(resourceKey, indexTtl)
         end
+        extendExpiry(ownerKey, ttlMillis)
         
-        return nil
+        return 0
         """;
     
     // Lua script for atomic lock release
-    private static final String RELEASE_LOCK_SCRIPT = """
-        local lockKey = KEYS[1]
-        local ownerKey = KEYS[2]
-        local resourceKey = KEYS[3]
-        local expectedOwner = ARGV[1]
-        local quantity = tonumber(ARGV[2])
+    // KEYS: indexKey, expiryKey; the lock, owner and resource keys come from the index hash
+    // ARGV: lockId, ownerKey
+    private static final String RELEASE_LOCK_SCRIPT = USAGE_FUNCTIONS + """
+        local indexKey = KEYS[1]
+        local expiryKey = KEYS[2]
+        local lockId = ARGV[1]
+        local expectedOwnerKey = ARGV[2]
         
-        -- Check if lock exists and owner matches
-        local currentOwner = redis.call('GET', lockKey)
-        if currentOwner and string.find(currentOwner, expectedOwner) then
-            -- Release lock
-            redis.call('DEL', lockKey)
-            
-            -- Update resource usage
-            redis.call('DECRBY', resourceKey, quantity)
-            
-            -- Remove from owner's lock set
-            redis.call('SREM', ownerKey, lockKey)
-            
-            return 1
+        local lockKey, ownerKey, resourceKey, resourceIndexKey, quantity = unpack(
+            redis.call('HMGET', indexKey, 'lockKey', 'ownerKey', 'resourceKey', 'resourceIndexKey', 'quantity'))
+        if not lockKey or ownerKey ~= expectedOwnerKey then
+            return 0
         end
         
-        return 0
+        -- Release lock; an already expired lock only has its index entries dropped
+        local held = redis.call('DEL', lockKey)
+        redis.call('SREM', ownerKey, lockKey)
+        redis.call('ZREM', expiryKey, lockId)
+        redis.call('DEL', indexKey)
+        
+        -- Give the quantity back only if it is still counted; pruning already gave back expired locks
+        if redis.call('ZREM', resourceIndexKey, quantity .. ':' .. lockId) == 1 then
+            adjustUsage(resourceKey, -tonumber(quantity))
+        end
+        
+        return held
         """;
+
+    // Lua script for extending a lock, its expiry scores and every key that must outlive it
+    // KEYS: indexKey, expiryKey; the lock, owner and resource keys come from the index hash
+    // ARGV: lockId, ownerKey, ttlMillis, expiresAt, indexGraceMillis
+    private static final String EXTEND_LOCK_SCRIPT = USAGE_FUNCTIONS + """
+        local indexKey = KEYS[1]
+        local expiryKey = KEYS[2]
+        local lockId = ARGV[1]
+        local expectedOwnerKey = ARGV[2]
+        local ttlMillis = tonumber(ARGV[3])
+        local expiresAt = ARGV[4]
+        local indexTtl = ttlMillis + tonumber(ARGV[5])
+        
+        local lockKey, ownerKey, resourceKey, resourceIndexKey, quantity = unpack(
+            redis.call('HMGET', indexKey, 'lockKey', 'ownerKey', 'resourceKey', 'resourceIndexKey', 'quantity'))
+        if not lockKey or ownerKey ~= expectedOwnerKey or redis.call('EXISTS', lockKey) == 0 then
+            return 0
+        end
+        
+        redis.call('HSET', lockKey, 'expiresAt', expiresAt)
+        redis.call('PEXPIRE', lockKey, ttlMillis)
+        redis.call('ZADD', expiryKey, expiresAt, lockId)
+        -- A lock still held after its member was pruned is counted again
+        if redis.call('ZADD', resourceIndexKey, expiresAt, quantity .. ':' .. lockId) == 1 then
+            adjustUsage(resourceKey, tonumber(quantity))
+        end
+        
+        extendExpiry(ownerKey, ttlMillis)
+        extendExpiry(indexKey, indexTtl)
+        extendExpiry(resourceIndexKey, indexTtl)
+        extendExpiry(resourceKey, indexTtl)
+        return 1
+        """;
+
+    // Lua script resolving a lock id to its fields through the index
+    private static final String GET_LOCK_SCRIPT = """
+        local lockKey = redis.call('HGET', KEYS[1], 'lockKey')
+        if not lockKey or redis.call('EXISTS', lockKey) == 0 then
+            return {}
+        end
+        return redis.call('HMGET', lockKey, 'lockId', 'owner', 'resource', 'resourceType', 'quantity', 'acquiredAt', 'expiresAt')
+        """;
+
+    // Lua script returning the fields of live locks for a resource, ordered by expiry
+    private static final String GET_RESOURCE_LOCKS_SCRIPT = """
+        local now = ARGV[1]
+        local indexPrefix = ARGV[2]
+        local fields = {}
+        
+        for _, member in ipairs(redis.call('ZRANGEBYSCORE', KEYS[1], now, '+inf')) do
+            local lockKey = redis.call('HGET', indexPrefix .. string.match(member, '^%d+:(.+)$'), 'lockKey')
+            if lockKey and redis.call('EXISTS', lockKey) == 1 then
+                for _, value in ipairs(redis.call('HMGET', lockKey, 'lockId', 'owner', 'resource', 'resourceType', 'quantity', 'acquiredAt', 'expiresAt')) do
+                    table.insert(fields, value)
+                end
+            end
+        end
+        return fields
+        """;
+
+    // Lua script returning the fields of live locks for an owner
+    private static final String GET_OWNER_LOCKS_SCRIPT = """
+        local fields = {}
+        for _, lockKey in ipairs(redis.call('SMEMBERS', KEYS[1])) do
+            if redis.call('EXISTS', lockKey) == 1 then
+                for _, value in ipairs(redis.call('HMGET', lockKey, 'lockId', 'owner', 'resource', 'resourceType', 'quantity', 'acquiredAt', 'expiresAt')) do
+                    table.insert(fields, value)
+                end
+            end
+        end
+        return fields
+        """;
+
+    // Lua script reading a resource's usage after pruning its expired holders
+    // KEYS: resourceKey, resourceIndexKey
+    // ARGV: now
+    private static final String RESOURCE_USAGE_SCRIPT = USAGE_FUNCTIONS + """
+        return liveUsage(KEYS[1], KEYS[2], ARGV[1])
+        """;
+
+    // Lua script sweeping one batch of locks whose expiry score has passed
+    private static final String CLEANUP_EXPIRED_SCRIPT = USAGE_FUNCTIONS + """
+        local expiryKey = KEYS[1]
+        local now = tonumber(ARGV[1])
+        local limit = tonumber(ARGV[2])
+        local indexPrefix = ARGV[3]
+        local swept = 0
+        
+        for _, lockId in ipairs(redis.call('ZRANGEBYSCORE', expiryKey, '-inf', now, 'LIMIT', 0, limit)) do
+            local indexKey = indexPrefix .. lockId
+            local lockKey, ownerKey, resourceKey, resourceIndexKey, quantity = unpack(
+                redis.call('HMGET', indexKey, 'lockKey', 'ownerKey', 'resourceKey', 'resourceIndexKey', 'quantity'))
+            local member = lockKey and (quantity .. ':' .. lockId)
+            
+            if lockKey and redis.call('EXISTS', lockKey) == 1 then
+                -- Still held past its score (TTL changed outside the index): re-score from the real TTL
+                local expiresAt = now + math.max(redis.call('PTTL', lockKey), 1000)
+                redis.call('ZADD', expiryKey, expiresAt, lockId)
+                if redis.call('ZADD', resourceIndexKey, expiresAt, member) == 1 then
+                    adjustUsage(resourceKey, tonumber(quantity))
+                end
+            else
+                if lockKey then
+                    redis.call('SREM', ownerKey, lockKey)
+                    if redis.call('ZREM', resourceIndexKey, member) == 1 then
+                        adjustUsage(resourceKey, -tonumber(quantity))
+                    end
+                    redis.call('DEL', indexKey)
+                end
+                redis.call('ZREM', expiryKey, lockId)
+                swept = swept + 1
+            end
+        end
+        return swept
+        """;
+
+    private static final RedisScript<Long> ACQUIRE_LOCKS = new DefaultRedisScript<>(ACQUIRE_LOCKS_SCRIPT, Long.class);
+    private static final RedisScript<Long> RELEASE_LOCK = new DefaultRedisScript<>(RELEASE_LOCK_SCRIPT, Long.class);
+    private static final RedisScript<Long> EXTEND_LOCK = new DefaultRedisScript<>(EXTEND_LOCK_SCRIPT, Long.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_LOCK = new DefaultRedisScript<>(GET_LOCK_SCRIPT, List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_RESOURCE_LOCKS = new DefaultRedisScript<>(GET_RESOURCE_LOCKS_SCRIPT, List.class);
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GET_OWNER_LOCKS = new DefaultRedisScript<>(GET_OWNER_LOCKS_SCRIPT, List.class);
+    private static final RedisScript<Long> RESOURCE_USAGE = new DefaultRedisScript<>(RESOURCE_USAGE_SCRIPT, Long.class);
+    private static final RedisScript<Long> CLEANUP_EXPIRED = new DefaultRedisScript<>(CLEANUP_EXPIRED_SCRIPT, Long.class);
     
     @Override
     public Optional<DistributedLock> acquireLock(String resource, LockResourceType resourceType, 
                                                String owner, Duration timeout, int quantity) {
-        log.debug("Attempting to acquire Redis lock for resource: {}, type: {}, owner: {}, quantity: {}", 
-                 resource, resourceType, owner, quantity);
+        return acquireLocks(List.of(LockRequest.of(resource, resourceType, quantity)), owner, timeout)
+            .map(locks -> locks.get(0));
+    }
+
+    @Override
+    public Optional<List<DistributedLock>> acquireLocks(List<LockRequest> requests, String owner, Duration timeout) {
+        if (requests == null || requests.isEmpty()) {
+            return Optional.of(List.of());
+        }
+        log.debug("Attempting to acquire {} Redis locks for owner: {}", requests.size(), owner);
         
         try {
-            // Create lock
-            DistributedLock lock = DistributedLock.builder()
-                .lockId(generateLockId())
-                .resource(resource)
-                .resourceType(resourceType)
-                .owner(owner)
-                .acquiredAt(Instant.now())
-                .expiresAt(Instant.now().plus(timeout))
-                .timeout(timeout)
-                .status(LockStatus.PENDING)
-                .quantity(quantity)
-                .build();
-            
-            // Redis keys
-            String lockKey = LOCK_KEY_PREFIX + lock.getLockKey();
-            String ownerKey = OWNER_KEY_PREFIX + owner;
-            String resourceKey = RESOURCE_KEY_PREFIX + resourceType.name().toLowerCase() + ":" + resource;
-            
-            // Lock data (JSON-like string)
-            String lockData = String.format("{\"lockId\":\"%s\",\"owner\":\"%s\",\"resource\":\"%s\",\"quantity\":%d,\"acquiredAt\":\"%s\"}", 
-                lock.getLockId(), owner, resource, quantity, lock.getAcquiredAt().toString());
+            Instant acquiredAt = Instant.now();
+            Instant expiresAt = acquiredAt.plus(timeout);
+            
+            List<DistributedLock> locks = new ArrayList<>(requests.size());
+            List<String> keys = new ArrayList<>(2 + requests.size() * 4);
+            List<Object> args = new ArrayList<>(5 + requests.size() * 5);
+            keys.add(OWNER_KEY_PREFIX + owner);
+            keys.add(EXPIRY_INDEX_KEY);
+            args.add(owner);
+            args.add(ttlMillis(timeout));
+            args.add(acquiredAt.toEpochMilli());
+            args.add(expiresAt.toEpochMilli());
+            args.add(INDEX_GRACE_MILLIS);
+            
+            for (LockRequest request : requests) {
+                // Create lock
+                DistributedLock lock = DistributedLock.builder()
+                    .lockId(generateLockId())
+                    .resource(request.getResource())
+                    .resourceType(request.getResourceType())
+                    .owner(owner)
+                    .acquiredAt(acquiredAt)
+                    .expiresAt(expiresAt)
+                    .timeout(timeout)
+                    .status(LockStatus.PENDING)
+                    .quantity(request.getQuantity())
+                    .build();
+                locks.add(lock);
+                
+                // Redis keys; the lock key carries the lock id so several holders can share a resource up to its capacity
+                keys.add(LOCK_KEY_PREFIX + lock.getLockKey() + ":" + lock.getLockId());
+                keys.add(resourceKey(lock.getResourceType(), lock.getResource()));
+                keys.add(LOCK_INDEX_PREFIX + lock.getLockId());
+                keys.add(resourceIndexKey(lock.getResourceType(), lock.getResource()));
+                
+                // Lock fields, stored by the script as a hash
+                args.add(lock.getLockId());
+                args.add(lock.getResource());
+                args.add(lock.getResourceType().name());
+                args.add(lock.getQuantity());
+                args.add(getMaxCapacity(lock.getResourceType()));
+            }
             
-            // Execute atomic lock acquisition
-            DefaultRedisScript<String> script = new DefaultRedisScript<>(ACQUIRE_LOCK_SCRIPT, String.class);
-            String result = redisTemplate.execute(script, 
-                List.of(lockKey, ownerKey, resourceKey),
-                lockData, timeout.getSeconds(), quantity, getMaxCapacity(resourceType));
+            // Execute atomic acquisition of the whole group
+            Long result = execute(ACQUIRE_LOCKS, keys, args.toArray());
             
-            if (result != null) {
-                lock.setStatus(LockStatus.ACQUIRED);
-                log.info("Successfully acquired Redis lock: {} for resource: {}", lock.getLockId(), resource);
-                return Optional.of(lock);
+            if (result != null && result == 0) {
+                locks.forEach(lock -> lock.setStatus(LockStatus.ACQUIRED));
+                log.info("Successfully acquired {} Redis locks for owner: {}", locks.size(), owner);
+                return Optional.of(locks);
             } else {
-                log.debug("Failed to acquire Redis lock for resource: {} - not available", resource);
+                log.debug("Failed to acquire Redis locks for owner: {} - {} not available", owner,
+                    result != null && result > 0 ? requests.get(result.intValue() - 1) : "lock group");
                 return Optional.empty();
             }
             
         } catch (Exception e) {
-            log.error("Error acquiring Redis lock for resource: {}", resource, e);
+            log.error("Error acquiring Redis locks for owner: {}", owner, e);
             return Optional.empty();
         }
     }
@@ -155,25 +405,10 @@ public class RedisDistributedLockManager implements DistributedLockManager {
         log.debug("Releasing Redis lock: {} by owner: {}", lockId, owner);
         
         try {
-            // Find the lock to get resource info
-            Optional<DistributedLock> lockOpt = getLock(lockId);
-            if (lockOpt.isEmpty()) {
-                log.warn("Lock not found for release: {}", lockId);
-                return false;
-            }
-            
-            DistributedLock lock = lockOpt.get();
-            
-            // Redis keys
-            String lockKey = LOCK_KEY_PREFIX + lock.getLockKey();
-            String ownerKey = OWNER_KEY_PREFIX + owner;
-            String resourceKey = RESOURCE_KEY_PREFIX + lock.getResourceType().name().toLowerCase() + ":" + lock.getResource();
-            
-            // Execute atomic lock release
-            DefaultRedisScript<Long> script = new DefaultRedisScript<>(RELEASE_LOCK_SCRIPT, Long.class);
-            Long result = redisTemplate.execute(script,
-                List.of(lockKey, ownerKey, resourceKey),
-                owner, lock.getQuantity());
+            // Execute atomic lock release; the script resolves the lock's keys from the index
+            Long result = execute(RELEASE_LOCK,
+                List.of(LOCK_INDEX_PREFIX + lockId, EXPIRY_INDEX_KEY),
+                lockId, OWNER_KEY_PREFIX + owner);
             
             if (result != null && result > 0) {
                 log.info("Successfully released Redis lock: {}", lockId);
@@ -194,20 +429,13 @@ public class RedisDistributedLockManager implements DistributedLockManager {
         log.debug("Extending Redis lock: {} by owner: {} for: {}", lockId, owner, additionalTime);
         
         try {
-            // Find the lock
-            Optional<DistributedLock> lockOpt = getLock(lockId);
-            if (lockOpt.isEmpty()) {
-                log.warn("Lock not found for extension: {}", lockId);
-                return false;
-            }
-            
-            DistributedLock lock = lockOpt.get();
-            String lockKey = LOCK_KEY_PREFIX + lock.getLockKey();
-            
-            // Extend TTL
-            Boolean result = redisTemplate.expire(lockKey, additionalTime);
+            // Extend TTL and move the lock's expiry scores along with it
+            Long result = execute(EXTEND_LOCK,
+                List.of(LOCK_INDEX_PREFIX + lockId, EXPIRY_INDEX_KEY),
+                lockId, OWNER_KEY_PREFIX + owner, ttlMillis(additionalTime),
+                Instant.now().plus(additionalTime).toEpochMilli(), INDEX_GRACE_MILLIS);
             
-            if (Boolean.TRUE.equals(result)) {
+            if (result != null && result > 0) {
                 log.info("Successfully extended Redis lock: {} for: {}", lockId, additionalTime);
                 return true;
             } else {
@@ -224,25 +452,7 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     @Override
     public Optional<DistributedLock> getLock(String lockId) {
         try {
-            // For simplicity, we'll search through owner keys to find the lock
-            // In a production system, you might want to maintain a separate index
-            Set<String> ownerKeys = redisTemplate.keys(OWNER_KEY_PREFIX + "*");
-            
-            for (String ownerKey : ownerKeys) {
-                Set<Object> lockKeys = redisTemplate.opsForSet().members(ownerKey);
-                for (Object lockKeyObj : lockKeys) {
-                    String lockKey = (String) lockKeyObj;
-                    String lockData = (String) redisTemplate.opsForValue().get(lockKey);
-                    
-                    if (lockData != null && lockData.contains(lockId)) {
-                        // Parse lock data and return DistributedLock
-                        // This is simplified - in production, use proper JSON parsing
-                        return Optional.of(parseLockData(lockData, lockKey));
-                    }
-                }
-            }
-            
-            return Optional.empty();
+            return toLocks(executeForList(GET_LOCK, List.of(LOCK_INDEX_PREFIX + lockId))).stream().findFirst();
         } catch (Exception e) {
             log.error("Error getting Redis lock: {}", lockId, e);
             return Optional.empty();
@@ -252,16 +462,9 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     @Override
     public List<DistributedLock> getLocksForResource(String resource, LockResourceType resourceType) {
         try {
-            String pattern = LOCK_KEY_PREFIX + "lock:" + resourceType.name().toLowerCase() + ":" + resource + "*";
-            Set<String> lockKeys = redisTemplate.keys(pattern);
-            
-            return lockKeys.stream()
-                .map(lockKey -> {
-                    String lockData = (String) redisTemplate.opsForValue().get(lockKey);
-                    return lockData != null ? parseLockData(lockData, lockKey) : null;
-                })
-                .filter(lock -> lock != null)
-                .collect(Collectors.toList());
+            return toLocks(executeForList(GET_RESOURCE_LOCKS,
+                List.of(resourceIndexKey(resourceType, resource)),
+                Instant.now().toEpochMilli(), LOCK_INDEX_PREFIX));
                 
         } catch (Exception e) {
             log.error("Error getting locks for resource: {}", resource, e);
@@ -272,17 +475,7 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     @Override
     public List<DistributedLock> getLocksByOwner(String owner) {
         try {
-            String ownerKey = OWNER_KEY_PREFIX + owner;
-            Set<Object> lockKeys = redisTemplate.opsForSet().members(ownerKey);
-            
-            return lockKeys.stream()
-                .map(lockKeyObj -> {
-                    String lockKey = (String) lockKeyObj;
-                    String lockData = (String) redisTemplate.opsForValue().get(lockKey);
-                    return lockData != null ? parseLockData(lockData, lockKey) : null;
-                })
-                .filter(lock -> lock != null)
-                .collect(Collectors.toList());
+            return toLocks(executeForList(GET_OWNER_LOCKS, List.of(OWNER_KEY_PREFIX + owner)));
                 
         } catch (Exception e) {
             log.error("Error getting locks by owner: {}", owner, e);
@@ -293,11 +486,7 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     @Override
     public boolean isResourceLocked(String resource, LockResourceType resourceType, int quantity) {
         try {
-            String resourceKey = RESOURCE_KEY_PREFIX + resourceType.name().toLowerCase() + ":" + resource;
-            String currentUsage = (String) redisTemplate.opsForValue().get(resourceKey);
-            
-            int usage = currentUsage != null ? Integer.parseInt(currentUsage) : 0;
-            return usage >= quantity;
+            return resourceUsage(resourceType, resource) >= quantity;
         } catch (Exception e) {
             log.error("Error checking if resource is locked: {}", resource, e);
             return false;
@@ -307,10 +496,7 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     @Override
     public boolean isResourceAvailable(String resource, LockResourceType resourceType, int requiredQuantity) {
         try {
-            String resourceKey = RESOURCE_KEY_PREFIX + resourceType.name().toLowerCase() + ":" + resource;
-            String currentUsage = (String) redisTemplate.opsForValue().get(resourceKey);
-            
-            int usage = currentUsage != null ? Integer.parseInt(currentUsage) : 0;
+            long usage = resourceUsage(resourceType, resource);
             int maxCapacity = getMaxCapacity(resourceType);
             
             boolean available = (usage + requiredQuantity) <= maxCapacity;
@@ -323,30 +509,49 @@ public class RedisDistributedLockManager implements DistributedLockManager {
             return false;
         }
     }
+
+    /**
+     * Current usage of a resource, pruning holders whose expiry has passed first
+     */
+    private long resourceUsage(LockResourceType resourceType, String resource) {
+        Long usage = execute(RESOURCE_USAGE,
+            List.of(resourceKey(resourceType, resource), resourceIndexKey(resourceType, resource)),
+            Instant.now().toEpochMilli());
+        return usage != null ? usage : 0;
+    }
     
+    /**
+     * Redis TTL expires the lock keys themselves; the sweep drops their index entries and
+     * re-derives the affected resource counters, one bounded batch per script call.
+     */
     @Override
     public int cleanupExpiredLocks() {
-        // Redis TTL automatically handles lock expiration - no manual cleanup needed
-        log.debug("Redis TTL automatically handles lock expiration");
-        return 0; // Always 0 since Redis handles cleanup automatically
+        try {
+            long now = Instant.now().toEpochMilli();
+            int swept = 0;
+            Long batch;
+            do {
+                batch = execute(CLEANUP_EXPIRED, List.of(EXPIRY_INDEX_KEY), now, CLEANUP_BATCH_SIZE, LOCK_INDEX_PREFIX);
+                swept += batch != null ? batch.intValue() : 0;
+            } while (batch != null && batch >= CLEANUP_BATCH_SIZE);
+            
+            if (swept > 0) {
+                log.info("Cleaned up {} expired Redis locks", swept);
+            }
+            return swept;
+        } catch (Exception e) {
+            log.error("Error cleaning up expired Redis locks", e);
+            return 0;
+        }
     }
     
     @Override
     public int releaseAllLocksByOwner(String owner) {
         try {
-            String ownerKey = OWNER_KEY_PREFIX + owner;
-            Set<Object> lockKeys = redisTemplate.opsForSet().members(ownerKey);
-            
             int releasedCount = 0;
-            for (Object lockKeyObj : lockKeys) {
-                String lockKey = (String) lockKeyObj;
-                String lockData = (String) redisTemplate.opsForValue().get(lockKey);
-                
-                if (lockData != null) {
-                    DistributedLock lock = parseLockData(lockData, lockKey);
-                    if (releaseLock(lock.getLockId(), owner)) {
-                        releasedCount++;
-                    }
+            for (DistributedLock lock : getLocksByOwner(owner)) {
+                if (releaseLock(lock.getLockId(), owner)) {
+                    releasedCount++;
                 }
             }
             
@@ -364,11 +569,13 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     @Override
     public LockStatistics getLockStatistics() {
         try {
-            Set<String> allLockKeys = redisTemplate.keys(LOCK_KEY_PREFIX + "*");
-            int activeLocks = allLockKeys.size();
+            long now = Instant.now().toEpochMilli();
+            Long activeLocks = redisTemplate.opsForZSet().count(EXPIRY_INDEX_KEY, now, Double.POSITIVE_INFINITY);
+            Long expiredLocks = redisTemplate.opsForZSet().count(EXPIRY_INDEX_KEY, Double.NEGATIVE_INFINITY, now);
+            int active = activeLocks != null ? activeLocks.intValue() : 0;
             
-            // Redis automatically cleans expired locks, so expired count is always 0
-            return new LockStatistics(activeLocks, 0, activeLocks, 0);
+            // Expired locks are those Redis has already dropped but the sweep has not yet reclaimed
+            return new LockStatistics(active, expiredLocks != null ? expiredLocks.intValue() : 0, active, 0);
         } catch (Exception e) {
             log.error("Error getting lock statistics", e);
             return new LockStatistics(0, 0, 0, 0);
@@ -391,48 +598,69 @@ public class RedisDistributedLockManager implements DistributedLockManager {
     }
     
     /**
-     * Generates a unique lock ID
+     * TTL in milliseconds for PEXPIRE, never below 1 so a sub-millisecond timeout cannot delete the key outright
      */
-    private String generateLockId() {
-        return "redis_lock_" + System.currentTimeMillis() + "_" + 
-               Integer.toHexString((int)(Math.random() * 0x10000));
+    static long ttlMillis(Duration timeout) {
+        return Math.max(timeout.toMillis(), 1);
     }
-    
+
+    private static String resourceKey(LockResourceType resourceType, String resource) {
+        return RESOURCE_KEY_PREFIX + resourceType.name().toLowerCase() + ":" + resource;
+    }
+
+    private static String resourceIndexKey(LockResourceType resourceType, String resource) {
+        return RESOURCE_INDEX_PREFIX + resourceType.name().toLowerCase() + ":" + resource;
+    }
+
     /**
-     * Parses lock data from Redis (simplified implementation)
+     * Runs a script with plain string arguments and results, independent of the template's JSON value serializer
      */
-    private DistributedLock parseLockData(String lockData, String lockKey) {
-        try {
-            // This is a simplified parser - in production, use proper JSON parsing
-            // Extract values using string manipulation (for demo purposes)
-            String lockId = extractValue(lockData, "lockId");
-            String owner = extractValue(lockData, "owner");
-            String resource = extractValue(lockData, "resource");
-            int quantity = Integer.parseInt(extractValue(lockData, "quantity"));
-            
-            return DistributedLock.builder()
-                .lockId(lockId)
-                .owner(owner)
-                .resource(resource)
-                .quantity(quantity)
-                .status(LockStatus.ACQUIRED)
-                .acquiredAt(Instant.now()) // Simplified
-                .expiresAt(Instant.now().plusSeconds(600)) // Simplified
-                .build();
-                
-        } catch (Exception e) {
-            log.error("Error parsing lock data: {}", lockData, e);
-            return null;
+    @SuppressWarnings("unchecked")
+    private <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+        Object[] stringArgs = Arrays.stream(args).map(String::valueOf).toArray();
+        return redisTemplate.execute(script, STRING_SERIALIZER, (RedisSerializer<T>) STRING_SERIALIZER, keys, stringArgs);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private List<String> executeForList(RedisScript<List> script, List<String> keys, Object... args) {
+        List<String> result = execute(script, keys, args);
+        return result != null ? result : List.of();
+    }
+
+    /**
+     * Builds locks from the flat HMGET output of the read scripts, LOCK_FIELD_COUNT values per lock
+     */
+    static List<DistributedLock> toLocks(List<String> fields) {
+        List<DistributedLock> locks = new ArrayList<>(fields.size() / LOCK_FIELD_COUNT);
+        for (int offset = 0; offset + LOCK_FIELD_COUNT <= fields.size(); offset += LOCK_FIELD_COUNT) {
+            if (fields.get(offset) != null) {
+                locks.add(toLock(fields, offset));
+            }
         }
+        return locks;
+    }
+
+    private static DistributedLock toLock(List<String> fields, int offset) {
+        String resourceType = fields.get(offset + 3);
+        String quantity = fields.get(offset + 4);
+        String acquiredAt = fields.get(offset + 5);
+        String expiresAt = fields.get(offset + 6);
+        return DistributedLock.builder()
+            .lockId(fields.get(offset))
+            .owner(fields.get(offset + 1))
+            .resource(fields.get(offset + 2))
+            .resourceType(resourceType != null ? LockResourceType.valueOf(resourceType) : null)
+            .quantity(quantity != null ? Integer.parseInt(quantity) : 1)
+            .status(LockStatus.ACQUIRED)
+            .acquiredAt(acquiredAt != null ? Instant.ofEpochMilli(Long.parseLong(acquiredAt)) : null)
+            .expiresAt(expiresAt != null ? Instant.ofEpochMilli(Long.parseLong(expiresAt)) : null)
+            .build();
     }
     
     /**
-     * Simple value extraction from JSON-like string
+     * Generates a unique, per-instance monotonic lock ID
      */
-    private String extractValue(String data, String key) {
-        String pattern = "\"" + key + "\":\"";
-        int start = data.indexOf(pattern) + pattern.length();
-        int end = data.indexOf("\"", start);
-        return data.substring(start, end);
+    String generateLockId() {
+        return "redis_lock_" + INSTANCE_ID + "_" + Long.toString(lockSequence.incrementAndGet(), 36);
     }
 }
@@ -33,8 +33,13 @@ import org.hibernate.type.SqlTypes;
 @AllArgsConstructor
 public class BaseOutboxEvent extends AbstractAuditEntity {
     
+    /**
+     * Sequence ids with pooled allocation keep inserts batchable; every service database
+     * using this class provides an outbox_event_id_seq sequence incremented by 50
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_event_id_generator")
+    @SequenceGenerator(name = "outbox_event_id_generator", sequenceName = "outbox_event_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "event_id", nullable = false, unique = true, length = 36)
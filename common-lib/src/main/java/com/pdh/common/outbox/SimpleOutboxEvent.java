@@ -1,9 +1,15 @@
 package com.pdh.common.outbox;
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -24,10 +30,21 @@ import java.util.UUID;
 @MappedSuperclass
 @Data
 
-public class SimpleOutboxEvent {
+public class SimpleOutboxEvent implements Persistable<UUID> {
     
     @Id
     private UUID id = UUID.randomUUID();
+
+    /**
+     * The id is assigned up front, so new events are flagged explicitly; otherwise save()
+     * would merge and select every row before inserting it, which also defeats batching
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean newEvent = true;
     
     @Column(name = "aggregate_type", nullable = false, length = 50)
     private String aggregateType;
@@ -45,6 +62,17 @@ public class SimpleOutboxEvent {
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
     
+    @Override
+    public boolean isNew() {
+        return newEvent;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.newEvent = false;
+    }
+    
     /**
      * Factory method to create a simple outbox event
      */
@@ -61,6 +61,9 @@ public class OutboxConfiguration {
             private int maxRetries = 3;
             private int batchSize = 50;
             private boolean enabled = false; // Disabled by default (using Debezium)
+            private String table; // Outbox table polled by the relay
+            private String topicTemplate = "booking.{aggregateType}.events"; // Same routing as the Debezium EventRouter
+            private long sendTimeoutMs = 10000;
             
             public long getFixedDelayMs() {
                 return fixedDelayMs;
@@ -101,6 +104,30 @@ public class OutboxConfiguration {
             public void setEnabled(boolean enabled) {
                 this.enabled = enabled;
             }
+            
+            public String getTable() {
+                return table;
+            }
+            
+            public void setTable(String table) {
+                this.table = table;
+            }
+            
+            public String getTopicTemplate() {
+                return topicTemplate;
+            }
+            
+            public void setTopicTemplate(String topicTemplate) {
+                this.topicTemplate = topicTemplate;
+            }
+            
+            public long getSendTimeoutMs() {
+                return sendTimeoutMs;
+            }
+            
+            public void setSendTimeoutMs(long sendTimeoutMs) {
+                this.sendTimeoutMs = sendTimeoutMs;
+            }
         }
         
         public static class Topics {
@@ -165,6 +192,9 @@ public class OutboxConfiguration {
             private long processedEventsRetentionHours = 168; // 7 days
             private long expiredEventsRetentionHours = 24; // 1 day
             private String cronExpression = "0 0 2 * * ?"; // Daily at 2 AM
+            private String partitionedTable; // Range-partitioned outbox table, null when not partitioned
+            private int partitionAheadDays = 7;
+            private boolean retainUnprocessed = true; // Keep partitions that still hold rows the relay has not delivered
             
             public boolean isEnabled() {
                 return enabled;
@@ -197,6 +227,30 @@ public class OutboxConfiguration {
             public void setCronExpression(String cronExpression) {
                 this.cronExpression = cronExpression;
             }
+            
+            public String getPartitionedTable() {
+                return partitionedTable;
+            }
+            
+            public void setPartitionedTable(String partitionedTable) {
+                this.partitionedTable = partitionedTable;
+            }
+            
+            public int getPartitionAheadDays() {
+                return partitionAheadDays;
+            }
+            
+            public void setPartitionAheadDays(int partitionAheadDays) {
+                this.partitionAheadDays = partitionAheadDays;
+            }
+            
+            public boolean isRetainUnprocessed() {
+                return retainUnprocessed;
+            }
+            
+            public void setRetainUnprocessed(boolean retainUnprocessed) {
+                this.retainUnprocessed = retainUnprocessed;
+            }
         }
     }
 }
@@ -0,0 +1,101 @@
+package com.pdh.common.outbox.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outbox writer shared by every service: a service only maps an event to its own outbox entity.
+ * All events of one call go through a single saveAll, so with pooled or pre-assigned ids and
+ * hibernate.jdbc.batch_size set they reach the database as one JDBC batch.
+ *
+ * @param <E> the service's outbox entity
+ */
+@Slf4j
+public abstract class AbstractOutboxEventService<E> implements OutboxEventService {
+
+    protected final ObjectMapper objectMapper;
+    private final CrudRepository<E, ?> outboxRepository;
+    private final Object pendingKey = new Object();
+
+    protected AbstractOutboxEventService(CrudRepository<E, ?> outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    @Transactional
+    public void publishEvent(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
+        publishEvents(List.of(OutboxEventRequest.of(eventType, aggregateType, aggregateId, eventPayload)));
+    }
+
+    @Override
+    @Transactional
+    public void publishEvents(List<OutboxEventRequest> events) {
+        if (events == null || events.isEmpty()) {
+            return;
+        }
+        List<E> outboxEvents = new ArrayList<>(events.size());
+        for (OutboxEventRequest request : events) {
+            try {
+                outboxEvents.add(createOutboxEvent(request, serializePayload(request.eventPayload())));
+            } catch (JsonProcessingException e) {
+                log.error("Error serializing event payload for eventType: {}, aggregateId: {}",
+                    request.eventType(), request.aggregateId(), e);
+                throw new RuntimeException("Failed to serialize event payload", e);
+            }
+        }
+        outboxRepository.saveAll(outboxEvents);
+
+        log.debug("Published {} events to outbox {}", outboxEvents.size(), getClass().getSimpleName());
+    }
+
+    /**
+     * Queue an event and write it together with every other event queued in the same transaction,
+     * in one batch just before commit. Outside a transaction the event is written immediately.
+     */
+    @SuppressWarnings("unchecked")
+    public void publishEventOnCommit(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
+        OutboxEventRequest request = OutboxEventRequest.of(eventType, aggregateType, aggregateId, eventPayload);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishEvents(List.of(request));
+            return;
+        }
+        List<OutboxEventRequest> pending = (List<OutboxEventRequest>) TransactionSynchronizationManager.getResource(pendingKey);
+        if (pending == null) {
+            List<OutboxEventRequest> requests = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendingKey, requests);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    publishEvents(requests);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendingKey);
+                }
+            });
+            pending = requests;
+        }
+        pending.add(request);
+    }
+
+    /**
+     * Build the service's outbox entity for one event
+     *
+     * @param payload the event payload already serialized to JSON
+     */
+    protected abstract E createOutboxEvent(OutboxEventRequest request, String payload);
+
+    protected String serializePayload(Object eventPayload) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(eventPayload);
+    }
+}
@@ -1,5 +1,8 @@
 package com.pdh.common.outbox.service;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * Common interface for outbox event publishing
  * Each service should implement this interface with their specific outbox entity
@@ -16,6 +19,17 @@ public interface OutboxEventService {
      */
     void publishEvent(String eventType, String aggregateType, String aggregateId, Object eventPayload);
 
+    /**
+     * Publish several events in one batched write within the caller's transaction.
+     * Default falls back to one insert per event; {@link AbstractOutboxEventService} writes them with one saveAll.
+     *
+     * @param events The events to append, in order
+     */
+    default void publishEvents(List<OutboxEventRequest> events) {
+        events.forEach(event -> publishEvent(
+            event.eventType(), event.aggregateType(), event.aggregateId(), event.eventPayload()));
+    }
+
     /**
      * Process any queued events that have not yet been delivered. Default is a no-op.
      */
@@ -32,6 +46,7 @@ public interface OutboxEventService {
 
     /**
      * Remove processed events older than the implementation-defined retention window.
+     * Partitioned outboxes drop whole partitions through {@link OutboxPartitionManager}.
      */
     default void cleanupOldEvents() {
         // Optional operation
@@ -51,6 +66,16 @@ public interface OutboxEventService {
         return OutboxStatistics.EMPTY;
     }
 
+    /**
+     * One event to append through {@link #publishEvents(List)}.
+     */
+    record OutboxEventRequest(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
+
+        public static OutboxEventRequest of(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
+            return new OutboxEventRequest(eventType, aggregateType, aggregateId, eventPayload);
+        }
+    }
+
     /**
      * Simple value object for reporting counts from an outbox implementation.
      */
@@ -59,10 +84,21 @@ public interface OutboxEventService {
 
         private final long unprocessedCount;
         private final long failedCount;
+        private final int partitionCount;
+        private final long estimatedRows;
+        private final LocalDateTime oldestPartitionBound;
 
         public OutboxStatistics(long unprocessedCount, long failedCount) {
+            this(unprocessedCount, failedCount, 0, 0, null);
+        }
+
+        public OutboxStatistics(long unprocessedCount, long failedCount, int partitionCount,
+                                long estimatedRows, LocalDateTime oldestPartitionBound) {
             this.unprocessedCount = unprocessedCount;
             this.failedCount = failedCount;
+            this.partitionCount = partitionCount;
+            this.estimatedRows = estimatedRows;
+            this.oldestPartitionBound = oldestPartitionBound;
         }
 
         public long getUnprocessedCount() {
@@ -73,6 +109,24 @@ public interface OutboxEventService {
             return failedCount;
         }
 
+        public int getPartitionCount() {
+            return partitionCount;
+        }
+
+        /**
+         * Planner estimate of the rows across all partitions; zero until the table has been analyzed
+         */
+        public long getEstimatedRows() {
+            return estimatedRows;
+        }
+
+        /**
+         * Upper bound of the oldest dated partition, i.e. how far back retention currently reaches
+         */
+        public LocalDateTime getOldestPartitionBound() {
+            return oldestPartitionBound;
+        }
+
         public boolean hasFailures() {
             return failedCount > 0;
         }
@@ -82,6 +136,9 @@ public interface OutboxEventService {
             return "OutboxStatistics{" +
                 "unprocessed=" + unprocessedCount +
                 ", failed=" + failedCount +
+                ", partitions=" + partitionCount +
+                ", estimatedRows=" + estimatedRows +
+                ", oldestPartitionBound=" + oldestPartitionBound +
                 '}';
         }
     }
@@ -0,0 +1,226 @@
+package com.pdh.common.outbox.service;
+
+import com.pdh.common.outbox.config.OutboxConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the daily range partitions of a service's outbox table (partitioned on created_at).
+ * Partitions are created ahead of time and whole partitions are dropped once they fall out of
+ * the processed-events retention window, so retention never runs large deletes.
+ * Concurrent runs across replicas serialize on a transaction-scoped advisory lock.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "outbox.cleanup", name = "partitioned-table")
+public class OutboxPartitionManager {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+    private static final Pattern UPPER_BOUND = Pattern.compile("TO \\('([^']+)'\\)");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter BOUND = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxConfiguration.OutboxProperties.Cleanup cleanup;
+    private final String table;
+    private volatile Boolean tracksDelivery;
+
+    public OutboxPartitionManager(JdbcTemplate jdbcTemplate, OutboxConfiguration.OutboxProperties outboxProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cleanup = outboxProperties.getCleanup();
+        this.table = cleanup.getPartitionedTable();
+        if (!TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid outbox partitioned table name: " + table);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${outbox.cleanup.cron-expression:0 0 2 * * ?}")
+    public void scheduledMaintenance() {
+        maintain();
+    }
+
+    /**
+     * Creates the partitions ahead and, when cleanup is enabled, drops expired ones
+     */
+    public synchronized void maintain() {
+        try {
+            int created = createPartitionsAhead();
+            int dropped = cleanup.isEnabled() ? dropExpiredPartitions() : 0;
+            if (created > 0 || dropped > 0) {
+                log.info("Outbox partition maintenance on {}: {} created, {} dropped", table, created, dropped);
+            }
+        } catch (DataAccessException e) {
+            log.error("Outbox partition maintenance failed for {}", table, e);
+        }
+    }
+
+    /**
+     * Creates one partition per day from the newest existing bound up to today + partitionAheadDays.
+     * Rows already routed to the default partition for that day are moved into the new partition.
+     */
+    public int createPartitionsAhead() {
+        List<Partition> partitions = partitions();
+        LocalDate until = LocalDate.now().plusDays(cleanup.getPartitionAheadDays() + 1L);
+        LocalDate day = partitions.stream()
+            .map(Partition::upperBound)
+            .filter(Objects::nonNull)
+            .max(Comparator.naturalOrder())
+            .map(LocalDateTime::toLocalDate)
+            .orElse(LocalDate.now());
+        String defaultPartition = partitions.stream()
+            .filter(Partition::isDefault)
+            .map(Partition::name)
+            .findFirst()
+            .orElse(null);
+
+        int created = 0;
+        for (; day.isBefore(until); day = day.plusDays(1)) {
+            createPartition(day, defaultPartition);
+            created++;
+        }
+        return created;
+    }
+
+    /**
+     * Drops every partition whose upper bound is older than the processed-events retention,
+     * then trims the default partition with the same cutoff. Unless retain-unprocessed is turned off,
+     * partitions that still hold rows the relay has not delivered are kept and only delivered rows are
+     * trimmed from the default partition.
+     */
+    public int dropExpiredPartitions() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(cleanup.getProcessedEventsRetentionHours());
+        boolean retainUnprocessed = cleanup.isRetainUnprocessed() && tracksDelivery();
+        String unprocessedFilter = retainUnprocessed ? " AND processed = true" : "";
+        int dropped = 0;
+        for (Partition partition : partitions()) {
+            if (partition.isDefault()) {
+                jdbcTemplate.update("DELETE FROM " + partition.name() + " WHERE created_at < ?" + unprocessedFilter,
+                    Timestamp.valueOf(cutoff));
+                continue;
+            }
+            if (partition.upperBound() == null || partition.upperBound().isAfter(cutoff)) {
+                continue;
+            }
+            if (retainUnprocessed && hasUnprocessedEvents(partition.name())) {
+                log.warn("Keeping expired outbox partition {} because it still holds unprocessed events", partition.name());
+                continue;
+            }
+            jdbcTemplate.execute("""
+                DO $$
+                BEGIN
+                    PERFORM pg_advisory_xact_lock(hashtext('%1$s'));
+                    IF to_regclass('%2$s') IS NOT NULL THEN
+                        ALTER TABLE %1$s DETACH PARTITION %2$s;
+                        DROP TABLE %2$s;
+                    END IF;
+                END $$
+                """.formatted(table, partition.name()));
+            dropped++;
+        }
+        return dropped;
+    }
+
+    /**
+     * Partition layout of the outbox table together with the counters supplied by the caller
+     */
+    public OutboxEventService.OutboxStatistics statistics(long unprocessedCount, long failedCount) {
+        List<Partition> partitions = partitions();
+        long estimatedRows = partitions.stream().mapToLong(Partition::estimatedRows).sum();
+        LocalDateTime oldestBound = partitions.stream()
+            .map(Partition::upperBound)
+            .filter(Objects::nonNull)
+            .min(Comparator.naturalOrder())
+            .orElse(null);
+        return new OutboxEventService.OutboxStatistics(
+            unprocessedCount, failedCount, partitions.size(), estimatedRows, oldestBound);
+    }
+
+    private void createPartition(LocalDate day, String defaultPartition) {
+        String name = table + "_p" + day.format(SUFFIX);
+        String from = day.atStartOfDay().format(BOUND);
+        String to = day.plusDays(1).atStartOfDay().format(BOUND);
+        String moveFromDefault = defaultPartition == null ? "" : """
+                    INSERT INTO %1$s SELECT * FROM %2$s WHERE created_at >= '%3$s' AND created_at < '%4$s';
+                    DELETE FROM %2$s WHERE created_at >= '%3$s' AND created_at < '%4$s';
+            """.formatted(name, defaultPartition, from, to);
+        jdbcTemplate.execute("""
+            DO $$
+            BEGIN
+                PERFORM pg_advisory_xact_lock(hashtext('%1$s'));
+                IF to_regclass('%2$s') IS NULL THEN
+                    CREATE TABLE %2$s (LIKE %1$s INCLUDING DEFAULTS);
+            %5$s
+                    ALTER TABLE %1$s ATTACH PARTITION %2$s FOR VALUES FROM ('%3$s') TO ('%4$s');
+                END IF;
+            END $$
+            """.formatted(table, name, from, to, moveFromDefault));
+        log.debug("Created outbox partition {} [{}, {})", name, from, to);
+    }
+
+    /**
+     * Whether the outbox rows carry a processed flag. Outboxes read only by Debezium have none: their
+     * rows are delivered from the WAL once committed, so retention never waits for them.
+     */
+    private boolean tracksDelivery() {
+        if (tracksDelivery == null) {
+            tracksDelivery = Boolean.TRUE.equals(jdbcTemplate.queryForObject("""
+                    SELECT EXISTS (SELECT 1 FROM information_schema.columns
+                                   WHERE table_schema = current_schema() AND table_name = ? AND column_name = 'processed')
+                    """, Boolean.class, table));
+        }
+        return tracksDelivery;
+    }
+
+    private boolean hasUnprocessedEvents(String partition) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "SELECT EXISTS (SELECT 1 FROM " + partition + " WHERE processed = false)", Boolean.class));
+    }
+
+    private List<Partition> partitions() {
+        return jdbcTemplate.query("""
+                SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) AS bound, c.reltuples
+                FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = to_regclass(?)
+                """,
+            (rs, rowNum) -> Partition.of(rs.getString("relname"), rs.getString("bound"), rs.getLong("reltuples")),
+            table);
+    }
+
+    private record Partition(String name, boolean isDefault, LocalDateTime upperBound, long estimatedRows) {
+
+        static Partition of(String name, String bound, long reltuples) {
+            if (bound == null || bound.equals("DEFAULT")) {
+                return new Partition(name, true, null, Math.max(reltuples, 0));
+            }
+            Matcher matcher = UPPER_BOUND.matcher(bound);
+            LocalDateTime upper = Optional.of(matcher)
+                .filter(Matcher::find)
+                .map(m -> LocalDateTime.parse(m.group(1).substring(0, 19), BOUND))
+                .orElse(null);
+            return new Partition(name, false, upper, Math.max(reltuples, 0));
+        }
+    }
+}
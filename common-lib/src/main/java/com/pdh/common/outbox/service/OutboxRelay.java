@@ -0,0 +1,198 @@
+package com.pdh.common.outbox.service;
+
+import com.fasterxml.jackson.databind.node.TextNode;
+import com.pdh.common.outbox.config.OutboxConfiguration;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.regex.Pattern;
+
+/**
+ * Polling relay for outbox tables with retry columns (booking, payment), used instead of Debezium.
+ * Each batch is claimed with FOR UPDATE SKIP LOCKED so replicas relay disjoint rows; the batch is
+ * sent asynchronously, acknowledged as a whole, and then marked processed or failed in bulk
+ * before the claiming transaction commits. Delivery is at-least-once.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(prefix = "outbox.relay", name = "enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final Pattern TABLE_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private static final String PENDING = "processed = false AND retry_count = 0";
+    private static final String RETRYABLE =
+        "processed = false AND retry_count > 0 AND retry_count < max_retries AND next_retry_at <= now()";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final OutboxConfiguration.OutboxProperties.Relay relay;
+    private final String table;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate,
+                       TransactionTemplate transactionTemplate,
+                       @Qualifier("sagaCommandKafkaTemplate") KafkaTemplate<String, String> kafkaTemplate,
+                       OutboxConfiguration.OutboxProperties outboxProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.relay = outboxProperties.getRelay();
+        this.table = relay.getTable();
+        if (table == null || !TABLE_NAME.matcher(table).matches()) {
+            throw new IllegalArgumentException("Invalid outbox relay table name: " + table);
+        }
+    }
+
+    /**
+     * Relays new events until a batch comes back short
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.fixed-delay-ms:5000}")
+    public void relayPending() {
+        drain(PENDING);
+    }
+
+    /**
+     * Relays failed events whose retry delay has elapsed
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.retry-delay-ms:10000}")
+    public void relayRetryable() {
+        drain(RETRYABLE);
+    }
+
+    private void drain(String condition) {
+        int total = 0;
+        int claimed;
+        do {
+            BatchResult result = transactionTemplate.execute(status -> relayBatch(condition));
+            claimed = result != null ? result.claimed() : 0;
+            total += result != null ? result.relayed() : 0;
+        } while (claimed == relay.getBatchSize());
+        if (total > 0) {
+            log.debug("Relayed {} events from {}", total, table);
+        }
+    }
+
+    private BatchResult relayBatch(String condition) {
+        List<OutboxRow> rows = jdbcTemplate.query(
+            "SELECT id, event_id, event_type, aggregate_type, aggregate_id, payload::text AS payload " +
+                "FROM " + table + " WHERE " + condition + " ORDER BY created_at LIMIT ? FOR UPDATE SKIP LOCKED",
+            (rs, rowNum) -> new OutboxRow(
+                rs.getLong("id"),
+                rs.getString("event_id"),
+                rs.getString("event_type"),
+                rs.getString("aggregate_type"),
+                rs.getString("aggregate_id"),
+                rs.getString("payload")),
+            relay.getBatchSize());
+        if (rows.isEmpty()) {
+            return new BatchResult(0, 0);
+        }
+
+        List<CompletableFuture<SendResult<String, String>>> sends = new ArrayList<>(rows.size());
+        for (OutboxRow row : rows) {
+            sends.add(send(row));
+        }
+        awaitAll(sends);
+
+        List<Long> sent = new ArrayList<>(rows.size());
+        List<Object[]> failed = new ArrayList<>();
+        Timestamp nextRetryAt = Timestamp.valueOf(LocalDateTime.now().plus(Duration.ofMillis(relay.getRetryDelayMs())));
+        for (int i = 0; i < rows.size(); i++) {
+            CompletableFuture<SendResult<String, String>> send = sends.get(i);
+            if (send.isDone() && !send.isCompletedExceptionally()) {
+                sent.add(rows.get(i).id());
+            } else {
+                failed.add(new Object[]{nextRetryAt, failureMessage(send), rows.get(i).id()});
+            }
+        }
+
+        if (!sent.isEmpty()) {
+            jdbcTemplate.update(
+                "UPDATE " + table + " SET processed = true, processed_at = now(), updated_at = now() WHERE id = ANY (?)",
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", sent.toArray())));
+        }
+        if (!failed.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                "UPDATE " + table + " SET retry_count = retry_count + 1, next_retry_at = ?, error_message = ?, " +
+                    "updated_at = now() WHERE id = ?",
+                failed);
+            log.warn("Failed to relay {} of {} events from {}", failed.size(), rows.size(), table);
+        }
+        return new BatchResult(rows.size(), sent.size());
+    }
+
+    private CompletableFuture<SendResult<String, String>> send(OutboxRow row) {
+        String topic = relay.getTopicTemplate().replace("{aggregateType}", row.aggregateType());
+        ProducerRecord<String, String> record = new ProducerRecord<>(topic, jsonKey(row.aggregateId()), row.payload());
+        record.headers()
+            .add("id", row.eventId().getBytes(StandardCharsets.UTF_8))
+            .add("eventType", row.eventType().getBytes(StandardCharsets.UTF_8))
+            .add("aggregateType", row.aggregateType().getBytes(StandardCharsets.UTF_8));
+        try {
+            return kafkaTemplate.send(record);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * The key as a JSON string, byte for byte what Debezium's JsonConverter (schemas disabled) writes for
+     * the aggregate id, so switching between the relay and CDC keeps every aggregate on its partition
+     */
+    static String jsonKey(String aggregateId) {
+        return aggregateId != null ? TextNode.valueOf(aggregateId).toString() : null;
+    }
+
+    /**
+     * One wait for the whole batch; sends still pending after the timeout count as failed
+     */
+    private void awaitAll(List<CompletableFuture<SendResult<String, String>>> sends) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(relay.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // Individual outcomes are inspected by the caller
+        }
+    }
+
+    private static String failureMessage(CompletableFuture<?> send) {
+        if (!send.isDone()) {
+            return "Send timed out";
+        }
+        try {
+            send.join();
+            return null;
+        } catch (RuntimeException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            return cause.getMessage();
+        }
+    }
+
+    private record OutboxRow(long id, String eventId, String eventType, String aggregateType,
+                             String aggregateId, String payload) {
+    }
+
+    private record BatchResult(int claimed, int relayed) {
+    }
+}
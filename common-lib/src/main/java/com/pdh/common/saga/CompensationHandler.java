@@ -1,23 +1,63 @@
 package com.pdh.common.saga;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Compensation Handler - Centralized in common-lib
  * Handles compensation logic and retry strategies for saga operations
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class CompensationHandler {
 
+    private static final Duration CLAIM_INTERVAL = Duration.ofMinutes(1);
+
+    private final ScheduledExecutorService retryTimer = Executors.newSingleThreadScheduledExecutor(
+        Thread.ofPlatform().name("compensation-retry-timer").daemon(true).factory());
+    private final ExecutorService worker = Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual().name("compensation-", 0).factory());
+    private final Map<String, CompensationExecutor> executors = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingRetries = new AtomicInteger();
+    private volatile boolean ready;
+
+    private final ObjectProvider<PendingCompensationStore> pendingStore;
+    private final MeterRegistry meterRegistry;
+    private final Timer retryLag;
+
+    public CompensationHandler(ObjectProvider<PendingCompensationStore> pendingStore,
+                               ObjectProvider<MeterRegistry> meterRegistry) {
+        this.pendingStore = pendingStore;
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.retryLag = Timer.builder("saga.compensation.retry.lag")
+            .description("Delay between a compensation retry falling due and starting")
+            .register(this.meterRegistry);
+        Gauge.builder("saga.compensation.retry.pending", pendingRetries, AtomicInteger::get)
+            .description("Compensation retries waiting for their backoff to elapse")
+            .register(this.meterRegistry);
+    }
+
     /**
      * Determines the appropriate compensation strategy based on the failure context
      */
@@ -91,7 +131,20 @@ public class CompensationHandler {
     }
     
     /**
-     * Executes compensation with retry logic
+     * Registers the executor used to resume persisted compensations for an operation after a restart.
+     * Once the application is ready, registering claims that operation's unleased entries right away,
+     * so registration may happen before or after startup.
+     */
+    public void registerExecutor(String operation, CompensationExecutor executor) {
+        executors.put(operation, executor);
+        if (ready) {
+            claimLater(List.of(operation));
+        }
+    }
+
+    /**
+     * Executes compensation with retry logic. Work runs on virtual threads and retry backoff is a
+     * scheduled timer task, so no thread is held while waiting.
      */
     public CompletableFuture<Boolean> executeCompensation(
             CompensationContext context, 
@@ -99,35 +152,58 @@ public class CompensationHandler {
         
         log.info("Executing compensation for saga: {}, operation: {}, strategy: {}", 
             context.getSagaId(), context.getFailedOperation(), context.getStrategy());
-        
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                switch (context.getStrategy()) {
-                    case IMMEDIATE:
-                        return executeImmediateCompensation(context, executor);
-                    
-                    case RETRY_THEN_COMPENSATE:
-                        return executeRetryThenCompensate(context, executor);
-                    
-                    case BEST_EFFORT:
-                        return executeBestEffortCompensation(context, executor);
-                    
-                    case MANUAL:
-                        return scheduleManualCompensation(context);
-                    
-                    case NONE:
-                        log.info("No compensation required for saga: {}", context.getSagaId());
-                        return true;
-                    
-                    default:
-                        log.warn("Unknown compensation strategy: {}", context.getStrategy());
-                        return false;
-                }
-            } catch (Exception e) {
-                log.error("Error executing compensation for saga: {}", context.getSagaId(), e);
-                return false;
+
+        if (context.getFailedOperation() != null && !executors.containsKey(context.getFailedOperation())) {
+            registerExecutor(context.getFailedOperation(), executor);
+        }
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        long startedAt = System.nanoTime();
+        String strategy = String.valueOf(context.getStrategy());
+        result.whenComplete((success, error) -> meterRegistry.timer("saga.compensation.duration",
+                "strategy", strategy, "outcome", Boolean.TRUE.equals(success) ? "success" : "failure")
+            .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS));
+
+        try {
+            worker.execute(() -> run(context, executor, result));
+        } catch (RejectedExecutionException e) {
+            log.error("Compensation executor is shut down, saga: {}", context.getSagaId(), e);
+            result.complete(false);
+        }
+        return result;
+    }
+
+    private void run(CompensationContext context, CompensationExecutor executor, CompletableFuture<Boolean> result) {
+        try {
+            switch (context.getStrategy()) {
+                case IMMEDIATE:
+                    result.complete(executeImmediateCompensation(context, executor));
+                    break;
+
+                case RETRY_THEN_COMPENSATE:
+                    scheduleRetryOrCompensate(context, executor, result);
+                    break;
+
+                case BEST_EFFORT:
+                    result.complete(executeBestEffortCompensation(context, executor));
+                    break;
+
+                case MANUAL:
+                    result.complete(scheduleManualCompensation(context));
+                    break;
+
+                case NONE:
+                    log.info("No compensation required for saga: {}", context.getSagaId());
+                    result.complete(true);
+                    break;
+
+                default:
+                    log.warn("Unknown compensation strategy: {}", context.getStrategy());
+                    result.complete(false);
             }
-        });
+        } catch (Exception e) {
+            log.error("Error executing compensation for saga: {}", context.getSagaId(), e);
+            result.complete(false);
+        }
     }
     
     /**
@@ -143,39 +219,139 @@ public class CompensationHandler {
     }
     
     /**
-     * Executes retry then compensate strategy
+     * Retry then compensate strategy: persists the pending retry and arms a timer for it,
+     * or compensates once retries are exhausted
      */
-    private boolean executeRetryThenCompensate(CompensationContext context, CompensationExecutor executor) {
-        if (context.shouldRetry()) {
-            log.info("Attempting retry {} for saga: {}", context.getRetryCount() + 1, context.getSagaId());
-            
-            try {
-                // Wait for retry delay
-                Duration delay = calculateRetryDelay(context.getRetryCount());
-                TimeUnit.MILLISECONDS.sleep(delay.toMillis());
-                
-                // Attempt retry
-                if (executor.retry(context)) {
-                    log.info("Retry successful for saga: {}", context.getSagaId());
-                    return true;
-                }
-                
-                // Retry failed, increment count and try again or compensate
-                context.incrementRetry();
-                if (context.shouldRetry()) {
-                    return executeRetryThenCompensate(context, executor);
-                }
-            } catch (InterruptedException e) {
-                Thread.currentThread().interrupt();
-                log.warn("Retry interrupted for saga: {}", context.getSagaId());
-            } catch (Exception e) {
-                log.error("Retry failed for saga: {}", context.getSagaId(), e);
+    private void scheduleRetryOrCompensate(CompensationContext context, CompensationExecutor executor,
+                                           CompletableFuture<Boolean> result) {
+        if (!context.shouldRetry()) {
+            log.info("Retries exhausted, performing compensation for saga: {}", context.getSagaId());
+            boolean compensated = executeImmediateCompensation(context, executor);
+            forget(context);
+            result.complete(compensated);
+            return;
+        }
+
+        Duration delay = calculateRetryDelay(context.getRetryCount());
+        Instant dueAt = Instant.now().plus(delay);
+        pendingStore.ifAvailable(store -> store.save(context, dueAt));
+        armRetry(context, executor, result, dueAt);
+    }
+
+    private void armRetry(CompensationContext context, CompensationExecutor executor,
+                          CompletableFuture<Boolean> result, Instant dueAt) {
+        long delayMs = Math.max(0, Duration.between(Instant.now(), dueAt).toMillis());
+        pendingRetries.incrementAndGet();
+        try {
+            retryTimer.schedule(() -> {
+                pendingRetries.decrementAndGet();
+                dispatchRetry(context, executor, result, dueAt);
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            pendingRetries.decrementAndGet();
+            log.warn("Retry timer is shut down, saga {} stays pending", context.getSagaId());
+            result.complete(false);
+        }
+    }
+
+    private void dispatchRetry(CompensationContext context, CompensationExecutor executor,
+                               CompletableFuture<Boolean> result, Instant dueAt) {
+        try {
+            worker.execute(() -> {
+                retryLag.record(Duration.between(dueAt, Instant.now()).toNanos(), TimeUnit.NANOSECONDS);
+                attemptRetry(context, executor, result);
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Compensation executor is shut down, saga {} stays pending", context.getSagaId());
+            result.complete(false);
+        }
+    }
+
+    private void attemptRetry(CompensationContext context, CompensationExecutor executor,
+                              CompletableFuture<Boolean> result) {
+        log.info("Attempting retry {} for saga: {}", context.getRetryCount() + 1, context.getSagaId());
+        try {
+            if (executor.retry(context)) {
+                log.info("Retry successful for saga: {}", context.getSagaId());
+                forget(context);
+                result.complete(true);
+                return;
             }
+        } catch (Exception e) {
+            log.error("Retry failed for saga: {}", context.getSagaId(), e);
         }
-        
-        // All retries exhausted, perform compensation
-        log.info("Retries exhausted, performing compensation for saga: {}", context.getSagaId());
-        return executeImmediateCompensation(context, executor);
+        // Retry failed, increment count and try again or compensate
+        context.incrementRetry();
+        scheduleRetryOrCompensate(context, executor, result);
+    }
+
+    private void forget(CompensationContext context) {
+        pendingStore.ifAvailable(store -> store.remove(context));
+    }
+
+    /**
+     * Claims and resumes persisted retries of every registered operation, then keeps claiming on a fixed
+     * delay so entries leased by an instance that died are picked up once their lease expires. The store
+     * hands each entry to one instance only, so replicas never arm the same retry twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingCompensations() {
+        if (pendingStore.getIfAvailable() == null) {
+            return;
+        }
+        ready = true;
+        claimAndResume(List.copyOf(executors.keySet()));
+        try {
+            retryTimer.scheduleWithFixedDelay(() -> claimLater(List.copyOf(executors.keySet())),
+                CLAIM_INTERVAL.toMillis(), CLAIM_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.warn("Retry timer is shut down, pending compensations are not claimed periodically");
+        }
+    }
+
+    private void claimLater(List<String> operations) {
+        try {
+            worker.execute(() -> claimAndResume(operations));
+        } catch (RejectedExecutionException e) {
+            log.debug("Compensation executor is shut down, skipping claim of {}", operations);
+        }
+    }
+
+    private void claimAndResume(List<String> operations) {
+        PendingCompensationStore store = pendingStore.getIfAvailable();
+        if (store == null || operations.isEmpty()) {
+            return;
+        }
+        List<PendingCompensationStore.PendingCompensation> claimed;
+        try {
+            claimed = store.claim(operations);
+        } catch (Exception e) {
+            log.warn("Failed to claim pending compensations for {}", operations, e);
+            return;
+        }
+        for (PendingCompensationStore.PendingCompensation pending : claimed) {
+            resume(pending, executors.get(pending.context().getFailedOperation()));
+        }
+        if (!claimed.isEmpty()) {
+            log.info("Resumed {} pending compensations", claimed.size());
+        }
+    }
+
+    private void resume(PendingCompensationStore.PendingCompensation pending, CompensationExecutor executor) {
+        CompensationContext context = pending.context();
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        result.thenAccept(success -> log.info("Resumed compensation for saga {} finished: {}",
+            context.getSagaId(), success));
+        armRetry(context, executor, result, pending.dueAt());
+    }
+
+    /**
+     * Pending retries stay in the store and are claimed by another instance once their lease expires
+     */
+    @PreDestroy
+    public void shutdown() {
+        retryTimer.shutdownNow();
+        worker.shutdown();
     }
     
     /**
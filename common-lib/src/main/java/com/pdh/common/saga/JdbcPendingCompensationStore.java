@@ -0,0 +1,112 @@
+package com.pdh.common.saga;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * {@link PendingCompensationStore} backed by the pending_compensations table. Each instance leases
+ * the rows it saves or claims under a random owner id for the configured lease past their due time.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "saga.compensation.store.enabled", havingValue = "true")
+public class JdbcPendingCompensationStore implements PendingCompensationStore {
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO pending_compensations (saga_id, failed_operation, context, retry_count, due_at, owner, lease_until, updated_at) " +
+            "VALUES (?, ?, ?::jsonb, ?, ?, ?, ?, now()) " +
+            "ON CONFLICT (saga_id, failed_operation) DO UPDATE SET context = EXCLUDED.context, " +
+            "retry_count = EXCLUDED.retry_count, due_at = EXCLUDED.due_at, owner = EXCLUDED.owner, " +
+            "lease_until = EXCLUDED.lease_until, updated_at = now()";
+
+    // SKIP LOCKED leaves rows another instance is claiming right now; once that claim commits,
+    // the re-checked lease condition excludes them
+    private static final String CLAIM_SQL =
+        "UPDATE pending_compensations SET owner = ?, " +
+            "lease_until = greatest(due_at, now()) + make_interval(secs => ?), updated_at = now() " +
+            "WHERE (saga_id, failed_operation) IN (" +
+            "SELECT saga_id, failed_operation FROM pending_compensations " +
+            "WHERE failed_operation = ANY (?) AND (lease_until IS NULL OR lease_until < now()) " +
+            "FOR UPDATE SKIP LOCKED) " +
+            "RETURNING context::text AS context, due_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectReader contextReader;
+    private final String owner = UUID.randomUUID().toString();
+    private final Duration lease;
+
+    public JdbcPendingCompensationStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                        @Value("${saga.compensation.store.lease:PT5M}") Duration lease) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.lease = lease;
+        this.contextReader = objectMapper.readerFor(CompensationContext.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    @Override
+    public void save(CompensationContext context, Instant dueAt) {
+        try {
+            jdbcTemplate.update(UPSERT_SQL,
+                context.getSagaId(),
+                context.getFailedOperation(),
+                objectMapper.writeValueAsString(context),
+                context.getRetryCount(),
+                Timestamp.from(dueAt),
+                owner,
+                Timestamp.from(dueAt.plus(lease)));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize compensation context", e);
+        }
+    }
+
+    @Override
+    public void remove(CompensationContext context) {
+        jdbcTemplate.update("DELETE FROM pending_compensations WHERE saga_id = ? AND failed_operation = ?",
+            context.getSagaId(), context.getFailedOperation());
+    }
+
+    @Override
+    public List<PendingCompensation> claim(Collection<String> operations) {
+        if (operations.isEmpty()) {
+            return List.of();
+        }
+        return jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(CLAIM_SQL);
+                    statement.setString(1, owner);
+                    statement.setLong(2, lease.toSeconds());
+                    statement.setArray(3, connection.createArrayOf("varchar", operations.toArray()));
+                    return statement;
+                }, (rs, rowNum) -> {
+                    try {
+                        CompensationContext context = contextReader.readValue(rs.getString("context"));
+                        return new PendingCompensation(context, rs.getTimestamp("due_at").toInstant());
+                    } catch (JsonProcessingException e) {
+                        log.error("Skipping unreadable pending compensation row", e);
+                        return null;
+                    }
+                })
+            .stream()
+            .filter(Objects::nonNull)
+            .sorted(Comparator.comparing(PendingCompensation::dueAt))
+            .toList();
+    }
+}
@@ -0,0 +1,30 @@
+package com.pdh.common.saga;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable record of compensations waiting for their next retry, so a restart resumes them
+ * instead of dropping them. Entries are keyed by saga id and failed operation.
+ * <p>
+ * Every entry is leased to the instance that saved or claimed it. Only entries whose lease has
+ * expired can be claimed, so with several instances sharing one store each retry is armed once.
+ */
+public interface PendingCompensationStore {
+
+    /**
+     * Save or replace the entry, leasing it to this instance until past its due time
+     */
+    void save(CompensationContext context, Instant dueAt);
+
+    void remove(CompensationContext context);
+
+    /**
+     * Claim the unleased or lease-expired entries of the given operations for this instance
+     */
+    List<PendingCompensation> claim(Collection<String> operations);
+
+    record PendingCompensation(CompensationContext context, Instant dueAt) {
+    }
+}
@@ -0,0 +1,443 @@
+package com.pdh.common.saga;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.RawValue;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compact binary wire format for {@link SagaCommand}.
+ * <p>
+ * Layout (version 2): magic {@code 'S' 'C'}, version byte, presence bitmask (int), then each present
+ * field in declaration order. Strings and byte blocks are varint length-prefixed, UUIDs are two longs,
+ * amounts are scale + unscaled bytes, metadata values carry length + 1 so that 0 encodes null.
+ * Product details stay JSON but are written straight from the typed DTO and decoded straight into the
+ * consumer's DTO, skipping the intermediate map.
+ * <p>
+ * Payloads starting with '{' are JSON commands and are always accepted. Producers keep writing JSON
+ * through {@link #write(SagaCommand)} until {@code saga.command.binary-enabled} is switched on, which
+ * must wait until every consumer of the command topics runs a release that decodes the binary format.
+ */
+@Component
+public class SagaCommandCodec {
+
+    private static final byte MAGIC_0 = 'S';
+    private static final byte MAGIC_1 = 'C';
+    private static final byte VERSION = 2;
+    private static final byte VERSION_NON_NULL_METADATA = 1;
+
+    private static final int EVENT_ID = 1;
+    private static final int OCCURRED_AT = 1 << 1;
+    private static final int SAGA_ID = 1 << 2;
+    private static final int BOOKING_ID = 1 << 3;
+    private static final int ACTION = 1 << 4;
+    private static final int CUSTOMER_ID = 1 << 5;
+    private static final int BOOKING_TYPE = 1 << 6;
+    private static final int TOTAL_AMOUNT = 1 << 7;
+    private static final int FLIGHT_DETAILS = 1 << 8;
+    private static final int HOTEL_DETAILS = 1 << 9;
+    private static final int PAYMENT_DETAILS = 1 << 10;
+    private static final int METADATA = 1 << 11;
+    private static final int RETRY_COUNT = 1 << 12;
+    private static final int CORRELATION_ID = 1 << 13;
+    private static final int CRITICAL_FAILURE = 1 << 14;
+    private static final int COMPENSATION_STRATEGY = 1 << 15;
+    private static final int COMPENSATION_CONTEXT = 1 << 16;
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter detailsWriter;
+    private final ObjectReader contextReader;
+    private final Map<Class<?>, ObjectReader> detailsReaders = new ConcurrentHashMap<>();
+    private final boolean binaryEnabled;
+
+    public SagaCommandCodec(ObjectMapper objectMapper) {
+        this(objectMapper, false);
+    }
+
+    @Autowired
+    public SagaCommandCodec(ObjectMapper objectMapper,
+                            @Value("${saga.command.binary-enabled:false}") boolean binaryEnabled) {
+        this.objectMapper = objectMapper;
+        this.binaryEnabled = binaryEnabled;
+        this.detailsWriter = objectMapper.writer();
+        this.contextReader = objectMapper.readerFor(CompensationContext.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Serialize a command for the command topics: binary once enabled, JSON before that
+     */
+    public byte[] write(SagaCommand command) {
+        if (binaryEnabled) {
+            return encode(command);
+        }
+        try {
+            return objectMapper.writeValueAsBytes(command);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to serialize saga command", e);
+        }
+    }
+
+    public byte[] encode(SagaCommand command) {
+        int presence = presence(command);
+        Output out = new Output(256);
+        out.writeByte(MAGIC_0);
+        out.writeByte(MAGIC_1);
+        out.writeByte(VERSION);
+        out.writeInt(presence);
+
+        if ((presence & EVENT_ID) != 0) out.writeString(command.getEventId());
+        if ((presence & OCCURRED_AT) != 0) {
+            LocalDateTime occurredAt = command.getOccurredAt();
+            out.writeLong(occurredAt.toEpochSecond(ZoneOffset.UTC));
+            out.writeVarInt(occurredAt.getNano());
+        }
+        if ((presence & SAGA_ID) != 0) out.writeString(command.getSagaId());
+        if ((presence & BOOKING_ID) != 0) out.writeUuid(command.getBookingId());
+        if ((presence & ACTION) != 0) out.writeString(command.getAction());
+        if ((presence & CUSTOMER_ID) != 0) out.writeUuid(command.getCustomerId());
+        if ((presence & BOOKING_TYPE) != 0) out.writeString(command.getBookingType());
+        if ((presence & TOTAL_AMOUNT) != 0) {
+            out.writeVarInt(command.getTotalAmount().scale());
+            out.writeBytes(command.getTotalAmount().unscaledValue().toByteArray());
+        }
+        if ((presence & FLIGHT_DETAILS) != 0) out.writeBytes(detailsBytes(command.getFlightDetails()));
+        if ((presence & HOTEL_DETAILS) != 0) out.writeBytes(detailsBytes(command.getHotelDetails()));
+        if ((presence & PAYMENT_DETAILS) != 0) out.writeBytes(detailsBytes(command.getPaymentDetails()));
+        if ((presence & METADATA) != 0) {
+            out.writeVarInt(command.getMetadata().size());
+            command.getMetadata().forEach((key, value) -> {
+                out.writeString(key);
+                out.writeNullableString(value);
+            });
+        }
+        if ((presence & RETRY_COUNT) != 0) out.writeVarInt(command.getRetryCount());
+        if ((presence & CORRELATION_ID) != 0) out.writeString(command.getCorrelationId());
+        if ((presence & CRITICAL_FAILURE) != 0) out.writeByte(Boolean.TRUE.equals(command.getCriticalFailure()) ? 1 : 0);
+        if ((presence & COMPENSATION_STRATEGY) != 0) out.writeString(command.getCompensationStrategy().name());
+        if ((presence & COMPENSATION_CONTEXT) != 0) out.writeBytes(detailsBytes(command.getCompensationContext()));
+        return out.toByteArray();
+    }
+
+    public SagaCommand decode(byte[] payload) {
+        if (payload == null || payload.length == 0) {
+            return null;
+        }
+        if (payload[0] == '{') {
+            return decodeJson(payload);
+        }
+        if (payload.length < 7 || payload[0] != MAGIC_0 || payload[1] != MAGIC_1) {
+            throw new IllegalArgumentException("Not a saga command payload");
+        }
+        byte version = payload[2];
+        if (version != VERSION && version != VERSION_NON_NULL_METADATA) {
+            throw new IllegalArgumentException("Unsupported saga command version " + version);
+        }
+
+        Input in = new Input(payload, 3);
+        int presence = in.readInt();
+        SagaCommand command = new SagaCommand();
+
+        if ((presence & EVENT_ID) != 0) command.setEventId(in.readString());
+        if ((presence & OCCURRED_AT) != 0) {
+            long epochSecond = in.readLong();
+            command.setOccurredAt(LocalDateTime.ofEpochSecond(epochSecond, in.readVarInt(), ZoneOffset.UTC));
+        }
+        if ((presence & SAGA_ID) != 0) command.setSagaId(in.readString());
+        if ((presence & BOOKING_ID) != 0) command.setBookingId(in.readUuid());
+        if ((presence & ACTION) != 0) command.setAction(in.readString());
+        if ((presence & CUSTOMER_ID) != 0) command.setCustomerId(in.readUuid());
+        if ((presence & BOOKING_TYPE) != 0) command.setBookingType(in.readString());
+        if ((presence & TOTAL_AMOUNT) != 0) {
+            int scale = in.readVarInt();
+            command.setTotalAmount(new BigDecimal(new BigInteger(in.readBytes()), scale));
+        }
+        if ((presence & FLIGHT_DETAILS) != 0) command.setFlightDetails(new EncodedDetails(in.readBytes()));
+        if ((presence & HOTEL_DETAILS) != 0) command.setHotelDetails(new EncodedDetails(in.readBytes()));
+        if ((presence & PAYMENT_DETAILS) != 0) command.setPaymentDetails(new EncodedDetails(in.readBytes()));
+        if ((presence & METADATA) != 0) {
+            int size = in.readVarInt();
+            Map<String, String> metadata = new HashMap<>(Math.max(4, size * 2));
+            for (int i = 0; i < size; i++) {
+                String key = in.readString();
+                metadata.put(key, version == VERSION ? in.readNullableString() : in.readString());
+            }
+            command.setMetadata(metadata);
+        }
+        if ((presence & RETRY_COUNT) != 0) command.setRetryCount(in.readVarInt());
+        if ((presence & CORRELATION_ID) != 0) command.setCorrelationId(in.readString());
+        if ((presence & CRITICAL_FAILURE) != 0) command.setCriticalFailure(in.readByte() != 0);
+        if ((presence & COMPENSATION_STRATEGY) != 0) {
+            command.setCompensationStrategy(CompensationStrategy.valueOf(in.readString()));
+        }
+        if ((presence & COMPENSATION_CONTEXT) != 0) {
+            command.setCompensationContext(readJson(contextReader, in.readBytes()));
+        }
+        return command;
+    }
+
+    /**
+     * Binds a details field to the consumer's DTO: one parse for binary commands,
+     * a tree conversion only for legacy JSON commands
+     */
+    public <T> T readDetails(Object details, Class<T> type) {
+        if (details == null) {
+            return null;
+        }
+        if (details instanceof EncodedDetails encoded) {
+            return readJson(detailsReaders.computeIfAbsent(type, objectMapper::readerFor), encoded.json());
+        }
+        if (type.isInstance(details)) {
+            return type.cast(details);
+        }
+        return objectMapper.convertValue(details, type);
+    }
+
+    /**
+     * Details kept as undecoded JSON until the consumer binds them to its own DTO
+     */
+    public record EncodedDetails(byte[] json) {
+
+        @JsonValue
+        public RawValue toJson() {
+            return new RawValue(new String(json, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof EncodedDetails that && Arrays.equals(json, that.json);
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(json);
+        }
+
+        @Override
+        public String toString() {
+            return new String(json, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static int presence(SagaCommand command) {
+        int presence = 0;
+        if (command.getEventId() != null) presence |= EVENT_ID;
+        if (command.getOccurredAt() != null) presence |= OCCURRED_AT;
+        if (command.getSagaId() != null) presence |= SAGA_ID;
+        if (command.getBookingId() != null) presence |= BOOKING_ID;
+        if (command.getAction() != null) presence |= ACTION;
+        if (command.getCustomerId() != null) presence |= CUSTOMER_ID;
+        if (command.getBookingType() != null) presence |= BOOKING_TYPE;
+        if (command.getTotalAmount() != null) presence |= TOTAL_AMOUNT;
+        if (command.getFlightDetails() != null) presence |= FLIGHT_DETAILS;
+        if (command.getHotelDetails() != null) presence |= HOTEL_DETAILS;
+        if (command.getPaymentDetails() != null) presence |= PAYMENT_DETAILS;
+        if (command.getMetadata() != null && !command.getMetadata().isEmpty()) presence |= METADATA;
+        if (command.getRetryCount() != null) presence |= RETRY_COUNT;
+        if (command.getCorrelationId() != null) presence |= CORRELATION_ID;
+        if (command.getCriticalFailure() != null) presence |= CRITICAL_FAILURE;
+        if (command.getCompensationStrategy() != null) presence |= COMPENSATION_STRATEGY;
+        if (command.getCompensationContext() != null) presence |= COMPENSATION_CONTEXT;
+        return presence;
+    }
+
+    private byte[] detailsBytes(Object details) {
+        if (details instanceof EncodedDetails encoded) {
+            return encoded.json();
+        }
+        try {
+            return detailsWriter.writeValueAsBytes(details);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode saga command details", e);
+        }
+    }
+
+    private SagaCommand decodeJson(byte[] payload) {
+        try {
+            return objectMapper.readValue(payload, SagaCommand.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode legacy JSON saga command", e);
+        }
+    }
+
+    private static <T> T readJson(ObjectReader reader, byte[] json) {
+        try {
+            return reader.readValue(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to decode saga command details", e);
+        }
+    }
+
+    private static final class Output {
+        private byte[] buffer;
+        private int position;
+
+        Output(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            buffer[position++] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeLong(long value) {
+            ensure(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (value >>> shift);
+            }
+        }
+
+        void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeBytes(byte[] bytes) {
+            writeVarInt(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeString(String value) {
+            writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        void writeNullableString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void writeUuid(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+
+        private void ensure(int length) {
+            if (position + length > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+            }
+        }
+    }
+
+    private static final class Input {
+        private final byte[] buffer;
+        private int position;
+
+        Input(byte[] buffer, int position) {
+            this.buffer = buffer;
+            this.position = position;
+        }
+
+        byte readByte() {
+            return buffer[position++];
+        }
+
+        int readInt() {
+            int value = 0;
+            for (int i = 0; i < 4; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        long readLong() {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | (buffer[position++] & 0xFF);
+            }
+            return value;
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                byte b = buffer[position++];
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Malformed varint in saga command payload");
+        }
+
+        byte[] readBytes() {
+            int length = readVarInt();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated saga command payload");
+            }
+            byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+            position += length;
+            return bytes;
+        }
+
+        String readString() {
+            int length = readVarInt();
+            if (length < 0 || position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated saga command payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        String readNullableString() {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            if (position + length > buffer.length) {
+                throw new IllegalArgumentException("Truncated saga command payload");
+            }
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        UUID readUuid() {
+            long most = readLong();
+            return new UUID(most, readLong());
+        }
+    }
+}
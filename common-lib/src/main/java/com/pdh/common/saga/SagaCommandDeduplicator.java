@@ -0,0 +1,105 @@
+package com.pdh.common.saga;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Makes saga command handling effectively-once on top of at-least-once delivery.
+ * The command key (sagaId + action + the command's eventId) is inserted into processed_saga_commands
+ * in the same transaction as the handler: a redelivered command costs one primary-key lookup and is
+ * skipped, a command the orchestrator issues again carries a new eventId and runs again, and a failed
+ * handler rolls the key back so the command can be retried.
+ * The table comes from db/changelog/common/processed-saga-commands.sql, included by each service's
+ * changelog; services opt in with saga.command-dedup.enabled.
+ */
+@Component
+@Slf4j
+public class SagaCommandDeduplicator {
+
+    private static final String CLAIM_SQL =
+        "INSERT INTO processed_saga_commands (command_key, saga_id, action, command_id, processed_at) " +
+            "VALUES (?, ?, ?, ?, now()) ON CONFLICT (command_key) DO NOTHING";
+
+    private static final String PURGE_SQL =
+        "DELETE FROM processed_saga_commands WHERE command_key IN (" +
+            "SELECT command_key FROM processed_saga_commands WHERE processed_at < ? LIMIT ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long ttlHours;
+    private final int purgeBatchSize;
+
+    public SagaCommandDeduplicator(JdbcTemplate jdbcTemplate,
+                                   TransactionTemplate transactionTemplate,
+                                   @Value("${saga.command-dedup.enabled:false}") boolean enabled,
+                                   @Value("${saga.command-dedup.ttl-hours:168}") long ttlHours,
+                                   @Value("${saga.command-dedup.purge-batch-size:1000}") int purgeBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.ttlHours = ttlHours;
+        this.purgeBatchSize = purgeBatchSize;
+    }
+
+    /**
+     * Runs the handler in a transaction unless the same command was already processed
+     *
+     * @return false when the command is a duplicate and the handler was skipped
+     */
+    public boolean executeOnce(SagaCommand command, Runnable handler) {
+        Boolean executed = transactionTemplate.execute(status -> {
+            if (enabled && !claim(command)) {
+                return false;
+            }
+            handler.run();
+            return true;
+        });
+        if (!Boolean.TRUE.equals(executed)) {
+            log.info("Skipping duplicate saga command: sagaId={} action={} eventId={}",
+                command.getSagaId(), command.getAction(), command.getEventId());
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${saga.command-dedup.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        if (!enabled) {
+            return;
+        }
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusHours(ttlHours));
+        int purged;
+        int total = 0;
+        do {
+            purged = jdbcTemplate.update(PURGE_SQL, cutoff, purgeBatchSize);
+            total += purged;
+        } while (purged == purgeBatchSize);
+        if (total > 0) {
+            log.debug("Purged {} processed saga command keys older than {}h", total, ttlHours);
+        }
+    }
+
+    private boolean claim(SagaCommand command) {
+        if (command.getSagaId() == null || command.getAction() == null) {
+            return true;
+        }
+        return jdbcTemplate.update(CLAIM_SQL, commandKey(command), command.getSagaId(), command.getAction(),
+            command.getEventId()) == 1;
+    }
+
+    /**
+     * sagaId:action:eventId; commands without an eventId fall back to sagaId:action
+     */
+    static String commandKey(SagaCommand command) {
+        String key = command.getSagaId() + ":" + command.getAction();
+        return command.getEventId() != null ? key + ":" + command.getEventId() : key;
+    }
+}
@@ -0,0 +1,24 @@
+-- liquibase formatted sql
+
+-- changeset pdh:20261017-05-processed-saga-commands
+-- comment: Keys of handled saga commands so redelivered commands are skipped
+CREATE TABLE IF NOT EXISTS processed_saga_commands
+(
+    command_key  VARCHAR(160)                NOT NULL,
+    saga_id      VARCHAR(100)                NOT NULL,
+    action       VARCHAR(50)                 NOT NULL,
+    processed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_processed_saga_commands PRIMARY KEY (command_key)
+);
+-- rollback DROP TABLE IF EXISTS processed_saga_commands;
+
+-- changeset pdh:20261017-06-processed-saga-commands-ttl-index
+-- comment: Range index for the TTL purge of processed saga command keys
+CREATE INDEX IF NOT EXISTS idx_processed_saga_commands_processed_at ON processed_saga_commands (processed_at);
+-- rollback DROP INDEX IF EXISTS idx_processed_saga_commands_processed_at;
+
+-- changeset pdh:20261017-07-processed-saga-commands-command-id
+-- comment: Key handled commands by their message id as well, so a re-issued command is not mistaken for a redelivery
+ALTER TABLE processed_saga_commands ALTER COLUMN command_key TYPE VARCHAR(255);
+ALTER TABLE processed_saga_commands ADD COLUMN IF NOT EXISTS command_id VARCHAR(100);
+-- rollback ALTER TABLE processed_saga_commands DROP COLUMN IF EXISTS command_id;
@@ -0,0 +1,79 @@
+package com.pdh.common.kafka.config;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class KafkaListenerProfilesTest {
+
+    private final KafkaListenerProfiles profiles = new KafkaListenerProfiles();
+
+    @Test
+    void builtInProfilesApplyWithoutConfiguration() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+            profiles.apply(KafkaListenerProfiles.THROUGHPUT, new ConcurrentKafkaListenerContainerFactory<>());
+
+        assertThat(factory.isBatchListener()).isTrue();
+        assertThat(factory.getContainerProperties().getAckMode()).isEqualTo(ContainerProperties.AckMode.BATCH);
+        Properties consumer = factory.getContainerProperties().getKafkaConsumerProperties();
+        assertThat(consumer.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)).isEqualTo("500");
+        assertThat(consumer.getProperty(ConsumerConfig.FETCH_MIN_BYTES_CONFIG)).isEqualTo("65536");
+        assertThat(consumer.getProperty(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG)).isEqualTo("200");
+    }
+
+    @Test
+    void strictProfileKeepsRecordListenerAndLeavesFetchDefaults() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+            profiles.apply(KafkaListenerProfiles.STRICT, new ConcurrentKafkaListenerContainerFactory<>());
+
+        assertThat(factory.isBatchListener()).isFalse();
+        assertThat(factory.getContainerProperties().getAckMode())
+            .isEqualTo(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
+        Properties consumer = factory.getContainerProperties().getKafkaConsumerProperties();
+        assertThat(consumer.getProperty(ConsumerConfig.MAX_POLL_RECORDS_CONFIG)).isEqualTo("50");
+        assertThat(consumer).doesNotContainKeys(
+            ConsumerConfig.FETCH_MIN_BYTES_CONFIG, ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG);
+    }
+
+    @Test
+    void configuredFieldsOverrideAndUnsetFieldsFallBackToTheBuiltIn() {
+        KafkaListenerProfiles.Profile configured = new KafkaListenerProfiles.Profile();
+        configured.setConcurrency(6);
+        configured.setMaxPollRecords(1000);
+        profiles.getProfiles().put(KafkaListenerProfiles.THROUGHPUT, configured);
+
+        KafkaListenerProfiles.Profile profile = profiles.profile(KafkaListenerProfiles.THROUGHPUT);
+
+        assertThat(profile.getConcurrency()).isEqualTo(6);
+        assertThat(profile.getMaxPollRecords()).isEqualTo(1000);
+        assertThat(profile.getBatch()).isTrue();
+        assertThat(profile.getAckMode()).isEqualTo(ContainerProperties.AckMode.BATCH);
+        assertThat(profile.getFetchMinBytes()).isEqualTo(65536);
+    }
+
+    @Test
+    void customProfileNeedsNoBuiltIn() {
+        KafkaListenerProfiles.Profile custom = new KafkaListenerProfiles.Profile();
+        custom.setBatch(true);
+        profiles.getProfiles().put("reporting", custom);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> factory =
+            profiles.apply("reporting", new ConcurrentKafkaListenerContainerFactory<>());
+
+        assertThat(factory.isBatchListener()).isTrue();
+        assertThat(factory.getContainerProperties().getKafkaConsumerProperties()).isEmpty();
+    }
+
+    @Test
+    void unknownProfileIsRejected() {
+        assertThatThrownBy(() -> profiles.profile("fast"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("fast");
+    }
+}
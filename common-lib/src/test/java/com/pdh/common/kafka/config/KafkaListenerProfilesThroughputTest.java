@@ -0,0 +1,118 @@
+package com.pdh.common.kafka.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.BatchMessageListener;
+import org.springframework.kafka.listener.ConcurrentMessageListenerContainer;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.MessageListener;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.kafka.KafkaContainer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Consumption benchmark for the listener profiles: the same backlog read with a per-record listener
+ * and committed offsets per record, then with the throughput profile. Both must see every record;
+ * the elapsed times are logged for comparison, not asserted.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+class KafkaListenerProfilesThroughputTest {
+
+    private static final String TOPIC = "profiles-throughput";
+    private static final int PARTITIONS = 3;
+    private static final int RECORDS = 30_000;
+
+    @Container
+    static KafkaContainer kafka = new KafkaContainer("apache/kafka:3.9.1");
+
+    @BeforeAll
+    static void fillTopic() throws Exception {
+        try (AdminClient admin = AdminClient.create(
+                Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers()))) {
+            admin.createTopics(List.of(new NewTopic(TOPIC, PARTITIONS, (short) 1))).all().get();
+        }
+        try (KafkaProducer<String, String> producer = new KafkaProducer<>(Map.of(
+                ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+                ProducerConfig.LINGER_MS_CONFIG, 20),
+                new StringSerializer(), new StringSerializer())) {
+            String payload = "{\"op\":\"u\",\"after\":{\"id\":\"" + UUID.randomUUID() + "\",\"available\":12}}";
+            for (int i = 0; i < RECORDS; i++) {
+                producer.send(new ProducerRecord<>(TOPIC, "key-" + (i % 1000), payload));
+            }
+            producer.flush();
+        }
+    }
+
+    @Test
+    void throughputProfileReadsTheBacklogInFewerListenerCalls() throws Exception {
+        ConcurrentKafkaListenerContainerFactory<String, String> recordFactory = factory();
+        recordFactory.setConcurrency(PARTITIONS);
+        recordFactory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
+        AtomicInteger recordCalls = new AtomicInteger();
+        long recordMillis = consume(recordFactory, (MessageListener<String, String>) record -> recordCalls.incrementAndGet(),
+            recordCalls);
+
+        ConcurrentKafkaListenerContainerFactory<String, String> batchFactory =
+            new KafkaListenerProfiles().apply(KafkaListenerProfiles.THROUGHPUT, factory());
+        AtomicInteger batchRecords = new AtomicInteger();
+        AtomicInteger batchCalls = new AtomicInteger();
+        long batchMillis = consume(batchFactory, (BatchMessageListener<String, String>) records -> {
+            batchCalls.incrementAndGet();
+            batchRecords.addAndGet(records.size());
+        }, batchRecords);
+
+        log.info("Consumed {} records: per-record listener {} ms in {} calls, throughput profile {} ms in {} calls",
+            RECORDS, recordMillis, recordCalls.get(), batchMillis, batchCalls.get());
+        assertThat(recordCalls).hasValue(RECORDS);
+        assertThat(batchRecords).hasValue(RECORDS);
+        assertThat(batchCalls.get()).isLessThan(RECORDS / 50);
+    }
+
+    private long consume(ConcurrentKafkaListenerContainerFactory<String, String> factory, Object listener,
+                         AtomicInteger consumed) throws InterruptedException {
+        ConcurrentMessageListenerContainer<String, String> container = factory.createContainer(TOPIC);
+        container.getContainerProperties().setGroupId("profiles-" + UUID.randomUUID());
+        container.getContainerProperties().setMessageListener(listener);
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.MINUTES.toNanos(2);
+        container.start();
+        try {
+            while (consumed.get() < RECORDS && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+        } finally {
+            container.stop();
+        }
+    }
+
+    private static ConcurrentKafkaListenerContainerFactory<String, String> factory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(Map.of(
+            ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, kafka.getBootstrapServers(),
+            ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest"),
+            new StringDeserializer(), new StringDeserializer()));
+        return factory;
+    }
+}
@@ -0,0 +1,97 @@
+package com.pdh.common.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Redis memory held by live locks: LIVE_LOCKS seat locks taken in saga-sized batches, with the used
+ * memory before and after and the size of one lock's keys logged for comparison, not asserted.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+class RedisDistributedLockFootprintTest {
+
+    private static final int LIVE_LOCKS = 100_000;
+    private static final int LOCKS_PER_SAGA = 50;
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    @Test
+    void memoryPerLiveLock() {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        try {
+            RedisTemplate<String, Object> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setKeySerializer(new StringRedisSerializer());
+            redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+            redisTemplate.afterPropertiesSet();
+            RedisDistributedLockManager lockManager = new RedisDistributedLockManager(redisTemplate);
+
+            long before = usedMemory(redisTemplate);
+            long start = System.nanoTime();
+            DistributedLock sample = null;
+            for (int saga = 0; saga < LIVE_LOCKS / LOCKS_PER_SAGA; saga++) {
+                List<LockRequest> requests = new ArrayList<>(LOCKS_PER_SAGA);
+                for (int i = 0; i < LOCKS_PER_SAGA; i++) {
+                    requests.add(LockRequest.of("schedule-" + (saga * LOCKS_PER_SAGA + i) + ":ECONOMY",
+                        LockResourceType.SEAT, 1));
+                }
+                List<DistributedLock> locks = lockManager.acquireLocks(requests, "saga-" + saga,
+                    Duration.ofMinutes(15)).orElseThrow();
+                sample = locks.get(0);
+            }
+            long acquireNanos = System.nanoTime() - start;
+            long after = usedMemory(redisTemplate);
+
+            assertThat(lockManager.getLockStatistics().getTotalActiveLocks()).isEqualTo(LIVE_LOCKS);
+            // the index hash names every per-lock key the scripts wrote for the lock
+            String indexKey = "{lock}lock_index:" + sample.getLockId();
+            long sampleKeys = redisTemplate.execute((RedisCallback<Long>) connection -> {
+                long bytes = memoryUsage(connection, indexKey);
+                for (byte[] key : connection.hashCommands().hMGet(indexKey.getBytes(),
+                        "lockKey".getBytes(), "resourceKey".getBytes(), "resourceIndexKey".getBytes())) {
+                    bytes += key != null ? memoryUsage(connection, new String(key)) : 0;
+                }
+                return bytes;
+            });
+            log.info("{} live locks: {} bytes of Redis memory per lock ({} MB total), lock hash and index "
+                    + "keys of one lock {} bytes; acquired at {} us per lock",
+                LIVE_LOCKS, (after - before) / LIVE_LOCKS, (after - before) / (1024 * 1024), sampleKeys,
+                acquireNanos / 1_000 / LIVE_LOCKS);
+        } finally {
+            connectionFactory.destroy();
+        }
+    }
+
+    private static long usedMemory(RedisTemplate<String, Object> redisTemplate) {
+        Properties info = redisTemplate.execute((RedisCallback<Properties>) connection ->
+            connection.serverCommands().info("memory"));
+        return Long.parseLong(info.getProperty("used_memory"));
+    }
+
+    private static long memoryUsage(RedisConnection connection, String key) {
+        Object usage = connection.execute("MEMORY", "USAGE".getBytes(), key.getBytes());
+        return usage instanceof Long bytes ? bytes : 0;
+    }
+}
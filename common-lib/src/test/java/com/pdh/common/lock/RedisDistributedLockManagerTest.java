@@ -0,0 +1,161 @@
+package com.pdh.common.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class RedisDistributedLockManagerTest {
+
+    private static final int BENCHMARK_LOCKS = 100_000;
+
+    private final RedisDistributedLockManager lockManager = new RedisDistributedLockManager(null);
+
+    @Test
+    void lockIdsShareTheInstancePrefixAndIncrease() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(lockManager.generateLockId());
+        }
+
+        String prefix = ids.get(0).substring(0, ids.get(0).lastIndexOf('_') + 1);
+        assertThat(prefix).startsWith("redis_lock_");
+        assertThat(ids).allSatisfy(id -> assertThat(id).startsWith(prefix));
+
+        long previous = -1;
+        for (String id : ids) {
+            long sequence = Long.parseLong(id.substring(prefix.length()), 36);
+            assertThat(sequence).isGreaterThan(previous);
+            previous = sequence;
+        }
+    }
+
+    @Test
+    void lockIdsAreUniqueAcrossThreads() throws Exception {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 1000; i++) {
+                        ids.add(lockManager.generateLockId());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(ids).hasSize(8000);
+    }
+
+    @Test
+    void locksAreBuiltFromFlatHmgetFields() {
+        Instant acquiredAt = Instant.ofEpochMilli(1_760_000_000_000L);
+        Instant expiresAt = acquiredAt.plusSeconds(900);
+        List<String> fields = Arrays.asList(
+            "lock-1", "saga-1", "schedule-1:ECONOMY", "SEAT", "2",
+            String.valueOf(acquiredAt.toEpochMilli()), String.valueOf(expiresAt.toEpochMilli()),
+            // a lock that expired between ZRANGE and HMGET comes back as all nils and is skipped
+            null, null, null, null, null, null, null,
+            "lock-2", "saga-1", "room-7:2026-10-20", "ROOM", "1",
+            String.valueOf(acquiredAt.toEpochMilli()), String.valueOf(expiresAt.toEpochMilli()));
+
+        List<DistributedLock> locks = RedisDistributedLockManager.toLocks(fields);
+
+        assertThat(locks).extracting(DistributedLock::getLockId).containsExactly("lock-1", "lock-2");
+        DistributedLock seat = locks.get(0);
+        assertThat(seat.getOwner()).isEqualTo("saga-1");
+        assertThat(seat.getResource()).isEqualTo("schedule-1:ECONOMY");
+        assertThat(seat.getResourceType()).isEqualTo(LockResourceType.SEAT);
+        assertThat(seat.getQuantity()).isEqualTo(2);
+        assertThat(seat.getAcquiredAt()).isEqualTo(acquiredAt);
+        assertThat(seat.getExpiresAt()).isEqualTo(expiresAt);
+        assertThat(seat.getStatus()).isEqualTo(LockStatus.ACQUIRED);
+    }
+
+    @Test
+    void missingOptionalFieldsFallBackToDefaults() {
+        List<DistributedLock> locks = RedisDistributedLockManager.toLocks(
+            Arrays.asList("lock-1", "saga-1", "booking-1", null, null, null, null));
+
+        assertThat(locks).singleElement().satisfies(lock -> {
+            assertThat(lock.getResourceType()).isNull();
+            assertThat(lock.getQuantity()).isEqualTo(1);
+            assertThat(lock.getAcquiredAt()).isNull();
+            assertThat(lock.getExpiresAt()).isNull();
+        });
+    }
+
+    /**
+     * Encode and decode cost per lock, logged rather than asserted: lock id generation next to a random
+     * UUID, and building locks from the HMGET fields of a full read of BENCHMARK_LOCKS locks.
+     */
+    @Test
+    void lockIdEncodeAndDecodeCost() {
+        List<String> fields = new ArrayList<>(BENCHMARK_LOCKS * 7);
+        String acquiredAt = String.valueOf(Instant.now().toEpochMilli());
+        String expiresAt = String.valueOf(Instant.now().plusSeconds(900).toEpochMilli());
+        for (int i = 0; i < BENCHMARK_LOCKS; i++) {
+            fields.addAll(List.of(lockManager.generateLockId(), "saga-" + (i / 100), "schedule-" + i + ":ECONOMY",
+                "SEAT", "1", acquiredAt, expiresAt));
+        }
+        for (int warmup = 0; warmup < 3; warmup++) {
+            encode(BENCHMARK_LOCKS);
+            RedisDistributedLockManager.toLocks(fields);
+        }
+
+        long start = System.nanoTime();
+        long idChars = encode(BENCHMARK_LOCKS);
+        long encodeNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        long uuidChars = 0;
+        for (int i = 0; i < BENCHMARK_LOCKS; i++) {
+            uuidChars += UUID.randomUUID().toString().length();
+        }
+        long uuidNanos = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        List<DistributedLock> locks = RedisDistributedLockManager.toLocks(fields);
+        long decodeNanos = System.nanoTime() - start;
+
+        assertThat(locks).hasSize(BENCHMARK_LOCKS);
+        assertThat(idChars).isLessThan(uuidChars);
+        log.info("Lock ids: {} ns and {} chars per id, random UUID {} ns and {} chars; decode {} ns per lock",
+            encodeNanos / BENCHMARK_LOCKS, idChars / BENCHMARK_LOCKS, uuidNanos / BENCHMARK_LOCKS,
+            uuidChars / BENCHMARK_LOCKS, decodeNanos / BENCHMARK_LOCKS);
+    }
+
+    private long encode(int count) {
+        long chars = 0;
+        for (int i = 0; i < count; i++) {
+            chars += lockManager.generateLockId().length();
+        }
+        return chars;
+    }
+
+    @Test
+    void subMillisecondTimeoutsNeverBecomeAZeroTtl() {
+        assertThat(RedisDistributedLockManager.ttlMillis(Duration.ofNanos(500))).isEqualTo(1);
+        assertThat(RedisDistributedLockManager.ttlMillis(Duration.ofMillis(250))).isEqualTo(250);
+        assertThat(RedisDistributedLockManager.ttlMillis(Duration.ofMinutes(15))).isEqualTo(900_000);
+    }
+}
@@ -0,0 +1,165 @@
+package com.pdh.common.lock;
+
+import io.lettuce.core.cluster.SlotHash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The Lua scripts of {@link RedisDistributedLockManager} against a real Redis: a multi-resource request
+ * takes all of its locks or none, the resource counter is given back exactly once per lock whether it is
+ * released, expires or is swept, and every key the scripts touch hashes to one cluster slot.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RedisDistributedLockScriptTest {
+
+    private static final String SEAT = "schedule-1:ECONOMY";
+    private static final String BOOKING = "booking-1";
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+    private RedisTemplate<String, Object> redisTemplate;
+    private RedisDistributedLockManager lockManager;
+
+    @BeforeEach
+    void connect() {
+        connectionFactory = new LettuceConnectionFactory(
+            new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(new StringRedisSerializer());
+        redisTemplate.setValueSerializer(new GenericJackson2JsonRedisSerializer());
+        redisTemplate.afterPropertiesSet();
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+
+        lockManager = new RedisDistributedLockManager(redisTemplate);
+    }
+
+    @AfterEach
+    void disconnect() {
+        connectionFactory.destroy();
+    }
+
+    @Test
+    void releaseGivesTheQuantityBackOnce() {
+        DistributedLock first = acquire(SEAT, LockResourceType.SEAT, 2, Duration.ofMinutes(1)).get(0);
+        acquire(SEAT, LockResourceType.SEAT, 3, Duration.ofMinutes(1));
+        assertThat(lockManager.isResourceLocked(SEAT, LockResourceType.SEAT, 5)).isTrue();
+
+        assertThat(lockManager.releaseLock(first.getLockId(), "saga-1")).isTrue();
+        assertThat(lockManager.releaseLock(first.getLockId(), "saga-1")).isFalse();
+
+        assertThat(lockManager.isResourceLocked(SEAT, LockResourceType.SEAT, 3)).isTrue();
+        assertThat(lockManager.isResourceLocked(SEAT, LockResourceType.SEAT, 4)).isFalse();
+    }
+
+    @Test
+    void expiredHolderIsPrunedOnReadAndNotGivenBackAgainOnRelease() throws InterruptedException {
+        DistributedLock expired = acquire(BOOKING, LockResourceType.BOOKING, 1, Duration.ofMillis(200)).get(0);
+        Thread.sleep(400);
+
+        assertThat(lockManager.isResourceAvailable(BOOKING, LockResourceType.BOOKING, 1)).isTrue();
+        acquire(BOOKING, LockResourceType.BOOKING, 1, Duration.ofMinutes(1));
+
+        assertThat(lockManager.releaseLock(expired.getLockId(), "saga-1")).isFalse();
+        assertThat(lockManager.isResourceLocked(BOOKING, LockResourceType.BOOKING, 1)).isTrue();
+        assertThat(lockManager.isResourceAvailable(BOOKING, LockResourceType.BOOKING, 1)).isFalse();
+    }
+
+    @Test
+    void extendedLockStaysCounted() throws InterruptedException {
+        DistributedLock lock = acquire(BOOKING, LockResourceType.BOOKING, 1, Duration.ofMillis(300)).get(0);
+
+        assertThat(lockManager.extendLock(lock.getLockId(), "saga-1", Duration.ofMinutes(1))).isTrue();
+        Thread.sleep(500);
+
+        assertThat(lockManager.isResourceAvailable(BOOKING, LockResourceType.BOOKING, 1)).isFalse();
+        assertThat(lockManager.getLocksForResource(BOOKING, LockResourceType.BOOKING))
+            .extracting(DistributedLock::getLockId).containsExactly(lock.getLockId());
+    }
+
+    @Test
+    void sweepDropsExpiredLocksAndTheirIndexEntries() throws InterruptedException {
+        acquire(SEAT, LockResourceType.SEAT, 4, Duration.ofMillis(200));
+        acquire(SEAT, LockResourceType.SEAT, 1, Duration.ofMinutes(1));
+        Thread.sleep(400);
+
+        assertThat(lockManager.cleanupExpiredLocks()).isEqualTo(1);
+
+        assertThat(lockManager.getLockStatistics().getTotalActiveLocks()).isEqualTo(1);
+        assertThat(lockManager.getLockStatistics().getTotalExpiredLocks()).isZero();
+        assertThat(lockManager.isResourceLocked(SEAT, LockResourceType.SEAT, 1)).isTrue();
+        assertThat(lockManager.isResourceLocked(SEAT, LockResourceType.SEAT, 2)).isFalse();
+        assertThat(lockManager.getLocksByOwner("saga-1")).hasSize(1);
+    }
+
+    @Test
+    void partialContentionAcquiresNothing() {
+        String room = "room-7:2026-12-20";
+        lockManager.acquireLocks(List.of(LockRequest.of(room, LockResourceType.ROOM, 49)), "saga-2",
+            Duration.ofMinutes(1)).orElseThrow();
+        Set<String> keysBefore = redisTemplate.keys("*");
+
+        // the booking and seat locks have room, the last request pushes the room type past its capacity of 50
+        assertThat(lockManager.acquireLocks(List.of(
+                LockRequest.of(BOOKING, LockResourceType.BOOKING, 1),
+                LockRequest.of(SEAT, LockResourceType.SEAT, 2),
+                LockRequest.of(room, LockResourceType.ROOM, 2)),
+            "saga-1", Duration.ofMinutes(1))).isEmpty();
+
+        assertThat(redisTemplate.keys("*")).isEqualTo(keysBefore);
+        assertThat(lockManager.getLocksByOwner("saga-1")).isEmpty();
+        assertThat(lockManager.isResourceAvailable(BOOKING, LockResourceType.BOOKING, 1)).isTrue();
+        assertThat(lockManager.isResourceLocked(SEAT, LockResourceType.SEAT, 1)).isFalse();
+        assertThat(lockManager.isResourceLocked(room, LockResourceType.ROOM, 49)).isTrue();
+        assertThat(lockManager.isResourceLocked(room, LockResourceType.ROOM, 50)).isFalse();
+
+        // the same request within capacity takes every lock
+        assertThat(lockManager.acquireLocks(List.of(
+                LockRequest.of(BOOKING, LockResourceType.BOOKING, 1),
+                LockRequest.of(SEAT, LockResourceType.SEAT, 2),
+                LockRequest.of(room, LockResourceType.ROOM, 1)),
+            "saga-1", Duration.ofMinutes(1))).hasValueSatisfying(locks -> assertThat(locks).hasSize(3));
+        assertThat(lockManager.isResourceLocked(room, LockResourceType.ROOM, 50)).isTrue();
+    }
+
+    @Test
+    void everyKeyHashesToOneClusterSlot() {
+        DistributedLock lock = acquire(SEAT, LockResourceType.SEAT, 1, Duration.ofMinutes(1)).get(0);
+        acquire("room-7:2026-12-20", LockResourceType.ROOM, 1, Duration.ofMinutes(1));
+        lockManager.extendLock(lock.getLockId(), "saga-1", Duration.ofMinutes(2));
+
+        Set<String> keys = redisTemplate.keys("*");
+
+        assertThat(keys).isNotEmpty().allSatisfy(key -> assertThat(key).startsWith("{lock}"));
+        assertThat(keys.stream().map(SlotHash::getSlot).distinct()).hasSize(1);
+    }
+
+    private List<DistributedLock> acquire(String resource, LockResourceType type, int quantity, Duration timeout) {
+        return lockManager.acquireLocks(List.of(LockRequest.of(resource, type, quantity)), "saga-1", timeout)
+            .orElseThrow();
+    }
+}
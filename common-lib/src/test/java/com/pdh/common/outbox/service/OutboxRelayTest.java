@@ -0,0 +1,24 @@
+package com.pdh.common.outbox.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayTest {
+
+    @Test
+    void keyIsWrittenAsAJsonStringLikeTheCdcConnector() {
+        assertThat(OutboxRelay.jsonKey("3f2b8c1e-7d4a-4e0b-9a55-0c1d2e3f4a5b"))
+            .isEqualTo("\"3f2b8c1e-7d4a-4e0b-9a55-0c1d2e3f4a5b\"");
+    }
+
+    @Test
+    void keyEscapesJsonSpecialCharacters() {
+        assertThat(OutboxRelay.jsonKey("a\"b\\c")).isEqualTo("\"a\\\"b\\\\c\"");
+    }
+
+    @Test
+    void missingKeyStaysNull() {
+        assertThat(OutboxRelay.jsonKey(null)).isNull();
+    }
+}
@@ -0,0 +1,207 @@
+package com.pdh.common.saga;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompensationHandlerTest {
+
+    private final Map<String, InMemoryStore.Entry> table = new ConcurrentHashMap<>();
+    private final InMemoryStore store = new InMemoryStore(table);
+    private final List<CompensationHandler> handlers = new ArrayList<>();
+    private final CompensationHandler handler = handler(store);
+
+    @AfterEach
+    void shutdown() {
+        handlers.forEach(CompensationHandler::shutdown);
+    }
+
+    @Test
+    void pendingEntryWaitsForItsExecutorAndResumesOnRegistration() throws Exception {
+        CompensationContext context = pending("saga-1", "RESERVE_FLIGHT");
+        store.abandon(context, Instant.now());
+        RecordingExecutor executor = new RecordingExecutor(1);
+
+        handler.resumePendingCompensations();
+        assertThat(executor.retried.await(200, TimeUnit.MILLISECONDS)).isFalse();
+
+        handler.registerExecutor("RESERVE_FLIGHT", executor);
+
+        assertThat(executor.retried.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitRemoved(context);
+    }
+
+    @Test
+    void executorRegisteredAtStartupResumesWhenReady() throws Exception {
+        CompensationContext context = pending("saga-2", "PROCESS_PAYMENT");
+        store.abandon(context, Instant.now().minusSeconds(30));
+        RecordingExecutor executor = new RecordingExecutor(1);
+        handler.registerExecutor("PROCESS_PAYMENT", executor);
+
+        handler.resumePendingCompensations();
+
+        assertThat(executor.retried.await(5, TimeUnit.SECONDS)).isTrue();
+        awaitRemoved(context);
+    }
+
+    @Test
+    void entriesOfOtherOperationsKeepWaiting() throws Exception {
+        store.abandon(pending("saga-3", "RESERVE_HOTEL"), Instant.now());
+        RecordingExecutor flightExecutor = new RecordingExecutor(1);
+
+        handler.resumePendingCompensations();
+        handler.registerExecutor("RESERVE_FLIGHT", flightExecutor);
+
+        assertThat(flightExecutor.retried.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(table).hasSize(1);
+    }
+
+    @Test
+    void entriesLeasedByALiveInstanceAreNotClaimed() throws Exception {
+        CompensationContext context = pending("saga-4", "RESERVE_FLIGHT");
+        new InMemoryStore(table).save(context, Instant.now());
+        RecordingExecutor executor = new RecordingExecutor(1);
+        handler.registerExecutor("RESERVE_FLIGHT", executor);
+
+        handler.resumePendingCompensations();
+
+        assertThat(executor.retried.await(200, TimeUnit.MILLISECONDS)).isFalse();
+        assertThat(table).containsKey(InMemoryStore.key(context));
+    }
+
+    @Test
+    void twoHandlersResumingTheSameStoreRunEachRetryOnce() throws Exception {
+        int entries = 50;
+        for (int i = 0; i < entries; i++) {
+            store.abandon(pending("saga-shared-" + i, "RESERVE_FLIGHT"), Instant.now());
+        }
+        CompensationHandler other = handler(new InMemoryStore(table));
+        RecordingExecutor executor = new RecordingExecutor(entries);
+        handler.registerExecutor("RESERVE_FLIGHT", executor);
+        other.registerExecutor("RESERVE_FLIGHT", executor);
+
+        Thread first = Thread.ofVirtual().start(handler::resumePendingCompensations);
+        Thread second = Thread.ofVirtual().start(other::resumePendingCompensations);
+        first.join();
+        second.join();
+
+        assertThat(executor.retried.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(200);
+        assertThat(executor.retries.values()).hasSize(entries).allSatisfy(count -> assertThat(count).hasValue(1));
+    }
+
+    private CompensationHandler handler(PendingCompensationStore pendingStore) {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("pendingCompensationStore", pendingStore);
+        CompensationHandler created = new CompensationHandler(beans.getBeanProvider(PendingCompensationStore.class),
+            beans.getBeanProvider(MeterRegistry.class));
+        handlers.add(created);
+        return created;
+    }
+
+    private void awaitRemoved(CompensationContext context) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (table.containsKey(InMemoryStore.key(context)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(table).doesNotContainKey(InMemoryStore.key(context));
+    }
+
+    private static CompensationContext pending(String sagaId, String operation) {
+        return CompensationContext.builder()
+            .sagaId(sagaId)
+            .failedOperation(operation)
+            .strategy(CompensationStrategy.RETRY_THEN_COMPENSATE)
+            .retryCount(1)
+            .build();
+    }
+
+    private static class RecordingExecutor implements CompensationHandler.CompensationExecutor {
+        private final CountDownLatch retried;
+        private final Map<String, AtomicInteger> retries = new ConcurrentHashMap<>();
+
+        RecordingExecutor(int expected) {
+            this.retried = new CountDownLatch(expected);
+        }
+
+        @Override
+        public boolean compensate(CompensationContext context) {
+            return true;
+        }
+
+        @Override
+        public boolean retry(CompensationContext context) {
+            retries.computeIfAbsent(context.getSagaId(), sagaId -> new AtomicInteger()).incrementAndGet();
+            retried.countDown();
+            return true;
+        }
+    }
+
+    /**
+     * One instance's view of a shared table, leasing entries the way the JDBC store does
+     */
+    private static class InMemoryStore implements PendingCompensationStore {
+        private static final Duration LEASE = Duration.ofMinutes(5);
+
+        private final Map<String, Entry> table;
+
+        InMemoryStore(Map<String, Entry> table) {
+            this.table = table;
+        }
+
+        static String key(CompensationContext context) {
+            return context.getSagaId() + ":" + context.getFailedOperation();
+        }
+
+        /**
+         * Entry left behind by an instance whose lease has expired
+         */
+        void abandon(CompensationContext context, Instant dueAt) {
+            table.put(key(context), new Entry(new PendingCompensation(context, dueAt), Instant.EPOCH));
+        }
+
+        @Override
+        public void save(CompensationContext context, Instant dueAt) {
+            table.put(key(context), new Entry(new PendingCompensation(context, dueAt), dueAt.plus(LEASE)));
+        }
+
+        @Override
+        public void remove(CompensationContext context) {
+            table.remove(key(context));
+        }
+
+        @Override
+        public List<PendingCompensation> claim(Collection<String> operations) {
+            synchronized (table) {
+                Instant now = Instant.now();
+                List<PendingCompensation> claimed = new ArrayList<>();
+                table.replaceAll((key, entry) -> {
+                    if (!operations.contains(entry.pending().context().getFailedOperation())
+                            || entry.leaseUntil().isAfter(now)) {
+                        return entry;
+                    }
+                    claimed.add(entry.pending());
+                    return new Entry(entry.pending(), entry.pending().dueAt().plus(LEASE));
+                });
+                return claimed;
+            }
+        }
+
+        record Entry(PendingCompensation pending, Instant leaseUntil) {
+        }
+    }
+}
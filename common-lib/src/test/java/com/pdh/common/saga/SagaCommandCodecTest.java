@@ -0,0 +1,163 @@
+package com.pdh.common.saga;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Slf4j
+class SagaCommandCodecTest {
+
+    private static final int BENCHMARK_COMMANDS = 5_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SagaCommandCodec jsonCodec = new SagaCommandCodec(objectMapper);
+    private final SagaCommandCodec binaryCodec = new SagaCommandCodec(objectMapper, true);
+
+    @Test
+    void binaryRoundTripKeepsEveryField() {
+        SagaCommand command = reserveFlight();
+
+        SagaCommand decoded = binaryCodec.decode(binaryCodec.encode(command));
+
+        assertThat(decoded.getEventId()).isEqualTo(command.getEventId());
+        assertThat(decoded.getOccurredAt()).isEqualTo(command.getOccurredAt());
+        assertThat(decoded.getSagaId()).isEqualTo(command.getSagaId());
+        assertThat(decoded.getBookingId()).isEqualTo(command.getBookingId());
+        assertThat(decoded.getAction()).isEqualTo("RESERVE_FLIGHT");
+        assertThat(decoded.getCustomerId()).isEqualTo(command.getCustomerId());
+        assertThat(decoded.getBookingType()).isEqualTo("FLIGHT");
+        assertThat(decoded.getTotalAmount()).isEqualTo(new BigDecimal("1250000.50"));
+        assertThat(decoded.getRetryCount()).isEqualTo(1);
+        assertThat(decoded.getCorrelationId()).isEqualTo(command.getCorrelationId());
+        assertThat(binaryCodec.readDetails(decoded.getFlightDetails(), Map.class))
+            .isEqualTo(command.getFlightDetails());
+    }
+
+    @Test
+    void nullMetadataValuesStayNull() {
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("source", "web");
+        metadata.put("promoCode", null);
+        metadata.put("note", "");
+        SagaCommand command = reserveFlight().toBuilder().metadata(metadata).build();
+
+        SagaCommand decoded = binaryCodec.decode(binaryCodec.encode(command));
+
+        assertThat(decoded.getMetadata())
+            .containsEntry("source", "web")
+            .containsEntry("promoCode", null)
+            .containsEntry("note", "");
+    }
+
+    @Test
+    void commandsAreWrittenAsJsonUntilBinaryIsEnabled() {
+        SagaCommand command = reserveFlight();
+
+        byte[] json = jsonCodec.write(command);
+        byte[] binary = binaryCodec.write(command);
+
+        assertThat(json[0]).isEqualTo((byte) '{');
+        assertThat(binary[0]).isEqualTo((byte) 'S');
+        // a consumer that only knows JSON can still read what a not-yet-enabled producer writes
+        assertThat(jsonCodec.decode(json).getBookingId()).isEqualTo(command.getBookingId());
+        assertThat(jsonCodec.decode(binary).getBookingId()).isEqualTo(command.getBookingId());
+    }
+
+    @Test
+    void binaryPayloadIsSmallerThanJson() {
+        SagaCommand withDetails = reserveFlight();
+        SagaCommand withoutDetails = withDetails.toBuilder().flightDetails(null).build();
+
+        assertThat(binaryCodec.encode(withDetails).length)
+            .isLessThan(jsonCodec.write(withDetails).length * 3 / 4);
+        // the envelope alone, where the binary layout replaces field names and text encodings
+        assertThat(binaryCodec.encode(withoutDetails).length)
+            .isLessThan(jsonCodec.write(withoutDetails).length / 2);
+    }
+
+    /**
+     * Bytes per command and ns per encode and decode for the binary layout next to JSON, logged rather
+     * than asserted; both codecs must give back every command.
+     */
+    @Test
+    void binaryAgainstJsonCost() {
+        List<SagaCommand> commands = new ArrayList<>(BENCHMARK_COMMANDS);
+        for (int i = 0; i < BENCHMARK_COMMANDS; i++) {
+            commands.add(reserveFlight());
+        }
+        for (int warmup = 0; warmup < 3; warmup++) {
+            measure(jsonCodec, commands);
+            measure(binaryCodec, commands);
+        }
+
+        long[] json = measure(jsonCodec, commands);
+        long[] binary = measure(binaryCodec, commands);
+
+        log.info("Saga command codec over {} commands: JSON {} bytes, {} ns encode, {} ns decode; "
+                + "binary {} bytes, {} ns encode, {} ns decode",
+            BENCHMARK_COMMANDS, json[0], json[1], json[2], binary[0], binary[1], binary[2]);
+    }
+
+    /**
+     * @return bytes per command, ns per encode and ns per decode
+     */
+    private static long[] measure(SagaCommandCodec codec, List<SagaCommand> commands) {
+        byte[][] payloads = new byte[commands.size()][];
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < payloads.length; i++) {
+            payloads[i] = codec.write(commands.get(i));
+        }
+        long encodeNanos = System.nanoTime() - start;
+
+        int decoded = 0;
+        start = System.nanoTime();
+        for (byte[] payload : payloads) {
+            decoded += codec.decode(payload) != null ? 1 : 0;
+            bytes += payload.length;
+        }
+        long decodeNanos = System.nanoTime() - start;
+
+        assertThat(decoded).isEqualTo(commands.size());
+        return new long[] {bytes / commands.size(), encodeNanos / commands.size(), decodeNanos / commands.size()};
+    }
+
+    private SagaCommand reserveFlight() {
+        Map<String, Object> flightDetails = new LinkedHashMap<>();
+        flightDetails.put("flightId", "VN-213");
+        flightDetails.put("scheduleId", UUID.randomUUID().toString());
+        flightDetails.put("seatClass", "ECONOMY");
+        flightDetails.put("passengerCount", 2);
+        flightDetails.put("departureDateTime", "2026-11-02T08:30:00");
+
+        Map<String, String> metadata = new HashMap<>();
+        metadata.put("source", "web");
+
+        SagaCommand command = SagaCommand.builder()
+            .sagaId(UUID.randomUUID().toString())
+            .bookingId(UUID.randomUUID())
+            .action("RESERVE_FLIGHT")
+            .customerId(UUID.randomUUID())
+            .bookingType("FLIGHT")
+            .totalAmount(new BigDecimal("1250000.50"))
+            .flightDetails(flightDetails)
+            .metadata(metadata)
+            .retryCount(1)
+            .correlationId(UUID.randomUUID().toString())
+            .build();
+        command.setEventId(UUID.randomUUID().toString());
+        command.setOccurredAt(LocalDateTime.of(2026, 10, 17, 9, 15, 30, 123_000_000));
+        return command;
+    }
+}
@@ -0,0 +1,255 @@
+package com.pdh.common.saga;
+
+import com.zaxxer.hikari.HikariDataSource;
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Effectively-once semantics of saga command handling against processed_saga_commands as built by the
+ * shared changelog: redeliveries are skipped, re-issued commands run again, failed handlers release
+ * their key, and concurrent duplicates run once. The replay benchmark logs what a redelivered backlog
+ * costs next to its first delivery; the timings are not asserted.
+ */
+@Slf4j
+@Testcontainers(disabledWithoutDocker = true)
+class SagaCommandDeduplicatorTest {
+
+    private static final String CHANGELOG = "classpath:db/changelog/common/processed-saga-commands.sql";
+    private static final int REPLAY_COMMANDS = 5_000;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    private static HikariDataSource dataSource;
+    private static JdbcTemplate jdbcTemplate;
+
+    private SagaCommandDeduplicator deduplicator;
+
+    @BeforeAll
+    static void migrate() throws Exception {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(postgres.getJdbcUrl());
+        dataSource.setUsername(postgres.getUsername());
+        dataSource.setPassword(postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        SpringLiquibase liquibase = new SpringLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog(CHANGELOG);
+        liquibase.setResourceLoader(new DefaultResourceLoader());
+        liquibase.afterPropertiesSet();
+    }
+
+    @AfterAll
+    static void close() {
+        dataSource.close();
+    }
+
+    @BeforeEach
+    void truncate() {
+        jdbcTemplate.execute("TRUNCATE processed_saga_commands");
+        deduplicator = deduplicator(true, 2);
+    }
+
+    @Test
+    void redeliveredCommandIsSkipped() {
+        SagaCommand command = command("RESERVE_FLIGHT");
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThat(deduplicator.executeOnce(command, runs::incrementAndGet)).isTrue();
+        assertThat(deduplicator.executeOnce(command, runs::incrementAndGet)).isFalse();
+
+        assertThat(runs).hasValue(1);
+        assertThat(storedKeys()).containsExactly(
+            command.getSagaId() + ":RESERVE_FLIGHT:" + command.getEventId());
+        assertThat(jdbcTemplate.queryForObject("SELECT command_id FROM processed_saga_commands", String.class))
+            .isEqualTo(command.getEventId());
+    }
+
+    @Test
+    void reissuedCommandWithANewEventIdRunsAgain() {
+        SagaCommand first = command("RESERVE_FLIGHT");
+        SagaCommand reissued = first.toBuilder().build();
+        reissued.setEventId(UUID.randomUUID().toString());
+        AtomicInteger runs = new AtomicInteger();
+
+        deduplicator.executeOnce(first, runs::incrementAndGet);
+        deduplicator.executeOnce(reissued, runs::incrementAndGet);
+        deduplicator.executeOnce(reissued, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void compensationOfTheSameSagaIsADifferentCommand() {
+        SagaCommand reserve = command("RESERVE_FLIGHT");
+        SagaCommand cancel = reserve.toBuilder().action("CANCEL_FLIGHT_RESERVATION").build();
+        cancel.setEventId(reserve.getEventId());
+        AtomicInteger runs = new AtomicInteger();
+
+        deduplicator.executeOnce(reserve, runs::incrementAndGet);
+        deduplicator.executeOnce(cancel, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(2);
+    }
+
+    @Test
+    void commandWithoutAnEventIdIsKeyedBySagaAndAction() {
+        SagaCommand command = command("RESERVE_FLIGHT");
+        command.setEventId(null);
+        AtomicInteger runs = new AtomicInteger();
+
+        deduplicator.executeOnce(command, runs::incrementAndGet);
+        deduplicator.executeOnce(command, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(1);
+        assertThat(storedKeys()).containsExactly(command.getSagaId() + ":RESERVE_FLIGHT");
+    }
+
+    @Test
+    void failedHandlerReleasesTheKeySoTheRetryRuns() {
+        SagaCommand command = command("RESERVE_FLIGHT");
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> deduplicator.executeOnce(command, () -> {
+            throw new IllegalStateException("inventory unavailable");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(storedKeys()).isEmpty();
+
+        assertThat(deduplicator.executeOnce(command, runs::incrementAndGet)).isTrue();
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void concurrentDuplicatesRunOnce() throws Exception {
+        SagaCommand command = command("RESERVE_FLIGHT");
+        AtomicInteger runs = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Callable<Boolean>> tasks = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                tasks.add(() -> {
+                    start.await();
+                    return deduplicator.executeOnce(command, runs::incrementAndGet);
+                });
+            }
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(task));
+            }
+            start.countDown();
+
+            int executed = 0;
+            for (Future<Boolean> future : futures) {
+                executed += future.get() ? 1 : 0;
+            }
+            assertThat(executed).isEqualTo(1);
+        } finally {
+            executor.shutdown();
+        }
+
+        assertThat(runs).hasValue(1);
+    }
+
+    @Test
+    void disabledDeduplicatorRunsEveryDelivery() {
+        SagaCommandDeduplicator disabled = deduplicator(false, 2);
+        SagaCommand command = command("RESERVE_FLIGHT");
+        AtomicInteger runs = new AtomicInteger();
+
+        disabled.executeOnce(command, runs::incrementAndGet);
+        disabled.executeOnce(command, runs::incrementAndGet);
+
+        assertThat(runs).hasValue(2);
+        assertThat(storedKeys()).isEmpty();
+    }
+
+    @Test
+    void purgeRemovesOnlyExpiredKeysAcrossBatches() {
+        Timestamp expired = Timestamp.valueOf(LocalDateTime.now().minusHours(200));
+        for (int i = 0; i < 5; i++) {
+            jdbcTemplate.update("INSERT INTO processed_saga_commands (command_key, saga_id, action, processed_at) "
+                + "VALUES (?, ?, ?, ?)", "old-" + i + ":RESERVE_FLIGHT", "old-" + i, "RESERVE_FLIGHT", expired);
+        }
+        SagaCommand recent = command("RESERVE_FLIGHT");
+        deduplicator.executeOnce(recent, () -> { });
+
+        deduplicator.purgeExpired();
+
+        assertThat(storedKeys()).containsExactly(
+            recent.getSagaId() + ":RESERVE_FLIGHT:" + recent.getEventId());
+    }
+
+    @Test
+    void replayingAProcessedBacklogRunsNoHandler() {
+        List<SagaCommand> backlog = new ArrayList<>(REPLAY_COMMANDS);
+        for (int i = 0; i < REPLAY_COMMANDS; i++) {
+            backlog.add(command(i % 2 == 0 ? "RESERVE_FLIGHT" : "RESERVE_HOTEL"));
+        }
+        AtomicInteger runs = new AtomicInteger();
+
+        long firstDelivery = replay(backlog, runs);
+        long redelivery = replay(backlog, runs);
+
+        assertThat(runs).hasValue(REPLAY_COMMANDS);
+        assertThat(storedKeys()).hasSize(REPLAY_COMMANDS);
+        log.info("Saga command replay of {} commands: first delivery {} ms ({} us/command), "
+                + "redelivery {} ms ({} us/command)",
+            REPLAY_COMMANDS, firstDelivery / 1_000_000, firstDelivery / 1_000 / REPLAY_COMMANDS,
+            redelivery / 1_000_000, redelivery / 1_000 / REPLAY_COMMANDS);
+    }
+
+    private long replay(List<SagaCommand> backlog, AtomicInteger runs) {
+        long start = System.nanoTime();
+        for (SagaCommand command : backlog) {
+            deduplicator.executeOnce(command, runs::incrementAndGet);
+        }
+        return System.nanoTime() - start;
+    }
+
+    private SagaCommandDeduplicator deduplicator(boolean enabled, int purgeBatchSize) {
+        return new SagaCommandDeduplicator(jdbcTemplate,
+            new TransactionTemplate(new DataSourceTransactionManager(dataSource)), enabled, 168, purgeBatchSize);
+    }
+
+    private List<String> storedKeys() {
+        return jdbcTemplate.queryForList("SELECT command_key FROM processed_saga_commands", String.class);
+    }
+
+    private static SagaCommand command(String action) {
+        return SagaCommand.builder()
+            .sagaId(UUID.randomUUID().toString())
+            .bookingId(UUID.randomUUID())
+            .action(action)
+            .build();
+    }
+}
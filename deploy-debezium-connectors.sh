@@ -47,6 +47,11 @@ curl -i -X PUT -H "Accept: application/json" -H "Content-Type: application/json"
   --data-binary @$CONNECTOR_PATH/payment-db-connector.json \
   $CONNECT_URL/payment-connector/config
 
+echo "Deploy bookings CDC connector"
+curl -i -X PUT -H "Accept: application/json" -H "Content-Type: application/json" \
+  --data-binary @$CONNECTOR_PATH/bookings-cdc-connector.json \
+  $CONNECT_URL/bookings-cdc-connector/config
+
 echo "Deploy notification connector"
 curl -i -X PUT -H "Accept: application/json" -H "Content-Type: application/json" \
   --data-binary @$CONNECTOR_PATH/notification-db-connector.json \
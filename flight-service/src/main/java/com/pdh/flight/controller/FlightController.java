@@ -3,6 +3,7 @@ package com.pdh.flight.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdh.common.config.OpenApiResponses;
 import com.pdh.flight.dto.FlightBookingDetailsDto;
+import com.pdh.flight.dto.response.FlightItineraryDto;
 import com.pdh.flight.dto.response.FlightSearchResultDto;
 import com.pdh.flight.dto.response.FlightFareDetailsResponse;
 import com.pdh.flight.model.Flight;
@@ -12,10 +13,12 @@ import com.pdh.flight.model.enums.FareClass;
 import com.pdh.flight.repository.FlightRepository;
 import com.pdh.flight.repository.FlightScheduleRepository;
 import com.pdh.flight.repository.FlightFareRepository;
+import com.pdh.flight.service.ConnectingFlightSearchService;
 import com.pdh.flight.service.FlightService;
 import com.pdh.flight.service.FlightSearchService;
 import com.pdh.flight.service.CityDataService;
 import com.pdh.flight.service.CityMappingService;
+import com.pdh.flight.service.index.FlightSearchIndex;
 import com.pdh.flight.util.FlightResponseAssembler;
 import com.pdh.flight.util.FlightSearchResponseBuilder;
 import com.pdh.flight.util.FlightStaticData;
@@ -79,6 +82,8 @@ public class FlightController {
     private final FlightScheduleRepository flightScheduleRepository;
     private final FlightFareRepository flightFareRepository;
     private final FlightResponseAssembler flightResponseAssembler;
+    private final FlightSearchIndex flightSearchIndex;
+    private final ConnectingFlightSearchService connectingFlightSearchService;
 
 
     /**
@@ -263,8 +268,15 @@ public class FlightController {
             appliedFilters.put("departureDate", depDate);
             appliedFilters.put("returnDate", retDate);
 
+            // Offer connections when the route has no direct flight that day
+            List<FlightItineraryDto> connectingItineraries = flights.isEmpty() && effectivePage == 1
+                ? connectingFlightSearchService.searchItineraries(resolvedOrigin, resolvedDestination, depDate,
+                    passengers, fareClass, null, null, sortBy)
+                : List.of();
+
             Map<String, Object> response = Map.of(
                 "flights", flights,
+                "connectingItineraries", connectingItineraries,
                 "totalCount", flightPage.getTotalElements(),
                 "page", effectivePage,
                 "limit", effectiveLimit,
@@ -283,6 +295,67 @@ public class FlightController {
     }
 
 
+    /**
+     * Search direct and connecting itineraries for storefront
+     * GET /flights/storefront/search/connecting?origin=HAN&destination=PQC&departureDate=2024-02-15&maxStops=1
+     */
+    @Operation(
+        summary = "Search connecting itineraries",
+        description = "Find the best direct, 1-stop and 2-stop itineraries for a departure day, respecting minimum connection times",
+        tags = {"Public API"}
+    )
+    @GetMapping("/storefront/search/connecting")
+    public ResponseEntity<Map<String, Object>> searchConnectingItineraries(
+            @RequestParam String origin,
+            @RequestParam String destination,
+            @RequestParam String departureDate,
+            @RequestParam(defaultValue = "1") Integer passengers,
+            @RequestParam(defaultValue = "ECONOMY") String seatClass,
+            @RequestParam(defaultValue = "2") Integer maxStops,
+            @RequestParam(defaultValue = "price") String sortBy,
+            @RequestParam(defaultValue = "10") Integer limit) {
+
+        log.info("Connecting search request: origin={}, destination={}, departureDate={}, maxStops={}, seatClass={}",
+                origin, destination, departureDate, maxStops, seatClass);
+
+        LocalDate depDate;
+        FareClass fareClass;
+        try {
+            depDate = LocalDate.parse(departureDate);
+            fareClass = FareClass.valueOf(seatClass.toUpperCase());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid departure date or seat class"));
+        }
+
+        String resolvedOrigin = resolveCityToIataCode(SearchValidation.sanitizeSearchQuery(origin));
+        String resolvedDestination = resolveCityToIataCode(SearchValidation.sanitizeSearchQuery(destination));
+
+        List<FlightItineraryDto> itineraries = connectingFlightSearchService.searchItineraries(
+            resolvedOrigin, resolvedDestination, depDate, passengers, fareClass, maxStops, limit, sortBy);
+
+        return ResponseEntity.ok(Map.of(
+            "itineraries", itineraries,
+            "totalCount", itineraries.size(),
+            "origin", resolvedOrigin != null ? resolvedOrigin : origin,
+            "destination", resolvedDestination != null ? resolvedDestination : destination,
+            "departureDate", depDate
+        ));
+    }
+
+    /**
+     * Search index status for storefront consumers
+     * Exposes the consistency watermark (last applied CDC LSN) so callers can tell how fresh search results are
+     */
+    @Operation(
+        summary = "Get flight search index status",
+        description = "Returns whether the in-memory search index is warm and the last CDC LSN it has applied",
+        tags = {"Public API"}
+    )
+    @GetMapping("/storefront/search/index-status")
+    public ResponseEntity<Map<String, Object>> getSearchIndexStatus() {
+        return ResponseEntity.ok(flightSearchIndex.getStatus());
+    }
+
     /**
      * Get flight details by ID for storefront
      */
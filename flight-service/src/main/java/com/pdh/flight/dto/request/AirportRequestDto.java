@@ -46,4 +46,9 @@ public class AirportRequestDto {
     
     // Featured media URL - the primary media URL to display
     private String featuredMediaUrl;
+
+    // Minimum connection time for transfers at this airport
+    @Min(value = 10, message = "Minimum connection time must be at least 10 minutes")
+    @Max(value = 720, message = "Minimum connection time cannot exceed 720 minutes")
+    private Integer minConnectionMinutes;
 }
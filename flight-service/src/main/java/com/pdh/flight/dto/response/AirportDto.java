@@ -26,6 +26,8 @@ public class AirportDto {
     private Double latitude;
     
     private Double longitude;
+
+    private Integer minConnectionMinutes;
     
     private Boolean isActive;
     
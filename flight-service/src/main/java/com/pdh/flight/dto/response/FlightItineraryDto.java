@@ -0,0 +1,59 @@
+package com.pdh.flight.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/**
+ * DTO for a direct or connecting itinerary made of one or more flight legs
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightItineraryDto {
+
+    /**
+     * Schedule ids of every leg joined with '_', stable for the same combination
+     */
+    private String itineraryId;
+
+    /**
+     * Route information
+     */
+    private String origin;
+    private String destination;
+    private Integer stops;
+    private List<String> connectionAirports;
+    private List<Integer> layoverMinutes;
+
+    /**
+     * Timing of the whole trip, including layovers
+     */
+    private ZonedDateTime departureDateTime;
+    private ZonedDateTime arrivalDateTime;
+    private String duration;
+    private Integer durationMinutes;
+
+    /**
+     * Total price of all legs for all passengers
+     */
+    private Double price;
+    private String currency;
+    private String formattedPrice;
+    private String seatClass;
+
+    /**
+     * Seats bookable on every leg
+     */
+    private Integer availableSeats;
+
+    /**
+     * Legs in travel order, each priced for all passengers
+     */
+    private List<FlightSearchResultDto> legs;
+}
@@ -0,0 +1,73 @@
+package com.pdh.flight.kafka.config;
+
+import com.pdh.common.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.pdh.common.kafka.cdc.message.FlightCdcMessage;
+import com.pdh.common.kafka.cdc.message.FlightFareCdcMessage;
+import com.pdh.common.kafka.cdc.message.FlightScheduleCdcMessage;
+
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+/**
+ * Typed listener factories for the flight table CDC topics feeding the search index
+ */
+public class FlightSearchIndexKafkaListenerConfig {
+
+    private FlightSearchIndexKafkaListenerConfig() {
+    }
+
+    /**
+     * Search index listeners seek to their replay position on every assignment, so offsets are never
+     * committed and the per-instance consumer groups disappear once the instance stops
+     */
+    static <V> ConcurrentKafkaListenerContainerFactory<String, V> withoutOffsetCommits(
+            ConcurrentKafkaListenerContainerFactory<String, V> factory) {
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+
+    @Configuration
+    public static class FlightCdcListenerConfig extends BaseKafkaListenerConfig<String, FlightCdcMessage> {
+
+        public FlightCdcListenerConfig(KafkaProperties kafkaProperties) {
+            super(String.class, FlightCdcMessage.class, kafkaProperties);
+        }
+
+        @Bean("flightCdcListenerContainerFactory")
+        @Override
+        public ConcurrentKafkaListenerContainerFactory<String, FlightCdcMessage> listenerContainerFactory() {
+            return withoutOffsetCommits(kafkaListenerContainerFactory());
+        }
+    }
+
+    @Configuration
+    public static class FlightScheduleCdcListenerConfig extends BaseKafkaListenerConfig<String, FlightScheduleCdcMessage> {
+
+        public FlightScheduleCdcListenerConfig(KafkaProperties kafkaProperties) {
+            super(String.class, FlightScheduleCdcMessage.class, kafkaProperties);
+        }
+
+        @Bean("flightScheduleCdcListenerContainerFactory")
+        @Override
+        public ConcurrentKafkaListenerContainerFactory<String, FlightScheduleCdcMessage> listenerContainerFactory() {
+            return withoutOffsetCommits(kafkaListenerContainerFactory());
+        }
+    }
+
+    @Configuration
+    public static class FlightFareCdcListenerConfig extends BaseKafkaListenerConfig<String, FlightFareCdcMessage> {
+
+        public FlightFareCdcListenerConfig(KafkaProperties kafkaProperties) {
+            super(String.class, FlightFareCdcMessage.class, kafkaProperties);
+        }
+
+        @Bean("flightFareCdcListenerContainerFactory")
+        @Override
+        public ConcurrentKafkaListenerContainerFactory<String, FlightFareCdcMessage> listenerContainerFactory() {
+            return withoutOffsetCommits(kafkaListenerContainerFactory());
+        }
+    }
+}
@@ -1,8 +1,9 @@
 package com.pdh.flight.kafka.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdh.common.outbox.service.OutboxEventService;
 import com.pdh.common.saga.SagaCommand;
+import com.pdh.common.saga.SagaCommandCodec;
+import com.pdh.common.saga.SagaCommandDeduplicator;
 import com.pdh.flight.dto.FlightBookingDetailsDto;
 import com.pdh.flight.service.FlightService;
 import lombok.RequiredArgsConstructor;
@@ -26,25 +27,27 @@ public class FlightEventConsumer {
 
     private final FlightService flightService;
     private final OutboxEventService eventPublisher;
-    private final ObjectMapper objectMapper;
+    private final SagaCommandCodec sagaCommandCodec;
+    private final SagaCommandDeduplicator sagaCommandDeduplicator;
 
     @KafkaListener(
         topics = "booking-saga-commands",
         groupId = "flight-service-saga-group",
         containerFactory = "sagaCommandListenerContainerFactory"
     )
-    public void handleSagaCommand(@Payload String message, Acknowledgment acknowledgment) {
+    public void handleSagaCommand(@Payload byte[] message, Acknowledgment acknowledgment) {
         SagaCommand command = null;
         try {
-            command = objectMapper.readValue(message, SagaCommand.class);
+            command = sagaCommandCodec.decode(message);
             if (command == null || command.getAction() == null) {
                 acknowledgment.acknowledge();
                 return;
             }
 
+            SagaCommand received = command;
             switch (command.getAction()) {
-                case "RESERVE_FLIGHT" -> reserveFlight(command);
-                case "CANCEL_FLIGHT_RESERVATION" -> cancelFlight(command);
+                case "RESERVE_FLIGHT" -> sagaCommandDeduplicator.executeOnce(received, () -> reserveFlight(received));
+                case "CANCEL_FLIGHT_RESERVATION" -> sagaCommandDeduplicator.executeOnce(received, () -> cancelFlight(received));
                 default -> {
                     log.debug("Ignoring saga command action {} for booking {}", command.getAction(), command.getBookingId());
                     acknowledgment.acknowledge();
@@ -54,7 +57,7 @@ public class FlightEventConsumer {
 
             acknowledgment.acknowledge();
         } catch (Exception ex) {
-            log.error("Error processing flight saga command: {}", message, ex);
+            log.error("Error processing flight saga command: {}", command, ex);
             
             // Try to extract booking ID from the message to send failure event
             // Only send the failure event if we successfully parsed the command
@@ -96,9 +99,9 @@ public class FlightEventConsumer {
     }
 
     private FlightBookingDetailsDto convertFlightDetails(SagaCommand command) {
-        if (command == null || command.getFlightDetails() == null) {
+        if (command == null) {
             return null;
         }
-        return objectMapper.convertValue(command.getFlightDetails(), FlightBookingDetailsDto.class);
+        return sagaCommandCodec.readDetails(command.getFlightDetails(), FlightBookingDetailsDto.class);
     }
 }
@@ -0,0 +1,168 @@
+package com.pdh.flight.kafka.consumer;
+
+import com.pdh.common.kafka.cdc.message.CdcSource;
+import com.pdh.common.kafka.cdc.message.FlightCdcMessage;
+import com.pdh.common.kafka.cdc.message.FlightFareCdcMessage;
+import com.pdh.common.kafka.cdc.message.FlightScheduleCdcMessage;
+import com.pdh.common.kafka.cdc.message.Operation;
+import com.pdh.flight.model.enums.FareClass;
+import com.pdh.flight.repository.FlightRepository;
+import com.pdh.flight.service.index.FlightSearchIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.AbstractConsumerSeekAware;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies Debezium changes on flights, flight_schedules and flight_fares to the search index.
+ * <p>
+ * Every replica keeps its own index, so each instance consumes with its own random group id. Those
+ * groups never commit offsets: a restarted instance rebuilds from the snapshot anyway, and a group
+ * without committed offsets is removed by the broker once its member leaves instead of lingering.
+ * On assignment the consumer seeks to the instance start time minus {@code replay-window}. Any change
+ * the startup snapshot cannot contain commits after that point, so it is replayed rather than lost,
+ * without reading the topic from the beginning. Every change is applied as an idempotent upsert or
+ * removal, so changes the snapshot already holds are simply applied again.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "flight.search-index.enabled", havingValue = "true", matchIfMissing = true)
+public class FlightSearchIndexCdcConsumer extends AbstractConsumerSeekAware {
+
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightRepository flightRepository;
+    private final Instant startedAt = Instant.now();
+
+    // Margin for clock skew between Kafka Connect and this host, and for records produced just before startup
+    @Value("${flight.search-index.replay-window:PT10M}")
+    private Duration replayWindow = Duration.ofMinutes(10);
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        super.onPartitionsAssigned(assignments, callback);
+        long replayFrom = startedAt.minus(replayWindow).toEpochMilli();
+        callback.seekToTimestamp(assignments.keySet(), replayFrom);
+        log.info("Search index CDC replays {} from {}", assignments.keySet(), Instant.ofEpochMilli(replayFrom));
+    }
+
+    @KafkaListener(
+        topics = "${flight.search-index.topics.flights:flights-cdc}",
+        groupId = "flight-search-index-${random.uuid}",
+        containerFactory = "flightCdcListenerContainerFactory"
+    )
+    @Transactional(readOnly = true)
+    public void onFlightChange(@Payload(required = false) FlightCdcMessage message) {
+        if (message == null) {
+            return;
+        }
+        try {
+            FlightCdcMessage.Flight row = message.getOp() == Operation.DELETE ? message.getBefore() : message.getAfter();
+            if (row == null || row.getId() == null) {
+                return;
+            }
+            long flightId = Long.parseLong(row.getId());
+            if (message.getOp() == Operation.DELETE || Boolean.TRUE.equals(row.getDeleted())) {
+                flightSearchIndex.removeFlight(flightId);
+            } else {
+                refreshFlight(flightId);
+            }
+            flightSearchIndex.advanceWatermark(lsn(message.getSource()));
+        } catch (Exception e) {
+            log.error("Failed to apply flight CDC change {}", message, e);
+            flightSearchIndex.markStale("flight change not applied");
+        }
+    }
+
+    @KafkaListener(
+        topics = "${flight.search-index.topics.schedules:flight-schedules-cdc}",
+        groupId = "flight-search-index-${random.uuid}",
+        containerFactory = "flightScheduleCdcListenerContainerFactory"
+    )
+    @Transactional(readOnly = true)
+    public void onScheduleChange(@Payload(required = false) FlightScheduleCdcMessage message) {
+        if (message == null) {
+            return;
+        }
+        try {
+            FlightScheduleCdcMessage.FlightSchedule row =
+                message.getOp() == Operation.DELETE ? message.getBefore() : message.getAfter();
+            if (row == null || row.getId() == null) {
+                return;
+            }
+            UUID scheduleId = UUID.fromString(row.getId());
+            if (message.getOp() == Operation.DELETE || Boolean.TRUE.equals(row.getDeleted())) {
+                flightSearchIndex.removeSchedule(scheduleId);
+            } else {
+                long flightId = Long.parseLong(row.getFlightId());
+                if (!flightSearchIndex.containsFlight(flightId)) {
+                    refreshFlight(flightId);
+                }
+                flightSearchIndex.upsertSchedule(new FlightSearchIndex.ScheduleEntry(
+                    scheduleId,
+                    flightId,
+                    OffsetDateTime.parse(row.getDepartureTime()).toEpochSecond(),
+                    OffsetDateTime.parse(row.getArrivalTime()).toEpochSecond()));
+            }
+            flightSearchIndex.advanceWatermark(lsn(message.getSource()));
+        } catch (Exception e) {
+            log.error("Failed to apply flight schedule CDC change {}", message, e);
+            flightSearchIndex.markStale("schedule change not applied");
+        }
+    }
+
+    @KafkaListener(
+        topics = "${flight.search-index.topics.fares:flight-fares-cdc}",
+        groupId = "flight-search-index-${random.uuid}",
+        containerFactory = "flightFareCdcListenerContainerFactory"
+    )
+    public void onFareChange(@Payload(required = false) FlightFareCdcMessage message) {
+        if (message == null) {
+            return;
+        }
+        try {
+            FlightFareCdcMessage.FlightFare row = message.getOp() == Operation.DELETE ? message.getBefore() : message.getAfter();
+            if (row == null || row.getId() == null) {
+                return;
+            }
+            UUID fareId = UUID.fromString(row.getId());
+            if (message.getOp() == Operation.DELETE || Boolean.TRUE.equals(row.getDeleted())) {
+                flightSearchIndex.removeFare(fareId);
+            } else {
+                flightSearchIndex.upsertFare(new FlightSearchIndex.FareEntry(
+                    fareId,
+                    UUID.fromString(row.getScheduleId()),
+                    FareClass.valueOf(row.getClassType().toUpperCase()),
+                    row.getPrice() != null ? BigDecimal.valueOf(row.getPrice()) : null,
+                    row.getAvailability() != null ? row.getAvailability() : 0));
+            }
+            flightSearchIndex.advanceWatermark(lsn(message.getSource()));
+        } catch (Exception e) {
+            log.error("Failed to apply flight fare CDC change {}", message, e);
+            flightSearchIndex.markStale("fare change not applied");
+        }
+    }
+
+    private void refreshFlight(long flightId) {
+        flightRepository.findByIdForSearchIndex(flightId)
+            .map(FlightSearchIndex.FlightEntry::from)
+            .ifPresentOrElse(flightSearchIndex::upsertFlight, () -> flightSearchIndex.removeFlight(flightId));
+    }
+
+    private static Long lsn(CdcSource source) {
+        return source != null ? source.getLsn() : null;
+    }
+}
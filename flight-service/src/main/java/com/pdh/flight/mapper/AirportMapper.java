@@ -42,6 +42,7 @@ public class AirportMapper {
                 .country(airport.getCountry())
                 .latitude(airport.getLatitude())
                 .longitude(airport.getLongitude())
+                .minConnectionMinutes(airport.getMinConnectionMinutes())
                 .isActive(airport.getIsActive())
                 .featuredMediaUrl(airport.getFeaturedMediaUrl()) // Map the media URL directly
                 .createdAt(convertToLocalDateTime(airport.getCreatedAt()))
@@ -176,6 +177,10 @@ public class AirportMapper {
         if (requestDto.getFeaturedMediaUrl() != null) {
             airport.setFeaturedMediaUrl(requestDto.getFeaturedMediaUrl());
         }
+
+        if (requestDto.getMinConnectionMinutes() != null) {
+            airport.setMinConnectionMinutes(requestDto.getMinConnectionMinutes());
+        }
     }
 
     /**
@@ -195,6 +200,7 @@ public class AirportMapper {
         airport.setLongitude(requestDto.getLongitude());
         airport.setIsActive(true);
         airport.setFeaturedMediaUrl(requestDto.getFeaturedMediaUrl());
+        airport.setMinConnectionMinutes(requestDto.getMinConnectionMinutes());
         
         return airport;
     }
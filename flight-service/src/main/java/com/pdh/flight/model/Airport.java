@@ -42,4 +42,10 @@ public class Airport extends AbstractAuditEntity {
 
     @Column(name = "featured_media_url", length = 500)
     private String featuredMediaUrl;
+
+    /**
+     * Minimum connection time for transfers at this airport; null falls back to the service default
+     */
+    @Column(name = "min_connection_minutes")
+    private Integer minConnectionMinutes;
 }
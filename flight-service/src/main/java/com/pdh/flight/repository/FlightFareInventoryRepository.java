@@ -0,0 +1,25 @@
+package com.pdh.flight.repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Seat counter updates, implemented with native UPDATE ... RETURNING in {@link FlightFareInventoryRepositoryImpl}
+ */
+public interface FlightFareInventoryRepository {
+
+    /**
+     * Take seats in a single conditional statement, so the availability check and the decrement cannot
+     * interleave with another booking. The row lock it takes lasts until the caller's transaction ends.
+     *
+     * @return remaining seats, or empty when the fare does not exist or has fewer than {@code seats} left
+     */
+    Optional<Integer> decrementAvailableSeats(UUID scheduleId, String fareClass, int seats);
+
+    /**
+     * Give seats back in a single statement.
+     *
+     * @return remaining seats, or empty when the fare does not exist
+     */
+    Optional<Integer> incrementAvailableSeats(UUID scheduleId, String fareClass, int seats);
+}
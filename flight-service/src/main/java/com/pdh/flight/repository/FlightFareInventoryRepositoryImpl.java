@@ -0,0 +1,75 @@
+package com.pdh.flight.repository;
+
+import com.pdh.flight.model.FlightFare;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public class FlightFareInventoryRepositoryImpl implements FlightFareInventoryRepository {
+
+    private static final String DECREMENT_SQL = """
+        UPDATE flight_fares
+        SET available_seats = available_seats - :seats, updated_at = now()
+        WHERE schedule_id = :scheduleId
+        AND fare_class = :fareClass
+        AND is_deleted = false
+        AND available_seats >= :seats
+        RETURNING fare_id, available_seats
+        """;
+
+    private static final String INCREMENT_SQL = """
+        UPDATE flight_fares
+        SET available_seats = available_seats + :seats, updated_at = now()
+        WHERE schedule_id = :scheduleId
+        AND fare_class = :fareClass
+        AND is_deleted = false
+        RETURNING fare_id, available_seats
+        """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public Optional<Integer> decrementAvailableSeats(UUID scheduleId, String fareClass, int seats) {
+        return adjustSeats(DECREMENT_SQL, scheduleId, fareClass, seats);
+    }
+
+    @Override
+    @Transactional
+    public Optional<Integer> incrementAvailableSeats(UUID scheduleId, String fareClass, int seats) {
+        return adjustSeats(INCREMENT_SQL, scheduleId, fareClass, seats);
+    }
+
+    // Spring Data runs @Modifying queries through executeUpdate, which rejects a statement that returns
+    // rows, so the UPDATE ... RETURNING is run here and the persistence context is brought in line by hand
+    private Optional<Integer> adjustSeats(String sql, UUID scheduleId, String fareClass, int seats) {
+        List<?> rows = entityManager.createNativeQuery(sql)
+            .setParameter("scheduleId", scheduleId)
+            .setParameter("fareClass", fareClass)
+            .setParameter("seats", seats)
+            .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        refreshIfLoaded((UUID) row[0]);
+        return Optional.of(((Number) row[1]).intValue());
+    }
+
+    /**
+     * A fare already loaded in this transaction still holds the old seat count, and would write it back
+     * if anything else on it changed; reload it. A fare that was not loaded only gets an unloaded
+     * reference here, which reads the new count on first use.
+     */
+    private void refreshIfLoaded(UUID fareId) {
+        FlightFare fare = entityManager.getReference(FlightFare.class, fareId);
+        if (entityManager.getEntityManagerFactory().getPersistenceUnitUtil().isLoaded(fare)) {
+            entityManager.refresh(fare);
+        }
+    }
+}
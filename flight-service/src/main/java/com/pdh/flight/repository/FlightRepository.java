@@ -327,4 +327,30 @@ public interface FlightRepository extends JpaRepository<Flight, Long>, JpaSpecif
      */
     @Query("SELECT f.flightId FROM Flight f WHERE f.isDeleted = false ORDER BY f.flightId")
     Page<Long> findAllFlightIds(Pageable pageable);
+
+    /**
+     * Load every live flight with the associations the search index denormalises
+     */
+    @Query("""
+        SELECT f FROM Flight f
+        JOIN FETCH f.airline
+        JOIN FETCH f.departureAirport
+        JOIN FETCH f.arrivalAirport
+        LEFT JOIN FETCH f.aircraft
+        WHERE f.isDeleted = false
+        """)
+    List<Flight> findAllForSearchIndex();
+
+    /**
+     * Load a single flight with the associations the search index denormalises
+     */
+    @Query("""
+        SELECT f FROM Flight f
+        JOIN FETCH f.airline
+        JOIN FETCH f.departureAirport
+        JOIN FETCH f.arrivalAirport
+        LEFT JOIN FETCH f.aircraft
+        WHERE f.flightId = :flightId
+        """)
+    Optional<Flight> findByIdForSearchIndex(@Param("flightId") Long flightId);
 }
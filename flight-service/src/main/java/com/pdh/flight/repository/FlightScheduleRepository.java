@@ -2,8 +2,10 @@ package com.pdh.flight.repository;
 
 import com.pdh.flight.model.FlightSchedule;
 import com.pdh.flight.model.enums.ScheduleStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -264,4 +266,41 @@ public interface FlightScheduleRepository extends JpaRepository<FlightSchedule,
         ORDER BY fs.departureTime ASC
         """)
     List<FlightSchedule> findFutureSchedulesForFareCreation(@Param("currentTime") ZonedDateTime currentTime);
+
+    /**
+     * Page through live schedules departing in a window, used to warm the in-memory search index
+     */
+    @Query("""
+        SELECT fs FROM FlightSchedule fs
+        WHERE fs.departureTime >= :fromTime
+        AND fs.departureTime < :toTime
+        AND fs.isDeleted = false
+        ORDER BY fs.scheduleId
+        """)
+    Slice<FlightSchedule> findSchedulesForSearchIndex(@Param("fromTime") ZonedDateTime fromTime,
+                                                      @Param("toTime") ZonedDateTime toTime,
+                                                      Pageable pageable);
+
+    /**
+     * Load the earliest bookable schedules departing in a window together with their routes, at most
+     * {@code limit} of them, used by the connecting itinerary search when the in-memory index cannot
+     * cover the window
+     */
+    @Query("""
+        SELECT fs FROM FlightSchedule fs
+        JOIN FETCH fs.flight f
+        JOIN FETCH f.airline
+        JOIN FETCH f.departureAirport
+        JOIN FETCH f.arrivalAirport
+        LEFT JOIN FETCH f.aircraft
+        WHERE fs.departureTime >= :fromTime
+        AND fs.departureTime < :toTime
+        AND fs.isDeleted = false
+        AND f.isActive = true
+        AND f.isDeleted = false
+        ORDER BY fs.departureTime
+        """)
+    List<FlightSchedule> findConnectableSchedules(@Param("fromTime") ZonedDateTime fromTime,
+                                                  @Param("toTime") ZonedDateTime toTime,
+                                                  Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,451 @@
+package com.pdh.flight.service;
+
+import com.pdh.flight.dto.response.FlightFareDto;
+import com.pdh.flight.dto.response.FlightItineraryDto;
+import com.pdh.flight.dto.response.FlightSearchResultDto;
+import com.pdh.flight.model.Airport;
+import com.pdh.flight.model.FlightSchedule;
+import com.pdh.flight.model.enums.FareClass;
+import com.pdh.flight.repository.AirportRepository;
+import com.pdh.flight.repository.FlightScheduleRepository;
+import com.pdh.flight.service.index.FlightSearchIndex;
+import com.pdh.flight.service.index.FlightSearchIndex.FlightEntry;
+import com.pdh.flight.service.index.FlightSearchIndex.IndexedSchedule;
+import com.pdh.flight.service.pricing.PricingService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Searches direct and connecting itineraries (up to two stops) for one departure day.
+ * Legs come from the in-memory route index when it covers the trip window, otherwise from a
+ * single window query against Postgres. The search is a bounded depth-first expansion that
+ * keeps only the best K itineraries and prunes branches that can no longer beat them.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ConnectingFlightSearchService {
+
+    private static final int MAX_RESULTS_CAP = 50;
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightScheduleRepository flightScheduleRepository;
+    private final AirportRepository airportRepository;
+    private final PricingService pricingService;
+    private final FlightSearchService flightSearchService;
+
+    private volatile Map<String, Integer> minConnectionMinutesByAirport = Map.of();
+
+    @Value("${flight.connections.max-legs:3}")
+    private int maxLegs;
+
+    @Value("${flight.connections.max-layover-minutes:360}")
+    private int maxLayoverMinutes;
+
+    @Value("${flight.connections.default-min-connection-minutes:45}")
+    private int defaultMinConnectionMinutes;
+
+    @Value("${flight.connections.max-trip-hours:36}")
+    private int maxTripHours;
+
+    @Value("${flight.connections.max-results:10}")
+    private int defaultMaxResults;
+
+    @Value("${flight.connections.latency-budget-ms:200}")
+    private long latencyBudgetMs;
+
+    @Value("${flight.connections.max-expansions:100000}")
+    private int maxExpansions;
+
+    @Value("${flight.connections.max-fallback-schedules:20000}")
+    private int maxFallbackSchedules;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshMinConnectionTimes();
+    }
+
+    /**
+     * Minimum connection times change rarely, so they are cached per airport and refreshed periodically.
+     */
+    @Scheduled(fixedDelayString = "${flight.connections.mct-refresh-ms:300000}")
+    public void refreshMinConnectionTimes() {
+        try {
+            minConnectionMinutesByAirport = airportRepository.findAll().stream()
+                .filter(airport -> airport.getIataCode() != null && airport.getMinConnectionMinutes() != null)
+                .collect(Collectors.toUnmodifiableMap(Airport::getIataCode, Airport::getMinConnectionMinutes,
+                    (first, second) -> first));
+        } catch (Exception e) {
+            log.warn("Failed to refresh airport minimum connection times, keeping previous values", e);
+        }
+    }
+
+    /**
+     * Find the best itineraries from origin to destination departing on the given day.
+     *
+     * @param maxStops   0 for direct only, capped by {@code flight.connections.max-legs}
+     * @param maxResults number of itineraries to return
+     * @param sortBy     "price" (default) or "duration"
+     */
+    @Transactional(readOnly = true)
+    public List<FlightItineraryDto> searchItineraries(String origin, String destination, LocalDate departureDate,
+                                                      int passengers, FareClass fareClass, Integer maxStops,
+                                                      Integer maxResults, String sortBy) {
+        if (!StringUtils.hasText(origin) || !StringUtils.hasText(destination) || departureDate == null
+            || origin.equalsIgnoreCase(destination)) {
+            return List.of();
+        }
+
+        String originIata = origin.trim().toUpperCase();
+        String destinationIata = destination.trim().toUpperCase();
+        int legLimit = Math.max(1, Math.min(maxLegs, maxStops != null ? maxStops + 1 : maxLegs));
+        int limit = Math.max(1, Math.min(maxResults != null ? maxResults : defaultMaxResults, MAX_RESULTS_CAP));
+
+        ZonedDateTime dayStart = departureDate.atStartOfDay(ZoneOffset.UTC);
+        ZonedDateTime windowEnd = dayStart.plusDays(1).plusHours(maxTripHours);
+
+        SearchContext context = new SearchContext(
+            destinationIata,
+            Math.max(1, passengers),
+            legLimit,
+            limit,
+            "duration".equalsIgnoreCase(sortBy),
+            resolveDepartureSource(departureDate, windowEnd, fareClass),
+            System.nanoTime() + latencyBudgetMs * 1_000_000L,
+            maxExpansions);
+
+        long start = System.currentTimeMillis();
+        Departures fromOrigin = context.source.apply(originIata);
+        long firstDeparture = dayStart.toEpochSecond();
+        long lastDeparture = dayStart.plusDays(1).toEpochSecond();
+
+        Leg[] path = new Leg[legLimit];
+        Set<String> visited = new HashSet<>();
+        visited.add(originIata);
+
+        for (int i = fromOrigin.firstAtOrAfter(firstDeparture); i < fromOrigin.size() && !context.exhausted(); i++) {
+            Leg leg = fromOrigin.legs[i];
+            if (leg.departure >= lastDeparture) {
+                break;
+            }
+            context.expansions++;
+            if (leg.seats < context.passengers || context.canPrune(leg.priceMinor, leg.arrival - leg.departure)) {
+                continue;
+            }
+            path[0] = leg;
+            extend(context, path, 1, visited, leg.priceMinor);
+        }
+
+        if (context.exhausted()) {
+            log.warn("Connecting search {}->{} on {} stopped early after {} expansions",
+                originIata, destinationIata, departureDate, context.expansions);
+        }
+        log.debug("Connecting search {}->{} on {} explored {} legs in {} ms",
+            originIata, destinationIata, departureDate, context.expansions, System.currentTimeMillis() - start);
+
+        return context.best.stream()
+            .sorted(context.ranking)
+            .map(candidate -> toItinerary(candidate, context.passengers, fareClass))
+            .toList();
+    }
+
+    private void extend(SearchContext context, Leg[] path, int depth, Set<String> visited, long priceMinor) {
+        Leg last = path[depth - 1];
+        if (last.destination.equals(context.destination)) {
+            context.offer(path, depth, priceMinor);
+            return;
+        }
+        if (depth >= context.legLimit || context.exhausted()) {
+            return;
+        }
+
+        long tripStart = path[0].departure;
+        long earliest = last.arrival + minConnectionMinutes(last.destination) * 60L;
+        long latest = last.arrival + maxLayoverMinutes * 60L;
+        long tripDeadline = tripStart + maxTripHours * 3600L;
+        boolean finalLeg = depth + 1 == context.legLimit;
+
+        Departures departures = context.source.apply(last.destination);
+        for (int i = departures.firstAtOrAfter(earliest); i < departures.size(); i++) {
+            Leg next = departures.legs[i];
+            if (next.departure > latest || context.exhausted()) {
+                break;
+            }
+            context.expansions++;
+            if (next.seats < context.passengers
+                || next.arrival > tripDeadline
+                || visited.contains(next.destination)
+                || (finalLeg && !next.destination.equals(context.destination))) {
+                continue;
+            }
+            long nextPrice = priceMinor + next.priceMinor;
+            if (context.canPrune(nextPrice, next.arrival - tripStart)) {
+                continue;
+            }
+            path[depth] = next;
+            visited.add(next.destination);
+            extend(context, path, depth + 1, visited, nextPrice);
+            visited.remove(next.destination);
+        }
+    }
+
+    private int minConnectionMinutes(String airportIata) {
+        return minConnectionMinutesByAirport.getOrDefault(airportIata, defaultMinConnectionMinutes);
+    }
+
+    /**
+     * Serve legs from the index when it covers the whole trip window, otherwise load the window
+     * once from Postgres, capped at {@code flight.connections.max-fallback-schedules} earliest
+     * departures, and group it by origin airport.
+     */
+    private Function<String, Departures> resolveDepartureSource(LocalDate departureDate, ZonedDateTime windowEnd,
+                                                               FareClass fareClass) {
+        long from = departureDate.atStartOfDay(ZoneOffset.UTC).toEpochSecond();
+        long until = windowEnd.toEpochSecond();
+        Map<String, Departures> cache = new HashMap<>();
+
+        if (flightSearchIndex.coversWindow(departureDate, windowEnd.toLocalDate())) {
+            return airport -> cache.computeIfAbsent(airport, key ->
+                Departures.of(flightSearchIndex.findDepartures(key, from, until, fareClass).stream()
+                    .map(Leg::of)
+                    .toList()));
+        }
+
+        List<FlightSchedule> schedules = flightScheduleRepository.findConnectableSchedules(
+            departureDate.atStartOfDay(ZoneOffset.UTC), windowEnd, Limit.of(maxFallbackSchedules));
+        if (schedules.size() >= maxFallbackSchedules) {
+            log.warn("Connecting search window {} to {} truncated to the first {} schedules",
+                departureDate, windowEnd, maxFallbackSchedules);
+        }
+        Map<UUID, List<FlightFareDto>> fares = pricingService.getFaresForSchedules(
+            schedules.stream().map(FlightSchedule::getScheduleId).toList());
+
+        Map<Long, FlightEntry> flights = new HashMap<>();
+        Map<String, List<Leg>> byOrigin = new HashMap<>();
+        for (FlightSchedule schedule : schedules) {
+            FlightFareDto fare = flightSearchService.selectFareForSchedule(
+                fares.get(schedule.getScheduleId()), fareClass);
+            if (fare == null || fare.getPrice() == null) {
+                continue;
+            }
+            FlightEntry flight = flights.computeIfAbsent(schedule.getFlightId(),
+                id -> FlightEntry.from(schedule.getFlight()));
+            Leg leg = Leg.of(new IndexedSchedule(flight, schedule.getScheduleId(),
+                schedule.getDepartureTime(), schedule.getArrivalTime(), fare));
+            byOrigin.computeIfAbsent(leg.origin, key -> new ArrayList<>()).add(leg);
+        }
+        byOrigin.forEach((airport, legs) -> cache.put(airport, Departures.of(legs)));
+        return airport -> cache.getOrDefault(airport, Departures.EMPTY);
+    }
+
+    private FlightItineraryDto toItinerary(Candidate candidate, int passengers, FareClass fareClass) {
+        List<FlightSearchResultDto> legs = new ArrayList<>(candidate.legs.length);
+        List<String> connectionAirports = new ArrayList<>();
+        List<Integer> layovers = new ArrayList<>();
+        int availableSeats = Integer.MAX_VALUE;
+
+        for (int i = 0; i < candidate.legs.length; i++) {
+            IndexedSchedule schedule = candidate.legs[i].schedule;
+            FlightSearchResultDto leg = flightSearchService.buildSearchResult(schedule.flight(),
+                schedule.departureTime(), schedule.arrivalTime(), schedule.scheduleId(), schedule.fare(),
+                passengers, fareClass);
+            legs.add(leg);
+            availableSeats = Math.min(availableSeats, candidate.legs[i].seats);
+            if (i > 0) {
+                Leg previous = candidate.legs[i - 1];
+                connectionAirports.add(previous.destination);
+                layovers.add((int) ((candidate.legs[i].departure - previous.arrival) / 60));
+            }
+        }
+
+        Leg first = candidate.legs[0];
+        Leg last = candidate.legs[candidate.legs.length - 1];
+        BigDecimal totalPrice = BigDecimal.valueOf(candidate.priceMinor, 2).multiply(BigDecimal.valueOf(passengers));
+        int durationMinutes = (int) (candidate.durationSeconds / 60);
+
+        return FlightItineraryDto.builder()
+            .itineraryId(legs.stream().map(FlightSearchResultDto::getScheduleId).collect(Collectors.joining("_")))
+            .origin(first.origin)
+            .destination(last.destination)
+            .stops(candidate.legs.length - 1)
+            .connectionAirports(connectionAirports)
+            .layoverMinutes(layovers)
+            .departureDateTime(first.schedule.departureTime())
+            .arrivalDateTime(last.schedule.arrivalTime())
+            .duration(formatDuration(durationMinutes))
+            .durationMinutes(durationMinutes)
+            .price(totalPrice.doubleValue())
+            .currency("VND")
+            .formattedPrice(String.format("%,.0f VND", totalPrice.doubleValue()))
+            .seatClass(legs.getFirst().getSeatClass())
+            .availableSeats(availableSeats)
+            .legs(legs)
+            .build();
+    }
+
+    private static String formatDuration(int durationMinutes) {
+        int hours = durationMinutes / 60;
+        int minutes = durationMinutes % 60;
+        if (hours > 0 && minutes > 0) {
+            return String.format("%dh %dm", hours, minutes);
+        } else if (hours > 0) {
+            return String.format("%dh", hours);
+        }
+        return String.format("%dm", minutes);
+    }
+
+    /**
+     * One priced leg flattened into the fields the expansion loop touches.
+     * Prices are per passenger in minor units so partial sums stay exact.
+     */
+    private record Leg(IndexedSchedule schedule, String origin, String destination,
+                       long departure, long arrival, long priceMinor, int seats) {
+
+        static Leg of(IndexedSchedule schedule) {
+            FlightFareDto fare = schedule.fare();
+            return new Leg(
+                schedule,
+                schedule.flight().originIata(),
+                schedule.flight().destinationIata(),
+                schedule.departureTime().toEpochSecond(),
+                schedule.arrivalTime().toEpochSecond(),
+                fare.getPrice().movePointRight(2).longValue(),
+                fare.getAvailableSeats() != null ? fare.getAvailableSeats() : 0);
+        }
+    }
+
+    /**
+     * Departures from one airport sorted by departure time, searchable by time.
+     */
+    private record Departures(long[] times, Leg[] legs) {
+
+        static final Departures EMPTY = new Departures(new long[0], new Leg[0]);
+
+        static Departures of(List<Leg> unsorted) {
+            Leg[] legs = unsorted.toArray(Leg[]::new);
+            Arrays.sort(legs, Comparator.comparingLong(Leg::departure));
+            long[] times = new long[legs.length];
+            for (int i = 0; i < legs.length; i++) {
+                times[i] = legs[i].departure;
+            }
+            return new Departures(times, legs);
+        }
+
+        int size() {
+            return legs.length;
+        }
+
+        int firstAtOrAfter(long epochSecond) {
+            int low = 0;
+            int high = times.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] < epochSecond) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    private record Candidate(Leg[] legs, long priceMinor, long durationSeconds) {
+    }
+
+    /**
+     * Per-request search state: the bounded top-K heap and the expansion/time budget.
+     */
+    private static final class SearchContext {
+        final String destination;
+        final int passengers;
+        final int legLimit;
+        final int limit;
+        final boolean byDuration;
+        final Function<String, Departures> source;
+        final long deadlineNanos;
+        final int maxExpansions;
+        final Comparator<Candidate> ranking;
+        final PriorityQueue<Candidate> best;
+        int expansions;
+        boolean outOfTime;
+
+        SearchContext(String destination, int passengers, int legLimit, int limit, boolean byDuration,
+                      Function<String, Departures> source, long deadlineNanos, int maxExpansions) {
+            this.destination = destination;
+            this.passengers = passengers;
+            this.legLimit = legLimit;
+            this.limit = limit;
+            this.byDuration = byDuration;
+            this.source = source;
+            this.deadlineNanos = deadlineNanos;
+            this.maxExpansions = maxExpansions;
+            Comparator<Candidate> byPrice = Comparator.comparingLong(Candidate::priceMinor);
+            Comparator<Candidate> byTime = Comparator.comparingLong(Candidate::durationSeconds);
+            this.ranking = byDuration
+                ? byTime.thenComparing(byPrice).thenComparingInt(candidate -> candidate.legs().length)
+                : byPrice.thenComparing(byTime).thenComparingInt(candidate -> candidate.legs().length);
+            // Worst retained itinerary sits at the head so it can be evicted in O(log K)
+            this.best = new PriorityQueue<>(limit + 1, ranking.reversed());
+        }
+
+        /**
+         * Price and elapsed time only grow as legs are added, so a partial path that is already
+         * worse than the K-th best can never produce a better itinerary.
+         */
+        boolean canPrune(long partialPriceMinor, long elapsedSeconds) {
+            if (best.size() < limit) {
+                return false;
+            }
+            Candidate worst = best.peek();
+            return byDuration ? elapsedSeconds > worst.durationSeconds() : partialPriceMinor > worst.priceMinor();
+        }
+
+        void offer(Leg[] path, int depth, long priceMinor) {
+            Leg[] legs = Arrays.copyOf(path, depth);
+            Candidate candidate = new Candidate(legs, priceMinor, legs[depth - 1].arrival - legs[0].departure);
+            if (best.size() < limit) {
+                best.add(candidate);
+            } else if (ranking.compare(candidate, best.peek()) < 0) {
+                best.poll();
+                best.add(candidate);
+            }
+        }
+
+        boolean exhausted() {
+            if (outOfTime || expansions >= maxExpansions) {
+                return true;
+            }
+            if (expansions % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() > deadlineNanos) {
+                outOfTime = true;
+            }
+            return outOfTime;
+        }
+    }
+}
@@ -4,10 +4,11 @@ import com.pdh.flight.dto.response.FlightFareDto;
 import com.pdh.flight.dto.response.FlightSearchResultDto;
 import com.pdh.flight.model.Flight;
 import com.pdh.flight.model.FlightSchedule;
-import com.pdh.flight.model.Aircraft;
 import com.pdh.flight.model.enums.FareClass;
 import com.pdh.flight.repository.FlightRepository;
 import com.pdh.flight.repository.FlightScheduleRepository;
+import com.pdh.flight.service.index.FlightSearchIndex;
+import com.pdh.flight.service.index.FlightSearchIndex.FlightEntry;
 import com.pdh.flight.service.pricing.PricingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,6 +17,7 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -38,6 +40,7 @@ public class FlightSearchService {
     private final FlightScheduleRepository flightScheduleRepository;
     private final PricingService pricingService;
     private final FlightSearchSpecificationService flightSearchSpecificationService;
+    private final FlightSearchIndex flightSearchIndex;
     
     /**
      * Search flights with pricing information and filters using JPA Specifications
@@ -68,6 +71,12 @@ public class FlightSearchService {
                 origin, destination, originTerms, destinationTerms, departureDate, passengers, fareClass, sortBy, airlineId, departureAirportId, airlineName, airlineCode, minPrice, maxPrice, minDuration, maxDuration);
         
         try {
+            // Answer from the in-memory route index when it is warm and covers the request
+            if (flightSearchIndex.canServe(origin, destination, departureDate)) {
+                return searchFromIndex(origin, destination, departureDate, passengers, fareClass, pageable, sortBy,
+                        airlineName, airlineCode, minPrice, maxPrice, minDuration, maxDuration);
+            }
+
             // Build search criteria for JPA Specifications
             FlightSearchSpecificationService.FlightSearchCriteria criteria = new FlightSearchSpecificationService.FlightSearchCriteria();
             criteria.setOrigin(origin);
@@ -128,7 +137,7 @@ public class FlightSearchService {
             // Convert to search result DTOs
             List<FlightSearchResultDto> searchResults = flightPage.getContent().stream()
                     .map(flight -> convertToSearchResult(
-                            flight,
+                            FlightEntry.from(flight),
                             schedulesByFlightId.getOrDefault(flight.getFlightId(), List.of()),
                             faresMap,
                             passengers,
@@ -145,10 +154,72 @@ public class FlightSearchService {
     }
     
     /**
-     * Convert Flight entity to FlightSearchResultDto with pricing
+     * Search direct flights from the in-memory route index.
+     * Applies the same flight-level filters as the JPA Specifications, so both paths agree.
+     */
+    private Page<FlightSearchResultDto> searchFromIndex(
+            String origin, String destination, LocalDate departureDate, int passengers, FareClass fareClass,
+            Pageable pageable, String sortBy, String airlineName, String airlineCode,
+            BigDecimal minPrice, BigDecimal maxPrice, Integer minDuration, Integer maxDuration) {
+
+        String airlineNameTerm = StringUtils.hasText(airlineName) ? airlineName.toLowerCase() : null;
+        String airlineCodeTerm = StringUtils.hasText(airlineCode) ? airlineCode.toLowerCase() : null;
+
+        // Schedules come back ordered by departure, so the first hit per flight is its earliest schedule
+        Map<Long, FlightSearchIndex.IndexedSchedule> earliestByFlight = new LinkedHashMap<>();
+        for (FlightSearchIndex.IndexedSchedule candidate : flightSearchIndex.findDirect(origin, destination, departureDate, fareClass)) {
+            FlightEntry flight = candidate.flight();
+            if (airlineNameTerm != null && (flight.airlineName() == null || !flight.airlineName().toLowerCase().contains(airlineNameTerm))) {
+                continue;
+            }
+            if (airlineCodeTerm != null && (flight.airlineCode() == null || !flight.airlineCode().toLowerCase().contains(airlineCodeTerm))) {
+                continue;
+            }
+            if (!withinRange(flight.basePrice(), minPrice, maxPrice)) {
+                continue;
+            }
+            if (!withinRange(flight.baseDurationMinutes(), minDuration, maxDuration)) {
+                continue;
+            }
+            earliestByFlight.putIfAbsent(flight.flightId(), candidate);
+        }
+
+        List<FlightSearchResultDto> matches = earliestByFlight.values().stream()
+                .map(match -> buildSearchResult(match.flight(), match.departureTime(), match.arrivalTime(),
+                        match.scheduleId(), match.fare(), passengers, fareClass))
+                .sorted(resultComparator(sortBy))
+                .collect(Collectors.toList());
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    private static <T extends Comparable<T>> boolean withinRange(T value, T min, T max) {
+        if (min == null && max == null) {
+            return true;
+        }
+        if (value == null) {
+            return false;
+        }
+        return (min == null || value.compareTo(min) >= 0) && (max == null || value.compareTo(max) <= 0);
+    }
+
+    private Comparator<FlightSearchResultDto> resultComparator(String sortBy) {
+        String key = sortBy != null ? sortBy.toLowerCase() : "departure";
+        return switch (key) {
+            case "price" -> Comparator.comparing(FlightSearchResultDto::getPrice, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "duration" -> Comparator.comparing(FlightSearchResultDto::getDurationMinutes, Comparator.nullsLast(Comparator.naturalOrder()));
+            case "arrival" -> Comparator.comparing(FlightSearchResultDto::getArrivalDateTime, Comparator.nullsLast(Comparator.naturalOrder()));
+            default -> Comparator.comparing(FlightSearchResultDto::getDepartureDateTime, Comparator.nullsLast(Comparator.naturalOrder()));
+        };
+    }
+
+    /**
+     * Convert a flight and its schedules to FlightSearchResultDto with pricing
      */
     private FlightSearchResultDto convertToSearchResult(
-            Flight flight,
+            FlightEntry flight,
             List<FlightSchedule> flightSchedules,
             Map<UUID, List<FlightFareDto>> faresMap,
             int passengers,
@@ -177,43 +248,59 @@ public class FlightSearchService {
         }
 
         FlightSchedule matchingSchedule = selected.schedule();
-        FlightFareDto selectedFare = selected.fare();
+        return buildSearchResult(flight, matchingSchedule.getDepartureTime(), matchingSchedule.getArrivalTime(),
+                matchingSchedule.getScheduleId(), selected.fare(), passengers, fareClass);
+    }
+
+    /**
+     * Build the storefront search result for one priced schedule of a flight
+     */
+    public FlightSearchResultDto buildSearchResult(
+            FlightEntry flight,
+            ZonedDateTime departureTime,
+            ZonedDateTime arrivalTime,
+            UUID scheduleId,
+            FlightFareDto selectedFare,
+            int passengers,
+            FareClass fareClass) {
 
         BigDecimal totalPrice = selectedFare.getPrice().multiply(BigDecimal.valueOf(passengers));
         String resolvedSeatClass = selectedFare.getFareClass() != null
                 ? selectedFare.getFareClass()
                 : fareClass != null ? fareClass.name() : "ECONOMY";
 
+        Integer durationMinutes = calculateDuration(departureTime, arrivalTime);
+
         return FlightSearchResultDto.builder()
-                .flightId(flight.getFlightId().toString())
-                .airline(flight.getAirline() != null ? flight.getAirline().getName() : "Unknown")
-                .airlineCode(flight.getAirline() != null ? flight.getAirline().getIataCode() : "")
-                .airlineLogo(flight.getAirline() != null ? flight.getAirline().getFeaturedMediaUrl() : null) // Add airline logo URL
-                .flightNumber(flight.getFlightNumber())
-                .origin(flight.getDepartureAirport() != null ? flight.getDepartureAirport().getIataCode() : "")
-                .destination(flight.getArrivalAirport() != null ? flight.getArrivalAirport().getIataCode() : "")
-                .originName(flight.getDepartureAirport() != null ? flight.getDepartureAirport().getName() : "")
-                .destinationName(flight.getArrivalAirport() != null ? flight.getArrivalAirport().getName() : "")
-                .originLatitude(flight.getDepartureAirport() != null ? flight.getDepartureAirport().getLatitude() : null)
-                .originLongitude(flight.getDepartureAirport() != null ? flight.getDepartureAirport().getLongitude() : null)
-                .destinationLatitude(flight.getArrivalAirport() != null ? flight.getArrivalAirport().getLatitude() : null)
-                .destinationLongitude(flight.getArrivalAirport() != null ? flight.getArrivalAirport().getLongitude() : null)
-                .departureTime(matchingSchedule.getDepartureTime().format(DateTimeFormatter.ofPattern("HH:mm")))
-                .arrivalTime(matchingSchedule.getArrivalTime().format(DateTimeFormatter.ofPattern("HH:mm")))
-                .departureDateTime(matchingSchedule.getDepartureTime())
-                .arrivalDateTime(matchingSchedule.getArrivalTime())
-                .duration(formatDuration(calculateDuration(matchingSchedule)))
-                .durationMinutes(calculateDuration(matchingSchedule))
+                .flightId(flight.flightId().toString())
+                .airline(flight.airlineName())
+                .airlineCode(flight.airlineCode())
+                .airlineLogo(flight.airlineLogo()) // Add airline logo URL
+                .flightNumber(flight.flightNumber())
+                .origin(flight.originIata())
+                .destination(flight.destinationIata())
+                .originName(flight.originName())
+                .destinationName(flight.destinationName())
+                .originLatitude(flight.originLatitude())
+                .originLongitude(flight.originLongitude())
+                .destinationLatitude(flight.destinationLatitude())
+                .destinationLongitude(flight.destinationLongitude())
+                .departureTime(departureTime.format(DateTimeFormatter.ofPattern("HH:mm")))
+                .arrivalTime(arrivalTime.format(DateTimeFormatter.ofPattern("HH:mm")))
+                .departureDateTime(departureTime)
+                .arrivalDateTime(arrivalTime)
+                .duration(formatDuration(durationMinutes))
+                .durationMinutes(durationMinutes)
                 .price(totalPrice.doubleValue())
                 .currency("VND")
                 .formattedPrice(formatPrice(totalPrice))
                 .seatClass(resolvedSeatClass)
                 .availableSeats(selectedFare.getAvailableSeats() != null ? selectedFare.getAvailableSeats() : 0)
-                .totalSeats(getTotalSeats(flight.getAircraft()))
-                .scheduleId(matchingSchedule.getScheduleId() != null ? matchingSchedule.getScheduleId().toString() : null)
+                .totalSeats(flight.totalSeats() != null ? flight.totalSeats() : 200)
+                .scheduleId(scheduleId != null ? scheduleId.toString() : null)
                 .fareId(selectedFare.getFareId() != null ? selectedFare.getFareId().toString() : null)
-                .aircraft(flight.getAircraft() != null ? flight.getAircraft().getModel() : "Unknown")
-                .aircraftType(flight.getAircraftType())
+                .aircraft(flight.aircraftModel())
+                .aircraftType(flight.aircraftType())
                 .stops(0)
                 .amenities(Arrays.asList("In-flight entertainment", "Meal service"))
                 .mealService("Complimentary meal")
@@ -230,7 +317,10 @@ public class FlightSearchService {
                 .build();
     }
 
-    private FlightFareDto selectFareForSchedule(List<FlightFareDto> scheduleFares, FareClass requestedClass) {
+    /**
+     * Pick the cheapest fare of the requested class, otherwise the cheapest fare of any class
+     */
+    public FlightFareDto selectFareForSchedule(List<FlightFareDto> scheduleFares, FareClass requestedClass) {
         if (scheduleFares == null || scheduleFares.isEmpty()) {
             return null;
         }
@@ -254,10 +344,9 @@ public class FlightSearchService {
     /**
      * Calculate flight duration in minutes
      */
-    private Integer calculateDuration(FlightSchedule schedule) {
-        if (schedule.getDepartureTime() != null && schedule.getArrivalTime() != null) {
-            return (int) java.time.temporal.ChronoUnit.MINUTES.between(
-                    schedule.getDepartureTime(), schedule.getArrivalTime());
+    private Integer calculateDuration(ZonedDateTime departureTime, ZonedDateTime arrivalTime) {
+        if (departureTime != null && arrivalTime != null) {
+            return (int) java.time.temporal.ChronoUnit.MINUTES.between(departureTime, arrivalTime);
         }
         return 120; // Default 2 hours
     }
@@ -289,15 +378,5 @@ public class FlightSearchService {
         return String.format("%,.0f VND", price.doubleValue());
     }
     
-    /**
-     * Get total seats for an aircraft
-     */
-    private Integer getTotalSeats(Aircraft aircraft) {
-        if (aircraft != null && aircraft.getTotalCapacity() != null) {
-            return aircraft.getTotalCapacity();
-        }
-        return 200; // Default capacity
-    }
-
     private record FlightScheduleWithFare(FlightSchedule schedule, FlightFareDto fare) {}
 }
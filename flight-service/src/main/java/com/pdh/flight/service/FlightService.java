@@ -203,22 +203,32 @@ public class FlightService {
         }
 
         FareClass fareClass = resolveFareClass(seatClass);
-        FlightFare fare = resolveFlightFare(flightId, departureDateTime, fareClass);
-        int currentSeats = Optional.ofNullable(fare.getAvailableSeats()).orElse(0);
+        UUID scheduleId = resolveScheduleId(flightId, departureDateTime);
 
         if (reserve) {
-            if (currentSeats < passengerCount) {
-                throw new IllegalStateException(String.format(
-                        "Not enough seats for flight %s (%s). Requested %d, available %d",
-                        flightId, fareClass, passengerCount, currentSeats));
-            }
-            fare.setAvailableSeats(currentSeats - passengerCount);
-        } else {
-            fare.setAvailableSeats(currentSeats + Math.max(passengerCount, 0));
+            return flightFareRepository.decrementAvailableSeats(scheduleId, fareClass.name(), passengerCount)
+                    .orElseThrow(() -> insufficientInventory(flightId, scheduleId, fareClass, passengerCount));
         }
+        return flightFareRepository.incrementAvailableSeats(scheduleId, fareClass.name(), passengerCount)
+                .orElseThrow(() -> new IllegalStateException(String.format(
+                        "Fare not found for schedule %s and class %s", scheduleId, fareClass)));
+    }
 
-        flightFareRepository.save(fare);
-        return fare.getAvailableSeats();
+    /**
+     * Explain why a conditional decrement matched no row. Only runs on the failure path.
+     */
+    private IllegalStateException insufficientInventory(String flightId,
+                                                        UUID scheduleId,
+                                                        FareClass fareClass,
+                                                        int passengerCount) {
+        FlightFare fare = flightFareRepository.findByScheduleIdAndFareClass(scheduleId, fareClass);
+        if (fare == null) {
+            return new IllegalStateException(String.format(
+                    "Fare not found for schedule %s and class %s", scheduleId, fareClass));
+        }
+        return new IllegalStateException(String.format(
+                "Not enough seats for flight %s (%s). Requested %d, available %d",
+                flightId, fareClass, passengerCount, Optional.ofNullable(fare.getAvailableSeats()).orElse(0)));
     }
 
     private void safeReleaseInventory(String flightId,
@@ -232,14 +242,10 @@ public class FlightService {
         }
     }
 
-    private FlightFare resolveFlightFare(String flightId,
-                                         LocalDateTime departureDateTime,
-                                         FareClass fareClass) {
+    private UUID resolveScheduleId(String flightId, LocalDateTime departureDateTime) {
         UUID scheduleId = tryParseUuid(flightId);
         if (scheduleId != null) {
-            return flightFareRepository.findByScheduleIdAndFareClassForUpdate(scheduleId, fareClass)
-                    .orElseThrow(() -> new IllegalStateException(String.format(
-                            "Fare not found for schedule %s and class %s", scheduleId, fareClass)));
+            return scheduleId;
         }
 
         Long flightNumericId = tryParseLong(flightId);
@@ -260,10 +266,7 @@ public class FlightService {
             throw new IllegalStateException(String.format(
                     "No flight schedule found for flight %s around %s", flightId, departureDateTime));
         }
-
-        return flightFareRepository.findByScheduleIdAndFareClassForUpdate(bestMatch.getScheduleId(), fareClass)
-                .orElseThrow(() -> new IllegalStateException(String.format(
-                        "Fare not found for schedule %s and class %s", bestMatch.getScheduleId(), fareClass)));
+        return bestMatch.getScheduleId();
     }
 
     private FlightSchedule selectBestMatchingSchedule(List<FlightSchedule> schedules, LocalDateTime desiredDeparture) {
@@ -0,0 +1,613 @@
+package com.pdh.flight.service.index;
+
+import com.pdh.flight.dto.response.FlightFareDto;
+import com.pdh.flight.model.Aircraft;
+import com.pdh.flight.model.Airline;
+import com.pdh.flight.model.Airport;
+import com.pdh.flight.model.Flight;
+import com.pdh.flight.model.enums.FareClass;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory route index backing storefront flight search.
+ *
+ * Layout is origin IATA -> destination IATA -> departure day (UTC) -> {@link RouteDay}.
+ * A route day is an immutable set of primitive arrays that is rebuilt and swapped on every change,
+ * so searches never lock and never touch Postgres. The index is fed by the flight CDC topics
+ * and remembers the last applied WAL position as its consistency watermark.
+ */
+@Component
+@Slf4j
+public class FlightSearchIndex {
+
+    private static final FareClass[] FARE_CLASSES = FareClass.values();
+    private static final int FARE_CLASS_COUNT = FARE_CLASSES.length;
+    private static final long NO_PRICE = -1L;
+    private static final long SECONDS_PER_DAY = 86_400L;
+    private static final ZoneId RESULT_ZONE = ZoneId.systemDefault();
+
+    private final Map<Long, FlightEntry> flights = new ConcurrentHashMap<>();
+    private final Map<UUID, ScheduleEntry> schedules = new ConcurrentHashMap<>();
+    private final Map<UUID, Map<UUID, FareEntry>> faresBySchedule = new ConcurrentHashMap<>();
+    private final Map<UUID, UUID> fareSchedules = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Map<Long, RouteDay>>> routes = new ConcurrentHashMap<>();
+    private final Set<String> airports = ConcurrentHashMap.newKeySet();
+
+    // Ids deleted by CDC while a snapshot load is running, so stale snapshot rows are not resurrected
+    private final Set<Object> warmupTombstones = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong watermarkLsn = new AtomicLong(-1L);
+    private volatile long snapshotLsn = -1L;
+    private volatile Instant lastAppliedAt;
+    private volatile LocalDate coveredFrom;
+    private volatile LocalDate coveredUntil;
+    private volatile boolean warm;
+    private volatile boolean loading;
+
+    // ==================== QUERIES ====================
+
+    /**
+     * Whether the index can answer a direct-route search on its own.
+     */
+    public boolean canServe(String originIata, String destinationIata, LocalDate departureDate) {
+        return warm
+            && departureDate != null
+            && coveredFrom != null && !departureDate.isBefore(coveredFrom)
+            && coveredUntil != null && departureDate.isBefore(coveredUntil)
+            && originIata != null && airports.contains(originIata)
+            && destinationIata != null && airports.contains(destinationIata);
+    }
+
+    /**
+     * Direct departures on a route for one day, ordered by departure time.
+     * Each result carries the fare picked the same way the JPA search path picks it:
+     * the cheapest fare of the requested class, otherwise the cheapest fare of any class.
+     */
+    public List<IndexedSchedule> findDirect(String originIata, String destinationIata,
+                                            LocalDate departureDate, FareClass fareClass) {
+        Map<String, Map<Long, RouteDay>> byDestination = routes.get(originIata);
+        if (byDestination == null) {
+            return List.of();
+        }
+        Map<Long, RouteDay> byDay = byDestination.get(destinationIata);
+        if (byDay == null) {
+            return List.of();
+        }
+        RouteDay day = byDay.get(departureDate.toEpochDay());
+        if (day == null) {
+            return List.of();
+        }
+
+        List<IndexedSchedule> results = new ArrayList<>(day.size());
+        for (int slot = 0; slot < day.size(); slot++) {
+            int fareSlot = day.selectFare(slot, fareClass);
+            if (fareSlot < 0) {
+                continue;
+            }
+            FlightEntry flight = flights.get(day.flightIds[slot]);
+            if (flight == null) {
+                continue;
+            }
+            results.add(new IndexedSchedule(
+                flight,
+                day.scheduleIds[slot],
+                ZonedDateTime.ofInstant(Instant.ofEpochSecond(day.departures[slot]), RESULT_ZONE),
+                ZonedDateTime.ofInstant(Instant.ofEpochSecond(day.arrivals[slot]), RESULT_ZONE),
+                day.toFareDto(slot, fareSlot)
+            ));
+        }
+        return results;
+    }
+
+    /**
+     * Whether every day touched by a multi-day departure window is loaded.
+     */
+    public boolean coversWindow(LocalDate firstDay, LocalDate lastDay) {
+        return warm
+            && coveredFrom != null && !firstDay.isBefore(coveredFrom)
+            && coveredUntil != null && lastDay.isBefore(coveredUntil);
+    }
+
+    /**
+     * All priced departures from one airport in {@code [fromEpochSecond, toEpochSecond)}, across every destination.
+     * This is the edge expansion used by the connecting itinerary search.
+     */
+    public List<IndexedSchedule> findDepartures(String originIata, long fromEpochSecond, long toEpochSecond,
+                                                FareClass fareClass) {
+        Map<String, Map<Long, RouteDay>> byDestination = routes.get(originIata);
+        if (byDestination == null) {
+            return List.of();
+        }
+        long firstDay = Math.floorDiv(fromEpochSecond, SECONDS_PER_DAY);
+        long lastDay = Math.floorDiv(toEpochSecond - 1, SECONDS_PER_DAY);
+
+        List<IndexedSchedule> results = new ArrayList<>();
+        for (Map<Long, RouteDay> byDay : byDestination.values()) {
+            for (long epochDay = firstDay; epochDay <= lastDay; epochDay++) {
+                RouteDay day = byDay.get(epochDay);
+                if (day == null) {
+                    continue;
+                }
+                for (int slot = 0; slot < day.size(); slot++) {
+                    long departure = day.departures[slot];
+                    if (departure < fromEpochSecond) {
+                        continue;
+                    }
+                    if (departure >= toEpochSecond) {
+                        break;
+                    }
+                    int fareSlot = day.selectFare(slot, fareClass);
+                    FlightEntry flight = flights.get(day.flightIds[slot]);
+                    if (fareSlot < 0 || flight == null) {
+                        continue;
+                    }
+                    results.add(new IndexedSchedule(
+                        flight,
+                        day.scheduleIds[slot],
+                        ZonedDateTime.ofInstant(Instant.ofEpochSecond(departure), RESULT_ZONE),
+                        ZonedDateTime.ofInstant(Instant.ofEpochSecond(day.arrivals[slot]), RESULT_ZONE),
+                        day.toFareDto(slot, fareSlot)
+                    ));
+                }
+            }
+        }
+        return results;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("warm", warm);
+        status.put("loading", loading);
+        status.put("watermarkLsn", watermarkLsn.get());
+        status.put("snapshotLsn", snapshotLsn);
+        status.put("lastAppliedAt", lastAppliedAt);
+        status.put("coveredFrom", coveredFrom);
+        status.put("coveredUntil", coveredUntil);
+        status.put("flights", flights.size());
+        status.put("schedules", schedules.size());
+        status.put("fares", fareSchedules.size());
+        status.put("airports", airports.size());
+        return status;
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public long getWatermarkLsn() {
+        return watermarkLsn.get();
+    }
+
+    public LocalDate getCoveredUntil() {
+        return coveredUntil;
+    }
+
+    // ==================== LIFECYCLE ====================
+
+    /**
+     * Start a snapshot load. The previous contents are dropped and searches fall back to JPA
+     * until {@link #completeWarmup} is called.
+     */
+    public synchronized void beginWarmup(long lsn) {
+        warm = false;
+        loading = true;
+        warmupTombstones.clear();
+        flights.clear();
+        schedules.clear();
+        faresBySchedule.clear();
+        fareSchedules.clear();
+        routes.clear();
+        airports.clear();
+        snapshotLsn = lsn;
+        watermarkLsn.accumulateAndGet(lsn, Math::max);
+    }
+
+    public synchronized void completeWarmup(LocalDate from, LocalDate until) {
+        coveredFrom = from;
+        coveredUntil = until;
+        loading = false;
+        warmupTombstones.clear();
+        warm = true;
+        log.info("Flight search index warm: {} flights, {} schedules, {} fares, covering {} to {}",
+            flights.size(), schedules.size(), fareSchedules.size(), from, until);
+    }
+
+    /**
+     * Take the index out of service after a change could not be applied; searches fall back to JPA
+     * until the next full load.
+     */
+    public void markStale(String reason) {
+        if (warm) {
+            log.warn("Flight search index marked stale: {}", reason);
+        }
+        warm = false;
+    }
+
+    /**
+     * Drop route days that are already in the past and slide the covered window forward.
+     */
+    public void evictBefore(LocalDate day, LocalDate newCoveredUntil) {
+        long cutoff = day.toEpochDay();
+        routes.values().forEach(byDestination ->
+            byDestination.values().forEach(byDay -> byDay.keySet().removeIf(epochDay -> epochDay < cutoff)));
+        long cutoffSecond = cutoff * SECONDS_PER_DAY;
+        schedules.values().removeIf(schedule -> {
+            if (schedule.departureEpochSecond() < cutoffSecond) {
+                Map<UUID, FareEntry> fares = faresBySchedule.remove(schedule.scheduleId());
+                if (fares != null) {
+                    fares.keySet().forEach(fareSchedules::remove);
+                }
+                return true;
+            }
+            return false;
+        });
+        coveredFrom = day;
+        if (newCoveredUntil != null) {
+            coveredUntil = newCoveredUntil;
+        }
+    }
+
+    public void advanceWatermark(Long lsn) {
+        if (lsn != null) {
+            watermarkLsn.accumulateAndGet(lsn, Math::max);
+        }
+        lastAppliedAt = Instant.now();
+    }
+
+    // ==================== SNAPSHOT LOAD (never overwrites CDC-applied state) ====================
+
+    public void loadFlight(FlightEntry flight) {
+        if (warmupTombstones.contains(flight.flightId())) {
+            return;
+        }
+        if (flights.putIfAbsent(flight.flightId(), flight) == null) {
+            airports.add(flight.originIata());
+            airports.add(flight.destinationIata());
+        }
+    }
+
+    public void loadSchedule(ScheduleEntry schedule) {
+        if (warmupTombstones.contains(schedule.scheduleId())) {
+            return;
+        }
+        if (schedules.putIfAbsent(schedule.scheduleId(), schedule) == null) {
+            reindex(schedule.scheduleId(), null);
+        }
+    }
+
+    public void loadFare(FareEntry fare) {
+        if (warmupTombstones.contains(fare.fareId())) {
+            return;
+        }
+        if (fareSchedules.putIfAbsent(fare.fareId(), fare.scheduleId()) == null) {
+            faresBySchedule.computeIfAbsent(fare.scheduleId(), id -> new ConcurrentHashMap<>())
+                .put(fare.fareId(), fare);
+            reindex(fare.scheduleId(), null);
+        }
+    }
+
+    // ==================== CDC APPLY ====================
+
+    public void upsertFlight(FlightEntry flight) {
+        FlightEntry previous = flights.put(flight.flightId(), flight);
+        airports.add(flight.originIata());
+        airports.add(flight.destinationIata());
+        reindexFlight(flight.flightId(), previous);
+    }
+
+    public void removeFlight(long flightId) {
+        if (loading) {
+            warmupTombstones.add(flightId);
+        }
+        FlightEntry previous = flights.remove(flightId);
+        if (previous != null) {
+            reindexFlight(flightId, previous);
+        }
+    }
+
+    public boolean containsFlight(long flightId) {
+        return flights.containsKey(flightId);
+    }
+
+    public void upsertSchedule(ScheduleEntry schedule) {
+        ScheduleEntry previous = schedules.put(schedule.scheduleId(), schedule);
+        reindex(schedule.scheduleId(), previous);
+    }
+
+    public void removeSchedule(UUID scheduleId) {
+        if (loading) {
+            warmupTombstones.add(scheduleId);
+        }
+        ScheduleEntry previous = schedules.remove(scheduleId);
+        Map<UUID, FareEntry> fares = faresBySchedule.remove(scheduleId);
+        if (fares != null) {
+            fares.keySet().forEach(fareSchedules::remove);
+        }
+        if (previous != null) {
+            reindex(scheduleId, previous);
+        }
+    }
+
+    public void upsertFare(FareEntry fare) {
+        UUID previousSchedule = fareSchedules.put(fare.fareId(), fare.scheduleId());
+        if (previousSchedule != null && !previousSchedule.equals(fare.scheduleId())) {
+            removeFareFromSchedule(previousSchedule, fare.fareId());
+            reindex(previousSchedule, null);
+        }
+        faresBySchedule.computeIfAbsent(fare.scheduleId(), id -> new ConcurrentHashMap<>())
+            .put(fare.fareId(), fare);
+        reindex(fare.scheduleId(), null);
+    }
+
+    public void removeFare(UUID fareId) {
+        if (loading) {
+            warmupTombstones.add(fareId);
+        }
+        UUID scheduleId = fareSchedules.remove(fareId);
+        if (scheduleId != null) {
+            removeFareFromSchedule(scheduleId, fareId);
+            reindex(scheduleId, null);
+        }
+    }
+
+    // ==================== INTERNALS ====================
+
+    private void removeFareFromSchedule(UUID scheduleId, UUID fareId) {
+        Map<UUID, FareEntry> fares = faresBySchedule.get(scheduleId);
+        if (fares != null) {
+            fares.remove(fareId);
+        }
+    }
+
+    private void reindexFlight(long flightId, FlightEntry previous) {
+        List<UUID> affected = schedules.values().stream()
+            .filter(schedule -> schedule.flightId() == flightId)
+            .map(ScheduleEntry::scheduleId)
+            .toList();
+        for (UUID scheduleId : affected) {
+            ScheduleEntry schedule = schedules.get(scheduleId);
+            if (schedule == null) {
+                continue;
+            }
+            if (previous != null) {
+                rebuild(previous.originIata(), previous.destinationIata(), schedule.epochDay(), scheduleId);
+            }
+            reindex(scheduleId, null);
+        }
+    }
+
+    /**
+     * Rebuild the route day a schedule currently lives in, plus the one it used to live in.
+     */
+    private void reindex(UUID scheduleId, ScheduleEntry previous) {
+        if (previous != null) {
+            FlightEntry previousFlight = flights.get(previous.flightId());
+            if (previousFlight != null) {
+                rebuild(previousFlight.originIata(), previousFlight.destinationIata(), previous.epochDay(), scheduleId);
+            }
+        }
+        ScheduleEntry current = schedules.get(scheduleId);
+        if (current == null) {
+            return;
+        }
+        FlightEntry flight = flights.get(current.flightId());
+        if (flight == null) {
+            return;
+        }
+        rebuild(flight.originIata(), flight.destinationIata(), current.epochDay(), scheduleId);
+    }
+
+    private void rebuild(String origin, String destination, long epochDay, UUID touchedScheduleId) {
+        Map<Long, RouteDay> byDay = routes
+            .computeIfAbsent(origin, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(destination, key -> new ConcurrentHashMap<>());
+
+        byDay.compute(epochDay, (day, current) -> {
+            Set<UUID> candidates = new LinkedHashSet<>();
+            if (current != null) {
+                candidates.addAll(Arrays.asList(current.scheduleIds));
+            }
+            candidates.add(touchedScheduleId);
+
+            List<ScheduleEntry> members = new ArrayList<>(candidates.size());
+            for (UUID candidateId : candidates) {
+                ScheduleEntry schedule = schedules.get(candidateId);
+                if (schedule == null || schedule.epochDay() != day) {
+                    continue;
+                }
+                FlightEntry flight = flights.get(schedule.flightId());
+                if (flight == null || !flight.searchable()
+                    || !origin.equals(flight.originIata()) || !destination.equals(flight.destinationIata())) {
+                    continue;
+                }
+                members.add(schedule);
+            }
+            if (members.isEmpty()) {
+                return null;
+            }
+            members.sort(Comparator.comparingLong(ScheduleEntry::departureEpochSecond));
+            return RouteDay.of(members, faresBySchedule);
+        });
+    }
+
+    // ==================== DATA ====================
+
+    /**
+     * Denormalised flight header, everything the search result needs without touching JPA.
+     */
+    public record FlightEntry(
+        Long flightId,
+        String flightNumber,
+        String airlineName,
+        String airlineCode,
+        String airlineLogo,
+        String originIata,
+        String destinationIata,
+        String originName,
+        String destinationName,
+        Double originLatitude,
+        Double originLongitude,
+        Double destinationLatitude,
+        Double destinationLongitude,
+        String aircraftModel,
+        String aircraftType,
+        Integer totalSeats,
+        BigDecimal basePrice,
+        Integer baseDurationMinutes,
+        boolean searchable
+    ) {
+        public static FlightEntry from(Flight flight) {
+            Airline airline = flight.getAirline();
+            Airport departure = flight.getDepartureAirport();
+            Airport arrival = flight.getArrivalAirport();
+            Aircraft aircraft = flight.getAircraft();
+            return new FlightEntry(
+                flight.getFlightId(),
+                flight.getFlightNumber(),
+                airline != null ? airline.getName() : "Unknown",
+                airline != null ? airline.getIataCode() : "",
+                airline != null ? airline.getFeaturedMediaUrl() : null,
+                departure != null ? departure.getIataCode() : "",
+                arrival != null ? arrival.getIataCode() : "",
+                departure != null ? departure.getName() : "",
+                arrival != null ? arrival.getName() : "",
+                departure != null ? departure.getLatitude() : null,
+                departure != null ? departure.getLongitude() : null,
+                arrival != null ? arrival.getLatitude() : null,
+                arrival != null ? arrival.getLongitude() : null,
+                aircraft != null ? aircraft.getModel() : "Unknown",
+                flight.getAircraftType(),
+                aircraft != null ? aircraft.getTotalCapacity() : null,
+                flight.getBasePrice(),
+                flight.getBaseDurationMinutes(),
+                Boolean.TRUE.equals(flight.getIsActive()) && !flight.isDeleted()
+            );
+        }
+    }
+
+    public record ScheduleEntry(UUID scheduleId, long flightId, long departureEpochSecond, long arrivalEpochSecond) {
+        long epochDay() {
+            return Math.floorDiv(departureEpochSecond, SECONDS_PER_DAY);
+        }
+    }
+
+    public record FareEntry(UUID fareId, UUID scheduleId, FareClass fareClass, BigDecimal price, int availableSeats) {
+    }
+
+    /**
+     * A schedule matched by the index together with the fare selected for it.
+     */
+    public record IndexedSchedule(
+        FlightEntry flight,
+        UUID scheduleId,
+        ZonedDateTime departureTime,
+        ZonedDateTime arrivalTime,
+        FlightFareDto fare
+    ) {
+    }
+
+    /**
+     * All departures of one route on one day, stored column-wise.
+     * Fare columns are laid out row-major as {@code slot * FARE_CLASS_COUNT + fareClass.ordinal()}.
+     */
+    static final class RouteDay {
+        final UUID[] scheduleIds;
+        final long[] flightIds;
+        final long[] departures;
+        final long[] arrivals;
+        final UUID[] fareIds;
+        final long[] pricesMinor;
+        final int[] seats;
+
+        private RouteDay(int size) {
+            scheduleIds = new UUID[size];
+            flightIds = new long[size];
+            departures = new long[size];
+            arrivals = new long[size];
+            fareIds = new UUID[size * FARE_CLASS_COUNT];
+            pricesMinor = new long[size * FARE_CLASS_COUNT];
+            seats = new int[size * FARE_CLASS_COUNT];
+            Arrays.fill(pricesMinor, NO_PRICE);
+        }
+
+        static RouteDay of(List<ScheduleEntry> members, Map<UUID, Map<UUID, FareEntry>> faresBySchedule) {
+            RouteDay day = new RouteDay(members.size());
+            for (int slot = 0; slot < members.size(); slot++) {
+                ScheduleEntry schedule = members.get(slot);
+                day.scheduleIds[slot] = schedule.scheduleId();
+                day.flightIds[slot] = schedule.flightId();
+                day.departures[slot] = schedule.departureEpochSecond();
+                day.arrivals[slot] = schedule.arrivalEpochSecond();
+
+                Map<UUID, FareEntry> fares = faresBySchedule.get(schedule.scheduleId());
+                if (fares == null) {
+                    continue;
+                }
+                for (FareEntry fare : fares.values()) {
+                    if (fare.fareClass() == null || fare.price() == null) {
+                        continue;
+                    }
+                    int index = slot * FARE_CLASS_COUNT + fare.fareClass().ordinal();
+                    long minor = toMinor(fare.price());
+                    if (day.pricesMinor[index] == NO_PRICE || minor < day.pricesMinor[index]) {
+                        day.pricesMinor[index] = minor;
+                        day.fareIds[index] = fare.fareId();
+                        day.seats[index] = fare.availableSeats();
+                    }
+                }
+            }
+            return day;
+        }
+
+        int size() {
+            return scheduleIds.length;
+        }
+
+        int selectFare(int slot, FareClass requested) {
+            int base = slot * FARE_CLASS_COUNT;
+            if (requested != null && pricesMinor[base + requested.ordinal()] != NO_PRICE) {
+                return base + requested.ordinal();
+            }
+            int best = -1;
+            for (int i = base; i < base + FARE_CLASS_COUNT; i++) {
+                if (pricesMinor[i] != NO_PRICE && (best < 0 || pricesMinor[i] < pricesMinor[best])) {
+                    best = i;
+                }
+            }
+            return best;
+        }
+
+        FlightFareDto toFareDto(int slot, int fareSlot) {
+            return FlightFareDto.builder()
+                .fareId(fareIds[fareSlot])
+                .scheduleId(scheduleIds[slot])
+                .fareClass(FARE_CLASSES[fareSlot - slot * FARE_CLASS_COUNT].name())
+                .price(BigDecimal.valueOf(pricesMinor[fareSlot], 2))
+                .availableSeats(seats[fareSlot])
+                .build();
+        }
+
+        private static long toMinor(BigDecimal price) {
+            return price.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.pdh.flight.service.index;
+
+import com.pdh.flight.model.FlightFare;
+import com.pdh.flight.model.FlightSchedule;
+import com.pdh.flight.repository.FlightFareRepository;
+import com.pdh.flight.repository.FlightRepository;
+import com.pdh.flight.repository.FlightScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Loads the flight search index from Postgres and keeps its day window rolling.
+ * Loading happens once on startup, again whenever the index goes stale, and incrementally
+ * once a day for the day entering the window. Everything in between arrives over CDC.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightSearchIndexLoader {
+
+    private final FlightSearchIndex flightSearchIndex;
+    private final FlightRepository flightRepository;
+    private final FlightScheduleRepository flightScheduleRepository;
+    private final FlightFareRepository flightFareRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${flight.search-index.enabled:true}")
+    private boolean enabled;
+
+    @Value("${flight.search-index.horizon-days:60}")
+    private int horizonDays;
+
+    @Value("${flight.search-index.page-size:2000}")
+    private int pageSize;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.info("Flight search index disabled, storefront search stays on the JPA path");
+            return;
+        }
+        Thread.ofVirtual().name("flight-search-index-loader").start(this::reload);
+    }
+
+    /**
+     * Reload from scratch if a CDC change could not be applied.
+     */
+    @Scheduled(fixedDelayString = "${flight.search-index.recovery-check-ms:60000}")
+    public void recoverIfStale() {
+        if (enabled && !flightSearchIndex.isWarm()) {
+            reload();
+        }
+    }
+
+    /**
+     * Drop yesterday and load the day that just entered the window.
+     */
+    @Scheduled(cron = "0 5 0 * * *", zone = "UTC")
+    public void rollWindow() {
+        if (!enabled || !flightSearchIndex.isWarm()) {
+            return;
+        }
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        LocalDate until = today.plusDays(horizonDays);
+        LocalDate loadedUntil = flightSearchIndex.getCoveredUntil();
+        if (loadedUntil != null && loadedUntil.isBefore(until)) {
+            loadWindow(loadedUntil, until);
+        }
+        flightSearchIndex.evictBefore(today, until);
+    }
+
+    public void reload() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            LocalDate until = today.plusDays(horizonDays);
+
+            // Record the WAL position the snapshot starts from. CDC changes are never skipped by it: a transaction
+            // that wrote before this point can commit after the snapshot is taken, so only replay keeps it
+            flightSearchIndex.beginWarmup(currentWalLsn());
+
+            transactionTemplate.executeWithoutResult(status ->
+                flightRepository.findAllForSearchIndex().stream()
+                    .map(FlightSearchIndex.FlightEntry::from)
+                    .forEach(flightSearchIndex::loadFlight));
+
+            loadWindow(today, until);
+            flightSearchIndex.completeWarmup(today, until);
+            log.info("Flight search index loaded in {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("Failed to load flight search index, search stays on the JPA path", e);
+            flightSearchIndex.markStale("load failed: " + e.getMessage());
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private void loadWindow(LocalDate from, LocalDate until) {
+        ZonedDateTime fromTime = from.atStartOfDay(ZoneOffset.UTC);
+        ZonedDateTime toTime = until.atStartOfDay(ZoneOffset.UTC);
+        Pageable pageable = PageRequest.of(0, pageSize);
+
+        while (pageable != null) {
+            Pageable current = pageable;
+            pageable = transactionTemplate.execute(status -> {
+                Slice<FlightSchedule> slice = flightScheduleRepository.findSchedulesForSearchIndex(fromTime, toTime, current);
+                List<FlightSchedule> page = slice.getContent();
+                if (page.isEmpty()) {
+                    return null;
+                }
+                page.forEach(schedule -> flightSearchIndex.loadSchedule(toScheduleEntry(schedule)));
+
+                List<FlightFare> fares = flightFareRepository.findByScheduleIdIn(
+                    page.stream().map(FlightSchedule::getScheduleId).toList());
+                fares.forEach(fare -> flightSearchIndex.loadFare(toFareEntry(fare)));
+
+                return slice.hasNext() ? slice.nextPageable() : null;
+            });
+        }
+    }
+
+    private long currentWalLsn() {
+        Long lsn = jdbcTemplate.queryForObject("SELECT (pg_current_wal_lsn() - '0/0'::pg_lsn)::bigint", Long.class);
+        return lsn != null ? lsn : -1L;
+    }
+
+    static FlightSearchIndex.ScheduleEntry toScheduleEntry(FlightSchedule schedule) {
+        return new FlightSearchIndex.ScheduleEntry(
+            schedule.getScheduleId(),
+            schedule.getFlightId(),
+            schedule.getDepartureTime().toEpochSecond(),
+            schedule.getArrivalTime().toEpochSecond());
+    }
+
+    static FlightSearchIndex.FareEntry toFareEntry(FlightFare fare) {
+        return new FlightSearchIndex.FareEntry(
+            fare.getFareId(),
+            fare.getScheduleId(),
+            fare.getFareClass(),
+            fare.getPrice(),
+            fare.getAvailableSeats() != null ? fare.getAvailableSeats() : 0);
+    }
+}
@@ -0,0 +1,12 @@
+-- liquibase formatted sql
+-- changeset pdh:20261017-01-airport-min-connection-time
+-- comment: Minimum connection time per airport for connecting itinerary search
+ALTER TABLE airports ADD COLUMN IF NOT EXISTS min_connection_minutes INTEGER;
+-- rollback ALTER TABLE airports DROP COLUMN IF EXISTS min_connection_minutes;
+
+-- changeset pdh:20261017-02-schedule-departure-index
+-- comment: Range index on departure time for the connection search time window
+CREATE INDEX IF NOT EXISTS idx_flight_schedules_departure_active
+    ON flight_schedules (departure_time)
+    WHERE (is_deleted = false);
+-- rollback DROP INDEX IF EXISTS idx_flight_schedules_departure_active;
@@ -0,0 +1,34 @@
+-- liquibase formatted sql
+
+-- changeset pdh:20261017-03-partition-outbox-events splitStatements:false
+-- Range-partition the outbox by created_at: existing rows land in one legacy partition, daily partitions are created ahead and dropped after retention by OutboxPartitionManager.
+-- Unique keys must include the partition key, so the primary key becomes (id, created_at).
+DO $$
+DECLARE
+    legacy_upper TIMESTAMP := date_trunc('day', localtimestamp) + INTERVAL '1 day';
+BEGIN
+    ALTER TABLE flight_outbox_events RENAME TO flight_outbox_events_legacy;
+
+    CREATE TABLE flight_outbox_events (LIKE flight_outbox_events_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+    EXECUTE format('CREATE TABLE flight_outbox_events_legacy_data PARTITION OF flight_outbox_events FOR VALUES FROM (MINVALUE) TO (%L)', legacy_upper);
+    CREATE TABLE flight_outbox_events_default PARTITION OF flight_outbox_events DEFAULT;
+
+    INSERT INTO flight_outbox_events SELECT * FROM flight_outbox_events_legacy;
+    DROP TABLE flight_outbox_events_legacy;
+END $$;
+
+ALTER TABLE flight_outbox_events
+    ADD CONSTRAINT pk_flight_outbox_events PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_flight_outbox_aggregate ON flight_outbox_events (aggregate_type, aggregate_id);
+CREATE INDEX idx_flight_outbox_created_at ON flight_outbox_events (created_at);
+CREATE INDEX idx_flight_outbox_event_type ON flight_outbox_events (event_type);
+
+-- changeset pdh:20261017-04-outbox-publication splitStatements:false
+-- Debezium publication that reports partition changes under the parent table name
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = 'flight_outbox_publication') THEN
+        CREATE PUBLICATION flight_outbox_publication FOR TABLE flight_outbox_events WITH (publish_via_partition_root = true);
+    END IF;
+END $$;
@@ -0,0 +1,70 @@
+package com.pdh.flight.kafka.consumer;
+
+import com.pdh.common.kafka.cdc.message.CdcSource;
+import com.pdh.common.kafka.cdc.message.FlightFareCdcMessage;
+import com.pdh.common.kafka.cdc.message.Operation;
+import com.pdh.flight.repository.FlightRepository;
+import com.pdh.flight.service.index.FlightSearchIndex;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.ConsumerSeekAware.ConsumerSeekCallback;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class FlightSearchIndexCdcConsumerTest {
+
+    private final FlightSearchIndex index = new FlightSearchIndex();
+    private final FlightSearchIndexCdcConsumer consumer =
+        new FlightSearchIndexCdcConsumer(index, mock(FlightRepository.class));
+
+    @Test
+    void changeBelowTheSnapshotPositionIsStillApplied() {
+        // written before the snapshot position was captured, committed after the snapshot was read
+        index.beginWarmup(5_000L);
+        UUID fareId = UUID.randomUUID();
+
+        consumer.onFareChange(fare(fareId, 1_000L));
+
+        assertThat(index.getStatus()).containsEntry("fares", 1);
+    }
+
+    @Test
+    void assignmentSeeksToStartupMinusTheReplayWindow() {
+        Instant before = Instant.now();
+        FlightSearchIndexCdcConsumer started = new FlightSearchIndexCdcConsumer(index, mock(FlightRepository.class));
+        Instant after = Instant.now();
+        ConsumerSeekCallback callback = mock(ConsumerSeekCallback.class);
+        TopicPartition partition = new TopicPartition("flight-fares-cdc", 0);
+
+        started.onPartitionsAssigned(Map.of(partition, 42L), callback);
+
+        ArgumentCaptor<Long> timestamp = ArgumentCaptor.forClass(Long.class);
+        verify(callback).seekToTimestamp(eq(Set.of(partition)), timestamp.capture());
+        Duration window = Duration.ofMinutes(10);
+        assertThat(timestamp.getValue()).isBetween(before.minus(window).toEpochMilli(), after.minus(window).toEpochMilli());
+    }
+
+    private static FlightFareCdcMessage fare(UUID fareId, long lsn) {
+        return FlightFareCdcMessage.builder()
+            .op(Operation.UPDATE)
+            .after(FlightFareCdcMessage.FlightFare.builder()
+                .id(fareId.toString())
+                .scheduleId(UUID.randomUUID().toString())
+                .classType("economy")
+                .price(120.0)
+                .availability(9)
+                .build())
+            .source(CdcSource.builder().lsn(lsn).build())
+            .build();
+    }
+}
@@ -0,0 +1,203 @@
+package com.pdh.flight.repository;
+
+import com.pdh.flight.model.FlightFare;
+import com.pdh.flight.model.enums.FareClass;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seat reservation on the schema built by the Liquibase changelog: many concurrent bookings on one fare
+ * row, comparing the conditional UPDATE ... RETURNING with the former SELECT ... FOR UPDATE then
+ * write-back. Both must sell exactly the available seats and never oversell; the elapsed times are
+ * logged for comparison, not asserted.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = FlightFareRepositoryContentionTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class FlightFareRepositoryContentionTest {
+
+    private static final int SEATS = 500;
+    private static final int THREADS = 32;
+    private static final int ATTEMPTS_PER_THREAD = 25;
+    private static final AtomicInteger FARES = new AtomicInteger();
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.flight.model")
+    @EnableJpaRepositories(basePackageClasses = FlightFareRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = FlightFareRepository.class))
+    static class Config {
+    }
+
+    @Autowired
+    private FlightFareRepository flightFareRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private UUID scheduleId;
+
+    @BeforeEach
+    void createFare() {
+        String code = Integer.toString(FARES.incrementAndGet(), 36).toUpperCase();
+        Long airlineId = insertReturningId("INSERT INTO airlines (created_at, updated_at, is_deleted, is_active, name) "
+            + "VALUES (now(), now(), false, true, 'Contention Air') RETURNING airline_id");
+        Long origin = insertReturningId("INSERT INTO airports (created_at, updated_at, is_deleted, is_active, name, "
+            + "iata_code) VALUES (now(), now(), false, true, 'Origin', 'O" + code + "') RETURNING airport_id");
+        Long destination = insertReturningId("INSERT INTO airports (created_at, updated_at, is_deleted, is_active, "
+            + "name, iata_code) VALUES (now(), now(), false, true, 'Destination', 'D" + code + "') RETURNING airport_id");
+        Long flightId = insertReturningId("INSERT INTO flights (created_at, updated_at, is_deleted, is_active, "
+            + "flight_number, airline_id, departure_airport_id, arrival_airport_id) VALUES (now(), now(), false, true, "
+            + "'CT" + code + "', " + airlineId + ", " + origin + ", " + destination + ") RETURNING flight_id");
+        scheduleId = UUID.randomUUID();
+        jdbcTemplate.update("INSERT INTO flight_schedules (schedule_id, created_at, updated_at, is_deleted, flight_id, "
+            + "departure_time, arrival_time, status) VALUES (?, now(), now(), false, ?, now() + interval '1 day', "
+            + "now() + interval '26 hours', 'SCHEDULED')", scheduleId, flightId);
+        jdbcTemplate.update("INSERT INTO flight_fares (fare_id, created_at, updated_at, is_deleted, schedule_id, "
+            + "fare_class, price, available_seats) VALUES (?, now(), now(), false, ?, 'ECONOMY', 100, ?)",
+            UUID.randomUUID(), scheduleId, SEATS);
+    }
+
+    @Test
+    void conditionalUpdateNeverOversellsUnderContention() throws Exception {
+        long started = System.nanoTime();
+        int sold = runConcurrently(() ->
+            flightFareRepository.decrementAvailableSeats(scheduleId, "ECONOMY", 1).isPresent());
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        log.info("Conditional UPDATE: {} reservations attempted, {} sold in {} ms",
+            THREADS * ATTEMPTS_PER_THREAD, sold, elapsedMs);
+        assertThat(sold).isEqualTo(SEATS);
+        assertThat(availableSeats()).isZero();
+        assertThat(flightFareRepository.decrementAvailableSeats(scheduleId, "ECONOMY", 1)).isEmpty();
+        assertThat(availableSeats()).isZero();
+    }
+
+    @Test
+    void requestLargerThanWhatIsLeftTakesNothing() {
+        assertThat(flightFareRepository.decrementAvailableSeats(scheduleId, "ECONOMY", SEATS - 2)).contains(2);
+
+        assertThat(flightFareRepository.decrementAvailableSeats(scheduleId, "ECONOMY", 3)).isEmpty();
+        assertThat(availableSeats()).isEqualTo(2);
+        assertThat(flightFareRepository.incrementAvailableSeats(scheduleId, "ECONOMY", 3)).contains(5);
+        assertThat(availableSeats()).isEqualTo(5);
+        assertThat(flightFareRepository.decrementAvailableSeats(UUID.randomUUID(), "ECONOMY", 1)).isEmpty();
+    }
+
+    @Test
+    void fareLoadedInTheSameTransactionSeesTheNewCount() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            FlightFare fare = flightFareRepository.findByScheduleIdAndFareClass(scheduleId, FareClass.ECONOMY);
+            assertThat(fare.getAvailableSeats()).isEqualTo(SEATS);
+
+            assertThat(flightFareRepository.decrementAvailableSeats(scheduleId, "ECONOMY", 4)).contains(SEATS - 4);
+
+            assertThat(fare.getAvailableSeats()).isEqualTo(SEATS - 4);
+            // a later change to the same fare must not write the old count back
+            fare.setPrice(BigDecimal.valueOf(120));
+        });
+
+        assertThat(availableSeats()).isEqualTo(SEATS - 4);
+    }
+
+    @Test
+    void selectForUpdateBaselineSellsTheSameSeats() throws Exception {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long started = System.nanoTime();
+        int sold = runConcurrently(() -> Boolean.TRUE.equals(transaction.execute(status -> {
+            Integer available = jdbcTemplate.queryForObject(
+                "SELECT available_seats FROM flight_fares WHERE schedule_id = ? AND fare_class = 'ECONOMY' FOR UPDATE",
+                Integer.class, scheduleId);
+            if (available == null || available < 1) {
+                return false;
+            }
+            jdbcTemplate.update("UPDATE flight_fares SET available_seats = ? WHERE schedule_id = ? AND fare_class = 'ECONOMY'",
+                available - 1, scheduleId);
+            return true;
+        })));
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+
+        log.info("SELECT ... FOR UPDATE baseline: {} reservations attempted, {} sold in {} ms",
+            THREADS * ATTEMPTS_PER_THREAD, sold, elapsedMs);
+        assertThat(sold).isEqualTo(SEATS);
+        assertThat(availableSeats()).isZero();
+    }
+
+    private int runConcurrently(Callable<Boolean> reservation) throws Exception {
+        AtomicInteger sold = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < ATTEMPTS_PER_THREAD; i++) {
+                        if (reservation.call()) {
+                            sold.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        return sold.get();
+    }
+
+    private Long insertReturningId(String sql) {
+        return jdbcTemplate.queryForObject(sql, Long.class);
+    }
+
+    private int availableSeats() {
+        return jdbcTemplate.queryForObject(
+            "SELECT available_seats FROM flight_fares WHERE schedule_id = ?", Integer.class, scheduleId);
+    }
+}
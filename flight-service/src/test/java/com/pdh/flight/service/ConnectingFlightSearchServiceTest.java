@@ -0,0 +1,195 @@
+package com.pdh.flight.service;
+
+import com.pdh.flight.dto.response.FlightItineraryDto;
+import com.pdh.flight.dto.response.FlightSearchResultDto;
+import com.pdh.flight.model.enums.FareClass;
+import com.pdh.flight.repository.AirportRepository;
+import com.pdh.flight.repository.FlightScheduleRepository;
+import com.pdh.flight.service.index.FlightSearchIndex;
+import com.pdh.flight.service.index.FlightSearchIndex.FareEntry;
+import com.pdh.flight.service.index.FlightSearchIndex.FlightEntry;
+import com.pdh.flight.service.index.FlightSearchIndex.ScheduleEntry;
+import com.pdh.flight.service.pricing.PricingService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Depth-first itinerary search over a warm {@link FlightSearchIndex}: connection windows, airport
+ * continuity, top-K ranking and the expansion budget.
+ */
+class ConnectingFlightSearchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 11, 2);
+
+    private final FlightSearchIndex index = new FlightSearchIndex();
+    private final FlightScheduleRepository scheduleRepository = mock(FlightScheduleRepository.class);
+    private final FlightSearchService flightSearchService = mock(FlightSearchService.class);
+    private final ConnectingFlightSearchService service = new ConnectingFlightSearchService(index,
+        scheduleRepository, mock(AirportRepository.class), mock(PricingService.class), flightSearchService);
+
+    private long nextFlightId = 1;
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(service, "maxLegs", 3);
+        ReflectionTestUtils.setField(service, "maxLayoverMinutes", 360);
+        ReflectionTestUtils.setField(service, "defaultMinConnectionMinutes", 45);
+        ReflectionTestUtils.setField(service, "maxTripHours", 36);
+        ReflectionTestUtils.setField(service, "defaultMaxResults", 10);
+        ReflectionTestUtils.setField(service, "latencyBudgetMs", 10_000L);
+        ReflectionTestUtils.setField(service, "maxExpansions", 100_000);
+        ReflectionTestUtils.setField(service, "maxFallbackSchedules", 20_000);
+
+        when(flightSearchService.buildSearchResult(any(), any(), any(), any(), any(), anyInt(), any()))
+            .thenAnswer(invocation -> FlightSearchResultDto.builder()
+                .scheduleId(invocation.getArgument(3, UUID.class).toString())
+                .seatClass("ECONOMY")
+                .stops(0)
+                .build());
+    }
+
+    @Test
+    void connectionNeedsTheMinimumConnectionTimeOfItsAirport() {
+        UUID first = leg("SGN", "HAN", "08:00", "10:00", 100);
+        leg("HAN", "DAD", "10:30", "11:30", 100);
+        UUID tight = leg("HAN", "DAD", "11:00", "12:00", 100);
+        UUID comfortable = leg("HAN", "DAD", "11:40", "12:40", 100);
+        warm();
+
+        assertThat(schedules(search("SGN", "DAD", 10, "price")))
+            .containsExactlyInAnyOrder(List.of(first, tight), List.of(first, comfortable));
+
+        ReflectionTestUtils.setField(service, "minConnectionMinutesByAirport", Map.of("HAN", 90));
+
+        assertThat(schedules(search("SGN", "DAD", 10, "price"))).containsExactly(List.of(first, comfortable));
+    }
+
+    @Test
+    void layoverLongerThanTheMaximumIsRejected() {
+        UUID first = leg("SGN", "HAN", "06:00", "08:00", 100);
+        UUID withinLayover = leg("HAN", "DAD", "14:00", "15:00", 100);
+        leg("HAN", "DAD", "14:05", "15:05", 100);
+        warm();
+
+        List<FlightItineraryDto> itineraries = search("SGN", "DAD", 10, "price");
+
+        assertThat(schedules(itineraries)).containsExactly(List.of(first, withinLayover));
+        assertThat(itineraries.getFirst().getLayoverMinutes()).containsExactly(360);
+    }
+
+    @Test
+    void connectionMustLeaveFromTheArrivalAirport() {
+        // HAN and VDO serve the same region, but a connection cannot switch airports
+        leg("SGN", "HAN", "08:00", "10:00", 100);
+        leg("VDO", "DAD", "12:00", "13:00", 100);
+        warm();
+
+        assertThat(search("SGN", "DAD", 10, "price")).isEmpty();
+    }
+
+    @Test
+    void stopsAreCountedOnTheItineraryAndEveryLegIsNonStop() {
+        UUID first = leg("SGN", "HAN", "08:00", "10:00", 100);
+        UUID second = leg("HAN", "DAD", "11:00", "12:00", 100);
+        warm();
+
+        FlightItineraryDto itinerary = search("SGN", "DAD", 10, "price").getFirst();
+
+        assertThat(itinerary.getStops()).isEqualTo(1);
+        assertThat(itinerary.getConnectionAirports()).containsExactly("HAN");
+        assertThat(itinerary.getLegs()).extracting(FlightSearchResultDto::getScheduleId)
+            .containsExactly(first.toString(), second.toString());
+        assertThat(itinerary.getLegs()).extracting(FlightSearchResultDto::getStops).containsOnly(0);
+    }
+
+    @Test
+    void onlyTheBestItinerariesAreKeptInRankingOrder() {
+        UUID direct = leg("SGN", "DAD", "09:00", "10:30", 500);
+        UUID cheapFirst = leg("SGN", "HAN", "08:00", "10:00", 100);
+        UUID cheapSecond = leg("HAN", "DAD", "11:00", "12:00", 100);
+        UUID midFirst = leg("SGN", "CXR", "07:00", "08:00", 150);
+        UUID midSecond = leg("CXR", "DAD", "09:00", "10:00", 150);
+        leg("SGN", "DAD", "12:00", "13:30", 900);
+        warm();
+
+        assertThat(schedules(search("SGN", "DAD", 3, "price"))).containsExactly(
+            List.of(cheapFirst, cheapSecond),
+            List.of(midFirst, midSecond),
+            List.of(direct));
+        assertThat(schedules(search("SGN", "DAD", 2, "duration")).getFirst()).containsExactly(direct);
+    }
+
+    @Test
+    void expansionBudgetStopsTheSearchEarly() {
+        for (int hour = 6; hour < 16; hour++) {
+            leg("SGN", "DAD", hour + ":00", hour + ":50", 100 + hour);
+        }
+        warm();
+        ReflectionTestUtils.setField(service, "maxExpansions", 4);
+
+        assertThat(search("SGN", "DAD", 10, "price")).hasSize(4);
+    }
+
+    @Test
+    void coldIndexFallsBackToACappedWindowQuery() {
+        ReflectionTestUtils.setField(service, "maxFallbackSchedules", 500);
+        when(scheduleRepository.findConnectableSchedules(any(), any(), any())).thenReturn(List.of());
+
+        assertThat(search("SGN", "DAD", 10, "price")).isEmpty();
+
+        verify(scheduleRepository).findConnectableSchedules(eq(DAY.atStartOfDay(ZoneOffset.UTC)), any(),
+            eq(Limit.of(500)));
+    }
+
+    private List<FlightItineraryDto> search(String origin, String destination, int maxResults, String sortBy) {
+        return service.searchItineraries(origin, destination, DAY, 1, FareClass.ECONOMY, 2, maxResults, sortBy);
+    }
+
+    private UUID leg(String origin, String destination, String departure, String arrival, int price) {
+        long flightId = nextFlightId++;
+        index.loadFlight(new FlightEntry(flightId, "VN" + flightId, "Vietnam Airlines", "VN", null,
+            origin, destination, origin, destination, null, null, null, null, "A321", "NARROW_BODY",
+            180, BigDecimal.valueOf(price), 60, true));
+        UUID scheduleId = UUID.randomUUID();
+        index.loadSchedule(new ScheduleEntry(scheduleId, flightId, epochSecond(departure), epochSecond(arrival)));
+        index.loadFare(new FareEntry(UUID.randomUUID(), scheduleId, FareClass.ECONOMY, BigDecimal.valueOf(price), 9));
+        return scheduleId;
+    }
+
+    private void warm() {
+        index.completeWarmup(DAY.minusDays(1), DAY.plusDays(7));
+    }
+
+    private static long epochSecond(String time) {
+        String[] parts = time.split(":");
+        return ZonedDateTime.of(DAY, LocalTime.of(Integer.parseInt(parts[0]), Integer.parseInt(parts[1])),
+            ZoneOffset.UTC).toEpochSecond();
+    }
+
+    private static List<List<UUID>> schedules(List<FlightItineraryDto> itineraries) {
+        return itineraries.stream()
+            .map(itinerary -> itinerary.getLegs().stream()
+                .map(leg -> UUID.fromString(leg.getScheduleId()))
+                .toList())
+            .toList();
+    }
+}
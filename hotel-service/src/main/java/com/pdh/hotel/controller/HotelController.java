@@ -240,6 +240,7 @@ public class HotelController {
                 || (maxPrice != null)
                 || (minRating != null)
                 || (maxRating != null)
+                || StringUtils.hasText(checkInDate)
                 || !sanitizedAmenities.isEmpty();
 
             Pageable pageable = PageRequest.of(Math.max(effectivePage - 1, 0), effectiveLimit);
@@ -247,14 +248,12 @@ public class HotelController {
             if (!hasFilters) {
                 log.info("Returning initial hotel data without filters");
                 Page<Hotel> hotelPage = hotelRepository.findAll(pageable);
-                List<Map<String, Object>> hotels = hotelPage.getContent().stream()
-                    .map(hotel -> hotelMapper.toStorefrontSearchResponse(
-                        hotel,
-                        effectiveCheckIn,
-                        effectiveCheckOut,
-                        effectiveGuests,
-                        effectiveRooms))
-                    .collect(Collectors.toList());
+                List<Map<String, Object>> hotels = hotelMapper.toStorefrontSearchResponses(
+                    hotelPage.getContent(),
+                    effectiveCheckIn,
+                    effectiveCheckOut,
+                    effectiveGuests,
+                    effectiveRooms);
 
                 Map<String, Object> availableFilters = Map.of(
                     "destinations", hotels.stream()
@@ -285,17 +284,18 @@ public class HotelController {
             criteria.setMaxPrice(maxPrice);
             criteria.setMinRating(minRating);
             criteria.setMaxRating(maxRating);
+            criteria.setCheckInDate(effectiveCheckIn);
+            criteria.setCheckOutDate(effectiveCheckOut);
+            criteria.setRooms(effectiveRooms);
 
             Page<Hotel> hotelPage = hotelSearchSpecificationService.searchHotels(criteria, pageable);
 
-            List<Map<String, Object>> hotels = hotelPage.getContent().stream()
-                .map(hotel -> hotelMapper.toStorefrontSearchResponse(
-                    hotel,
-                    effectiveCheckIn,
-                    effectiveCheckOut,
-                    effectiveGuests,
-                    effectiveRooms))
-                .collect(Collectors.toList());
+            List<Map<String, Object>> hotels = hotelMapper.toStorefrontSearchResponses(
+                hotelPage.getContent(),
+                effectiveCheckIn,
+                effectiveCheckOut,
+                effectiveGuests,
+                effectiveRooms);
 
             Map<String, Object> appliedFilters = new LinkedHashMap<>();
             appliedFilters.put("destination", sanitizedDestination);
@@ -306,6 +306,9 @@ public class HotelController {
             appliedFilters.put("minRating", minRating);
             appliedFilters.put("maxRating", maxRating);
             appliedFilters.put("amenities", sanitizedAmenities);
+            appliedFilters.put("checkInDate", effectiveCheckIn);
+            appliedFilters.put("checkOutDate", effectiveCheckOut);
+            appliedFilters.put("rooms", effectiveRooms);
 
             Map<String, Object> availableFilters = Map.of(
                 "amenities", amenityService.getActiveAmenities().stream()
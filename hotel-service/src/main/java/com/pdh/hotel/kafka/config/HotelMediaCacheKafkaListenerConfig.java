@@ -0,0 +1,31 @@
+package com.pdh.hotel.kafka.config;
+
+import com.pdh.common.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.pdh.common.kafka.cdc.message.HotelCdcMessage;
+import com.pdh.common.kafka.config.KafkaListenerProfiles;
+
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Typed listener factory for hotel and image CDC events that invalidate the media near cache.
+ * Uses the throughput profile: the consumer receives whole polls and offsets are committed once per batch.
+ */
+@Configuration
+public class HotelMediaCacheKafkaListenerConfig extends BaseKafkaListenerConfig<String, HotelCdcMessage> {
+
+    private final KafkaListenerProfiles kafkaListenerProfiles;
+
+    public HotelMediaCacheKafkaListenerConfig(KafkaProperties kafkaProperties, KafkaListenerProfiles kafkaListenerProfiles) {
+        super(String.class, HotelCdcMessage.class, kafkaProperties);
+        this.kafkaListenerProfiles = kafkaListenerProfiles;
+    }
+
+    @Bean("hotelMediaCdcListenerContainerFactory")
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<String, HotelCdcMessage> listenerContainerFactory() {
+        return kafkaListenerProfiles.apply(KafkaListenerProfiles.THROUGHPUT, kafkaListenerContainerFactory());
+    }
+}
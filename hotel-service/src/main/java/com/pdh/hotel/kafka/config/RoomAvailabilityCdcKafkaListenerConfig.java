@@ -0,0 +1,31 @@
+package com.pdh.hotel.kafka.config;
+
+import com.pdh.common.kafka.cdc.config.BaseKafkaListenerConfig;
+import com.pdh.common.kafka.cdc.message.RoomAvailabilityCdcMessage;
+import com.pdh.common.kafka.config.KafkaListenerProfiles;
+
+import org.springframework.boot.autoconfigure.kafka.KafkaProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+/**
+ * Typed listener factory for room_availability CDC events feeding the hotel availability summary.
+ * Uses the throughput profile: the consumer receives whole polls and offsets are committed once per batch.
+ */
+@Configuration
+public class RoomAvailabilityCdcKafkaListenerConfig extends BaseKafkaListenerConfig<String, RoomAvailabilityCdcMessage> {
+
+    private final KafkaListenerProfiles kafkaListenerProfiles;
+
+    public RoomAvailabilityCdcKafkaListenerConfig(KafkaProperties kafkaProperties, KafkaListenerProfiles kafkaListenerProfiles) {
+        super(String.class, RoomAvailabilityCdcMessage.class, kafkaProperties);
+        this.kafkaListenerProfiles = kafkaListenerProfiles;
+    }
+
+    @Bean("roomAvailabilityCdcListenerContainerFactory")
+    @Override
+    public ConcurrentKafkaListenerContainerFactory<String, RoomAvailabilityCdcMessage> listenerContainerFactory() {
+        return kafkaListenerProfiles.apply(KafkaListenerProfiles.THROUGHPUT, kafkaListenerContainerFactory());
+    }
+}
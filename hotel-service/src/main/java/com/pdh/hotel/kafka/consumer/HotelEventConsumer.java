@@ -1,7 +1,8 @@
 package com.pdh.hotel.kafka.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdh.common.saga.SagaCommand;
+import com.pdh.common.saga.SagaCommandCodec;
+import com.pdh.common.saga.SagaCommandDeduplicator;
 import com.pdh.hotel.dto.HotelBookingDetailsDto;
 import com.pdh.hotel.service.HotelService;
 import lombok.RequiredArgsConstructor;
@@ -22,24 +23,27 @@ import java.util.UUID;
 public class HotelEventConsumer {
 
     private final HotelService hotelService;
-    private final ObjectMapper objectMapper;
+    private final SagaCommandCodec sagaCommandCodec;
+    private final SagaCommandDeduplicator sagaCommandDeduplicator;
 
     @KafkaListener(
         topics = "booking-saga-commands",
         groupId = "hotel-service-saga-group",
         containerFactory = "sagaCommandListenerContainerFactory"
     )
-    public void handleSagaCommand(@Payload String message, Acknowledgment acknowledgment) {
+    public void handleSagaCommand(@Payload byte[] message, Acknowledgment acknowledgment) {
+        SagaCommand command = null;
         try {
-            SagaCommand command = objectMapper.readValue(message, SagaCommand.class);
+            command = sagaCommandCodec.decode(message);
             if (command == null || command.getAction() == null) {
                 acknowledgment.acknowledge();
                 return;
             }
 
+            SagaCommand received = command;
             switch (command.getAction()) {
-                case "RESERVE_HOTEL" -> reserveHotel(command);
-                case "CANCEL_HOTEL_RESERVATION" -> cancelHotel(command);
+                case "RESERVE_HOTEL" -> reserveHotelOnce(received);
+                case "CANCEL_HOTEL_RESERVATION" -> sagaCommandDeduplicator.executeOnce(received, () -> cancelHotel(received));
                 default -> {
                     acknowledgment.acknowledge();
                     return;
@@ -48,7 +52,23 @@ public class HotelEventConsumer {
 
             acknowledgment.acknowledge();
         } catch (Exception ex) {
-            log.error("Error processing hotel saga command: {}", message, ex);
+            log.error("Error processing hotel saga command: {}", command, ex);
+        }
+    }
+
+    /**
+     * The outbox write joins the reservation transaction, so a failed reservation takes its events
+     * with it; the failure event is written once that transaction has rolled back.
+     */
+    private void reserveHotelOnce(SagaCommand command) {
+        try {
+            sagaCommandDeduplicator.executeOnce(command, () -> reserveHotel(command));
+        } catch (RuntimeException ex) {
+            HotelBookingDetailsDto details = convertHotelDetails(command);
+            if (details != null) {
+                hotelService.publishReservationFailed(command.getBookingId(), command.getSagaId(), details, ex);
+            }
+            throw ex;
         }
     }
 
@@ -73,9 +93,9 @@ public class HotelEventConsumer {
     }
 
     private HotelBookingDetailsDto convertHotelDetails(SagaCommand command) {
-        if (command == null || command.getHotelDetails() == null) {
+        if (command == null) {
             return null;
         }
-        return objectMapper.convertValue(command.getHotelDetails(), HotelBookingDetailsDto.class);
+        return sagaCommandCodec.readDetails(command.getHotelDetails(), HotelBookingDetailsDto.class);
     }
 }
@@ -0,0 +1,59 @@
+package com.pdh.hotel.kafka.consumer;
+
+import com.pdh.common.kafka.cdc.message.HotelCdcMessage;
+import com.pdh.common.kafka.cdc.message.Operation;
+import com.pdh.hotel.service.HotelMediaResolver;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Evicts hotel and room type media from the near cache when hotels or their images change.
+ * Every replica holds its own cache, so each instance consumes with its own group id.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class HotelMediaCacheCdcConsumer {
+
+    private final HotelMediaResolver hotelMediaResolver;
+
+    @KafkaListener(
+        topics = "${hotel.media-cache.topic:hotels-cdc}",
+        groupId = "hotel-media-cache-${random.uuid}",
+        containerFactory = "hotelMediaCdcListenerContainerFactory"
+    )
+    public void onHotelChanges(List<ConsumerRecord<String, HotelCdcMessage>> records) {
+        for (ConsumerRecord<String, HotelCdcMessage> record : records) {
+            onHotelChange(record.value());
+        }
+    }
+
+    private void onHotelChange(HotelCdcMessage message) {
+        if (message == null) {
+            return;
+        }
+        HotelCdcMessage.Hotel row = message.getOp() == Operation.DELETE ? message.getBefore() : message.getAfter();
+        if (row == null) {
+            return;
+        }
+        try {
+            String table = message.getSource() != null ? message.getSource().getTable() : null;
+            if ("room_type_images".equals(table)) {
+                hotelMediaResolver.evictRoomType(parseId(row.getRoomTypeId()));
+            } else {
+                hotelMediaResolver.evictHotel(parseId(row.getHotelId()));
+            }
+        } catch (Exception e) {
+            log.error("Failed to evict hotel media cache for change {}", message, e);
+        }
+    }
+
+    private static Long parseId(String value) {
+        return value != null ? Long.parseLong(value) : null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.pdh.hotel.kafka.consumer;
+
+import com.pdh.common.kafka.cdc.message.Operation;
+import com.pdh.common.kafka.cdc.message.RoomAvailabilityCdcMessage;
+import com.pdh.hotel.repository.HotelAvailabilitySummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Keeps hotel_availability_summary in step with room_availability changes captured by Debezium.
+ * Changes arrive in batches; each (room type, night) is recomputed once per batch however often it changed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoomAvailabilityCdcConsumer {
+
+    private final HotelAvailabilitySummaryRepository hotelAvailabilitySummaryRepository;
+
+    @KafkaListener(
+        topics = "${hotel.availability-summary.topic:room-availability-cdc}",
+        groupId = "hotel-availability-summary",
+        containerFactory = "roomAvailabilityCdcListenerContainerFactory"
+    )
+    public void onRoomAvailabilityChanges(List<ConsumerRecord<String, RoomAvailabilityCdcMessage>> records) {
+        Set<RoomNight> nights = new LinkedHashSet<>();
+        for (ConsumerRecord<String, RoomAvailabilityCdcMessage> record : records) {
+            RoomNight night = toRoomNight(record.value());
+            if (night != null) {
+                nights.add(night);
+            }
+        }
+        for (RoomNight night : nights) {
+            try {
+                hotelAvailabilitySummaryRepository.refreshNight(night.roomTypeId(), night.date());
+            } catch (Exception e) {
+                log.error("Failed to refresh hotel availability summary for room type {} on {}",
+                    night.roomTypeId(), night.date(), e);
+            }
+        }
+    }
+
+    private static RoomNight toRoomNight(RoomAvailabilityCdcMessage message) {
+        if (message == null) {
+            return null;
+        }
+        RoomAvailabilityCdcMessage.RoomAvailability row =
+            message.getOp() == Operation.DELETE ? message.getBefore() : message.getAfter();
+        if (row == null || row.getRoomTypeId() == null || row.getDate() == null) {
+            return null;
+        }
+        try {
+            return new RoomNight(Long.parseLong(row.getRoomTypeId()), parseDate(row.getDate()));
+        } catch (RuntimeException e) {
+            log.error("Skipping unreadable room availability change {}", message, e);
+            return null;
+        }
+    }
+
+    private static LocalDate parseDate(String value) {
+        return value.chars().allMatch(Character::isDigit)
+            ? LocalDate.ofEpochDay(Long.parseLong(value))
+            : LocalDate.parse(value);
+    }
+
+    private record RoomNight(Long roomTypeId, LocalDate date) {
+    }
+}
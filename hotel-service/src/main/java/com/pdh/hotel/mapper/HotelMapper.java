@@ -6,11 +6,9 @@ import com.pdh.hotel.dto.response.HotelResponseDto;
 import com.pdh.hotel.dto.response.MediaInfo;
 import com.pdh.hotel.dto.response.RoomTypeResponseDto;
 import com.pdh.hotel.model.Hotel;
-import com.pdh.hotel.model.HotelImage;
-import com.pdh.hotel.repository.HotelImageRepository;
 import com.pdh.hotel.service.AmenityService;
 import com.pdh.hotel.service.HotelInventoryService;
-import com.pdh.hotel.service.ImageService;
+import com.pdh.hotel.service.HotelMediaResolver;
 import com.pdh.hotel.service.RoomTypeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -35,10 +33,9 @@ public class HotelMapper {
 
     private static final double DEFAULT_PRICE = 5000000.0;
 
-    private final HotelImageRepository hotelImageRepository;
+    private final HotelMediaResolver hotelMediaResolver;
     private final RoomTypeService roomTypeService;
     private final AmenityService amenityService;
-    private final ImageService imageService;
     private final HotelInventoryService hotelInventoryService;
 
     /**
@@ -135,10 +132,9 @@ public class HotelMapper {
             .collect(Collectors.toList());
 
         try {
-            dtos.forEach(dto -> {
-                List<HotelImage> hotelImages = hotelImageRepository.findByHotelId(dto.getId());
-                setMediaFromHotelImages(dto, hotelImages);
-            });
+            Map<Long, List<MediaResponse>> mediaByHotel = hotelMediaResolver.getHotelMedia(
+                dtos.stream().map(HotelResponseDto::getId).toList());
+            dtos.forEach(dto -> setMediaFromHotelImages(dto, mediaByHotel.getOrDefault(dto.getId(), List.of())));
         } catch (Exception e) {
             log.error("Failed to fetch media for hotels: {}", e.getMessage());
             dtos.forEach(this::setDefaultMediaValues);
@@ -147,6 +143,31 @@ public class HotelMapper {
         return dtos;
     }
 
+    /**
+     * Convert a page of Hotel entities to storefront search response format.
+     * Room types, their availability and media for the whole page are fetched up front instead of per hotel.
+     */
+    public List<Map<String, Object>> toStorefrontSearchResponses(List<Hotel> hotels, LocalDate checkIn, LocalDate checkOut, int guests, int rooms) {
+        if (hotels == null || hotels.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> hotelIds = hotels.stream().map(Hotel::getHotelId).filter(Objects::nonNull).toList();
+        Map<Long, List<RoomTypeResponseDto>> roomTypesByHotel = fetchRoomTypes(hotelIds);
+        Map<HotelInventoryService.RoomTypeKey, HotelInventoryService.AvailabilitySummary> availability =
+            fetchAvailability(roomTypesByHotel.values().stream().flatMap(List::stream).toList(), rooms, checkIn, checkOut);
+        Map<Long, List<MediaResponse>> mediaByHotel = fetchHotelMedia(hotelIds);
+        List<String> amenities = getRealHotelAmenities();
+
+        return hotels.stream()
+            .map(hotel -> buildStorefrontSearchResponse(hotel, rooms,
+                roomTypesByHotel.getOrDefault(hotel.getHotelId(), List.of()),
+                availability,
+                mediaByHotel.getOrDefault(hotel.getHotelId(), List.of()),
+                amenities))
+            .collect(Collectors.toList());
+    }
+
     /**
      * Convert Hotel entity to storefront search response format
      */
@@ -155,6 +176,20 @@ public class HotelMapper {
             return Map.of();
         }
 
+        List<RoomTypeResponseDto> roomTypes = fetchRoomTypes(hotel.getHotelId());
+        return buildStorefrontSearchResponse(hotel, rooms, roomTypes,
+            fetchAvailability(roomTypes, rooms, checkIn, checkOut),
+            hotelMediaResolver.getHotelMedia(hotel.getHotelId()),
+            getRealHotelAmenities());
+    }
+
+    private Map<String, Object> buildStorefrontSearchResponse(Hotel hotel,
+                                                              int rooms,
+                                                              List<RoomTypeResponseDto> roomTypes,
+                                                              Map<HotelInventoryService.RoomTypeKey, HotelInventoryService.AvailabilitySummary> availability,
+                                                              List<MediaResponse> media,
+                                                              List<String> amenities) {
+
         Map<String, Object> response = new HashMap<>();
         response.put("hotelId", hotel.getHotelId() != null ? hotel.getHotelId().toString() : "unknown");
         response.put("name", hotel.getName() != null ? hotel.getName() : "Unknown Hotel");
@@ -165,7 +200,6 @@ public class HotelMapper {
         response.put("latitude", hotel.getLatitude());
         response.put("longitude", hotel.getLongitude());
 
-        List<RoomTypeResponseDto> roomTypes = fetchRoomTypes(hotel.getHotelId());
         double minPrice = resolveMinPrice(roomTypes);
         if (minPrice <= 0) {
             minPrice = DEFAULT_PRICE;
@@ -173,10 +207,10 @@ public class HotelMapper {
 
         response.put("pricePerNight", minPrice);
         response.put("currency", "VND");
-        response.put("availableRooms", buildRoomTypeAvailability(hotel, roomTypes, checkIn, checkOut, rooms, minPrice));
-        response.put("amenities", getRealHotelAmenities());
+        response.put("availableRooms", buildRoomTypeAvailability(hotel, roomTypes, availability, rooms, minPrice));
+        response.put("amenities", amenities);
 
-        List<String> images = getHotelImages(hotel.getHotelId());
+        List<String> images = toImageUrls(hotel.getHotelId(), media);
         response.put("images", images);
         response.put("primaryImage", images.isEmpty() ? null : images.get(0));
 
@@ -206,8 +240,11 @@ public class HotelMapper {
 
         response.put("pricePerNight", minPrice);
         response.put("currency", "VND");
-        response.put("availableRooms", buildRoomTypeAvailability(hotel, roomTypes, checkIn, checkOut, 1, minPrice));
-        response.put("roomTypes", getRealRoomTypes(hotel, roomTypes, minPrice));
+        response.put("availableRooms", buildRoomTypeAvailability(hotel, roomTypes,
+            fetchAvailability(roomTypes, 1, checkIn, checkOut), 1, minPrice));
+        LocalDate today = LocalDate.now();
+        response.put("roomTypes", getRealRoomTypes(hotel, roomTypes,
+            fetchAvailability(roomTypes, 1, today, today.plusDays(1)), minPrice));
         response.put("amenities", getRealHotelAmenities());
 
         List<String> images = getHotelImages(hotel.getHotelId());
@@ -235,6 +272,35 @@ public class HotelMapper {
         }
     }
 
+    private Map<Long, List<RoomTypeResponseDto>> fetchRoomTypes(List<Long> hotelIds) {
+        try {
+            return roomTypeService.getRoomTypesByHotels(hotelIds);
+        } catch (Exception e) {
+            log.warn("Failed to load room types for {} hotels: {}", hotelIds.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private Map<Long, List<MediaResponse>> fetchHotelMedia(List<Long> hotelIds) {
+        try {
+            return hotelMediaResolver.getHotelMedia(hotelIds);
+        } catch (Exception e) {
+            log.warn("Failed to load media for {} hotels: {}", hotelIds.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
+    private Map<HotelInventoryService.RoomTypeKey, HotelInventoryService.AvailabilitySummary> fetchAvailability(
+            List<RoomTypeResponseDto> roomTypes, int rooms, LocalDate checkIn, LocalDate checkOut) {
+        List<Long> roomTypeIds = roomTypes.stream().map(RoomTypeResponseDto::getId).filter(Objects::nonNull).toList();
+        try {
+            return hotelInventoryService.getAvailabilitySummaries(roomTypeIds, rooms, checkIn, checkOut);
+        } catch (Exception e) {
+            log.warn("Unable to compute availability for {} room types: {}", roomTypeIds.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+
     private double resolveMinPrice(List<RoomTypeResponseDto> roomTypes) {
         return roomTypes.stream()
             .map(RoomTypeResponseDto::getBasePrice)
@@ -246,8 +312,7 @@ public class HotelMapper {
 
     private List<Map<String, Object>> buildRoomTypeAvailability(Hotel hotel,
                                                                 List<RoomTypeResponseDto> roomTypes,
-                                                                LocalDate checkIn,
-                                                                LocalDate checkOut,
+                                                                Map<HotelInventoryService.RoomTypeKey, HotelInventoryService.AvailabilitySummary> availability,
                                                                 int roomsRequested,
                                                                 double fallbackPrice) {
         if (roomTypes == null || roomTypes.isEmpty()) {
@@ -255,31 +320,23 @@ public class HotelMapper {
         }
 
         return roomTypes.stream()
-            .map(roomType -> mapRoomTypeToAvailableRoom(hotel, roomType, checkIn, checkOut, roomsRequested, fallbackPrice))
+            .map(roomType -> mapRoomTypeToAvailableRoom(roomType,
+                availability.get(new HotelInventoryService.RoomTypeKey(hotel.getHotelId(), roomType.getId())),
+                fallbackPrice))
             .collect(Collectors.toList());
     }
 
-    private Map<String, Object> mapRoomTypeToAvailableRoom(Hotel hotel,
-                                                           RoomTypeResponseDto roomType,
-                                                           LocalDate checkIn,
-                                                           LocalDate checkOut,
-                                                           int roomsRequested,
+    private Map<String, Object> mapRoomTypeToAvailableRoom(RoomTypeResponseDto roomType,
+                                                           HotelInventoryService.AvailabilitySummary summary,
                                                            double fallbackPrice) {
         boolean available = true;
         List<HotelInventoryService.AvailabilityDetail> dailyDetails = List.of();
         String availabilityMessage = "Availability not checked";
         
-        if (roomType.getName() != null) {
-            try {
-                HotelInventoryService.AvailabilitySummary summary = hotelInventoryService.getAvailabilitySummary(
-                    hotel.getHotelId(), roomType.getName(), roomsRequested, checkIn, checkOut);
-                available = summary.isAvailable();
-                dailyDetails = summary.getDailyDetails();
-                availabilityMessage = summary.getMessage();
-            } catch (Exception e) {
-                log.warn("Unable to compute availability for hotel {} room type {}: {}",
-                    hotel.getHotelId(), roomType.getName(), e.getMessage());
-            }
+        if (summary != null) {
+            available = summary.isAvailable();
+            dailyDetails = summary.getDailyDetails();
+            availabilityMessage = summary.getMessage();
         }
 
         Map<String, Object> roomData = new HashMap<>();
@@ -292,23 +349,14 @@ public class HotelMapper {
         roomData.put("availabilityMessage", availabilityMessage);
         
         // Add detailed daily availability information
-        List<Map<String, Object>> dailyAvailability = dailyDetails.stream()
-            .map(detail -> {
-                Map<String, Object> detailMap = new HashMap<>();
-                detailMap.put("date", detail.getDate().toString());
-                detailMap.put("totalInventory", detail.getTotalInventory());
-                detailMap.put("totalReserved", detail.getTotalReserved());
-                detailMap.put("remaining", detail.getRemaining());
-                return detailMap;
-            })
-            .collect(Collectors.toList());
-        roomData.put("dailyAvailability", dailyAvailability);
+        roomData.put("dailyAvailability", toDailyAvailability(dailyDetails));
         
         return roomData;
     }
 
     private List<Map<String, Object>> getRealRoomTypes(Hotel hotel,
                                                        List<RoomTypeResponseDto> roomTypes,
+                                                       Map<HotelInventoryService.RoomTypeKey, HotelInventoryService.AvailabilitySummary> availability,
                                                        double fallbackPrice) {
         try {
             return roomTypes.stream()
@@ -327,24 +375,13 @@ public class HotelMapper {
                         : "/placeholder.svg?height=200&width=300");
                     
                     // Add detailed availability information for the given date range
-                    try {
-                        HotelInventoryService.AvailabilitySummary summary = hotelInventoryService.getAvailabilitySummary(
-                            hotel.getHotelId(), roomType.getName(), 1, LocalDate.now(), LocalDate.now().plusDays(1));
-                        List<Map<String, Object>> dailyAvailability = summary.getDailyDetails().stream()
-                            .map(detail -> {
-                                Map<String, Object> detailMap = new HashMap<>();
-                                detailMap.put("date", detail.getDate().toString());
-                                detailMap.put("totalInventory", detail.getTotalInventory());
-                                detailMap.put("totalReserved", detail.getTotalReserved());
-                                detailMap.put("remaining", detail.getRemaining());
-                                return detailMap;
-                            })
-                            .collect(Collectors.toList());
-                        roomTypeMap.put("dailyAvailability", dailyAvailability);
+                    HotelInventoryService.AvailabilitySummary summary = availability.get(
+                        new HotelInventoryService.RoomTypeKey(hotel.getHotelId(), roomType.getId()));
+                    if (summary != null) {
+                        roomTypeMap.put("dailyAvailability", toDailyAvailability(summary.getDailyDetails()));
                         roomTypeMap.put("available", summary.isAvailable());
                         roomTypeMap.put("availabilityMessage", summary.getMessage());
-                    } catch (Exception e) {
-                        log.warn("Failed to get availability for room type {}: {}", roomType.getName(), e.getMessage());
+                    } else {
                         roomTypeMap.put("dailyAvailability", List.of());
                         roomTypeMap.put("available", false);
                         roomTypeMap.put("availabilityMessage", "Unable to check availability");
@@ -359,6 +396,19 @@ public class HotelMapper {
         }
     }
 
+    private List<Map<String, Object>> toDailyAvailability(List<HotelInventoryService.AvailabilityDetail> details) {
+        return details.stream()
+            .map(detail -> {
+                Map<String, Object> detailMap = new HashMap<>();
+                detailMap.put("date", detail.getDate().toString());
+                detailMap.put("totalInventory", detail.getTotalInventory());
+                detailMap.put("totalReserved", detail.getTotalReserved());
+                detailMap.put("remaining", detail.getRemaining());
+                return detailMap;
+            })
+            .collect(Collectors.toList());
+    }
+
     private List<String> getRealHotelAmenities() {
         try {
             return amenityService.getActiveAmenities().stream()
@@ -372,48 +422,38 @@ public class HotelMapper {
 
     private List<String> getHotelImages(Long hotelId) {
         try {
-            List<MediaResponse> mediaList = imageService.getHotelMedia(hotelId);
-            if (mediaList == null || mediaList.isEmpty()) {
-                return List.of("/hotel-" + hotelId + ".jpg");
-            }
-            List<String> imageUrls = mediaList.stream()
-                .sorted((a, b) -> {
-                    if (Boolean.TRUE.equals(a.getIsPrimary()) && !Boolean.TRUE.equals(b.getIsPrimary())) {
-                        return -1;
-                    }
-                    if (!Boolean.TRUE.equals(a.getIsPrimary()) && Boolean.TRUE.equals(b.getIsPrimary())) {
-                        return 1;
-                    }
-                    return Integer.compare(
-                        a.getDisplayOrder() != null ? a.getDisplayOrder() : 0,
-                        b.getDisplayOrder() != null ? b.getDisplayOrder() : 0
-                    );
-                })
-                .map(media -> media.getSecureUrl() != null ? media.getSecureUrl() : media.getUrl())
-                .filter(Objects::nonNull)
-                .filter(url -> !url.isEmpty())
-                .collect(Collectors.toList());
-            if (imageUrls.isEmpty()) {
-                return List.of("/hotel-" + hotelId + ".jpg");
-            }
-            return imageUrls;
+            return toImageUrls(hotelId, hotelMediaResolver.getHotelMedia(hotelId));
         } catch (Exception e) {
             log.warn("Failed to get hotel images for hotel {}, falling back to mock image", hotelId, e);
             return List.of("/hotel-" + hotelId + ".jpg");
         }
     }
 
+    /**
+     * Media from the resolver is already ordered primary first
+     */
+    private List<String> toImageUrls(Long hotelId, List<MediaResponse> mediaList) {
+        List<String> imageUrls = mediaList == null ? List.of() : mediaList.stream()
+            .map(media -> media.getSecureUrl() != null ? media.getSecureUrl() : media.getUrl())
+            .filter(Objects::nonNull)
+            .filter(url -> !url.isEmpty())
+            .collect(Collectors.toList());
+        if (imageUrls.isEmpty()) {
+            return List.of("/hotel-" + hotelId + ".jpg");
+        }
+        return imageUrls;
+    }
+
     private void setMediaInfo(HotelResponseDto dto, String entityType, Long entityId) {
         try {
-            List<HotelImage> hotelImages = hotelImageRepository.findByHotelId(entityId);
-            setMediaFromHotelImages(dto, hotelImages);
+            setMediaFromHotelImages(dto, hotelMediaResolver.getHotelMedia(entityId));
         } catch (Exception e) {
             log.error("Failed to fetch media for {} {}: {}", entityType, entityId, e.getMessage());
             setDefaultMediaValues(dto);
         }
     }
 
-    private void setMediaFromHotelImages(HotelResponseDto dto, List<HotelImage> hotelImages) {
+    private void setMediaFromHotelImages(HotelResponseDto dto, List<MediaResponse> hotelImages) {
         if (hotelImages == null || hotelImages.isEmpty()) {
             setDefaultMediaValues(dto);
             return;
@@ -424,8 +464,8 @@ public class HotelMapper {
                 .id(img.getId())
                 .publicId(img.getPublicId())
                 .url(img.getUrl())
-                .secureUrl(img.getUrl())
-                .isPrimary(img.isPrimary())
+                .secureUrl(img.getSecureUrl())
+                .isPrimary(Boolean.TRUE.equals(img.getIsPrimary()))
                 .build())
             .collect(Collectors.toList());
 
@@ -4,13 +4,13 @@ import com.pdh.common.dto.response.MediaResponse;
 import com.pdh.hotel.dto.request.RoomTypeRequestDto;
 import com.pdh.hotel.dto.response.RoomTypeResponseDto;
 import com.pdh.hotel.model.RoomType;
-import com.pdh.hotel.model.RoomTypeImage;
-import com.pdh.hotel.repository.RoomTypeImageRepository;
+import com.pdh.hotel.service.HotelMediaResolver;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -21,7 +21,7 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RoomTypeMapper {
     
-    private final RoomTypeImageRepository roomTypeImageRepository;
+    private final HotelMediaResolver hotelMediaResolver;
     
     /**
      * Convert RoomType entity to RoomTypeResponseDto with media information
@@ -31,7 +31,43 @@ public class RoomTypeMapper {
             return null;
         }
         
-        RoomTypeResponseDto.RoomTypeResponseDtoBuilder builder = RoomTypeResponseDto.builder()
+        RoomTypeResponseDto.RoomTypeResponseDtoBuilder builder = toBuilder(roomType);
+                
+        // Add media information
+        setMediaInfo(builder, roomType.getRoomTypeId());
+        
+        return builder.build();
+    }
+
+    /**
+     * Convert a list of RoomType entities, fetching media for all of them at once
+     */
+    public List<RoomTypeResponseDto> toResponseDtoList(List<RoomType> roomTypes) {
+        if (roomTypes == null || roomTypes.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<MediaResponse>> mediaByRoomType;
+        try {
+            mediaByRoomType = hotelMediaResolver.getRoomTypeMedia(
+                    roomTypes.stream().map(RoomType::getRoomTypeId).toList());
+        } catch (Exception e) {
+            log.error("Failed to fetch media for room types: {}", e.getMessage());
+            mediaByRoomType = Map.of();
+        }
+
+        Map<Long, List<MediaResponse>> media = mediaByRoomType;
+        return roomTypes.stream()
+                .map(roomType -> {
+                    RoomTypeResponseDto.RoomTypeResponseDtoBuilder builder = toBuilder(roomType);
+                    setMediaFromList(builder, media.getOrDefault(roomType.getRoomTypeId(), List.of()));
+                    return builder.build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    private RoomTypeResponseDto.RoomTypeResponseDtoBuilder toBuilder(RoomType roomType) {
+        return RoomTypeResponseDto.builder()
                 .id(roomType.getRoomTypeId())
                 .name(roomType.getName())
                 .description(roomType.getDescription())
@@ -39,11 +75,6 @@ public class RoomTypeMapper {
                 .basePrice(roomType.getBasePrice())
                 .createdAt(roomType.getCreatedAt())
                 .updatedAt(roomType.getUpdatedAt());
-                
-        // Add media information
-        setMediaInfo(builder, roomType.getRoomTypeId());
-        
-        return builder.build();
     }
     
     /**
@@ -82,8 +113,8 @@ public class RoomTypeMapper {
      */
     private void setMediaInfo(RoomTypeResponseDto.RoomTypeResponseDtoBuilder builder, Long roomTypeId) {
         try {
-            List<RoomTypeImage> roomTypeImages = roomTypeImageRepository.findByRoomTypeId(roomTypeId);
-            setMediaFromRoomTypeImages(builder, roomTypeImages);
+            setMediaFromList(builder, hotelMediaResolver.getRoomTypeMedia(List.of(roomTypeId))
+                    .getOrDefault(roomTypeId, List.of()));
         } catch (Exception e) {
             log.error("Failed to fetch media for room type {}: {}", roomTypeId, e.getMessage());
             setDefaultMediaValues(builder);
@@ -91,27 +122,14 @@ public class RoomTypeMapper {
     }
     
     /**
-     * Helper method to set media information from room type images
+     * Helper method to set media information from resolved room type media
      */
-    private void setMediaFromRoomTypeImages(RoomTypeResponseDto.RoomTypeResponseDtoBuilder builder, List<RoomTypeImage> roomTypeImages) {
-        if (roomTypeImages == null || roomTypeImages.isEmpty()) {
+    private void setMediaFromList(RoomTypeResponseDto.RoomTypeResponseDtoBuilder builder, List<MediaResponse> mediaResponseList) {
+        if (mediaResponseList == null || mediaResponseList.isEmpty()) {
             setDefaultMediaValues(builder);
             return;
         }
         
-        // Create complete MediaResponse objects with all available data from RoomTypeImage
-        List<MediaResponse> mediaResponseList = roomTypeImages.stream()
-                .map(roomTypeImage -> MediaResponse.builder()
-                        .id(roomTypeImage.getMediaId())
-                        .mediaId(roomTypeImage.getMediaId())
-                        .publicId(roomTypeImage.getPublicId())
-                        .url(roomTypeImage.getUrl())
-                        .secureUrl(roomTypeImage.getUrl()) // For now, use the same URL for both
-                        .isPrimary(roomTypeImage.isPrimary())
-                        .displayOrder(0) // Default display order
-                        .build())
-                .collect(Collectors.toList());
-        
         builder.media(mediaResponseList)
                .hasMedia(true)
                .mediaCount(mediaResponseList.size());
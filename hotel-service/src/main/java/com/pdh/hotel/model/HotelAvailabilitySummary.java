@@ -0,0 +1,37 @@
+package com.pdh.hotel.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Best remaining room count across all room types of a hotel for one night.
+ * Derived from room_availability and kept current from its CDC stream, so search can
+ * exclude sold-out hotels with a single anti-join instead of per-hotel lookups.
+ */
+@Entity
+@Table(name = "hotel_availability_summary")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@IdClass(HotelAvailabilitySummaryId.class)
+public class HotelAvailabilitySummary {
+
+    @Id
+    @Column(name = "hotel_id", nullable = false)
+    private Long hotelId;
+
+    @Id
+    @Column(name = "stay_date", nullable = false)
+    private LocalDate stayDate;
+
+    @Column(name = "max_remaining", nullable = false)
+    private Integer maxRemaining;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
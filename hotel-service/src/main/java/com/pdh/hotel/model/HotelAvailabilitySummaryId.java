@@ -0,0 +1,16 @@
+package com.pdh.hotel.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotelAvailabilitySummaryId implements Serializable {
+    private Long hotelId;
+    private LocalDate stayDate;
+}
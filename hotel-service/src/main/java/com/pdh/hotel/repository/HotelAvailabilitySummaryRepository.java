@@ -0,0 +1,62 @@
+package com.pdh.hotel.repository;
+
+import com.pdh.hotel.model.HotelAvailabilitySummary;
+import com.pdh.hotel.model.HotelAvailabilitySummaryId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+
+/**
+ * Repository for the per-hotel, per-night availability aggregate
+ */
+@Repository
+public interface HotelAvailabilitySummaryRepository extends JpaRepository<HotelAvailabilitySummary, HotelAvailabilitySummaryId> {
+
+    /**
+     * Recompute one hotel night for the hotel owning the given room type.
+     * Recomputing from source keeps the aggregate correct regardless of CDC delivery order or duplicates.
+     * Every active room type counts: one without a room_availability row for the night has never been
+     * reserved and offers its full room count. The row is removed when the hotel has no active room type.
+     *
+     * @param roomTypeId Room type whose availability changed
+     * @param date The night that changed
+     * @return Number of rows written
+     */
+    @Modifying
+    @Transactional
+    @Query(value = """
+        WITH owner AS (
+            SELECT hotel_id FROM room_types WHERE room_type_id = :roomTypeId
+        ),
+        night AS (
+            SELECT rt.hotel_id,
+                   MAX(GREATEST(COALESCE(ra.total_inventory - ra.total_reserved, inventory.rooms), 0)) AS max_remaining
+            FROM room_types rt
+            LEFT JOIN room_availability ra
+                ON ra.room_type_id = rt.room_type_id AND ra.date = :date AND ra.is_deleted = false
+            CROSS JOIN LATERAL (
+                SELECT COUNT(*) AS rooms FROM rooms r
+                WHERE r.room_type_id = rt.room_type_id AND r.is_deleted = false
+            ) inventory
+            WHERE rt.hotel_id = (SELECT hotel_id FROM owner)
+            AND rt.is_deleted = false
+            GROUP BY rt.hotel_id
+        ),
+        removed AS (
+            DELETE FROM hotel_availability_summary s
+            WHERE s.hotel_id = (SELECT hotel_id FROM owner) AND s.stay_date = :date
+            AND NOT EXISTS (SELECT 1 FROM night)
+        )
+        INSERT INTO hotel_availability_summary (hotel_id, stay_date, max_remaining, updated_at)
+        SELECT hotel_id, CAST(:date AS date), max_remaining, now()
+        FROM night
+        ON CONFLICT (hotel_id, stay_date) DO UPDATE
+        SET max_remaining = EXCLUDED.max_remaining, updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int refreshNight(@Param("roomTypeId") Long roomTypeId, @Param("date") LocalDate date);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +20,12 @@ public interface HotelImageRepository extends JpaRepository<HotelImage, Long> {
     @Query("SELECT hi FROM HotelImage hi WHERE hi.hotel.hotelId = :hotelId")
     List<HotelImage> findByHotelId(@Param("hotelId") Long hotelId);
 
+    /**
+     * Find all images for a batch of hotels in one query
+     */
+    @Query("SELECT hi FROM HotelImage hi JOIN FETCH hi.hotel h WHERE h.hotelId IN :hotelIds")
+    List<HotelImage> findByHotelIdIn(@Param("hotelIds") Collection<Long> hotelIds);
+
     /**
      * Find image by hotel ID and media ID
      */
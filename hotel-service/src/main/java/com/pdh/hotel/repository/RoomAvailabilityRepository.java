@@ -2,11 +2,14 @@ package com.pdh.hotel.repository;
 
 import com.pdh.hotel.model.RoomAvailability;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -137,4 +140,111 @@ public interface RoomAvailabilityRepository extends JpaRepository<RoomAvailabili
     @Query("SELECT DISTINCT ra.roomTypeId FROM RoomAvailability ra " +
            "WHERE ra.date = :date AND ra.totalInventory > ra.totalReserved")
     List<Long> findRoomTypesWithAvailabilityOnDate(@Param("date") LocalDate date);
+
+    /**
+     * One row per room type and night of {@code [startDate, endDate)} for a whole page of room types.
+     * Nights without an availability row come back with a null inventory and the active room count of
+     * the type, so callers can fall back to it exactly as the single room type summary does.
+     *
+     * @param roomTypeIds Room types to load
+     * @param startDate First night (inclusive)
+     * @param endDate Check-out date (exclusive)
+     * @return {@code [hotel_id, room_type_id, date, total_inventory, total_reserved, active_rooms]} rows
+     *         ordered by room type and date
+     */
+    @Query(value = """
+        SELECT rt.hotel_id, rt.room_type_id, night::date AS date, ra.total_inventory, ra.total_reserved,
+               (SELECT count(*) FROM rooms r
+                WHERE r.room_type_id = rt.room_type_id AND (r.is_deleted IS NULL OR r.is_deleted = false)) AS active_rooms
+        FROM room_types rt
+        CROSS JOIN generate_series(CAST(:startDate AS date), CAST(:endDate AS date) - 1, interval '1 day') AS night
+        LEFT JOIN room_availability ra ON ra.room_type_id = rt.room_type_id AND ra.date = night::date
+        WHERE rt.room_type_id IN (:roomTypeIds)
+        ORDER BY rt.room_type_id, night
+        """, nativeQuery = true)
+    List<Object[]> findStayNightsByRoomTypeIds(@Param("roomTypeIds") Collection<Long> roomTypeIds,
+                                               @Param("startDate") LocalDate startDate,
+                                               @Param("endDate") LocalDate endDate);
+
+    /**
+     * Create the availability rows missing for every night in {@code [startDate, endDate)} in one statement
+     *
+     * @param roomTypeId The room type ID
+     * @param startDate First night (inclusive)
+     * @param endDate Check-out date (exclusive)
+     * @param totalInventory Inventory for the new rows
+     * @return Number of rows created
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query(value = """
+        INSERT INTO room_availability (room_type_id, date, total_inventory, total_reserved,
+                                       created_at, created_by, updated_at, updated_by, is_deleted)
+        SELECT :roomTypeId, night::date, :totalInventory, 0, now(), 'system', now(), 'system', false
+        FROM generate_series(CAST(:startDate AS date), CAST(:endDate AS date) - 1, interval '1 day') AS night
+        ON CONFLICT (room_type_id, date) DO NOTHING
+        """, nativeQuery = true)
+    int insertMissingNights(@Param("roomTypeId") Long roomTypeId,
+                            @Param("startDate") LocalDate startDate,
+                            @Param("endDate") LocalDate endDate,
+                            @Param("totalInventory") Integer totalInventory);
+
+    /**
+     * Reserve rooms for every night in {@code [startDate, endDate)} or for none of them.
+     * Rows are locked in date order so overlapping stays cannot deadlock, and the increment only
+     * applies when every night exists and has enough remaining rooms.
+     * <p>
+     * Not {@code @Modifying}: Spring Data runs modifying queries through executeUpdate, which rejects the
+     * RETURNING rows. Hibernate flushes pending changes before it runs a native query, and callers take the
+     * counts from the returned rows; RoomAvailability entities already loaded in the same persistence
+     * context keep their old counts and must not be used after this call.
+     *
+     * @param roomTypeId The room type ID
+     * @param startDate First night (inclusive)
+     * @param endDate Check-out date (exclusive)
+     * @param nights Number of nights in the range
+     * @param rooms Rooms to reserve per night
+     * @return One {@code [date, total_inventory, total_reserved]} row per night, empty when nothing was reserved
+     */
+    @Transactional
+    @Query(value = """
+        WITH stay AS (
+            SELECT availability_id, total_inventory, total_reserved
+            FROM room_availability
+            WHERE room_type_id = :roomTypeId AND date >= :startDate AND date < :endDate
+            ORDER BY date
+            FOR UPDATE
+        ), verdict AS (
+            SELECT count(*) = :nights AND bool_and(total_inventory - total_reserved >= :rooms) AS ok
+            FROM stay
+        )
+        UPDATE room_availability ra
+        SET total_reserved = ra.total_reserved + :rooms, updated_at = now()
+        FROM stay, verdict
+        WHERE ra.availability_id = stay.availability_id AND verdict.ok
+        RETURNING ra.date, ra.total_inventory, ra.total_reserved
+        """, nativeQuery = true)
+    List<Object[]> reserveNights(@Param("roomTypeId") Long roomTypeId,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate,
+                                 @Param("nights") long nights,
+                                 @Param("rooms") int rooms);
+
+    /**
+     * Release rooms for every night in {@code [startDate, endDate)}, never going below zero.
+     * Not {@code @Modifying} for the same reason as {@link #reserveNights}.
+     *
+     * @return One {@code [date, total_inventory, total_reserved]} row per night that exists
+     */
+    @Transactional
+    @Query(value = """
+        UPDATE room_availability
+        SET total_reserved = GREATEST(total_reserved - :rooms, 0), updated_at = now()
+        WHERE room_type_id = :roomTypeId AND date >= :startDate AND date < :endDate
+        RETURNING date, total_inventory, total_reserved
+        """, nativeQuery = true)
+    List<Object[]> releaseNights(@Param("roomTypeId") Long roomTypeId,
+                                 @Param("startDate") LocalDate startDate,
+                                 @Param("endDate") LocalDate endDate,
+                                 @Param("rooms") int rooms);
 }
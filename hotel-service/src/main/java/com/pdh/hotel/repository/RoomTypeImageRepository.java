@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -19,6 +20,12 @@ public interface RoomTypeImageRepository extends JpaRepository<RoomTypeImage, Lo
     @Query("SELECT rti FROM RoomTypeImage rti WHERE rti.roomType.roomTypeId = :roomTypeId")
     List<RoomTypeImage> findByRoomTypeId(@Param("roomTypeId") Long roomTypeId);
 
+    /**
+     * Find all images for a batch of room types in one query
+     */
+    @Query("SELECT rti FROM RoomTypeImage rti JOIN FETCH rti.roomType rt WHERE rt.roomTypeId IN :roomTypeIds")
+    List<RoomTypeImage> findByRoomTypeIdIn(@Param("roomTypeIds") Collection<Long> roomTypeIds);
+
     /**
      * Find image by room type ID and media ID
      */
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -35,6 +36,15 @@ public interface RoomTypeRepository extends JpaRepository<RoomType, Long> {
     @Query("SELECT rt FROM RoomType rt WHERE rt.hotel.hotelId = :hotelId ORDER BY rt.name")
     List<RoomType> findByHotelId(@Param("hotelId") Long hotelId);
 
+    /**
+     * Find room types for a batch of hotels in one query
+     *
+     * @param hotelIds The hotel IDs
+     * @return List of RoomType records ordered by hotel and name
+     */
+    @Query("SELECT rt FROM RoomType rt WHERE rt.hotel.hotelId IN :hotelIds ORDER BY rt.hotel.hotelId, rt.name")
+    List<RoomType> findByHotelIdIn(@Param("hotelIds") Collection<Long> hotelIds);
+
     /**
      * Find room types by hotel ID (simplified - no isActive field in entity)
      *
@@ -2,14 +2,18 @@ package com.pdh.hotel.repository.specification;
 
 import com.pdh.hotel.model.Amenity;
 import com.pdh.hotel.model.Hotel;
+import com.pdh.hotel.model.HotelAvailabilitySummary;
 import com.pdh.hotel.model.Room;
 import com.pdh.hotel.model.RoomAmenity;
+import com.pdh.hotel.model.RoomAvailability;
 import com.pdh.hotel.model.RoomType;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -237,6 +241,78 @@ public class HotelSpecification {
         };
     }
 
+    /**
+     * Only hotels with a room type that has at least {@code rooms} free on every night of the stay.
+     * Nights without an availability row have never been reserved and fall back to the active room
+     * count of the type. The per-hotel summary is checked first as a cheap filter: when no room type
+     * has enough rooms on some night, no single room type can cover the stay either.
+     */
+    public static Specification<Hotel> hasAvailabilityForStay(LocalDate checkInDate, LocalDate checkOutDate, Integer rooms) {
+        return (root, query, criteriaBuilder) -> {
+            if (checkInDate == null || checkOutDate == null || !checkOutDate.isAfter(checkInDate)) {
+                return criteriaBuilder.conjunction();
+            }
+            int requiredRooms = rooms != null && rooms > 0 ? rooms : 1;
+            long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+
+            Subquery<Long> soldOutNights = query.subquery(Long.class);
+            Root<HotelAvailabilitySummary> summary = soldOutNights.from(HotelAvailabilitySummary.class);
+            soldOutNights.select(summary.get("hotelId")).where(
+                criteriaBuilder.equal(summary.get("hotelId"), root.get("hotelId")),
+                criteriaBuilder.greaterThanOrEqualTo(summary.get("stayDate"), checkInDate),
+                criteriaBuilder.lessThan(summary.get("stayDate"), checkOutDate),
+                criteriaBuilder.lessThan(summary.get("maxRemaining"), requiredRooms)
+            );
+
+            Subquery<Long> coveringRoomTypes = query.subquery(Long.class);
+            Root<RoomType> roomType = coveringRoomTypes.from(RoomType.class);
+
+            Subquery<Long> shortNights = query.subquery(Long.class);
+            Root<RoomAvailability> shortNight = shortNights.from(RoomAvailability.class);
+            shortNights.select(shortNight.get("availabilityId")).where(
+                criteriaBuilder.equal(shortNight.get("roomTypeId"), roomType.get("roomTypeId")),
+                criteriaBuilder.greaterThanOrEqualTo(shortNight.get("date"), checkInDate),
+                criteriaBuilder.lessThan(shortNight.get("date"), checkOutDate),
+                criteriaBuilder.lessThan(
+                    criteriaBuilder.diff(shortNight.<Integer>get("totalInventory"), shortNight.<Integer>get("totalReserved")),
+                    requiredRooms)
+            );
+
+            Subquery<Long> recordedNights = query.subquery(Long.class);
+            Root<RoomAvailability> recordedNight = recordedNights.from(RoomAvailability.class);
+            recordedNights.select(criteriaBuilder.count(recordedNight)).where(
+                criteriaBuilder.equal(recordedNight.get("roomTypeId"), roomType.get("roomTypeId")),
+                criteriaBuilder.greaterThanOrEqualTo(recordedNight.get("date"), checkInDate),
+                criteriaBuilder.lessThan(recordedNight.get("date"), checkOutDate)
+            );
+
+            Subquery<Long> activeRooms = query.subquery(Long.class);
+            Root<Room> room = activeRooms.from(Room.class);
+            activeRooms.select(criteriaBuilder.count(room)).where(
+                criteriaBuilder.equal(room.get("roomType").get("roomTypeId"), roomType.get("roomTypeId")),
+                criteriaBuilder.or(
+                    criteriaBuilder.isNull(room.get("isDeleted")),
+                    criteriaBuilder.isFalse(room.get("isDeleted"))
+                )
+            );
+
+            coveringRoomTypes.select(roomType.get("roomTypeId")).where(
+                criteriaBuilder.equal(roomType.get("hotel").get("hotelId"), root.get("hotelId")),
+                criteriaBuilder.isFalse(roomType.get("isDeleted")),
+                criteriaBuilder.not(criteriaBuilder.exists(shortNights)),
+                criteriaBuilder.or(
+                    criteriaBuilder.equal(recordedNights, nights),
+                    criteriaBuilder.greaterThanOrEqualTo(activeRooms, (long) requiredRooms)
+                )
+            );
+
+            return criteriaBuilder.and(
+                criteriaBuilder.not(criteriaBuilder.exists(soldOutNights)),
+                criteriaBuilder.exists(coveringRoomTypes)
+            );
+        };
+    }
+
     /**
      * Filter active hotels only
      */
@@ -18,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -43,9 +42,7 @@ public class BackofficeRoomTypeService {
         }
         
         List<RoomType> roomTypes = roomTypeRepository.findByHotelId(hotelId);
-        List<RoomTypeResponseDto> roomTypeDtos = roomTypes.stream()
-            .map(roomTypeMapper::toResponseDto)
-            .collect(Collectors.toList());
+        List<RoomTypeResponseDto> roomTypeDtos = roomTypeMapper.toResponseDtoList(roomTypes);
         
         return RoomTypeListResponseDto.builder()
             .roomTypes(roomTypeDtos)
@@ -80,9 +77,7 @@ public class BackofficeRoomTypeService {
         }
         
         List<RoomType> roomTypes = roomTypeRepository.findSuitableRoomTypes(hotelId, guestCount);
-        List<RoomTypeResponseDto> roomTypeDtos = roomTypes.stream()
-            .map(roomTypeMapper::toResponseDto)
-            .collect(Collectors.toList());
+        List<RoomTypeResponseDto> roomTypeDtos = roomTypeMapper.toResponseDtoList(roomTypes);
         
         return RoomTypeListResponseDto.builder()
             .roomTypes(roomTypeDtos)
@@ -7,12 +7,16 @@ import com.pdh.hotel.repository.RoomRepository;
 import com.pdh.hotel.repository.RoomTypeRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -44,36 +48,59 @@ public class HotelInventoryService {
     @Transactional
     public boolean reserveRooms(Long hotelId, Long roomTypeId, String roomTypeName, Integer roomCount,
                                LocalDate checkInDate, LocalDate checkOutDate) {
+        return reserveRoomRange(hotelId, roomTypeId, roomTypeName, roomCount, checkInDate, checkOutDate).isAvailable();
+    }
+
+    /**
+     * Reserve rooms for every night of a stay in one locked batch
+     * Missing availability rows are created in bulk first, then all nights are checked and
+     * incremented by a single statement, so either the whole stay is reserved or nothing is.
+     *
+     * @return summary with the remaining rooms per night after the reservation
+     */
+    @Transactional
+    public AvailabilitySummary reserveRoomRange(Long hotelId, Long roomTypeId, String roomTypeName, Integer roomCount,
+                                                LocalDate checkInDate, LocalDate checkOutDate) {
         log.info("Attempting to reserve {} rooms (typeId={}, typeName={}) for hotel {} from {} to {}",
                 roomCount, roomTypeId, roomTypeName, hotelId, checkInDate, checkOutDate);
 
+        int roomsToReserve = normalizeRoomCount(roomCount);
+        if (checkInDate == null || checkOutDate == null || !checkOutDate.isAfter(checkInDate)) {
+            return AvailabilitySummary.unavailable("checkOutDate must be after checkInDate", roomsToReserve, List.of());
+        }
+
         try {
             RoomType roomType = resolveRoomType(hotelId, roomTypeId, roomTypeName);
             if (roomType == null) {
-                return false;
+                return AvailabilitySummary.unavailable("Room type not found for hotel", roomsToReserve, List.of());
             }
-            
-            // Check and reserve availability for each date in the stay period
-            LocalDate currentDate = checkInDate;
-            while (currentDate.isBefore(checkOutDate)) {
-                if (!reserveRoomForDate(roomType, currentDate, roomCount)) {
-                    // If any date fails, rollback previous reservations
-                    rollbackReservations(roomType, checkInDate, currentDate, roomCount);
-                    return false;
-                }
-                currentDate = currentDate.plusDays(1);
+
+            int totalInventory = calculateTotalInventory(roomType);
+            if (totalInventory > 0) {
+                roomAvailabilityRepository.insertMissingNights(
+                        roomType.getRoomTypeId(), checkInDate, checkOutDate, totalInventory);
             }
-            
-            log.info("Successfully reserved {} rooms of type {} for hotel {} from {} to {}", 
-                    roomCount, roomTypeName, hotelId, checkInDate, checkOutDate);
 
-            // Refresh availability flag after all dates are processed
-            refreshRoomAvailabilityFlag(roomType, checkInDate, checkOutDate);
-            return true;
-            
+            long nights = ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+            List<AvailabilityDetail> details = toDetails(roomAvailabilityRepository.reserveNights(
+                    roomType.getRoomTypeId(), checkInDate, checkOutDate, nights, roomsToReserve));
+
+            if (details.isEmpty()) {
+                log.warn("Insufficient rooms of type {} for hotel {} between {} and {}. Required: {}",
+                        roomType.getRoomTypeId(), hotelId, checkInDate, checkOutDate, roomsToReserve);
+                return AvailabilitySummary.unavailable("Not enough rooms for every night of the stay", roomsToReserve, List.of());
+            }
+
+            log.info("Successfully reserved {} rooms of type {} for hotel {} from {} to {}",
+                    roomsToReserve, roomType.getRoomTypeId(), hotelId, checkInDate, checkOutDate);
+
+            refreshRoomAvailabilityFlag(roomType, details);
+            int minRemaining = details.stream().mapToInt(AvailabilityDetail::getRemaining).min().orElse(0);
+            return new AvailabilitySummary(true, roomsToReserve, minRemaining, details, "Rooms reserved for the requested stay");
+
         } catch (Exception e) {
             log.error("Error reserving rooms for hotel {}: {}", hotelId, e.getMessage(), e);
-            return false;
+            return AvailabilitySummary.unavailable("Reservation failed: " + e.getMessage(), roomsToReserve, List.of());
         }
     }
 
@@ -98,18 +125,13 @@ public class HotelInventoryService {
                 return;
             }
             
-            // Release availability for each date in the stay period
-            LocalDate currentDate = checkInDate;
-            while (currentDate.isBefore(checkOutDate)) {
-                releaseRoomForDate(roomType, currentDate, roomCount);
-                currentDate = currentDate.plusDays(1);
-            }
+            List<AvailabilityDetail> details = toDetails(roomAvailabilityRepository.releaseNights(
+                    roomType.getRoomTypeId(), checkInDate, checkOutDate, normalizeRoomCount(roomCount)));
             
             log.info("Successfully released {} rooms of type {} for hotel {} from {} to {}", 
                     roomCount, roomTypeName, hotelId, checkInDate, checkOutDate);
 
-            // Refresh availability flag after all dates are processed
-            refreshRoomAvailabilityFlag(roomType, checkInDate, checkOutDate);
+            refreshRoomAvailabilityFlag(roomType, details);
             
         } catch (Exception e) {
             log.error("Error releasing rooms for hotel {}: {}", hotelId, e.getMessage(), e);
@@ -188,64 +210,36 @@ public class HotelInventoryService {
         }
     }
 
-    private int remainingRooms(RoomAvailability availability) {
-        if (availability == null) {
-            return 0;
+    private void refreshRoomAvailabilityFlag(RoomType roomType, List<AvailabilityDetail> details) {
+        if (details.isEmpty()) {
+            return;
         }
-        int totalInventory = Optional.ofNullable(availability.getTotalInventory()).orElse(0);
-        int totalReserved = Optional.ofNullable(availability.getTotalReserved()).orElse(0);
-        return totalInventory - totalReserved;
+        boolean hasAvailability = details.stream().anyMatch(detail -> detail.getRemaining() > 0);
+        roomRepository.updateAvailabilityByRoomType(roomType.getRoomTypeId(), hasAvailability);
     }
 
     /**
-     * Reserve room for a specific date
+     * Map {@code [date, total_inventory, total_reserved]} rows returned by the range statements
      */
-    private boolean reserveRoomForDate(RoomType roomType, LocalDate date, Integer roomCount) {
-        int roomsToReserve = normalizeRoomCount(roomCount);
-
-        Optional<RoomAvailability> availabilityOpt = getAvailabilityRecord(roomType, date, true);
-
-        if (availabilityOpt.isEmpty()) {
-            log.warn("Unable to initialize availability for room type {} on {}", roomType.getRoomTypeId(), date);
-            return false;
-        }
-
-        RoomAvailability availability = availabilityOpt.get();
-
-        int availableRooms = remainingRooms(availability);
-        if (availableRooms < roomsToReserve) {
-            log.warn("Insufficient rooms available on {}. Required: {}, Available: {}",
-                    date, roomsToReserve, availableRooms);
-            return false;
-        }
-
-        availability.setTotalReserved(Optional.ofNullable(availability.getTotalReserved()).orElse(0) + roomsToReserve);
-        roomAvailabilityRepository.save(availability);
-
-        log.debug("Reserved {} rooms for room type {} on date {}", roomsToReserve, roomType.getRoomTypeId(), date);
-        return true;
+    private List<AvailabilityDetail> toDetails(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> {
+                    LocalDate date = row[0] instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) row[0];
+                    int inventory = ((Number) row[1]).intValue();
+                    int reserved = ((Number) row[2]).intValue();
+                    return new AvailabilityDetail(date, inventory, reserved, Math.max(inventory - reserved, 0));
+                })
+                .sorted(Comparator.comparing(AvailabilityDetail::getDate))
+                .toList();
     }
 
-    /**
-     * Release room for a specific date
-     */
-    private void releaseRoomForDate(RoomType roomType, LocalDate date, Integer roomCount) {
-        int roomsToRelease = normalizeRoomCount(roomCount);
-
-        Optional<RoomAvailability> availabilityOpt = getAvailabilityRecord(roomType, date, false);
-
-        if (availabilityOpt.isEmpty()) {
-            log.warn("No availability record found for room type {} on date {}", roomType.getRoomTypeId(), date);
-            return;
+    private int remainingRooms(RoomAvailability availability) {
+        if (availability == null) {
+            return 0;
         }
-
-        RoomAvailability availability = availabilityOpt.get();
-        int currentReserved = Optional.ofNullable(availability.getTotalReserved()).orElse(0);
-        int newReservedRooms = Math.max(0, currentReserved - roomsToRelease);
-        availability.setTotalReserved(newReservedRooms);
-        roomAvailabilityRepository.save(availability);
-
-        log.debug("Released {} rooms for room type {} on date {}", roomsToRelease, roomType.getRoomTypeId(), date);
+        int totalInventory = Optional.ofNullable(availability.getTotalInventory()).orElse(0);
+        int totalReserved = Optional.ofNullable(availability.getTotalReserved()).orElse(0);
+        return totalInventory - totalReserved;
     }
 
     /**
@@ -254,7 +248,7 @@ public class HotelInventoryService {
     private boolean isRoomAvailableForDate(RoomType roomType, LocalDate date, Integer roomCount) {
         int roomsRequested = normalizeRoomCount(roomCount);
 
-        Optional<RoomAvailability> availabilityOpt = getAvailabilityRecord(roomType, date, false);
+        Optional<RoomAvailability> availabilityOpt = getAvailabilityRecord(roomType, date);
 
         if (availabilityOpt.isEmpty()) {
             int fallbackInventory = calculateTotalInventory(roomType);
@@ -267,19 +261,6 @@ public class HotelInventoryService {
         return availableRooms >= roomsRequested;
     }
 
-    /**
-     * Rollback reservations for failed booking
-     */
-    private void rollbackReservations(RoomType roomType, LocalDate startDate, LocalDate endDate, Integer roomCount) {
-        log.warn("Rolling back room reservations for room type {} from {} to {}", roomType.getRoomTypeId(), startDate, endDate);
-        
-        LocalDate currentDate = startDate;
-        while (currentDate.isBefore(endDate)) {
-            releaseRoomForDate(roomType, currentDate, roomCount);
-            currentDate = currentDate.plusDays(1);
-        }
-    }
-
     @Transactional(readOnly = true)
     public AvailabilitySummary getAvailabilitySummary(Long hotelId, String roomTypeName, Integer roomCount,
                                                       LocalDate checkInDate, LocalDate checkOutDate) {
@@ -352,6 +333,64 @@ public class HotelInventoryService {
         return new AvailabilitySummary(available, roomsRequested, Math.max(minRemaining, 0), details, message);
     }
 
+    /**
+     * Availability summaries for a whole page of room types, loaded with one query.
+     * Same semantics as {@link #getAvailabilitySummary}: nights without a record fall back to the
+     * active room count of the type.
+     *
+     * @return summary per (hotel, room type); room types that do not exist are absent
+     */
+    @Transactional(readOnly = true)
+    public Map<RoomTypeKey, AvailabilitySummary> getAvailabilitySummaries(Collection<Long> roomTypeIds, Integer roomCount,
+                                                                          LocalDate checkInDate, LocalDate checkOutDate) {
+        if (roomTypeIds == null || roomTypeIds.isEmpty()
+                || checkInDate == null || checkOutDate == null || !checkOutDate.isAfter(checkInDate)) {
+            return Map.of();
+        }
+        int roomsRequested = normalizeRoomCount(roomCount);
+
+        Map<RoomTypeKey, List<Object[]>> nightsByRoomType = roomAvailabilityRepository
+                .findStayNightsByRoomTypeIds(roomTypeIds, checkInDate, checkOutDate).stream()
+                .collect(Collectors.groupingBy(
+                        row -> new RoomTypeKey(((Number) row[0]).longValue(), ((Number) row[1]).longValue()),
+                        LinkedHashMap::new, Collectors.toList()));
+
+        Map<RoomTypeKey, AvailabilitySummary> summaries = new HashMap<>();
+        nightsByRoomType.forEach((key, nights) -> summaries.put(key, toSummary(nights, roomsRequested)));
+        return summaries;
+    }
+
+    private AvailabilitySummary toSummary(List<Object[]> nights, int roomsRequested) {
+        int activeRooms = ((Number) nights.get(0)[5]).intValue();
+        boolean hasRecords = nights.stream().anyMatch(night -> night[3] != null);
+        if (!hasRecords && activeRooms <= 0) {
+            return AvailabilitySummary.unavailable("No active rooms configured for this room type", roomsRequested, List.of());
+        }
+
+        List<AvailabilityDetail> details = new ArrayList<>(nights.size());
+        int minRemaining = Integer.MAX_VALUE;
+        for (Object[] night : nights) {
+            LocalDate date = night[2] instanceof java.sql.Date sqlDate ? sqlDate.toLocalDate() : (LocalDate) night[2];
+            int inventory = night[3] != null ? ((Number) night[3]).intValue() : activeRooms;
+            int reserved = night[4] != null ? ((Number) night[4]).intValue() : 0;
+            int remaining = Math.max(inventory - reserved, 0);
+            minRemaining = Math.min(minRemaining, remaining);
+            details.add(new AvailabilityDetail(date, inventory, reserved, remaining));
+        }
+
+        boolean available = minRemaining >= roomsRequested && minRemaining > 0;
+        String message = available
+                ? "Rooms available for the requested stay"
+                : "Only %d room(s) available across the requested dates".formatted(minRemaining);
+        return new AvailabilitySummary(available, roomsRequested, minRemaining, details, message);
+    }
+
+    /**
+     * Identifies a room type together with the hotel that owns it
+     */
+    public record RoomTypeKey(Long hotelId, Long roomTypeId) {
+    }
+
     /**
      * Get available room count for a room type on a specific date
      * 
@@ -367,7 +406,7 @@ public class HotelInventoryService {
                 return 0;
             }
 
-            Optional<RoomAvailability> availabilityOpt = getAvailabilityRecord(roomTypeOpt.get(), date, false);
+            Optional<RoomAvailability> availabilityOpt = getAvailabilityRecord(roomTypeOpt.get(), date);
 
             if (availabilityOpt.isEmpty()) {
                 return calculateTotalInventory(roomTypeOpt.get());
@@ -383,37 +422,12 @@ public class HotelInventoryService {
         }
     }
 
-    private Optional<RoomAvailability> getAvailabilityRecord(RoomType roomType, LocalDate date, boolean createWhenMissing) {
+    private Optional<RoomAvailability> getAvailabilityRecord(RoomType roomType, LocalDate date) {
         if (roomType == null || roomType.getRoomTypeId() == null) {
             return Optional.empty();
         }
 
-        Optional<RoomAvailability> existing = roomAvailabilityRepository
-                .findByRoomTypeIdAndDate(roomType.getRoomTypeId(), date);
-
-        if (existing.isPresent() || !createWhenMissing) {
-            return existing;
-        }
-
-        int totalInventory = calculateTotalInventory(roomType);
-        if (totalInventory <= 0) {
-            log.warn("Cannot initialize availability for room type {} on {} because total inventory is {}", roomType.getRoomTypeId(), date, totalInventory);
-            return Optional.empty();
-        }
-
-        RoomAvailability availability = new RoomAvailability();
-        availability.setRoomTypeId(roomType.getRoomTypeId());
-        availability.setDate(date);
-        availability.setTotalInventory(totalInventory);
-        availability.setTotalReserved(0);
-
-        try {
-            return Optional.of(roomAvailabilityRepository.save(availability));
-        } catch (DataIntegrityViolationException ex) {
-            log.debug("Availability record for room type {} on {} already exists, re-fetching",
-                    roomType.getRoomTypeId(), date);
-            return roomAvailabilityRepository.findByRoomTypeIdAndDate(roomType.getRoomTypeId(), date);
-        }
+        return roomAvailabilityRepository.findByRoomTypeIdAndDate(roomType.getRoomTypeId(), date);
     }
 
     private int calculateTotalInventory(RoomType roomType) {
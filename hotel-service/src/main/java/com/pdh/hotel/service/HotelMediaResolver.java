@@ -0,0 +1,149 @@
+package com.pdh.hotel.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.pdh.common.dto.response.MediaResponse;
+import com.pdh.hotel.model.HotelImage;
+import com.pdh.hotel.model.RoomTypeImage;
+import com.pdh.hotel.repository.HotelImageRepository;
+import com.pdh.hotel.repository.RoomTypeImageRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Resolves hotel and room type media in batches, backed by a per-instance near cache.
+ * Cache misses for a whole page are loaded with one query; entries are evicted from the
+ * hotel CDC stream and on local image updates, with a TTL as the safety net.
+ */
+@Component
+@Slf4j
+public class HotelMediaResolver {
+
+    private static final Comparator<MediaResponse> PRIMARY_FIRST =
+        Comparator.comparing((MediaResponse media) -> !Boolean.TRUE.equals(media.getIsPrimary()))
+            .thenComparing(media -> media.getDisplayOrder() != null ? media.getDisplayOrder() : 0);
+
+    private final HotelImageRepository hotelImageRepository;
+    private final RoomTypeImageRepository roomTypeImageRepository;
+    private final Cache<Long, List<MediaResponse>> hotelMedia;
+    private final Cache<Long, List<MediaResponse>> roomTypeMedia;
+
+    public HotelMediaResolver(HotelImageRepository hotelImageRepository,
+                              RoomTypeImageRepository roomTypeImageRepository,
+                              @Value("${hotel.media-cache.max-size:20000}") long maxSize,
+                              @Value("${hotel.media-cache.ttl-minutes:30}") long ttlMinutes) {
+        this.hotelImageRepository = hotelImageRepository;
+        this.roomTypeImageRepository = roomTypeImageRepository;
+        this.hotelMedia = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .build();
+        this.roomTypeMedia = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMinutes(ttlMinutes))
+            .build();
+    }
+
+    /**
+     * Media for one hotel, primary image first
+     */
+    public List<MediaResponse> getHotelMedia(Long hotelId) {
+        if (hotelId == null) {
+            return List.of();
+        }
+        return getHotelMedia(Set.of(hotelId)).getOrDefault(hotelId, List.of());
+    }
+
+    /**
+     * Media for many hotels; every cache miss is loaded by a single query
+     */
+    public Map<Long, List<MediaResponse>> getHotelMedia(Collection<Long> hotelIds) {
+        return hotelMedia.getAll(nonNull(hotelIds), this::loadHotelMedia);
+    }
+
+    /**
+     * Media for many room types; every cache miss is loaded by a single query
+     */
+    public Map<Long, List<MediaResponse>> getRoomTypeMedia(Collection<Long> roomTypeIds) {
+        return roomTypeMedia.getAll(nonNull(roomTypeIds), this::loadRoomTypeMedia);
+    }
+
+    public void evictHotel(Long hotelId) {
+        if (hotelId != null) {
+            hotelMedia.invalidate(hotelId);
+        }
+    }
+
+    public void evictRoomType(Long roomTypeId) {
+        if (roomTypeId != null) {
+            roomTypeMedia.invalidate(roomTypeId);
+        }
+    }
+
+    private Map<Long, List<MediaResponse>> loadHotelMedia(Set<? extends Long> hotelIds) {
+        log.debug("Loading media for {} hotels", hotelIds.size());
+        Map<Long, List<MediaResponse>> byHotel = hotelImageRepository.findByHotelIdIn(List.copyOf(hotelIds)).stream()
+            .collect(Collectors.groupingBy(image -> image.getHotel().getHotelId(),
+                Collectors.mapping(HotelMediaResolver::toMedia, Collectors.toList())));
+        return completeAndSort(hotelIds, byHotel);
+    }
+
+    private Map<Long, List<MediaResponse>> loadRoomTypeMedia(Set<? extends Long> roomTypeIds) {
+        log.debug("Loading media for {} room types", roomTypeIds.size());
+        Map<Long, List<MediaResponse>> byRoomType = roomTypeImageRepository.findByRoomTypeIdIn(List.copyOf(roomTypeIds)).stream()
+            .collect(Collectors.groupingBy(image -> image.getRoomType().getRoomTypeId(),
+                Collectors.mapping(HotelMediaResolver::toMedia, Collectors.toList())));
+        return completeAndSort(roomTypeIds, byRoomType);
+    }
+
+    /**
+     * Ids without images map to an empty list so they are cached as well
+     */
+    private static Map<Long, List<MediaResponse>> completeAndSort(Set<? extends Long> ids, Map<Long, List<MediaResponse>> loaded) {
+        Map<Long, List<MediaResponse>> result = new HashMap<>();
+        for (Long id : ids) {
+            List<MediaResponse> media = loaded.getOrDefault(id, List.of());
+            result.put(id, media.stream().sorted(PRIMARY_FIRST).toList());
+        }
+        return result;
+    }
+
+    private static Set<Long> nonNull(Collection<Long> ids) {
+        return ids == null ? Set.of() : ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+
+    private static MediaResponse toMedia(HotelImage image) {
+        return MediaResponse.builder()
+            .id(image.getId())
+            .mediaId(image.getMediaId())
+            .publicId(image.getPublicId())
+            .url(image.getUrl())
+            .secureUrl(image.getUrl()) // For now, use the same URL for both
+            .isPrimary(image.isPrimary())
+            .displayOrder(0)
+            .build();
+    }
+
+    private static MediaResponse toMedia(RoomTypeImage image) {
+        return MediaResponse.builder()
+            .id(image.getMediaId())
+            .mediaId(image.getMediaId())
+            .publicId(image.getPublicId())
+            .url(image.getUrl())
+            .secureUrl(image.getUrl()) // For now, use the same URL for both
+            .isPrimary(image.isPrimary())
+            .displayOrder(0)
+            .build();
+    }
+}
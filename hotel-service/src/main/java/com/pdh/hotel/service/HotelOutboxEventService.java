@@ -1,46 +1,43 @@
 package com.pdh.hotel.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.pdh.common.outbox.service.OutboxEventService;
+import com.pdh.common.outbox.service.AbstractOutboxEventService;
+import com.pdh.common.outbox.service.OutboxPartitionManager;
 import com.pdh.hotel.model.HotelOutboxEvent;
 import com.pdh.hotel.repository.HotelOutboxEventRepository;
-import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Hotel-specific implementation of OutboxEventService
  * Publishes events to hotel_outbox_events table
  */
 @Service
-@RequiredArgsConstructor
-@Slf4j
-public class HotelOutboxEventService implements OutboxEventService {
+public class HotelOutboxEventService extends AbstractOutboxEventService<HotelOutboxEvent> {
 
-    private final HotelOutboxEventRepository hotelOutboxEventRepository;
-    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OutboxPartitionManager> outboxPartitionManager;
 
-    @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
-    public void publishEvent(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
-        try {
-            String payload = objectMapper.writeValueAsString(eventPayload);
+    public HotelOutboxEventService(HotelOutboxEventRepository hotelOutboxEventRepository,
+                                   ObjectMapper objectMapper,
+                                   ObjectProvider<OutboxPartitionManager> outboxPartitionManager) {
+        super(hotelOutboxEventRepository, objectMapper);
+        this.outboxPartitionManager = outboxPartitionManager;
+    }
 
-            HotelOutboxEvent event = HotelOutboxEvent.createHotelEvent(eventType, aggregateType, aggregateId, payload);
-            hotelOutboxEventRepository.save(event);
+    @Override
+    protected HotelOutboxEvent createOutboxEvent(OutboxEventRequest request, String payload) {
+        return HotelOutboxEvent.createHotelEvent(
+            request.eventType(), request.aggregateType(), request.aggregateId(), payload);
+    }
 
-            log.debug("Published hotel event to outbox: eventType={}, aggregateType={}, aggregateId={}",
-                     eventType, aggregateType, aggregateId);
+    @Override
+    public void cleanupOldEvents() {
+        outboxPartitionManager.ifAvailable(OutboxPartitionManager::maintain);
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing event payload for eventType: {}, aggregateId: {}", eventType, aggregateId, e);
-            throw new RuntimeException("Failed to serialize event payload", e);
-        } catch (Exception e) {
-            log.error("Error publishing hotel event to outbox: eventType={}, aggregateId={}", eventType, aggregateId, e);
-            throw new RuntimeException("Failed to publish event to outbox", e);
-        }
+    @Override
+    public OutboxStatistics getStatistics() {
+        OutboxPartitionManager partitionManager = outboxPartitionManager.getIfAvailable();
+        return partitionManager != null ? partitionManager.statistics(0, 0) : OutboxStatistics.EMPTY;
     }
 }
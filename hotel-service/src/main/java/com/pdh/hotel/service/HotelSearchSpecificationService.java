@@ -12,6 +12,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -288,7 +289,9 @@ public class HotelSearchSpecificationService {
             criteria.getMinLat() != null || criteria.getMaxLat() != null ? 
                 HotelSpecification.hasLatitudeRange(criteria.getMinLat(), criteria.getMaxLat()) : null,
             criteria.getMinLon() != null || criteria.getMaxLon() != null ? 
-                HotelSpecification.hasLongitudeRange(criteria.getMinLon(), criteria.getMaxLon()) : null
+                HotelSpecification.hasLongitudeRange(criteria.getMinLon(), criteria.getMaxLon()) : null,
+            criteria.getCheckInDate() != null && criteria.getCheckOutDate() != null ?
+                HotelSpecification.hasAvailabilityForStay(criteria.getCheckInDate(), criteria.getCheckOutDate(), criteria.getRooms()) : null
         );
     }
 
@@ -358,6 +361,9 @@ public class HotelSearchSpecificationService {
         private BigDecimal maxLat;
         private BigDecimal minLon;
         private BigDecimal maxLon;
+        private LocalDate checkInDate;
+        private LocalDate checkOutDate;
+        private Integer rooms;
 
         // Constructors
         public HotelSearchCriteria() {}
@@ -432,6 +438,15 @@ public class HotelSearchSpecificationService {
         public BigDecimal getMaxLon() { return maxLon; }
         public void setMaxLon(BigDecimal maxLon) { this.maxLon = maxLon; }
 
+        public LocalDate getCheckInDate() { return checkInDate; }
+        public void setCheckInDate(LocalDate checkInDate) { this.checkInDate = checkInDate; }
+
+        public LocalDate getCheckOutDate() { return checkOutDate; }
+        public void setCheckOutDate(LocalDate checkOutDate) { this.checkOutDate = checkOutDate; }
+
+        public Integer getRooms() { return rooms; }
+        public void setRooms(Integer rooms) { this.rooms = rooms; }
+
         @Override
         public String toString() {
             return "HotelSearchCriteria{" +
@@ -455,6 +470,9 @@ public class HotelSearchSpecificationService {
                     ", maxLat=" + maxLat +
                     ", minLon=" + minLon +
                     ", maxLon=" + maxLon +
+                    ", checkInDate=" + checkInDate +
+                    ", checkOutDate=" + checkOutDate +
+                    ", rooms=" + rooms +
                     '}';
         }
     }
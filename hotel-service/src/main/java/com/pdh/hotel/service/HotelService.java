@@ -91,22 +91,29 @@ public class HotelService {
 
         } catch (Exception e) {
             log.error("Failed to reserve hotel for booking: {}", bookingId, e);
-
-            // Create failure event payload
-            Map<String, Object> failurePayload = new HashMap<>();
-            failurePayload.put("eventType", "HotelReservationFailed");
-            failurePayload.put("bookingId", bookingId);
-            failurePayload.put("sagaId", sagaId);
-            failurePayload.put("errorMessage", e.getMessage());
-            failurePayload.put("hotelId", hotelDetails.getHotelId());
-
-            // Publish failure event
-            eventPublisher.publishEvent("HotelReservationFailed", "Booking", bookingId.toString(), failurePayload);
-
             throw e;
         }
     }
 
+    /**
+     * Records the failure of a reservation whose transaction was rolled back, so it runs in a
+     * transaction of its own rather than in the one that failed
+     */
+    @Transactional
+    public void publishReservationFailed(UUID bookingId, String sagaId, HotelBookingDetailsDto hotelDetails,
+                                         Exception cause) {
+        // Create failure event payload
+        Map<String, Object> failurePayload = new HashMap<>();
+        failurePayload.put("eventType", "HotelReservationFailed");
+        failurePayload.put("bookingId", bookingId);
+        failurePayload.put("sagaId", sagaId);
+        failurePayload.put("errorMessage", cause.getMessage());
+        failurePayload.put("hotelId", hotelDetails.getHotelId());
+
+        // Publish failure event
+        eventPublisher.publishEvent("HotelReservationFailed", "Booking", bookingId.toString(), failurePayload);
+    }
+
     @Transactional
     public void cancelHotelReservation(UUID bookingId) {
         // Legacy method for backward compatibility
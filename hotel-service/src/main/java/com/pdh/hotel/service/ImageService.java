@@ -29,6 +29,7 @@ public class ImageService {
     private final HotelRepository hotelRepository;
     private final RoomRepository roomRepository;
     private final RoomTypeRepository roomTypeRepository;
+    private final HotelMediaResolver hotelMediaResolver;
 
     // ===== HOTEL IMAGE OPERATIONS =====
 
@@ -76,6 +77,8 @@ public class ImageService {
                 hotelImages.stream().filter(HotelImage::isPrimary).findFirst()
                     .map(img -> img.getPublicId()).orElse("none"));
         }
+
+        hotelMediaResolver.evictHotel(hotelId);
     }
 
     /**
@@ -228,6 +231,8 @@ public class ImageService {
                 roomTypeImages.stream().filter(RoomTypeImage::isPrimary).findFirst()
                     .map(img -> img.getPublicId()).orElse("none"));
         }
+
+        hotelMediaResolver.evictRoomType(roomTypeId);
     }
 
     /**
@@ -17,9 +17,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 
 @Service
@@ -47,9 +50,28 @@ public class RoomTypeService {
         }
         
         List<RoomType> roomTypes = roomTypeRepository.findByHotelId(hotelId);
-        return roomTypes.stream()
-                .map(roomTypeMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return roomTypeMapper.toResponseDtoList(roomTypes);
+    }
+    
+    /**
+     * Get room types for a page of hotels, keyed by hotel ID.
+     * Room types and their media are each loaded with a single query.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, List<RoomTypeResponseDto>> getRoomTypesByHotels(Collection<Long> hotelIds) {
+        if (hotelIds == null || hotelIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<RoomType> roomTypes = roomTypeRepository.findByHotelIdIn(hotelIds);
+        List<RoomTypeResponseDto> dtos = roomTypeMapper.toResponseDtoList(roomTypes);
+
+        Map<Long, List<RoomTypeResponseDto>> byHotel = new HashMap<>();
+        for (int i = 0; i < roomTypes.size(); i++) {
+            byHotel.computeIfAbsent(roomTypes.get(i).getHotel().getHotelId(), id -> new ArrayList<>())
+                    .add(dtos.get(i));
+        }
+        return byHotel;
     }
     
     /**
@@ -75,9 +97,7 @@ public class RoomTypeService {
         }
         
         List<RoomType> roomTypes = roomTypeRepository.findSuitableRoomTypes(hotelId, guestCount);
-        return roomTypes.stream()
-                .map(roomTypeMapper::toResponseDto)
-                .collect(Collectors.toList());
+        return roomTypeMapper.toResponseDtoList(roomTypes);
     }
     
     /**
@@ -0,0 +1,25 @@
+-- liquibase formatted sql
+
+-- changeset PhamDuyHuy:1792195200000-1
+CREATE TABLE hotel_availability_summary
+(
+    hotel_id      BIGINT                      NOT NULL,
+    stay_date     date                        NOT NULL,
+    max_remaining INTEGER                     NOT NULL,
+    updated_at    TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_hotel_availability_summary PRIMARY KEY (hotel_id, stay_date)
+);
+
+-- changeset PhamDuyHuy:1792195200000-2
+CREATE INDEX idx_hotel_availability_summary_date_remaining
+    ON hotel_availability_summary (stay_date, max_remaining);
+
+-- changeset PhamDuyHuy:1792195200000-3
+INSERT INTO hotel_availability_summary (hotel_id, stay_date, max_remaining, updated_at)
+SELECT rt.hotel_id, ra.date, MAX(GREATEST(ra.total_inventory - ra.total_reserved, 0)), now()
+FROM room_availability ra
+         JOIN room_types rt ON rt.room_type_id = ra.room_type_id
+WHERE ra.is_deleted = false
+  AND rt.is_deleted = false
+GROUP BY rt.hotel_id, ra.date
+ON CONFLICT (hotel_id, stay_date) DO NOTHING;
@@ -0,0 +1,34 @@
+-- liquibase formatted sql
+
+-- changeset PhamDuyHuy:1792281600000-1 splitStatements:false
+-- Range-partition the outbox by created_at: existing rows land in one legacy partition, daily partitions are created ahead and dropped after retention by OutboxPartitionManager.
+-- Unique keys must include the partition key, so the primary key becomes (id, created_at).
+DO $$
+DECLARE
+    legacy_upper TIMESTAMP := date_trunc('day', localtimestamp) + INTERVAL '1 day';
+BEGIN
+    ALTER TABLE hotel_outbox_events RENAME TO hotel_outbox_events_legacy;
+
+    CREATE TABLE hotel_outbox_events (LIKE hotel_outbox_events_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+    EXECUTE format('CREATE TABLE hotel_outbox_events_legacy_data PARTITION OF hotel_outbox_events FOR VALUES FROM (MINVALUE) TO (%L)', legacy_upper);
+    CREATE TABLE hotel_outbox_events_default PARTITION OF hotel_outbox_events DEFAULT;
+
+    INSERT INTO hotel_outbox_events SELECT * FROM hotel_outbox_events_legacy;
+    DROP TABLE hotel_outbox_events_legacy;
+END $$;
+
+ALTER TABLE hotel_outbox_events
+    ADD CONSTRAINT pk_hotel_outbox_events PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_hotel_outbox_aggregate ON hotel_outbox_events (aggregate_type, aggregate_id);
+CREATE INDEX idx_hotel_outbox_created_at ON hotel_outbox_events (created_at);
+CREATE INDEX idx_hotel_outbox_event_type ON hotel_outbox_events (event_type);
+
+-- changeset PhamDuyHuy:1792281600000-2 splitStatements:false
+-- Debezium publication that reports partition changes under the parent table name
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = 'hotel_outbox_publication') THEN
+        CREATE PUBLICATION hotel_outbox_publication FOR TABLE hotel_outbox_events WITH (publish_via_partition_root = true);
+    END IF;
+END $$;
@@ -0,0 +1,35 @@
+-- liquibase formatted sql
+
+-- changeset PhamDuyHuy:1792454400000-1
+-- Re-derive hotel_availability_summary over every active room type. The 008 backfill inner-joined
+-- room_availability, so a hotel whose only row for a night was a sold-out type got max_remaining = 0
+-- although its other room types (no row yet, never reserved) still had their full room count.
+WITH inventory AS (
+    SELECT rt.room_type_id, rt.hotel_id, COUNT(r.id) AS rooms
+    FROM room_types rt
+             LEFT JOIN rooms r ON r.room_type_id = rt.room_type_id AND r.is_deleted = false
+    WHERE rt.is_deleted = false
+    GROUP BY rt.room_type_id, rt.hotel_id
+),
+     nights AS (
+         SELECT DISTINCT hotel_id, stay_date FROM hotel_availability_summary
+     )
+UPDATE hotel_availability_summary s
+SET max_remaining = derived.max_remaining,
+    updated_at    = now()
+FROM (SELECT n.hotel_id,
+             n.stay_date,
+             MAX(GREATEST(COALESCE(ra.total_inventory - ra.total_reserved, i.rooms), 0)) AS max_remaining
+      FROM nights n
+               JOIN inventory i ON i.hotel_id = n.hotel_id
+               LEFT JOIN room_availability ra
+                         ON ra.room_type_id = i.room_type_id AND ra.date = n.stay_date AND ra.is_deleted = false
+      GROUP BY n.hotel_id, n.stay_date) derived
+WHERE s.hotel_id = derived.hotel_id
+  AND s.stay_date = derived.stay_date;
+
+-- changeset PhamDuyHuy:1792454400000-2
+-- Hotels without any active room type keep no summary rows
+DELETE
+FROM hotel_availability_summary s
+WHERE NOT EXISTS (SELECT 1 FROM room_types rt WHERE rt.hotel_id = s.hotel_id AND rt.is_deleted = false);
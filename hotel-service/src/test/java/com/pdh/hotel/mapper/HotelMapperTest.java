@@ -0,0 +1,127 @@
+package com.pdh.hotel.mapper;
+
+import com.pdh.hotel.dto.response.RoomTypeResponseDto;
+import com.pdh.hotel.model.Hotel;
+import com.pdh.hotel.service.AmenityService;
+import com.pdh.hotel.service.HotelInventoryService;
+import com.pdh.hotel.service.HotelInventoryService.AvailabilityDetail;
+import com.pdh.hotel.service.HotelInventoryService.AvailabilitySummary;
+import com.pdh.hotel.service.HotelInventoryService.RoomTypeKey;
+import com.pdh.hotel.service.HotelMediaResolver;
+import com.pdh.hotel.service.RoomTypeService;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Storefront mapping of a page of hotels: availability for every room type on the page is loaded
+ * with one batched lookup and matched back to its hotel and room type.
+ */
+class HotelMapperTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 12, 20);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    private final HotelMediaResolver hotelMediaResolver = mock(HotelMediaResolver.class);
+    private final RoomTypeService roomTypeService = mock(RoomTypeService.class);
+    private final HotelInventoryService hotelInventoryService = mock(HotelInventoryService.class);
+    private final HotelMapper mapper = new HotelMapper(hotelMediaResolver, roomTypeService,
+        mock(AmenityService.class), hotelInventoryService);
+
+    @Test
+    void availabilityForAPageIsLoadedOnceAndMatchedByHotelAndRoomType() {
+        List<Hotel> hotels = new ArrayList<>();
+        Map<Long, List<RoomTypeResponseDto>> roomTypes = new HashMap<>();
+        Map<RoomTypeKey, AvailabilitySummary> availability = new HashMap<>();
+        for (long hotelId = 1; hotelId <= 3; hotelId++) {
+            hotels.add(hotel(hotelId));
+            List<RoomTypeResponseDto> types = new ArrayList<>();
+            for (long r = 0; r < 2; r++) {
+                long roomTypeId = hotelId * 10 + r;
+                types.add(roomType(roomTypeId));
+                availability.put(new RoomTypeKey(hotelId, roomTypeId), summary(r == 0, (int) roomTypeId));
+            }
+            roomTypes.put(hotelId, types);
+        }
+        when(roomTypeService.getRoomTypesByHotels(anyList())).thenReturn(roomTypes);
+        when(hotelMediaResolver.getHotelMedia(anyList())).thenReturn(Map.of());
+        when(hotelInventoryService.getAvailabilitySummaries(anyCollection(), eq(2), eq(CHECK_IN), eq(CHECK_OUT)))
+            .thenReturn(availability);
+
+        List<Map<String, Object>> responses = mapper.toStorefrontSearchResponses(hotels, CHECK_IN, CHECK_OUT, 2, 2);
+
+        verify(hotelInventoryService, times(1)).getAvailabilitySummaries(anyCollection(), anyInt(), any(), any());
+        verify(hotelInventoryService, never()).getAvailabilitySummary(anyLong(), anyString(), anyInt(), any(), any());
+        assertThat(responses).hasSize(3);
+        List<Map<String, Object>> secondHotelRooms = availableRooms(responses.get(1));
+        assertThat(secondHotelRooms).extracting(room -> room.get("roomId")).containsExactly("20", "21");
+        assertThat(secondHotelRooms).extracting(room -> room.get("available")).containsExactly(true, false);
+        List<?> dailyAvailability = (List<?>) secondHotelRooms.get(1).get("dailyAvailability");
+        assertThat(dailyAvailability).hasSize(2);
+        assertThat(dailyAvailability.get(0))
+            .isEqualTo(Map.of("date", CHECK_IN.toString(), "totalInventory", 21, "totalReserved", 21, "remaining", 0));
+    }
+
+    @Test
+    void failedAvailabilityLookupLeavesRoomsUnchecked() {
+        when(roomTypeService.getRoomTypesByHotels(anyList())).thenReturn(Map.of(1L, List.of(roomType(10))));
+        when(hotelMediaResolver.getHotelMedia(anyList())).thenReturn(Map.of());
+        when(hotelInventoryService.getAvailabilitySummaries(anyCollection(), anyInt(), any(), any()))
+            .thenThrow(new IllegalStateException("database unavailable"));
+
+        List<Map<String, Object>> responses = mapper.toStorefrontSearchResponses(List.of(hotel(1)), CHECK_IN,
+            CHECK_OUT, 2, 1);
+
+        Map<String, Object> room = availableRooms(responses.get(0)).get(0);
+        assertThat(room.get("available")).isEqualTo(true);
+        assertThat(room.get("availabilityMessage")).isEqualTo("Availability not checked");
+        assertThat((List<?>) room.get("dailyAvailability")).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> availableRooms(Map<String, Object> response) {
+        return (List<Map<String, Object>>) response.get("availableRooms");
+    }
+
+    private static Hotel hotel(long hotelId) {
+        Hotel hotel = new Hotel();
+        hotel.setHotelId(hotelId);
+        hotel.setName("Hotel " + hotelId);
+        return hotel;
+    }
+
+    private static RoomTypeResponseDto roomType(long roomTypeId) {
+        RoomTypeResponseDto roomType = new RoomTypeResponseDto();
+        roomType.setId(roomTypeId);
+        roomType.setName("Room " + roomTypeId);
+        roomType.setBasePrice(BigDecimal.valueOf(100));
+        return roomType;
+    }
+
+    private static AvailabilitySummary summary(boolean available, int inventory) {
+        int reserved = available ? 0 : inventory;
+        List<AvailabilityDetail> details = List.of(
+            new AvailabilityDetail(CHECK_IN, inventory, reserved, inventory - reserved),
+            new AvailabilityDetail(CHECK_IN.plusDays(1), inventory, reserved, inventory - reserved));
+        return new AvailabilitySummary(available, 2, inventory - reserved, details, available ? "ok" : "sold out");
+    }
+}
@@ -0,0 +1,146 @@
+package com.pdh.hotel.repository;
+
+import com.pdh.hotel.model.Hotel;
+import com.pdh.hotel.model.RoomType;
+import com.pdh.hotel.repository.specification.HotelSpecification;
+import com.pdh.hotel.service.HotelInventoryService;
+import com.pdh.hotel.service.HotelInventoryService.AvailabilityDetail;
+import com.pdh.hotel.service.HotelInventoryService.AvailabilitySummary;
+import com.pdh.hotel.service.HotelInventoryService.RoomTypeKey;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stay availability on the schema built by the Liquibase changelog: the batched summaries for a page
+ * of room types and the search specification both judge each room type over the whole stay.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = HotelStayAvailabilityTest.Config.class)
+@Testcontainers(disabledWithoutDocker = true)
+class HotelStayAvailabilityTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 12, 20);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(2);
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.hotel.model")
+    @EnableJpaRepositories(basePackageClasses = HotelRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+            HotelRepository.class, RoomAvailabilityRepository.class, RoomTypeRepository.class, RoomRepository.class
+        }))
+    @Import(HotelInventoryService.class)
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelInventoryService hotelInventoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void roomTypesSoldOutOnDifferentNightsDoNotMakeAStay() {
+        Hotel splitHotel = hotel("Split");
+        nights(roomType(splitHotel, "Deluxe"), 0, 5);
+        nights(roomType(splitHotel, "Suite"), 5, 0);
+        Hotel openHotel = hotel("Open");
+        nights(roomType(openHotel, "Standard"), 0, 1);
+        Hotel unrecordedHotel = hotel("Unrecorded");
+        Long partial = roomType(unrecordedHotel, "Partial");
+        jdbcTemplate.update("INSERT INTO room_availability (room_type_id, date, total_inventory, total_reserved, "
+            + "created_at, updated_at, is_deleted) VALUES (?, ?, 3, 0, now(), now(), false)", partial, CHECK_IN);
+
+        List<Hotel> found = hotelRepository.findAll(HotelSpecification.hasAvailabilityForStay(CHECK_IN, CHECK_OUT, 1));
+
+        assertThat(found).extracting(Hotel::getName).containsExactly("Open");
+    }
+
+    @Test
+    void summariesForAPageAreKeyedByHotelAndRoomType() {
+        Hotel first = hotel("First");
+        Long deluxe = roomType(first, "Deluxe");
+        nights(deluxe, 0, 0);
+        Hotel second = hotel("Second");
+        Long suite = roomType(second, "Suite");
+        nights(suite, 1, 4);
+        Long empty = roomType(second, "Empty");
+
+        Map<RoomTypeKey, AvailabilitySummary> summaries = hotelInventoryService.getAvailabilitySummaries(
+            List.of(deluxe, suite, empty), 2, CHECK_IN, CHECK_OUT);
+
+        assertThat(summaries).containsOnlyKeys(new RoomTypeKey(first.getHotelId(), deluxe),
+            new RoomTypeKey(second.getHotelId(), suite), new RoomTypeKey(second.getHotelId(), empty));
+        AvailabilitySummary deluxeSummary = summaries.get(new RoomTypeKey(first.getHotelId(), deluxe));
+        assertThat(deluxeSummary.isAvailable()).isTrue();
+        assertThat(deluxeSummary.getDailyDetails()).extracting(AvailabilityDetail::getRemaining).containsExactly(5, 5);
+        AvailabilitySummary suiteSummary = summaries.get(new RoomTypeKey(second.getHotelId(), suite));
+        assertThat(suiteSummary.isAvailable()).isFalse();
+        assertThat(suiteSummary.getRoomsAvailable()).isEqualTo(1);
+        assertThat(summaries.get(new RoomTypeKey(second.getHotelId(), empty)).getMessage())
+            .isEqualTo("No active rooms configured for this room type");
+    }
+
+    private Hotel hotel(String name) {
+        Hotel hotel = new Hotel();
+        hotel.setName(name);
+        entityManager.persist(hotel);
+        return hotel;
+    }
+
+    private Long roomType(Hotel hotel, String name) {
+        RoomType roomType = new RoomType();
+        roomType.setHotel(hotel);
+        roomType.setName(name);
+        roomType.setBasePrice(BigDecimal.valueOf(100));
+        entityManager.persist(roomType);
+        entityManager.flush();
+        return roomType.getRoomTypeId();
+    }
+
+    /**
+     * Five rooms a night for both nights of the stay, with the given rooms reserved on each night.
+     */
+    private void nights(Long roomTypeId, int reservedFirstNight, int reservedSecondNight) {
+        int[] reserved = {reservedFirstNight, reservedSecondNight};
+        for (int night = 0; night < reserved.length; night++) {
+            jdbcTemplate.update("INSERT INTO room_availability (room_type_id, date, total_inventory, total_reserved, "
+                + "created_at, updated_at, is_deleted) VALUES (?, ?, 5, ?, now(), now(), false)",
+                roomTypeId, CHECK_IN.plusDays(night), reserved[night]);
+        }
+    }
+}
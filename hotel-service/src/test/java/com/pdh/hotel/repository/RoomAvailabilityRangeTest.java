@@ -0,0 +1,132 @@
+package com.pdh.hotel.repository;
+
+import com.pdh.hotel.model.Hotel;
+import com.pdh.hotel.model.RoomType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * All-or-nothing range statements of {@link RoomAvailabilityRepository} on the schema built by the
+ * Liquibase changelog: a stay is reserved for every night or for none, and a release restores the counts.
+ */
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = RoomAvailabilityRangeTest.Config.class)
+@Testcontainers(disabledWithoutDocker = true)
+class RoomAvailabilityRangeTest {
+
+    private static final LocalDate CHECK_IN = LocalDate.of(2026, 12, 20);
+    private static final LocalDate CHECK_OUT = CHECK_IN.plusDays(3);
+    private static final int INVENTORY = 5;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.hotel.model")
+    @EnableJpaRepositories(basePackageClasses = RoomAvailabilityRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE,
+            classes = RoomAvailabilityRepository.class))
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RoomAvailabilityRepository roomAvailabilityRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long roomTypeId;
+
+    @BeforeEach
+    void createRoomType() {
+        Hotel hotel = new Hotel();
+        hotel.setName("Range Hotel");
+        entityManager.persist(hotel);
+        RoomType roomType = new RoomType();
+        roomType.setHotel(hotel);
+        roomType.setName("Deluxe");
+        roomType.setBasePrice(BigDecimal.valueOf(100));
+        entityManager.persist(roomType);
+        entityManager.flush();
+        roomTypeId = roomType.getRoomTypeId();
+    }
+
+    @Test
+    void missingNightsAreCreatedOnce() {
+        assertThat(roomAvailabilityRepository.insertMissingNights(roomTypeId, CHECK_IN, CHECK_OUT, INVENTORY))
+            .isEqualTo(3);
+        assertThat(roomAvailabilityRepository.insertMissingNights(roomTypeId, CHECK_IN, CHECK_OUT.plusDays(1),
+            INVENTORY)).isEqualTo(1);
+    }
+
+    @Test
+    void stayWithOneSoldOutNightReservesNothing() {
+        roomAvailabilityRepository.insertMissingNights(roomTypeId, CHECK_IN, CHECK_OUT, INVENTORY);
+        jdbcTemplate.update("UPDATE room_availability SET total_reserved = ? WHERE room_type_id = ? AND date = ?",
+            INVENTORY, roomTypeId, CHECK_IN.plusDays(1));
+
+        List<Object[]> reserved = roomAvailabilityRepository.reserveNights(roomTypeId, CHECK_IN, CHECK_OUT, 3, 1);
+
+        assertThat(reserved).isEmpty();
+        assertThat(reservedPerNight()).containsExactly(0, INVENTORY, 0);
+    }
+
+    @Test
+    void stayWithAMissingNightReservesNothing() {
+        roomAvailabilityRepository.insertMissingNights(roomTypeId, CHECK_IN, CHECK_OUT.minusDays(1), INVENTORY);
+
+        assertThat(roomAvailabilityRepository.reserveNights(roomTypeId, CHECK_IN, CHECK_OUT, 3, 1)).isEmpty();
+        assertThat(reservedPerNight()).containsExactly(0, 0);
+    }
+
+    @Test
+    void reservationCoversEveryNightAndReleaseRestoresTheCounts() {
+        roomAvailabilityRepository.insertMissingNights(roomTypeId, CHECK_IN, CHECK_OUT, INVENTORY);
+
+        List<Object[]> reserved = roomAvailabilityRepository.reserveNights(roomTypeId, CHECK_IN, CHECK_OUT, 3, 2);
+
+        assertThat(reserved).hasSize(3).allSatisfy(row -> assertThat(((Number) row[2]).intValue()).isEqualTo(2));
+        assertThat(reservedPerNight()).containsExactly(2, 2, 2);
+
+        List<Object[]> released = roomAvailabilityRepository.releaseNights(roomTypeId, CHECK_IN, CHECK_OUT, 2);
+
+        assertThat(released).hasSize(3).allSatisfy(row -> assertThat(((Number) row[2]).intValue()).isZero());
+        assertThat(reservedPerNight()).containsExactly(0, 0, 0);
+
+        roomAvailabilityRepository.releaseNights(roomTypeId, CHECK_IN, CHECK_OUT, 2);
+        assertThat(reservedPerNight()).containsExactly(0, 0, 0);
+    }
+
+    private List<Integer> reservedPerNight() {
+        return jdbcTemplate.queryForList("SELECT total_reserved FROM room_availability WHERE room_type_id = ? "
+            + "ORDER BY date", Integer.class, roomTypeId);
+    }
+}
@@ -0,0 +1,150 @@
+package com.pdh.hotel.service;
+
+import com.pdh.hotel.dto.response.RoomTypeResponseDto;
+import com.pdh.hotel.mapper.RoomTypeMapper;
+import com.pdh.hotel.model.Hotel;
+import com.pdh.hotel.model.HotelImage;
+import com.pdh.hotel.model.RoomType;
+import com.pdh.hotel.model.RoomTypeImage;
+import com.pdh.hotel.repository.HotelImageRepository;
+import com.pdh.hotel.repository.HotelRepository;
+import com.pdh.hotel.repository.RoomTypeImageRepository;
+import com.pdh.hotel.repository.RoomTypeRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.test.context.ContextConfiguration;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Statement counts for the batched media and room-type lookups: a page of hotels must cost a fixed
+ * number of queries regardless of its size, instead of one query per hotel or room type.
+ */
+@DataJpaTest(properties = {
+    "spring.liquibase.enabled=false",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = RoomTypeMediaQueryCountTest.Config.class)
+@Testcontainers(disabledWithoutDocker = true)
+class RoomTypeMediaQueryCountTest {
+
+    private static final int HOTELS = 10;
+    private static final int ROOM_TYPES_PER_HOTEL = 3;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.hotel.model")
+    @EnableJpaRepositories(basePackageClasses = RoomTypeRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = {
+            RoomTypeRepository.class, HotelImageRepository.class, RoomTypeImageRepository.class
+        }))
+    @Import({HotelMediaResolver.class, RoomTypeMapper.class})
+    static class Config {
+    }
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RoomTypeRepository roomTypeRepository;
+
+    @Autowired
+    private RoomTypeMapper roomTypeMapper;
+
+    @Autowired
+    private HotelMediaResolver hotelMediaResolver;
+
+    private final List<Long> hotelIds = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void createHotels() {
+        for (int h = 0; h < HOTELS; h++) {
+            Hotel hotel = new Hotel();
+            hotel.setName("Hotel " + h);
+            entityManager.persist(hotel);
+            hotelIds.add(hotel.getHotelId());
+
+            for (int i = 0; i < 2; i++) {
+                entityManager.persist(HotelImage.builder()
+                    .hotel(hotel).mediaId((long) (h * 10 + i)).url("https://img/hotel/" + h + "/" + i)
+                    .isPrimary(i == 0).build());
+            }
+            for (int r = 0; r < ROOM_TYPES_PER_HOTEL; r++) {
+                RoomType roomType = new RoomType();
+                roomType.setHotel(hotel);
+                roomType.setName("Room " + h + "-" + r);
+                roomType.setBasePrice(BigDecimal.valueOf(100));
+                entityManager.persist(roomType);
+
+                RoomTypeImage image = new RoomTypeImage();
+                image.setRoomType(roomType);
+                image.setMediaId((long) (h * 100 + r));
+                image.setUrl("https://img/room/" + h + "/" + r);
+                entityManager.persist(image);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void hotelMediaForAPageIsOneQueryThenCached() {
+        Map<Long, ?> media = hotelMediaResolver.getHotelMedia(hotelIds);
+
+        assertThat(media).hasSize(HOTELS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        hotelMediaResolver.getHotelMedia(hotelIds);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void roomTypesForAPageOfHotelsAreTwoQueries() {
+        RoomTypeService roomTypeService = new RoomTypeService(roomTypeRepository, mock(HotelRepository.class),
+            roomTypeMapper, mock(ImageService.class), mock(HotelInventoryService.class));
+
+        Map<Long, List<RoomTypeResponseDto>> roomTypes = roomTypeService.getRoomTypesByHotels(hotelIds);
+
+        assertThat(roomTypes).hasSize(HOTELS);
+        assertThat(roomTypes.values()).allSatisfy(list -> assertThat(list).hasSize(ROOM_TYPES_PER_HOTEL));
+        // one for the room types, one for all of their images
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+}
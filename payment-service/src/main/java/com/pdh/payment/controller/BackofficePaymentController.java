@@ -315,9 +315,12 @@ public class BackofficePaymentController {
     }
 
     /**
-     * Export payments to CSV
+     * Export payments to CSV, streamed as it is read. CSV is the only format; columnar output
+     * (e.g. Parquet) is not supported.
      */
-    @Operation(summary = "Export payments", description = "Export payments to CSV")
+    @Operation(summary = "Export payments",
+            description = "Export payments matching the list filters to CSV, streamed newest first. "
+                    + "CSV is the only supported format; columnar formats such as Parquet are not available.")
     @GetMapping("/payments/export")
     public void exportPayments(
             HttpServletResponse response,
@@ -338,7 +341,7 @@ public class BackofficePaymentController {
                     .dateTo(dateTo)
                     .build();
 
-            response.setContentType("text/csv");
+            response.setContentType("text/csv; charset=UTF-8");
             response.setHeader("Content-Disposition", "attachment; filename=\"payments.csv\"");
             
             backofficePaymentService.exportPayments(filters, response.getOutputStream());
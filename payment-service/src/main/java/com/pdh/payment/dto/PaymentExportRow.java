@@ -0,0 +1,26 @@
+package com.pdh.payment.dto;
+
+import com.pdh.payment.model.enums.PaymentMethodType;
+import com.pdh.payment.model.enums.PaymentProvider;
+import com.pdh.payment.model.enums.PaymentStatus;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/**
+ * Column projection of one payment for the backoffice export; only the exported columns are selected
+ */
+public record PaymentExportRow(UUID paymentId,
+                               String paymentReference,
+                               UUID bookingId,
+                               UUID userId,
+                               BigDecimal amount,
+                               String currency,
+                               PaymentStatus status,
+                               PaymentProvider provider,
+                               PaymentMethodType methodType,
+                               ZonedDateTime createdAt,
+                               ZonedDateTime confirmedAt,
+                               String description) {
+}
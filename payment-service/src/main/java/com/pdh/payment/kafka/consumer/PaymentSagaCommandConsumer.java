@@ -1,7 +1,8 @@
 package com.pdh.payment.kafka.consumer;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.pdh.common.saga.SagaCommand;
+import com.pdh.common.saga.SagaCommandCodec;
+import com.pdh.common.saga.SagaCommandDeduplicator;
 import com.pdh.payment.service.PaymentSagaCommandService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,31 +17,37 @@ import org.springframework.stereotype.Component;
 public class PaymentSagaCommandConsumer {
 
     private final PaymentSagaCommandService paymentSagaCommandService;
-    private final ObjectMapper objectMapper;
+    private final SagaCommandCodec sagaCommandCodec;
+    private final SagaCommandDeduplicator sagaCommandDeduplicator;
 
     @KafkaListener(
         topics = "payment-saga-commands",
         groupId = "payment-service-saga-group",
         containerFactory = "sagaCommandListenerContainerFactory"
     )
-    public void handleSagaCommand(@Payload String payload, Acknowledgment acknowledgment) {
+    public void handleSagaCommand(@Payload byte[] payload, Acknowledgment acknowledgment) {
+        SagaCommand command = null;
         try {
-            SagaCommand command = objectMapper.readValue(payload, SagaCommand.class);
+            command = sagaCommandCodec.decode(payload);
             if (command == null || command.getAction() == null) {
                 acknowledgment.acknowledge();
                 return;
             }
 
+            SagaCommand received = command;
             switch (command.getAction()) {
-                case "PROCESS_PAYMENT" -> paymentSagaCommandService.handleProcessPayment(command);
-                case "REFUND_PAYMENT" -> paymentSagaCommandService.handleRefundPayment(command);
-                case "CANCEL_PAYMENT" -> paymentSagaCommandService.handleCancelPayment(command);
+                case "PROCESS_PAYMENT" -> sagaCommandDeduplicator.executeOnce(received,
+                    () -> paymentSagaCommandService.handleProcessPayment(received));
+                case "REFUND_PAYMENT" -> sagaCommandDeduplicator.executeOnce(received,
+                    () -> paymentSagaCommandService.handleRefundPayment(received));
+                case "CANCEL_PAYMENT" -> sagaCommandDeduplicator.executeOnce(received,
+                    () -> paymentSagaCommandService.handleCancelPayment(received));
                 default -> log.debug("Ignoring saga action {}", command.getAction());
             }
 
             acknowledgment.acknowledge();
         } catch (Exception ex) {
-            log.error("Error processing payment saga command: {}", payload, ex);
+            log.error("Error processing payment saga command: {}", command, ex);
         }
     }
 }
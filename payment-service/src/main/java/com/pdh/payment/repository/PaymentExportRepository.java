@@ -0,0 +1,20 @@
+package com.pdh.payment.repository;
+
+import com.pdh.payment.dto.PaymentExportRow;
+import com.pdh.payment.model.Payment;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Streaming export queries, implemented with the JPA Criteria API in {@link PaymentExportRepositoryImpl}
+ */
+public interface PaymentExportRepository {
+
+    /**
+     * Stream matching payments newest first as export rows. Rows are fetched from a server-side cursor in
+     * batches and never enter the persistence context, so memory stays flat regardless of the row count.
+     * Must be consumed and closed inside a transaction.
+     */
+    Stream<PaymentExportRow> streamExportRows(Specification<Payment> specification);
+}
@@ -0,0 +1,58 @@
+package com.pdh.payment.repository;
+
+import com.pdh.payment.dto.PaymentExportRow;
+import com.pdh.payment.model.Payment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+public class PaymentExportRepositoryImpl implements PaymentExportRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${payment.export.fetch-size:1000}")
+    private int fetchSize;
+
+    @Override
+    public Stream<PaymentExportRow> streamExportRows(Specification<Payment> specification) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<PaymentExportRow> query = cb.createQuery(PaymentExportRow.class);
+        Root<Payment> root = query.from(Payment.class);
+
+        query.select(cb.construct(PaymentExportRow.class,
+                root.get("paymentId"),
+                root.get("paymentReference"),
+                root.get("bookingId"),
+                root.get("userId"),
+                root.get("amount"),
+                root.get("currency"),
+                root.get("status"),
+                root.get("provider"),
+                root.get("methodType"),
+                root.get("createdAt"),
+                root.get("confirmedAt"),
+                root.get("description")));
+
+        Predicate predicate = specification != null ? specification.toPredicate(root, query, cb) : null;
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(cb.desc(root.get("createdAt")), cb.desc(root.get("paymentId")));
+
+        // PostgreSQL only honours the fetch size (cursor-based fetching) inside a transaction
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+}
@@ -20,7 +20,8 @@ import java.util.UUID;
  * Payment Repository
  */
 @Repository
-public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment> {
+public interface PaymentRepository extends JpaRepository<Payment, UUID>, JpaSpecificationExecutor<Payment>,
+        PaymentExportRepository {
     
     /**
      * Find payment by reference
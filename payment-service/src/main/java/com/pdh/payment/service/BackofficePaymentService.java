@@ -21,10 +21,13 @@ import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -32,10 +35,12 @@ import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for backoffice payment operations
@@ -64,57 +69,7 @@ public class BackofficePaymentService {
             buildSort(filters.getSort(), filters.getDirection())
         );
 
-        Specification<Payment> spec = (root, query, cb) -> {
-            List<Predicate> predicates = new ArrayList<>();
-
-            if (filters.getSearch() != null && !filters.getSearch().isBlank()) {
-                String searchPattern = "%" + filters.getSearch().toLowerCase() + "%";
-                predicates.add(cb.or(
-                    cb.like(cb.lower(root.get("paymentReference")), searchPattern),
-                    cb.like(cb.lower(root.get("gatewayTransactionId")), searchPattern),
-                    cb.like(cb.lower(root.get("bookingId").as(String.class)), searchPattern)
-                ));
-            }
-            if (filters.getStatus() != null) {
-                predicates.add(cb.equal(root.get("status"), filters.getStatus()));
-            }
-            if (filters.getProvider() != null && !filters.getProvider().isBlank()) {
-                try {
-                    PaymentProvider providerEnum = PaymentProvider.valueOf(filters.getProvider().toUpperCase());
-                    predicates.add(cb.equal(root.get("provider"), providerEnum));
-                } catch (IllegalArgumentException e) {
-                    log.warn("Invalid payment provider filter: {}", filters.getProvider());
-                }
-            }
-            if (filters.getMethodType() != null && !filters.getMethodType().isBlank()) {
-                try {
-                    PaymentMethodType methodTypeEnum = PaymentMethodType.valueOf(filters.getMethodType().toUpperCase());
-                    predicates.add(cb.equal(root.get("methodType"), methodTypeEnum));
-                } catch (IllegalArgumentException e) {
-                    log.warn("Invalid payment method type filter: {}", filters.getMethodType());
-                }
-            }
-            if (filters.getBookingId() != null) {
-                predicates.add(cb.equal(root.get("bookingId"), filters.getBookingId()));
-            }
-            if (filters.getUserId() != null) {
-                predicates.add(cb.equal(root.get("userId"), filters.getUserId()));
-            }
-            if (filters.getDateFrom() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filters.getDateFrom().atStartOfDay(ZoneId.systemDefault())));
-            }
-            if (filters.getDateTo() != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filters.getDateTo().plusDays(1).atStartOfDay(ZoneId.systemDefault())));
-            }
-            if (filters.getAmountFrom() != null) {
-                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filters.getAmountFrom()));
-            }
-            if (filters.getAmountTo() != null) {
-                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filters.getAmountTo()));
-            }
-
-            return cb.and(predicates.toArray(new Predicate[0]));
-        };
+        Specification<Payment> spec = buildSpecification(filters);
 
         Page<Payment> paymentsPage = paymentRepository.findAll(spec, pageable);
 
@@ -425,47 +380,28 @@ public class BackofficePaymentService {
     }
 
     /**
-     * Export payments to CSV
+     * Export payments to CSV, streamed row by row from a database cursor straight to the output,
+     * so memory use does not grow with the number of exported payments
      */
     @Transactional(readOnly = true)
     public void exportPayments(PaymentFiltersDto filters, OutputStream outputStream) throws IOException {
         log.info("Exporting payments with filters: {}", filters);
 
-        // Get payments using simplified approach
-        List<Payment> payments;
-        if (filters.getStatus() != null) {
-            payments = paymentRepository.findByStatusOrderByCreatedAtDesc(filters.getStatus());
-        } else if (filters.getUserId() != null) {
-            Page<Payment> pagedPayments = paymentRepository.findByUserIdOrderByCreatedAtDesc(filters.getUserId(), Pageable.unpaged());
-            payments = pagedPayments.getContent();
-        } else if (filters.getBookingId() != null) {
-            payments = paymentRepository.findByBookingIdOrderByCreatedAtDesc(filters.getBookingId());
-        } else {
-            payments = paymentRepository.findAll();
-        }
-
-        try (PrintWriter writer = new PrintWriter(outputStream)) {
+        long rowCount = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), 64 * 1024);
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamExportRows(buildSpecification(filters))) {
             // CSV header
-            writer.println("Payment ID,Payment Reference,Booking ID,User ID,Amount,Currency,Status,Provider,Method Type,Created At,Confirmed At,Description");
+            writer.write("Payment ID,Payment Reference,Booking ID,User ID,Amount,Currency,Status,Provider,Method Type,Created At,Confirmed At,Description\n");
 
             // CSV data
-            for (Payment payment : payments) {
-                writer.printf("%s,%s,%s,%s,%.2f,%s,%s,%s,%s,%s,%s,\"%s\"%n",
-                        payment.getPaymentId(),
-                        payment.getPaymentReference(),
-                        payment.getBookingId(),
-                        payment.getUserId(),
-                        payment.getAmount(),
-                        payment.getCurrency(),
-                        payment.getStatus(),
-                        payment.getProvider(),
-                        payment.getMethodType(),
-                        payment.getCreatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
-                        payment.getConfirmedAt() != null ? payment.getConfirmedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "",
-                        payment.getDescription() != null ? payment.getDescription().replace("\"", "\"\"") : ""
-                );
+            Iterator<PaymentExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writeCsvRow(writer, iterator.next());
+                rowCount++;
             }
         }
+        writer.flush();
+        log.info("Exported {} payments", rowCount);
     }
 
     /**
@@ -534,6 +470,108 @@ public class BackofficePaymentService {
 
     // Private helper methods
 
+    /**
+     * Build payment filter specification shared by the list and export endpoints
+     */
+    private Specification<Payment> buildSpecification(PaymentFiltersDto filters) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filters.getSearch() != null && !filters.getSearch().isBlank()) {
+                String searchPattern = "%" + filters.getSearch().toLowerCase() + "%";
+                predicates.add(cb.or(
+                    cb.like(cb.lower(root.get("paymentReference")), searchPattern),
+                    cb.like(cb.lower(root.get("gatewayTransactionId")), searchPattern),
+                    cb.like(cb.lower(root.get("bookingId").as(String.class)), searchPattern)
+                ));
+            }
+            if (filters.getStatus() != null) {
+                predicates.add(cb.equal(root.get("status"), filters.getStatus()));
+            }
+            if (filters.getProvider() != null && !filters.getProvider().isBlank()) {
+                try {
+                    PaymentProvider providerEnum = PaymentProvider.valueOf(filters.getProvider().toUpperCase());
+                    predicates.add(cb.equal(root.get("provider"), providerEnum));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid payment provider filter: {}", filters.getProvider());
+                }
+            }
+            if (filters.getMethodType() != null && !filters.getMethodType().isBlank()) {
+                try {
+                    PaymentMethodType methodTypeEnum = PaymentMethodType.valueOf(filters.getMethodType().toUpperCase());
+                    predicates.add(cb.equal(root.get("methodType"), methodTypeEnum));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Invalid payment method type filter: {}", filters.getMethodType());
+                }
+            }
+            if (filters.getBookingId() != null) {
+                predicates.add(cb.equal(root.get("bookingId"), filters.getBookingId()));
+            }
+            if (filters.getUserId() != null) {
+                predicates.add(cb.equal(root.get("userId"), filters.getUserId()));
+            }
+            if (filters.getDateFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("createdAt"), filters.getDateFrom().atStartOfDay(ZoneId.systemDefault())));
+            }
+            if (filters.getDateTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("createdAt"), filters.getDateTo().plusDays(1).atStartOfDay(ZoneId.systemDefault())));
+            }
+            if (filters.getAmountFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("amount"), filters.getAmountFrom()));
+            }
+            if (filters.getAmountTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("amount"), filters.getAmountTo()));
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+
+    static void writeCsvRow(Writer writer, PaymentExportRow row) throws IOException {
+        writer.write(text(row.paymentId()));
+        writer.write(',');
+        writer.write(csvField(row.paymentReference()));
+        writer.write(',');
+        writer.write(text(row.bookingId()));
+        writer.write(',');
+        writer.write(text(row.userId()));
+        writer.write(',');
+        writer.write(row.amount() != null ? row.amount().setScale(2, java.math.RoundingMode.HALF_UP).toPlainString() : "");
+        writer.write(',');
+        writer.write(csvField(row.currency()));
+        writer.write(',');
+        writer.write(text(row.status()));
+        writer.write(',');
+        writer.write(text(row.provider()));
+        writer.write(',');
+        writer.write(text(row.methodType()));
+        writer.write(',');
+        writer.write(row.createdAt() != null ? row.createdAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
+        writer.write(',');
+        writer.write(row.confirmedAt() != null ? row.confirmedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME) : "");
+        writer.write(',');
+        writer.write('"');
+        writer.write(row.description() != null ? row.description().replace("\"", "\"\"") : "");
+        writer.write("\"\n");
+    }
+
+    /**
+     * Empty field for a missing value instead of the literal "null"
+     */
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
     private Sort buildSort(String sortField, String direction) {
         String field = sortField != null ? sortField : "createdAt";
         Sort.Direction dir = "asc".equalsIgnoreCase(direction) ? 
@@ -1,12 +1,13 @@
 package com.pdh.payment.service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.pdh.common.outbox.service.OutboxEventService;
+import com.pdh.common.outbox.service.AbstractOutboxEventService;
+import com.pdh.common.outbox.service.OutboxPartitionManager;
+import com.pdh.common.outbox.service.OutboxRelay;
 import com.pdh.payment.model.PaymentOutboxEvent;
 import com.pdh.payment.repository.PaymentOutboxEventRepository;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,37 +22,40 @@ import java.util.List;
  * Publishes events to payment_outbox_events table
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
-public class PaymentOutboxEventService implements OutboxEventService {
+public class PaymentOutboxEventService extends AbstractOutboxEventService<PaymentOutboxEvent> {
 
     private final PaymentOutboxEventRepository paymentOutboxEventRepository;
-    private final ObjectMapper objectMapper;
+    private final ObjectProvider<OutboxPartitionManager> outboxPartitionManager;
+    private final ObjectProvider<OutboxRelay> outboxRelay;
+
+    public PaymentOutboxEventService(PaymentOutboxEventRepository paymentOutboxEventRepository,
+                                     ObjectMapper objectMapper,
+                                     ObjectProvider<OutboxPartitionManager> outboxPartitionManager,
+                                     ObjectProvider<OutboxRelay> outboxRelay) {
+        super(paymentOutboxEventRepository, objectMapper);
+        this.paymentOutboxEventRepository = paymentOutboxEventRepository;
+        this.outboxPartitionManager = outboxPartitionManager;
+        this.outboxRelay = outboxRelay;
+    }
 
     @Override
-    @Transactional
-    public void publishEvent(String eventType, String aggregateType, String aggregateId, Object eventPayload) {
-        try {
-            String payload = objectMapper.writeValueAsString(eventPayload);
-
-            PaymentOutboxEvent event = PaymentOutboxEvent.createPaymentEvent(eventType, aggregateType, aggregateId, payload);
-            paymentOutboxEventRepository.save(event);
-
-            log.debug("Published payment event to outbox: eventType={}, aggregateType={}, aggregateId={}",
-                     eventType, aggregateType, aggregateId);
-
-        } catch (JsonProcessingException e) {
-            log.error("Error serializing event payload for eventType: {}, aggregateId: {}", eventType, aggregateId, e);
-            throw new RuntimeException("Failed to serialize event payload", e);
-        } catch (Exception e) {
-            log.error("Error publishing payment event to outbox: eventType={}, aggregateId={}", eventType, aggregateId, e);
-            throw new RuntimeException("Failed to publish event to outbox", e);
-        }
+    protected PaymentOutboxEvent createOutboxEvent(OutboxEventRequest request, String payload) {
+        return PaymentOutboxEvent.createPaymentEvent(
+            request.eventType(), request.aggregateType(), request.aggregateId(), payload);
     }
 
+    /**
+     * Not transactional: the relay claims and commits each batch in its own transaction, and the
+     * fallback path saves every event on its own
+     */
     @Override
-    @Transactional
     public void processUnprocessedEvents() {
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        if (relay != null) {
+            relay.relayPending();
+            return;
+        }
         List<PaymentOutboxEvent> pending = paymentOutboxEventRepository
             .findByProcessedFalseOrderByPriorityAscCreatedAtAsc();
 
@@ -67,8 +71,12 @@ public class PaymentOutboxEventService implements OutboxEventService {
     }
 
     @Override
-    @Transactional
     public void processRetryableEvents() {
+        OutboxRelay relay = outboxRelay.getIfAvailable();
+        if (relay != null) {
+            relay.relayRetryable();
+            return;
+        }
         List<PaymentOutboxEvent> retryable = paymentOutboxEventRepository
             .findEventsReadyForRetry(LocalDateTime.now());
 
@@ -86,6 +94,11 @@ public class PaymentOutboxEventService implements OutboxEventService {
     @Override
     @Transactional
     public void cleanupOldEvents() {
+        OutboxPartitionManager partitionManager = outboxPartitionManager.getIfAvailable();
+        if (partitionManager != null) {
+            partitionManager.maintain();
+            return;
+        }
         LocalDateTime cutoff = LocalDateTime.now().minusDays(7);
         try {
             paymentOutboxEventRepository.deleteByProcessedTrueAndCreatedAtBefore(cutoff);
@@ -111,7 +124,10 @@ public class PaymentOutboxEventService implements OutboxEventService {
     public OutboxStatistics getStatistics() {
         long unprocessed = paymentOutboxEventRepository.countUnprocessedEvents();
         long failed = paymentOutboxEventRepository.countFailedEvents();
-        return new OutboxStatistics(unprocessed, failed);
+        OutboxPartitionManager partitionManager = outboxPartitionManager.getIfAvailable();
+        return partitionManager != null
+            ? partitionManager.statistics(unprocessed, failed)
+            : new OutboxStatistics(unprocessed, failed);
     }
 
     private void processEvent(PaymentOutboxEvent event) {
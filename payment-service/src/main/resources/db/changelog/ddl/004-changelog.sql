@@ -0,0 +1,6 @@
+-- liquibase formatted sql
+
+-- changeset PhamDuyHuy:1760659200000-1
+-- Pooled sequence for outbox ids so Hibernate can batch outbox inserts; starts past existing identity values
+CREATE SEQUENCE IF NOT EXISTS outbox_event_id_seq INCREMENT BY 50;
+SELECT setval('outbox_event_id_seq', COALESCE((SELECT MAX(id) FROM payment_outbox_events), 0) + 51, false);
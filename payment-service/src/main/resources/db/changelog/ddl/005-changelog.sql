@@ -0,0 +1,34 @@
+-- liquibase formatted sql
+
+-- changeset PhamDuyHuy:1760745600000-1 splitStatements:false
+-- Range-partition the outbox by created_at: existing rows land in one legacy partition, daily partitions are created ahead and dropped after retention by OutboxPartitionManager.
+-- Unique keys must include the partition key, so the primary key becomes (id, created_at) and event_id uniqueness is dropped.
+DO $$
+DECLARE
+    legacy_upper TIMESTAMP := date_trunc('day', localtimestamp) + INTERVAL '1 day';
+BEGIN
+    ALTER TABLE payment_outbox_events RENAME TO payment_outbox_events_legacy;
+
+    CREATE TABLE payment_outbox_events (LIKE payment_outbox_events_legacy INCLUDING DEFAULTS) PARTITION BY RANGE (created_at);
+    EXECUTE format('CREATE TABLE payment_outbox_events_legacy_data PARTITION OF payment_outbox_events FOR VALUES FROM (MINVALUE) TO (%L)', legacy_upper);
+    CREATE TABLE payment_outbox_events_default PARTITION OF payment_outbox_events DEFAULT;
+
+    INSERT INTO payment_outbox_events SELECT * FROM payment_outbox_events_legacy;
+    DROP TABLE payment_outbox_events_legacy;
+END $$;
+
+ALTER TABLE payment_outbox_events
+    ADD CONSTRAINT pk_payment_outbox_events PRIMARY KEY (id, created_at);
+
+CREATE INDEX idx_payment_outbox_event_id ON payment_outbox_events (event_id);
+CREATE INDEX idx_payment_outbox_created_at ON payment_outbox_events (created_at);
+CREATE INDEX idx_payment_outbox_pending ON payment_outbox_events (processed, priority, created_at);
+
+-- changeset PhamDuyHuy:1760745600000-2 splitStatements:false
+-- Debezium publication that reports partition changes under the parent table name
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_publication WHERE pubname = 'payment_outbox_publication') THEN
+        CREATE PUBLICATION payment_outbox_publication FOR TABLE payment_outbox_events WITH (publish_via_partition_root = true);
+    END IF;
+END $$;
@@ -0,0 +1,7 @@
+-- liquibase formatted sql
+
+-- changeset PhamDuyHuy:1760918400000-1
+-- Partitioning dropped the identity on id and the unique constraint on event_id. Ids default to the pooled outbox sequence again, and event_id is unique per created_at, the closest key a partitioned table allows.
+ALTER TABLE payment_outbox_events ALTER COLUMN id SET DEFAULT nextval('outbox_event_id_seq');
+ALTER TABLE payment_outbox_events ADD CONSTRAINT uk_payment_outbox_events_event_id UNIQUE (event_id, created_at);
+DROP INDEX IF EXISTS idx_payment_outbox_event_id;
@@ -0,0 +1,49 @@
+package com.pdh.payment.service;
+
+import com.pdh.payment.dto.PaymentExportRow;
+import com.pdh.payment.model.enums.PaymentMethodType;
+import com.pdh.payment.model.enums.PaymentProvider;
+import com.pdh.payment.model.enums.PaymentStatus;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BackofficePaymentServiceExportTest {
+
+    private static final UUID PAYMENT_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID BOOKING_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000003");
+
+    @Test
+    void completeRowIsWrittenWithQuotedTextFields() throws IOException {
+        ZonedDateTime createdAt = ZonedDateTime.of(2026, 10, 17, 9, 30, 0, 0, ZoneOffset.UTC);
+
+        String line = write(new PaymentExportRow(PAYMENT_ID, "PAY,001", BOOKING_ID, USER_ID, new BigDecimal("1250.5"),
+            "VND", PaymentStatus.COMPLETED, PaymentProvider.STRIPE, PaymentMethodType.CREDIT_CARD,
+            createdAt, createdAt.plusMinutes(1), "Room \"Deluxe\""));
+
+        assertThat(line).isEqualTo(PAYMENT_ID + ",\"PAY,001\"," + BOOKING_ID + "," + USER_ID
+            + ",1250.50,VND,COMPLETED,STRIPE,CREDIT_CARD,2026-10-17T09:30:00,2026-10-17T09:31:00,\"Room \"\"Deluxe\"\"\"\n");
+    }
+
+    @Test
+    void missingValuesBecomeEmptyFields() throws IOException {
+        String line = write(new PaymentExportRow(PAYMENT_ID, null, null, null, null, null,
+            null, null, null, null, null, null));
+
+        assertThat(line).isEqualTo(PAYMENT_ID + ",,,,,,,,,,,\"\"\n");
+    }
+
+    private static String write(PaymentExportRow row) throws IOException {
+        StringWriter writer = new StringWriter();
+        BackofficePaymentService.writeCsvRow(writer, row);
+        return writer.toString();
+    }
+}
@@ -0,0 +1,154 @@
+package com.pdh.payment.service;
+
+import com.pdh.common.outbox.service.OutboxEventService;
+import com.pdh.payment.dto.PaymentFiltersDto;
+import com.pdh.payment.repository.PaymentMethodRepository;
+import com.pdh.payment.repository.PaymentRepository;
+import com.pdh.payment.repository.PaymentTransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Exports far more payments than the heap budget could hold as rows and checks that live heap stays
+ * within a fixed bound while the CSV is written. The output goes to a stream that only counts bytes and
+ * lines, so anything retained on the heap comes from the export itself.
+ */
+@Slf4j
+@DataJpaTest(properties = "spring.jpa.hibernate.ddl-auto=none")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ContextConfiguration(classes = PaymentExportMemoryTest.Config.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+class PaymentExportMemoryTest {
+
+    private static final int PAYMENTS = 300_000;
+    private static final int SAMPLE_EVERY_LINES = 50_000;
+    private static final long HEAP_BUDGET_BYTES = 32L * 1024 * 1024;
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17-alpine");
+
+    @Configuration
+    @EnableJpaAuditing
+    @EntityScan(basePackages = "com.pdh.payment.model")
+    @EnableJpaRepositories(basePackageClasses = PaymentRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = PaymentRepository.class))
+    static class Config {
+    }
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void createPayments() {
+        Integer existing = jdbcTemplate.queryForObject("SELECT count(*) FROM payments", Integer.class);
+        if (existing != null && existing >= PAYMENTS) {
+            return;
+        }
+        jdbcTemplate.update("""
+            INSERT INTO payments (payment_id, created_at, updated_at, is_deleted, payment_reference, booking_id,
+                                  user_id, saga_id, amount, currency, description, status, method_type, provider,
+                                  initiated_at, confirmed_at, retry_count, max_retries, is_refundable, is_flagged)
+            SELECT gen_random_uuid(), now() - make_interval(secs => i), now(), false, 'PAY-' || i,
+                   gen_random_uuid(), gen_random_uuid(), 'saga-' || i, 100000 + i, 'VND',
+                   CASE WHEN i % 10 = 0 THEN NULL ELSE 'Payment for booking, "room" ' || i END,
+                   CASE WHEN i % 3 = 0 THEN 'PENDING' ELSE 'COMPLETED' END, 'CREDIT_CARD', 'STRIPE',
+                   now() - make_interval(secs => i),
+                   CASE WHEN i % 3 = 0 THEN NULL ELSE now() - make_interval(secs => i) END,
+                   0, 3, true, false
+            FROM generate_series(1, ?) AS i""", PAYMENTS);
+        jdbcTemplate.execute("ANALYZE payments");
+    }
+
+    @Test
+    void exportKeepsLiveHeapWithinAFixedBudget() {
+        BackofficePaymentService service = new BackofficePaymentService(paymentRepository,
+            mock(PaymentTransactionRepository.class), mock(PaymentMethodRepository.class),
+            mock(PaymentService.class), mock(OutboxEventService.class));
+        CountingOutputStream output = new CountingOutputStream();
+
+        output.baseline = liveHeap();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            try {
+                service.exportPayments(new PaymentFiltersDto(), output);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        log.info("Exported {} payments as {} bytes; live heap grew by at most {} bytes",
+            PAYMENTS, output.bytes, output.peakGrowth);
+        assertThat(output.lines).isEqualTo(PAYMENTS + 1);
+        assertThat(output.bytes).isGreaterThan(HEAP_BUDGET_BYTES);
+        assertThat(output.peakGrowth).isLessThan(HEAP_BUDGET_BYTES);
+    }
+
+    private static long liveHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Discards the export while counting bytes and lines, sampling live heap every {@link #SAMPLE_EVERY_LINES} lines
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long baseline;
+        private long bytes;
+        private long lines;
+        private long peakGrowth;
+
+        @Override
+        public void write(int b) {
+            count((byte) b);
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            for (int i = offset; i < offset + length; i++) {
+                count(buffer[i]);
+            }
+        }
+
+        private void count(byte b) {
+            bytes++;
+            if (b == '\n' && ++lines % SAMPLE_EVERY_LINES == 0) {
+                peakGrowth = Math.max(peakGrowth, liveHeap() - baseline);
+            }
+        }
+    }
+}